@@ -0,0 +1,50 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+import static ru.practicum.shareit.util.constants.Constants.BATCH_PATH;
+
+/**
+ * processing HTTP-requests to "/batch" end-point to execute several requests of the client by one
+ */
+@Controller
+@RequiredArgsConstructor
+@Validated
+@RequestMapping(BATCH_PATH)
+@Slf4j
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+
+    /**
+     * processing POST-request to execute the batch of requests
+     * each request is validated and answered by its own end-point, so its errors don't fail the batch
+     *
+     * @param requests requests of the batch
+     * @param request  batch's request, its headers are passed to the requests of the batch
+     * @param response batch's response
+     * @return responses in order of the requests
+     */
+    @PostMapping
+    @ResponseBody
+    public List<BatchResponseDto> execute(@NotEmpty @RequestBody List<@Valid BatchRequestDto> requests,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response) {
+        log.info("Batch of {} requests", requests.size());
+        return batchDispatcher.dispatch(request, response, requests);
+    }
+}
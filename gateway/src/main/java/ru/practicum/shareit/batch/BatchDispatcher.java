@@ -0,0 +1,160 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.util.errors.ErrorResponse;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.constants.Constants.BATCH_PATH;
+import static ru.practicum.shareit.util.constants.Constants.EVENTS_PATH;
+import static ru.practicum.shareit.util.constants.Constants.EXPORT_PATH;
+
+/**
+ * executing requests of the batch by the gateway's DispatcherServlet, as if they were sent separately:
+ * each request goes through its controller's validation and error handling and its client's call of the server
+ * requests are executed concurrently by a shared pool, at most "concurrency" requests of a batch at a time
+ * streamed end-points (events, exports) and nested batches are not executed
+ */
+@Slf4j
+@Component
+public class BatchDispatcher {
+
+    private static final List<String> NOT_BATCHED_PATHS = List.of(BATCH_PATH, EVENTS_PATH, EXPORT_PATH);
+
+    private final DispatcherServlet dispatcherServlet;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int maxSize;
+    private final int concurrency;
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit.batch.max-size:20}") int maxSize,
+                           @Value("${shareit.batch.concurrency:4}") int concurrency,
+                           @Value("${shareit.batch.pool-size:32}") int poolSize,
+                           @Value("${shareit.batch.queue-capacity:1000}") int queueCapacity) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+        this.concurrency = concurrency;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "batch-" + threads.getAndIncrement()));
+    }
+
+    /**
+     * execute requests of the batch
+     * throws 400.BAD_REQUEST IllegalArgumentException if the batch is larger than allowed
+     *
+     * @param batchRequest  batch's request
+     * @param batchResponse batch's response, responses of the requests are buffered instead of being written to it
+     * @param requests      requests of the batch
+     * @return responses in order of the requests
+     */
+    public List<BatchResponseDto> dispatch(HttpServletRequest batchRequest, HttpServletResponse batchResponse,
+                                           List<BatchRequestDto> requests) {
+        if (requests.size() > maxSize) {
+            throw new IllegalArgumentException("Batch size must not exceed " + maxSize + ", got " + requests.size());
+        }
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<BatchResponseDto>> responses = new ArrayList<>();
+        for (BatchRequestDto request : requests) {
+            permits.acquireUninterruptibly();
+            try {
+                responses.add(CompletableFuture
+                        .supplyAsync(() -> execute(batchRequest, batchResponse, request, context), executor)
+                        .whenComplete((response, e) -> permits.release()));
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                responses.add(CompletableFuture.completedFuture(
+                        error(HttpStatus.SERVICE_UNAVAILABLE, "Batch queue is full")));
+            }
+        }
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * execute one request of the batch by the DispatcherServlet
+     *
+     * @param batchRequest  batch's request
+     * @param batchResponse batch's response
+     * @param request       request of the batch
+     * @param context       MDC of the batch's request
+     * @return response
+     */
+    private BatchResponseDto execute(HttpServletRequest batchRequest, HttpServletResponse batchResponse,
+                                     BatchRequestDto request, Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        }
+        try {
+            HttpMethod method = HttpMethod.resolve(request.getMethod().toUpperCase());
+            if (method == null) {
+                return error(HttpStatus.BAD_REQUEST, "Unknown method: " + request.getMethod());
+            }
+            if (NOT_BATCHED_PATHS.stream().anyMatch(path -> request.getPath().contains(path))) {
+                return error(HttpStatus.BAD_REQUEST, "Path is not allowed in batch: " + request.getPath());
+            }
+            byte[] body = request.getBody() == null ? null : objectMapper.writeValueAsBytes(request.getBody());
+            BatchSubRequest subRequest = new BatchSubRequest(batchRequest, method.name(), request.getPath(),
+                    request.getParams(), request.getHeaders(), body);
+            BatchSubResponse subResponse = new BatchSubResponse(batchResponse);
+            dispatcherServlet.service(subRequest, subResponse);
+            return new BatchResponseDto(subResponse.getStatus(), bodyOf(subResponse.getBody()));
+        } catch (Exception e) {
+            log.warn("Batch request {} {} failed", request.getMethod(), request.getPath(), e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Произошла непредвиденная ошибка: " + e.getMessage());
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private Object bodyOf(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private BatchResponseDto error(HttpStatus status, String message) {
+        return new BatchResponseDto(status.value(), new ErrorResponse(message));
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import java.util.Map;
+
+/**
+ * BatchRequest DTO model.
+ * one request of the batch: method, path of the gateway's end-point without query string,
+ * query parameters, headers added to the batch's ones and JSON body
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BatchRequestDto {
+    @NotBlank
+    private String method;
+    @NotBlank
+    @Pattern(regexp = "(/[\\w.\\-]+)+")
+    private String path;
+    private Map<String, String> params;
+    private Map<String, String> headers;
+    private JsonNode body;
+
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.*;
+
+/**
+ * BatchResponse DTO model.
+ * response to one request of the batch: status and JSON body (text if the body isn't JSON, null if empty)
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BatchResponseDto {
+    private int status;
+    private Object body;
+
+}
@@ -22,12 +22,15 @@ import static ru.practicum.shareit.util.constants.Constants.*;
 public class BookingClient extends BaseClient {
 
     @Autowired
-    public BookingClient(@Value(API_SERVER_URL) String serverUrl, RestTemplateBuilder restTemplateBuilder) {
+    public BookingClient(@Value(API_SERVER_URL) String serverUrl,
+                         @Value(API_SERVER_ENCODING) String serverEncoding,
+                         RestTemplateBuilder restTemplateBuilder) {
         super(
                 restTemplateBuilder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + BOOKINGS_PATH))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                serverEncoding
         );
     }
 
@@ -86,6 +89,22 @@ public class BookingClient extends BaseClient {
         return get(OWNER_PATH + constructPagingParametersPath(state, from, size), userId, parameters);
     }
 
+    /**
+     * create GET-request to get the owner's dashboard: number of bookings and the first page of them
+     * for each booking's state
+     *
+     * @param userId owner's id
+     * @param size   size of the first page
+     * @return GET-request
+     */
+    public ResponseEntity<Object> getSummaryByOwner(Long userId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                SIZE_PARAMETER_NAME, size
+        );
+        return get(OWNER_PATH + SUMMARY_PATH + "?" + constructParamPair(SIZE_PARAMETER_NAME, size), userId,
+                parameters);
+    }
+
     /**
      * create GET-request to get a booking' list for a specific booker by booking's state
      * with paging option: the size and the number of the page is defined by from/size parameters of request
@@ -6,8 +6,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.bookingstate.BookingState;
+import ru.practicum.shareit.booking.exportformat.ExportFormat;
 import ru.practicum.shareit.util.validation.Validation;
 
 
@@ -29,6 +32,8 @@ import static ru.practicum.shareit.util.constants.Constants.APPROVED_PARAM_NAME;
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final BookingEventClient bookingEventClient;
+    private final BookingExportClient bookingExportClient;
 
     /**
      * processing POST-request to add booking
@@ -45,6 +50,18 @@ public class BookingController {
         return bookingClient.bookItem(userId, bookingDto);
     }
 
+    /**
+     * processing a GET-request to subscribe to the changes of user's bookings as booker or owner
+     *
+     * @param userId user's id
+     * @return stream of changed bookings
+     */
+    @GetMapping(EVENTS_PATH)
+    public SseEmitter subscribe(@RequestHeader(HEADER_USER_ID) Long userId) {
+        log.info("Subscribe to bookings' events, userId={}", userId);
+        return bookingEventClient.subscribe(userId);
+    }
+
     /**
      * processing a GET-request to get a booking by id
      *
@@ -100,6 +117,40 @@ public class BookingController {
         return bookingClient.getBookingsByOwner(userId, state, from, size);
     }
 
+    /**
+     * processing a GET-request to get the owner's dashboard: number of bookings and the first page of them
+     * for each booking's state
+     *
+     * @param userId owner's id
+     * @param size   size of the first page
+     * @return summary by booking's state
+     */
+    @GetMapping(OWNER_PATH + SUMMARY_PATH)
+    public ResponseEntity<Object> getSummaryByOwner(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                    @Positive @RequestParam(name = SIZE_PARAMETER_NAME,
+                                                            defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        log.info("Get bookings' summary, ownerId={}, size={}", userId, size);
+        return bookingClient.getSummaryByOwner(userId, size);
+    }
+
+    /**
+     * processing a GET-request to export all bookings of the owner's items as a file
+     * the server's rows are relayed as they arrive
+     *
+     * @param userId      owner's id
+     * @param formatParam format of the rows: csv or ndjson (default: csv)
+     * @return streamed rows
+     */
+    @GetMapping(OWNER_PATH + EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                        @RequestParam(
+                                                                name = FORMAT_PARAMETER_NAME,
+                                                                defaultValue = CSV_DEFAULT_VALUE) String formatParam) {
+        ExportFormat format = Validation.getExportFormatIfValid(formatParam);
+        log.info("Export bookings, ownerId={}, format={}", userId, format);
+        return bookingExportClient.export(userId, format);
+    }
+
     /**
      * processing a GET request to get a booking' list for a specific booker by booking's state
      * with paging option: the size and the number of the page is defined by from/size parameters of request
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.util.balancer.ServerStreamRouter;
+import ru.practicum.shareit.util.exception.ServerResponseException;
+import ru.practicum.shareit.util.tracing.TraceIds;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * relaying the stream of bookings' changes from "/bookings/events" endpoint
+ * the server's stream is read without blocking, so idle subscriptions hold no threads
+ */
+@Slf4j
+@Service
+public class BookingEventClient {
+
+    private final HttpClient httpClient;
+    private final ServerStreamRouter serverStreamRouter;
+    private final long timeout;
+    private final Duration connectTimeout;
+
+    public BookingEventClient(ServerStreamRouter serverStreamRouter,
+                              @Value("${shareit.sse.timeout-ms:1800000}") long timeout,
+                              @Value("${shareit.sse.connect-timeout-ms:5000}") long connectTimeout) {
+        this.connectTimeout = Duration.ofMillis(connectTimeout);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(this.connectTimeout)
+                .build();
+        this.serverStreamRouter = serverStreamRouter;
+        this.timeout = timeout;
+    }
+
+    /**
+     * open the server's stream of the bookings' changes for user and relay it to the returned emitter
+     * throws ServerResponseException if server rejects subscription
+     *
+     * @param userId user's id
+     * @return emitter of the events' stream
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        EventRelay relay = new EventRelay(emitter);
+        emitter.onCompletion(relay::cancel);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> relay.cancel());
+
+        ServerStreamRouter.Route route = serverStreamRouter.route();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(route.getUrl() + BOOKINGS_PATH + EVENTS_PATH))
+                .header(HEADER_USER_ID, String.valueOf(userId))
+                .header(TRACE_ID_HEADER, TraceIds.orNew(TraceIds.current()))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE)
+                .GET()
+                .build();
+
+        CompletableFuture<Integer> status = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> response = httpClient.sendAsync(request, info -> {
+            status.complete(info.statusCode());
+            return info.statusCode() == HttpStatus.OK.value()
+                    ? HttpResponse.BodySubscribers.fromLineSubscriber(relay, r -> null, StandardCharsets.UTF_8, null)
+                    : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        });
+        response.whenComplete((r, e) -> {
+            if (e != null) {
+                status.completeExceptionally(e);
+            }
+        });
+
+        int statusCode;
+        try {
+            statusCode = await(status);
+        } catch (IllegalStateException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                route.failed();
+            }
+            throw e;
+        }
+        route.answered(statusCode);
+        if (statusCode != HttpStatus.OK.value()) {
+            throw new ServerResponseException(statusCode, await(response).body());
+        }
+        return emitter;
+    }
+
+    /**
+     * wait for the server's response headers or error body, which are sent right away
+     */
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(connectTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Subscription is interrupted", e);
+        } catch (ExecutionException | TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("shareit-server events stream is unavailable: " + e, e);
+        }
+    }
+
+    /**
+     * line-by-line relay of the server-sent events
+     * lines are requested one at a time, so a slow client slows down reading of the server's stream
+     */
+    static class EventRelay implements Flow.Subscriber<String> {
+
+        private final SseEmitter emitter;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        private String name;
+        private String id;
+        private StringBuilder data;
+
+        EventRelay(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                accept(line);
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Client has left the bookings' events stream: {}", e.getMessage());
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!cancelled) {
+                log.info("Bookings' events stream is broken: {}", throwable.getMessage());
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        /**
+         * collect event's fields until the blank line, which ends the event
+         */
+        void accept(String line) throws IOException {
+            if (line.isEmpty()) {
+                dispatch();
+            } else if (line.startsWith(":")) {
+                emitter.send(SseEmitter.event().comment(line.substring(1)));
+            } else if (line.startsWith("event:")) {
+                name = value(line);
+            } else if (line.startsWith("id:")) {
+                id = value(line);
+            } else if (line.startsWith("data:")) {
+                if (data == null) {
+                    data = new StringBuilder(value(line));
+                } else {
+                    data.append('\n').append(value(line));
+                }
+            }
+        }
+
+        private void dispatch() throws IOException {
+            if (data != null) {
+                SseEmitter.SseEventBuilder event = SseEmitter.event();
+                if (name != null) {
+                    event.name(name);
+                }
+                if (id != null) {
+                    event.id(id);
+                }
+                emitter.send(event.data(data.toString(), MediaType.APPLICATION_JSON));
+            }
+            name = null;
+            id = null;
+            data = null;
+        }
+
+        private static String value(String line) {
+            String value = line.substring(line.indexOf(':') + 1);
+            return value.startsWith(" ") ? value.substring(1) : value;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.exportformat.ExportFormat;
+import ru.practicum.shareit.util.balancer.ServerStreamRouter;
+import ru.practicum.shareit.util.exception.ServerResponseException;
+import ru.practicum.shareit.util.tracing.TraceIds;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * relaying the owner's bookings' export from "/bookings/owner/export" endpoint
+ * the server's response is copied to the client as it is read, the gateway doesn't buffer it
+ */
+@Slf4j
+@Service
+public class BookingExportClient {
+
+    private final HttpClient httpClient;
+    private final ServerStreamRouter serverStreamRouter;
+
+    public BookingExportClient(ServerStreamRouter serverStreamRouter,
+                               @Value("${shareit.export.connect-timeout-ms:5000}") long connectTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .build();
+        this.serverStreamRouter = serverStreamRouter;
+    }
+
+    /**
+     * open the server's export of the owner's bookings
+     * throws ServerResponseException if server rejects the export
+     *
+     * @param userId owner's id
+     * @param format format of the rows
+     * @return response with the headers of the server's response and the body copying its stream
+     */
+    public ResponseEntity<StreamingResponseBody> export(Long userId, ExportFormat format) {
+        ServerStreamRouter.Route route = serverStreamRouter.route();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(route.getUrl() + BOOKINGS_PATH + OWNER_PATH
+                        + EXPORT_PATH + "?" + FORMAT_PARAMETER_NAME + "=" + format.name()))
+                .header(HEADER_USER_ID, String.valueOf(userId))
+                .header(TRACE_ID_HEADER, TraceIds.orNew(TraceIds.current()))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = send(request);
+        } catch (IllegalStateException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                route.failed();
+            }
+            throw e;
+        }
+        route.answered(response.statusCode());
+        if (response.statusCode() != HttpStatus.OK.value()) {
+            try (InputStream body = response.body()) {
+                throw new ServerResponseException(response.statusCode(),
+                        new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException("shareit-server export is unavailable: " + e, e);
+            }
+        }
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                .ifPresent(value -> headers.set(HttpHeaders.CONTENT_TYPE, value));
+        response.headers().firstValue(HttpHeaders.CONTENT_DISPOSITION)
+                .ifPresent(value -> headers.set(HttpHeaders.CONTENT_DISPOSITION, value));
+        StreamingResponseBody body = out -> {
+            try (InputStream in = response.body()) {
+                in.transferTo(out);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private HttpResponse<InputStream> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export is interrupted", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("shareit-server export is unavailable: " + e, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.exportformat;
+
+/**
+ * Enumeration of valid formats of the bookings' export.
+ */
+public enum ExportFormat {
+    /**
+     * CSV - comma-separated values with a header row
+     */
+    CSV,
+    /**
+     * NDJSON - one JSON object per line
+     */
+    NDJSON
+}
@@ -4,15 +4,22 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.itemranking.ItemRanking;
+import ru.practicum.shareit.util.cache.ResponseCache;
 import ru.practicum.shareit.util.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.util.constants.Constants.*;
 
@@ -21,14 +28,27 @@ import static ru.practicum.shareit.util.constants.Constants.*;
  */
 @Service
 public class ItemClient extends BaseClient {
+    /**
+     * names of the cached routes
+     */
+    private static final String ITEM_ROUTE = "item";
+    private static final String SEARCH_ROUTE = "search";
+
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value(API_SERVER_URL) String serverUrl, RestTemplateBuilder restTemplateBuilder) {
+    public ItemClient(@Value(API_SERVER_URL) String serverUrl,
+                      @Value(API_SERVER_ENCODING) String serverEncoding,
+                      RestTemplateBuilder restTemplateBuilder,
+                      ResponseCache responseCache) {
         super(
                 restTemplateBuilder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + ITEMS_PATH))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                serverEncoding
         );
+        this.responseCache = responseCache;
     }
 
     /**
@@ -39,11 +59,13 @@ public class ItemClient extends BaseClient {
      * @return POST-request
      */
     public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+        responseCache.invalidate(SEARCH_ROUTE, key -> true);
         return post(EMPTY_PATH, userId, itemDto);
     }
 
     /**
      * create GET-request to get item by id
+     * view of the item depends on the user, so it is cached for each user and fieldset separately
      *
      * @param userId user's id
      * @param itemId item's id
@@ -51,7 +73,36 @@ public class ItemClient extends BaseClient {
      */
 
     public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get(SLASH_PATH + itemId, userId);
+        return responseCache.get(ITEM_ROUTE, itemKey(itemId) + userId + fieldsKey(),
+                currentRequestHeader(HttpHeaders.IF_NONE_MATCH),
+                eTag -> get(SLASH_PATH + itemId, userId, null, eTag));
+    }
+
+    /**
+     * create GET-request to get items by the list of ids
+     *
+     * @param userId  user's id
+     * @param itemIds items' ids
+     * @return GET-request
+     */
+    public ResponseEntity<Object> getItemsByIds(Long userId, List<Long> itemIds) {
+        Map<String, Object> parameters = Map.of(
+                IDS_PARAMETER_NAME, itemIds.stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(","))
+        );
+        return get("?" + IDS_PARAMETER_NAME + "={" + IDS_PARAMETER_NAME + "}", userId, parameters);
+    }
+
+    /**
+     * create POST-request to get items by the list of ids too long for the query string
+     *
+     * @param userId  user's id
+     * @param itemIds items' ids
+     * @return POST-request
+     */
+    public ResponseEntity<Object> lookupItems(Long userId, List<Long> itemIds) {
+        return post(LOOKUP_PATH, userId, itemIds);
     }
 
     /**
@@ -63,6 +114,7 @@ public class ItemClient extends BaseClient {
      * @return PATCH-request
      */
     public ResponseEntity<Object> updateItem(Long userId, ItemDto itemDto, Long itemId) {
+        invalidateItem(itemId);
         return patch(SLASH_PATH + itemId, userId, itemDto);
     }
 
@@ -72,6 +124,7 @@ public class ItemClient extends BaseClient {
      * @param itemId item's id
      */
     public void deleteItemById(Long itemId) {
+        invalidateItem(itemId);
         delete(SLASH_PATH + itemId);
     }
 
@@ -88,6 +141,8 @@ public class ItemClient extends BaseClient {
 
     /**
      * create GET-request to search all available items, contained substring in name or description
+     * search is case-insensitive and doesn't depend on the user, so it is cached by the lower-cased text
+     * and the fieldset
      *
      * @param substring substring for search
      * @return GET-request
@@ -97,7 +152,25 @@ public class ItemClient extends BaseClient {
         Map<String, Object> parameters = Map.of(
                 TEXT_PARAMETER_NAME, substring
         );
-        return get(SEARCH_PATH + constructSearchParametersPath(substring), parameters);
+        return responseCache.get(SEARCH_ROUTE, substring.toLowerCase(Locale.ROOT) + fieldsKey(),
+                currentRequestHeader(HttpHeaders.IF_NONE_MATCH),
+                eTag -> get(SEARCH_PATH + constructSearchParametersPath(substring), null, parameters, eTag));
+    }
+
+    /**
+     * create GET-request to get items with the greatest number of bookings, approved bookings or comments
+     *
+     * @param ranking counter to rank items by
+     * @param size    number of items
+     * @return GET-request
+     */
+    public ResponseEntity<Object> getTop(ItemRanking ranking, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                RANKING_PARAMETER_NAME, ranking.name(),
+                SIZE_PARAMETER_NAME, size
+        );
+        return get(TOP_PATH + "?" + constructParamPair(RANKING_PARAMETER_NAME, ranking)
+                + "&" + constructParamPair(SIZE_PARAMETER_NAME, size), parameters);
     }
 
     /**
@@ -110,9 +183,59 @@ public class ItemClient extends BaseClient {
      */
 
     public ResponseEntity<Object> addComment(CommentDto commentDto, Long userId, Long itemId) {
+        responseCache.invalidate(ITEM_ROUTE, key -> key.startsWith(itemKey(itemId)));
         return post(SLASH_PATH + itemId + COMMENT_PATH, userId, commentDto);
     }
 
+    /**
+     * create GET-request to get page of the item's comments
+     *
+     * @param itemId item's id
+     * @param cursor id of the last comment of the previous page or null for the first page
+     * @param size   size of the page
+     * @return GET-request
+     */
+    public ResponseEntity<Object> getComments(Long itemId, Long cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(SIZE_PARAMETER_NAME, size);
+        String path = SLASH_PATH + itemId + COMMENTS_PATH + "?" + constructParamPair(SIZE_PARAMETER_NAME, size);
+        if (cursor != null) {
+            parameters.put(CURSOR_PARAMETER_NAME, cursor);
+            path += "&" + constructParamPair(CURSOR_PARAMETER_NAME, cursor);
+        }
+        return get(path, parameters);
+    }
+
+    /**
+     * remove cached views and searches which may contain the item
+     *
+     * @param itemId item's id
+     */
+    private void invalidateItem(Long itemId) {
+        responseCache.invalidate(ITEM_ROUTE, key -> key.startsWith(itemKey(itemId)));
+        responseCache.invalidate(SEARCH_ROUTE, key -> true);
+    }
+
+    /**
+     * prefix of the cache keys of the item's views
+     *
+     * @param itemId item's id
+     * @return key's prefix
+     */
+    private String itemKey(Long itemId) {
+        return itemId + ":";
+    }
+
+    /**
+     * suffix of the cache keys of the sparse fieldset chosen by the client
+     *
+     * @return key's suffix or empty string for all properties
+     */
+    private String fieldsKey() {
+        String fields = requestedFields();
+        return fields.isEmpty() ? "" : "?" + FIELDS_PARAMETER_NAME + "=" + fields;
+    }
+
     /**
      * construct path with parameters for GET-request
      *
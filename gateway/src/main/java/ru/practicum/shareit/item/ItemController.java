@@ -8,9 +8,16 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.itemranking.ItemRanking;
 import ru.practicum.shareit.util.groups.Create;
+import ru.practicum.shareit.util.validation.Validation;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.util.constants.Constants.*;
 
@@ -54,6 +61,36 @@ public class ItemController {
         return itemClient.getItemById(userId, itemId);
     }
 
+    /**
+     * processing GET-request to get items by the list of ids
+     *
+     * @param userId  user's id
+     * @param itemIds comma-separated items' ids
+     * @return items in order of the ids and ids of the items which don't exist
+     */
+    @GetMapping(params = IDS_PARAMETER_NAME)
+    public ResponseEntity<Object> getByIds(@RequestHeader(HEADER_USER_ID) Long userId,
+                                           @NotEmpty @Size(max = MAX_LOOKUP_IDS)
+                                           @RequestParam(IDS_PARAMETER_NAME) List<@NotNull Long> itemIds) {
+        log.info("User {} requests items by ids: {}", userId, itemIds);
+        return itemClient.getItemsByIds(userId, itemIds);
+    }
+
+    /**
+     * processing POST-request to get items by the list of ids too long for the query string
+     *
+     * @param userId  user's id
+     * @param itemIds items' ids
+     * @return items in order of the ids and ids of the items which don't exist
+     */
+    @PostMapping(LOOKUP_PATH)
+    public ResponseEntity<Object> lookup(@RequestHeader(HEADER_USER_ID) Long userId,
+                                         @NotEmpty @Size(max = MAX_LOOKUP_IDS)
+                                         @RequestBody List<@NotNull Long> itemIds) {
+        log.info("User {} requests {} items by ids", userId, itemIds.size());
+        return itemClient.lookupItems(userId, itemIds);
+    }
+
     /**
      * processing PATCH-request to update item's properties
      *
@@ -106,6 +143,23 @@ public class ItemController {
         return itemClient.searchItemsBySubstring(substring);
     }
 
+    /**
+     * processing GET-request to get items with the greatest number of bookings, approved bookings or comments
+     *
+     * @param rankingParam counter to rank items by (default: bookings)
+     * @param size         number of items
+     * @return list of items with their counters
+     */
+    @GetMapping(TOP_PATH)
+    public ResponseEntity<Object> getTop(@RequestParam(name = RANKING_PARAMETER_NAME,
+                                                 defaultValue = BOOKINGS_DEFAULT_VALUE) String rankingParam,
+                                         @Positive @RequestParam(name = SIZE_PARAMETER_NAME,
+                                                 defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        ItemRanking ranking = Validation.getItemRankingIfValid(rankingParam);
+        log.info("Get top items by {}, size={}", ranking, size);
+        return itemClient.getTop(ranking, size);
+    }
+
     /**
      * processing POST-request to add comment to a specific item
      *
@@ -122,4 +176,22 @@ public class ItemController {
         log.info("User {} added comment: {} about the item with id {}", userId, commentDto, itemId);
         return itemClient.addComment(commentDto, userId, itemId);
     }
+
+    /**
+     * processing GET-request to get page of the item's comments, the newest first
+     *
+     * @param itemId item's id
+     * @param cursor id of the last comment of the previous page (absent for the first page)
+     * @param size   size of the page
+     * @return comments and cursor of the next page
+     */
+    @GetMapping(COMMENTS_PATH_VARIABLE)
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @Positive @RequestParam(name = CURSOR_PARAMETER_NAME,
+                                                      required = false) Long cursor,
+                                              @Positive @RequestParam(name = SIZE_PARAMETER_NAME,
+                                                      defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        log.info("Get comments of the item with id {}, cursor={}, size={}", itemId, cursor, size);
+        return itemClient.getComments(itemId, cursor, size);
+    }
 }
\ No newline at end of file
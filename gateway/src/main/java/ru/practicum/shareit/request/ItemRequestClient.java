@@ -20,12 +20,15 @@ import static ru.practicum.shareit.util.constants.Constants.*;
 @Service
 public class ItemRequestClient extends BaseClient {
     @Autowired
-    public ItemRequestClient(@Value(API_SERVER_URL) String serverUrl, RestTemplateBuilder restTemplateBuilder) {
+    public ItemRequestClient(@Value(API_SERVER_URL) String serverUrl,
+                             @Value(API_SERVER_ENCODING) String serverEncoding,
+                             RestTemplateBuilder restTemplateBuilder) {
         super(
                 restTemplateBuilder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + REQUESTS_PATH))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                serverEncoding
         );
     }
 
@@ -71,6 +74,25 @@ public class ItemRequestClient extends BaseClient {
         return get(ALL_PATH, userId, parameters);
     }
 
+    /**
+     * create GET-request from a specific owner to get list of the other users' items requests
+     * matching the owner's items
+     * with paging option: the size and the number of the page is defined by from/size parameters of request
+     *
+     * @param userId owner's id
+     * @param from   first index of the match at the page
+     * @param size   size of the page
+     * @return GET-request
+     */
+
+    public ResponseEntity<Object> getMatches(Long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                FROM_PARAMETER_NAME, from,
+                SIZE_PARAMETER_NAME, size
+        );
+        return get(MATCHES_PATH + "?from={from}&size={size}", userId, parameters);
+    }
+
     /**
      * processing GET-request to get item's request by id
      *
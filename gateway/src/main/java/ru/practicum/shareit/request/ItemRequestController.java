@@ -75,6 +75,28 @@ public class ItemRequestController {
         return itemRequestClient.getOtherUsersRequests(userId, from, size);
     }
 
+    /**
+     * processing GET-request from a specific owner to get list of the other users' items requests
+     * matching the owner's items
+     * with paging option: the size and the number of the page is defined by from/size parameters of request
+     *
+     * @param userId owner's id
+     * @param from   first index of the match at the page
+     * @param size   size of the page
+     * @return list of the matching requests
+     */
+    @GetMapping(MATCHES_PATH)
+    public ResponseEntity<Object> getMatches(@RequestHeader(HEADER_USER_ID) Long userId,
+                                             @PositiveOrZero @RequestParam(
+                                                     name = FROM_PARAMETER_NAME,
+                                                     defaultValue = ZERO_DEFAULT_VALUE) Integer from,
+                                             @Positive @RequestParam(
+                                                     name = SIZE_PARAMETER_NAME,
+                                                     defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        log.info("User {} get matching requests, from {}, size {}", userId, from, size);
+        return itemRequestClient.getMatches(userId, from, size);
+    }
+
     /**
      * processing GET-request to get item's request by id
      *
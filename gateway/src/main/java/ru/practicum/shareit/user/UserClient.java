@@ -18,12 +18,15 @@ import static ru.practicum.shareit.util.constants.Constants.*;
 @Service
 public class UserClient extends BaseClient {
     @Autowired
-    public UserClient(@Value(API_SERVER_URL) String serverUrl, RestTemplateBuilder restTemplateBuilder) {
+    public UserClient(@Value(API_SERVER_URL) String serverUrl,
+                      @Value(API_SERVER_ENCODING) String serverEncoding,
+                      RestTemplateBuilder restTemplateBuilder) {
         super(
                 restTemplateBuilder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + USERS_PATH))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                serverEncoding
         );
     }
 
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.util.balancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * actuator endpoint /actuator/servers with the state of the server's instances
+ */
+@Endpoint(id = "servers")
+@RequiredArgsConstructor
+public class ServerBalancerEndpoint {
+
+    private final ServerLoadBalancer serverLoadBalancer;
+
+    /**
+     * get the state of the server's instances
+     *
+     * @return instances with their requests in progress, ejection and latency
+     */
+    @ReadOperation
+    public List<ServerEndpointDto> servers() {
+        return serverLoadBalancer.getEndpoints();
+    }
+}
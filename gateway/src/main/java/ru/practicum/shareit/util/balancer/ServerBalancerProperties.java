@@ -0,0 +1,42 @@
+package ru.practicum.shareit.util.balancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * settings of the client-side load balancing over the server's instances
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.balancer")
+public class ServerBalancerProperties {
+
+    /**
+     * whether requests to shareit-server.url are spread over the instances
+     */
+    private boolean enabled = false;
+    /**
+     * base URLs of the server's instances
+     */
+    private List<String> urls = new ArrayList<>();
+    /**
+     * number of failures in a row (no response, 502, 503, 504) after which the instance is ejected
+     */
+    private int consecutiveFailures = 5;
+    /**
+     * time of the first ejection, each next ejection in a row lasts one more such time
+     */
+    private long baseEjectionMs = 30000;
+    /**
+     * maximum time of the ejection
+     */
+    private long maxEjectionMs = 300000;
+    /**
+     * maximum share of the instances ejected at a time, percents
+     */
+    private int maxEjectionPercent = 50;
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.util.balancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * instance of the server: its requests in progress, failures in a row, ejection and latency
+ * ejection is changed by ServerLoadBalancer under its lock, the counters are changed by the requests
+ */
+public class ServerEndpoint {
+
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private final Timer successes;
+    private final Timer failures;
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+
+    ServerEndpoint(String url, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.url = url;
+        this.successes = timer(meterRegistry, url, "success");
+        this.failures = timer(meterRegistry, url, "failure");
+        Gauge.builder("shareit.gateway.server.outstanding", outstanding, AtomicInteger::get)
+                .tag("endpoint", url)
+                .description("requests to the server's instance in progress")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.server.ejected", this,
+                        endpoint -> endpoint.isEjected(clock.getAsLong()) ? 1 : 0)
+                .tag("endpoint", url)
+                .description("whether the server's instance is ejected")
+                .register(meterRegistry);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @param now current time, nanoseconds
+     * @return whether the instance gets no requests now
+     */
+    boolean isEjected(long now) {
+        return ejected && now - ejectedUntil < 0;
+    }
+
+    int getEjections() {
+        return ejections.get();
+    }
+
+    void started() {
+        outstanding.incrementAndGet();
+    }
+
+    void succeeded(long nanos) {
+        outstanding.decrementAndGet();
+        consecutiveFailures.set(0);
+        ejections.set(0);
+        successes.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param nanos time of the request
+     * @return number of failures in a row
+     */
+    int failed(long nanos) {
+        outstanding.decrementAndGet();
+        failures.record(nanos, TimeUnit.NANOSECONDS);
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void eject(long until) {
+        ejectedUntil = until;
+        ejected = true;
+        ejections.incrementAndGet();
+        consecutiveFailures.set(0);
+    }
+
+    ServerEndpointDto toDto(long now) {
+        long requests = successes.count() + failures.count();
+        double totalMs = successes.totalTime(TimeUnit.MILLISECONDS) + failures.totalTime(TimeUnit.MILLISECONDS);
+        return ServerEndpointDto.builder()
+                .url(url)
+                .outstanding(outstanding.get())
+                .consecutiveFailures(consecutiveFailures.get())
+                .ejected(isEjected(now))
+                .ejections(ejections.get())
+                .requests(requests)
+                .meanMs(requests == 0 ? 0 : totalMs / requests)
+                .maxMs(Math.max(successes.max(TimeUnit.MILLISECONDS), failures.max(TimeUnit.MILLISECONDS)))
+                .build();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String url, String outcome) {
+        return Timer.builder("shareit.gateway.server.requests")
+                .tag("endpoint", url)
+                .tag("outcome", outcome)
+                .description("requests to the server's instance")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.util.balancer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * state of the server's instance
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ServerEndpointDto {
+    private String url;
+    private int outstanding;
+    private int consecutiveFailures;
+    private boolean ejected;
+    private int ejections;
+    private long requests;
+    private double meanMs;
+    private double maxMs;
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.util.balancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * choosing the server's instance for each request: of two random instances the one with fewer requests
+ * in progress is chosen (power of two choices), requests need no affinity since the instances share their state;
+ * the instances failing in a row are ejected for a while (passive health check), no more than the allowed share
+ * of them at a time; when all of them are ejected, all of them are chosen from
+ */
+@Slf4j
+public class ServerLoadBalancer {
+
+    private static final List<HttpStatus> FAILURE_STATUSES =
+            List.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+
+    private final List<ServerEndpoint> endpoints;
+    private final ServerBalancerProperties properties;
+    private final LongSupplier clock;
+
+    public ServerLoadBalancer(ServerBalancerProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ServerLoadBalancer(ServerBalancerProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (properties.getUrls().isEmpty()) {
+            throw new IllegalStateException("shareit.balancer.urls must list the server's instances");
+        }
+        this.endpoints = properties.getUrls().stream()
+                .map(url -> new ServerEndpoint(url.replaceAll("/+$", ""), meterRegistry, clock))
+                .collect(Collectors.toList());
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * choose the instance for the request and count the request in progress
+     *
+     * @return instance
+     */
+    public ServerEndpoint choose() {
+        long now = clock.getAsLong();
+        List<ServerEndpoint> available = endpoints.stream()
+                .filter(endpoint -> !endpoint.isEjected(now))
+                .collect(Collectors.toList());
+        if (available.isEmpty()) {
+            available = endpoints;
+        }
+        ServerEndpoint chosen = available.get(0);
+        if (available.size() > 1) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(available.size());
+            int second = random.nextInt(available.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            chosen = available.get(first);
+            if (available.get(second).getOutstanding() < chosen.getOutstanding()) {
+                chosen = available.get(second);
+            }
+        }
+        chosen.started();
+        return chosen;
+    }
+
+    /**
+     * @return current time for measuring the request, nanoseconds
+     */
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * the instance has answered with the status: 502, 503 and 504 are its failures, other statuses are its successes
+     *
+     * @param endpoint instance
+     * @param started  time the request was started
+     * @param status   status of the response
+     */
+    public void answered(ServerEndpoint endpoint, long started, int status) {
+        if (FAILURE_STATUSES.stream().anyMatch(failure -> failure.value() == status)) {
+            failed(endpoint, started);
+        } else {
+            succeeded(endpoint, started);
+        }
+    }
+
+    /**
+     * the instance has answered
+     *
+     * @param endpoint instance
+     * @param started  time the request was started
+     */
+    public void succeeded(ServerEndpoint endpoint, long started) {
+        endpoint.succeeded(clock.getAsLong() - started);
+    }
+
+    /**
+     * the instance has not answered or answered it can't serve the request; eject it if it fails in a row
+     *
+     * @param endpoint instance
+     * @param started  time the request was started
+     */
+    public void failed(ServerEndpoint endpoint, long started) {
+        long now = clock.getAsLong();
+        if (endpoint.failed(now - started) < properties.getConsecutiveFailures()) {
+            return;
+        }
+        synchronized (this) {
+            if (endpoint.isEjected(now)) {
+                return;
+            }
+            long ejected = endpoints.stream()
+                    .filter(other -> other.isEjected(now))
+                    .count();
+            if ((ejected + 1) * 100 > (long) properties.getMaxEjectionPercent() * endpoints.size()) {
+                return;
+            }
+            long ejectionMs = Math.min(properties.getBaseEjectionMs() * (endpoint.getEjections() + 1),
+                    properties.getMaxEjectionMs());
+            endpoint.eject(now + TimeUnit.MILLISECONDS.toNanos(ejectionMs));
+            log.warn("Server instance {} is ejected for {} ms after {} failures in a row",
+                    endpoint.getUrl(), ejectionMs, properties.getConsecutiveFailures());
+        }
+    }
+
+    /**
+     * @return states of the instances
+     */
+    public List<ServerEndpointDto> getEndpoints() {
+        long now = clock.getAsLong();
+        return endpoints.stream()
+                .map(endpoint -> endpoint.toDto(now))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.util.balancer;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * sending the clients' requests to shareit-server.url to the instances chosen by ServerLoadBalancer
+ * no response and 502, 503, 504 responses are the instance's failures, other responses are its successes
+ */
+public class ServerLoadBalancingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String serverUrl;
+    private final ServerLoadBalancer balancer;
+
+    public ServerLoadBalancingInterceptor(String serverUrl, ServerLoadBalancer balancer) {
+        this.serverUrl = serverUrl.replaceAll("/+$", "");
+        this.balancer = balancer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String uri = request.getURI().toString();
+        if (!isServerUri(uri)) {
+            return execution.execute(request, body);
+        }
+        ServerEndpoint endpoint = balancer.choose();
+        URI target = URI.create(endpoint.getUrl() + uri.substring(serverUrl.length()));
+        long started = balancer.now();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return target;
+                }
+            }, body);
+        } catch (IOException | RuntimeException e) {
+            balancer.failed(endpoint, started);
+            throw e;
+        }
+        balancer.answered(endpoint, started, rawStatusCode(response));
+        return response;
+    }
+
+    private boolean isServerUri(String uri) {
+        if (!uri.startsWith(serverUrl)) {
+            return false;
+        }
+        return uri.length() == serverUrl.length() || "/?#".indexOf(uri.charAt(serverUrl.length())) >= 0;
+    }
+
+    private static int rawStatusCode(ClientHttpResponse response) {
+        try {
+            return response.getRawStatusCode();
+        } catch (IOException e) {
+            return HttpStatus.BAD_GATEWAY.value();
+        }
+    }
+}
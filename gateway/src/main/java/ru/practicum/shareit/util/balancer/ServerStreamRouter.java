@@ -0,0 +1,83 @@
+package ru.practicum.shareit.util.balancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import static ru.practicum.shareit.util.constants.Constants.API_SERVER_URL;
+
+/**
+ * choosing the server's instance for the streamed requests (events, exports), which are sent by HttpClient
+ * instead of the clients' RestTemplates; with "balancer" profile the instance is chosen by ServerLoadBalancer,
+ * otherwise the requests are sent to shareit-server.url
+ */
+@Component
+public class ServerStreamRouter {
+
+    private final String serverUrl;
+    private final ServerLoadBalancer balancer;
+
+    public ServerStreamRouter(@Value(API_SERVER_URL) String serverUrl, ObjectProvider<ServerLoadBalancer> balancer) {
+        this.serverUrl = serverUrl.replaceAll("/+$", "");
+        this.balancer = balancer.getIfAvailable();
+    }
+
+    /**
+     * choose the instance for the request and count the request in progress until it is answered
+     *
+     * @return route of the request
+     */
+    public Route route() {
+        if (balancer == null) {
+            return new Route(serverUrl, null, null, 0);
+        }
+        ServerEndpoint endpoint = balancer.choose();
+        return new Route(endpoint.getUrl(), balancer, endpoint, balancer.now());
+    }
+
+    /**
+     * instance chosen for the request
+     * the stream is answered once the response headers are received, its reading isn't counted
+     */
+    public static class Route {
+        private final String url;
+        private final ServerLoadBalancer balancer;
+        private final ServerEndpoint endpoint;
+        private final long started;
+
+        Route(String url, @Nullable ServerLoadBalancer balancer, @Nullable ServerEndpoint endpoint, long started) {
+            this.url = url;
+            this.balancer = balancer;
+            this.endpoint = endpoint;
+            this.started = started;
+        }
+
+        /**
+         * @return URL of the instance
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * the instance has answered with the response headers
+         *
+         * @param status status of the response
+         */
+        public void answered(int status) {
+            if (balancer != null) {
+                balancer.answered(endpoint, started, status);
+            }
+        }
+
+        /**
+         * the instance has not answered
+         */
+        public void failed() {
+            if (balancer != null) {
+                balancer.failed(endpoint, started);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.util.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * cache of shareit-server responses in the gateway
+ * each route has its own size-bounded LRU map with time to live;
+ * expired responses having ETag may be revalidated by a conditional request
+ */
+@Component
+public class ResponseCache {
+
+    private final Map<String, RouteCache> routes = new HashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        properties.getRoutes().forEach((name, route) -> {
+            if (route.isEnabled()) {
+                routes.put(name, new RouteCache(name, route, meterRegistry));
+            }
+        });
+    }
+
+    /**
+     * get response from the cache or from shareit-server
+     * only successful responses are cached; the client that already has the response's ETag gets 304 without body
+     *
+     * @param route       route's name
+     * @param key         key of the response within the route
+     * @param ifNoneMatch client's If-None-Match header or null
+     * @param loader      request to shareit-server, gets ETag for conditional request or null
+     * @return response
+     */
+    public ResponseEntity<Object> get(String route, String key, @Nullable String ifNoneMatch,
+                                      Function<String, ResponseEntity<Object>> loader) {
+        RouteCache cache = routes.get(route);
+        if (cache == null) {
+            return loader.apply(null);
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(key);
+        if (entry != null && entry.expires > now) {
+            cache.hits.increment();
+            return conditional(entry.response, ifNoneMatch);
+        }
+
+        String eTag = entry != null && cache.settings.isRevalidate() ? entry.response.getHeaders().getETag() : null;
+        ResponseEntity<Object> response = loader.apply(eTag);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            if (eTag != null && eTag.equals(response.getHeaders().getETag())) {
+                cache.revalidations.increment();
+                cache.put(key, new Entry(entry.response, now + cache.settings.getTtlMs()));
+                return conditional(entry.response, ifNoneMatch);
+            }
+            // only the client's tag is still current, the gateway has no body to cache
+            cache.misses.increment();
+            cache.remove(key);
+            return response;
+        }
+
+        cache.misses.increment();
+        if (response.getStatusCode() == HttpStatus.OK) {
+            cache.put(key, new Entry(response, now + cache.settings.getTtlMs()));
+        } else {
+            cache.remove(key);
+        }
+        return conditional(response, ifNoneMatch);
+    }
+
+    /**
+     * remove cached responses of the route with matching keys
+     *
+     * @param route route's name
+     * @param keys  predicate to select keys to remove
+     */
+    public void invalidate(String route, Predicate<String> keys) {
+        RouteCache cache = routes.get(route);
+        if (cache != null) {
+            cache.removeIf(keys);
+        }
+    }
+
+    /**
+     * answer 304.NOT_MODIFIED without body if the client's If-None-Match has the response's ETag
+     */
+    private static ResponseEntity<Object> conditional(ResponseEntity<Object> response, @Nullable String ifNoneMatch) {
+        String eTag = response.getHeaders().getETag();
+        if (ifNoneMatch == null || eTag == null || response.getStatusCode() != HttpStatus.OK) {
+            return response;
+        }
+        HttpHeaders conditions = new HttpHeaders();
+        conditions.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        String opaqueTag = withoutWeakPrefix(eTag);
+        boolean matches = conditions.getIfNoneMatch().stream()
+                .anyMatch(tag -> tag.equals("*") || withoutWeakPrefix(tag).equals(opaqueTag));
+        return matches ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build() : response;
+    }
+
+    private static String withoutWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * cached response with its expiration time
+     */
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final long expires;
+
+        private Entry(ResponseEntity<Object> response, long expires) {
+            this.response = response;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * LRU map of one route with its metrics
+     */
+    private static class RouteCache {
+        private final ResponseCacheProperties.Route settings;
+        private final LinkedHashMap<String, Entry> entries;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter revalidations;
+
+        private RouteCache(String name, ResponseCacheProperties.Route settings, MeterRegistry meterRegistry) {
+            this.settings = settings;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > settings.getMaxEntries();
+                }
+            };
+            this.hits = requests(meterRegistry, name, "hit");
+            this.misses = requests(meterRegistry, name, "miss");
+            this.revalidations = requests(meterRegistry, name, "revalidated");
+            Gauge.builder("shareit.gateway.cache.size", this, RouteCache::size)
+                    .tag("route", name)
+                    .description("Number of cached responses")
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.cache.hit.ratio", this, RouteCache::hitRatio)
+                    .tag("route", name)
+                    .description("Share of requests answered without transferring response from shareit-server")
+                    .register(meterRegistry);
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String route, String result) {
+            return Counter.builder("shareit.gateway.cache.requests")
+                    .tag("route", route)
+                    .tag("result", result)
+                    .description("Requests to the gateway response cache")
+                    .register(meterRegistry);
+        }
+
+        private synchronized Entry get(String key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(String key, Entry entry) {
+            entries.put(key, entry);
+        }
+
+        private synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        private synchronized void removeIf(Predicate<String> keys) {
+            entries.keySet().removeIf(keys);
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private double hitRatio() {
+            double answered = hits.count() + revalidations.count();
+            double total = answered + misses.count();
+            return total == 0 ? 0 : answered / total;
+        }
+    }
+}
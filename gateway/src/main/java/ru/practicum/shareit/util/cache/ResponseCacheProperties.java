@@ -0,0 +1,42 @@
+package ru.practicum.shareit.util.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * settings of the gateway response cache, separate for each cached route
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.cache")
+public class ResponseCacheProperties {
+
+    /**
+     * settings by route's name, routes without settings are not cached
+     */
+    private Map<String, Route> routes = new HashMap<>();
+
+    @Data
+    public static class Route {
+        /**
+         * whether responses of the route are cached
+         */
+        private boolean enabled = true;
+        /**
+         * maximum number of cached responses, least recently used are evicted
+         */
+        private int maxEntries = 1000;
+        /**
+         * time during which cached response is returned without asking shareit-server
+         */
+        private long ttlMs = 5000;
+        /**
+         * whether expired response is revalidated with its ETag instead of being fetched again
+         */
+        private boolean revalidate = false;
+    }
+}
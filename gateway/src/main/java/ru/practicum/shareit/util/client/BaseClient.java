@@ -1,20 +1,58 @@
 package ru.practicum.shareit.util.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.util.validation.Validation;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
 
+import static ru.practicum.shareit.util.constants.Constants.APPLICATION_SMILE_VALUE;
+import static ru.practicum.shareit.util.constants.Constants.FIELDS_PARAMETER_NAME;
 import static ru.practicum.shareit.util.constants.Constants.HEADER_USER_ID;
+import static ru.practicum.shareit.util.constants.Constants.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.util.constants.Constants.PROFILE_PARAMETER_NAME;
+import static ru.practicum.shareit.util.constants.Constants.SMILE_ENCODING;
+import static ru.practicum.shareit.util.constants.Constants.VIEW_PARAMETER_NAME;
 
 public class BaseClient {
+    /**
+     * headers of the client's request passed to shareit-server as is
+     */
+    private static final List<String> FORWARDED_HEADERS = List.of(IDEMPOTENCY_KEY_HEADER, HttpHeaders.IF_NONE_MATCH);
+    private static final Pattern PROFILE_PATTERN = Pattern.compile("[A-Za-z0-9-]{1,32}");
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+    /**
+     * reader of the server's binary error bodies, which are passed to the client as JSON
+     */
+    private static final ObjectMapper SMILE_READER = new ObjectMapper(new SmileFactory());
+
     protected final RestTemplate rest;
+    /**
+     * Smile (binary JSON) requests and responses instead of JSON ones, the client is answered with JSON anyway
+     */
+    private final boolean smile;
 
-    public BaseClient(RestTemplate rest) {
+    /**
+     * @param rest           client's RestTemplate
+     * @param serverEncoding encoding of the bodies between the gateway and the server: "smile" or "json";
+     *                       the server that can't write Smile answers with JSON, which the gateway accepts too
+     */
+    public BaseClient(RestTemplate rest, String serverEncoding) {
         this.rest = rest;
+        this.smile = SMILE_ENCODING.equalsIgnoreCase(serverEncoding);
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -33,6 +71,21 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null);
     }
 
+    /**
+     * conditional GET-request, shareit-server answers 304.NOT_MODIFIED if the response still has the entity tag
+     * or the tag of the client's If-None-Match, which is passed along with the gateway's one
+     *
+     * @param path       path
+     * @param userId     user's id
+     * @param parameters uri variables
+     * @param eTag       entity tag of the response the gateway has or null for unconditional request
+     * @return response
+     */
+    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                         @Nullable String eTag) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, eTag);
+    }
+
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
@@ -88,7 +141,29 @@ public class BaseClient {
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                           @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, parameters, body, null);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                          @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                          @Nullable String eTag) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (eTag != null) {
+            List<String> tags = new ArrayList<>(headers.getIfNoneMatch());
+            if (!tags.contains(eTag)) {
+                tags.add(eTag);
+            }
+            headers.setIfNoneMatch(tags);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        String fields = requestedFields();
+        if (!fields.isEmpty()) {
+            path = path + (path.contains("?") ? "&" : "?")
+                    + FIELDS_PARAMETER_NAME + "={" + FIELDS_PARAMETER_NAME + "}";
+            parameters = parameters == null ? new HashMap<>() : new HashMap<>(parameters);
+            parameters.put(FIELDS_PARAMETER_NAME, fields);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -98,28 +173,145 @@ public class BaseClient {
                 shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode()).body(errorBody(e));
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        MediaType accepted = acceptedMediaType();
+        if (smile) {
+            headers.setContentType(APPLICATION_SMILE);
+            headers.setAccept(List.of(new MediaType(APPLICATION_SMILE, accepted.getParameters()), accepted));
+        } else {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setAccept(List.of(accepted));
+        }
         if (userId != null) {
             headers.set(HEADER_USER_ID, String.valueOf(userId));
         }
+        for (String name : FORWARDED_HEADERS) {
+            String value = currentRequestHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * sparse fieldset chosen by the client ("fields" parameter), passed to shareit-server
+     * throws 400.BAD_REQUEST IllegalArgumentException if the list is malformed
+     *
+     * @return comma-separated names of the properties or empty string for all properties
+     */
+    protected static String requestedFields() {
+        String fields = currentRequestParameter(FIELDS_PARAMETER_NAME);
+        if (fields == null || fields.isBlank()) {
+            return "";
+        }
+        return Validation.getFieldsIfValid(fields);
+    }
+
+    /**
+     * JSON in the view chosen by the client: "view" parameter or the profile of Accept header
+     * (application/json;profile=compact), passed to shareit-server as the profile
+     *
+     * @return accepted media type
+     */
+    private static MediaType acceptedMediaType() {
+        String profile = currentRequestParameter(VIEW_PARAMETER_NAME);
+        if (profile == null) {
+            profile = profileOf(currentRequestHeader(HttpHeaders.ACCEPT));
+        }
+        if (profile == null || !PROFILE_PATTERN.matcher(profile).matches()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return new MediaType(MediaType.APPLICATION_JSON, Map.of(PROFILE_PARAMETER_NAME, profile));
+    }
+
+    private static String profileOf(String accept) {
+        if (accept == null || !accept.contains(PROFILE_PARAMETER_NAME)) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .filter(MediaType.APPLICATION_JSON::isCompatibleWith)
+                    .map(type -> type.getParameter(PROFILE_PARAMETER_NAME))
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .map(profile -> profile.replace("\"", ""))
+                    .orElse(null);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * get parameter of the client's request being processed
+     *
+     * @param name parameter's name
+     * @return parameter's value or null if there is no such parameter or no request
+     */
+    private static String currentRequestParameter(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getParameter(name);
         }
+        return null;
+    }
 
+    /**
+     * get header of the client's request being processed, to pass it to shareit-server
+     *
+     * @param name header's name
+     * @return header's value or null if there is no such header or no request
+     */
+    protected static String currentRequestHeader(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getHeader(name);
+        }
+        return null;
+    }
+
+    /**
+     * body of the server's error response: Smile body is decoded to be written to the client as JSON,
+     * other bodies are passed as they are
+     *
+     * @param e server's error response
+     * @return body
+     */
+    private static Object errorBody(HttpStatusCodeException e) {
+        HttpHeaders headers = e.getResponseHeaders();
+        byte[] body = e.getResponseBodyAsByteArray();
+        if (headers == null || body.length == 0 || !APPLICATION_SMILE.isCompatibleWith(headers.getContentType())) {
+            return body;
+        }
+        try {
+            return SMILE_READER.readValue(body, Object.class);
+        } catch (IOException ex) {
+            return body;
+        }
+    }
+
+    /**
+     * response to the client: status, body and entity tag of the server's response,
+     * other server's headers (Content-Type: application/x-jackson-smile among them) aren't passed,
+     * so the body is written by the gateway's converters as JSON
+     *
+     * @param response server's response
+     * @return response
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
+        if ((response.getStatusCode().is2xxSuccessful() || response.getStatusCode() == HttpStatus.NOT_MODIFIED)
+                && response.getHeaders().getETag() != null) {
+            responseBuilder.eTag(response.getHeaders().getETag());
+        }
+
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
         }
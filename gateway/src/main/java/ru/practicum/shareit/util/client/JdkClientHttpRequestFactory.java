@@ -0,0 +1,165 @@
+package ru.practicum.shareit.util.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * RestTemplate's requests sent by the JDK HttpClient, which speaks HTTP/2 over cleartext (h2c) with the server:
+ * the connection is upgraded by the first request and multiplexes the concurrent requests as streams
+ * responses are asked to be compressed (gzip, deflate) and are decompressed before they are read
+ */
+public class JdkClientHttpRequestFactory implements ClientHttpRequestFactory {
+    /**
+     * headers set by the HttpClient itself
+     */
+    private static final List<String> RESTRICTED_HEADERS = List.of(HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.EXPECT, HttpHeaders.HOST, HttpHeaders.UPGRADE);
+    private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    public JdkClientHttpRequestFactory(HttpClient httpClient, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new JdkClientHttpRequest(uri, httpMethod);
+    }
+
+    /**
+     * request with the body buffered in memory, sent on execution
+     */
+    private class JdkClientHttpRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        JdkClientHttpRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .method(method.name(), body.size() == 0
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+            headers.forEach((name, values) -> {
+                if (RESTRICTED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    values.forEach(value -> request.header(name, value));
+                }
+            });
+            if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                request.header(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+            }
+            try {
+                return new JdkClientHttpResponse(httpClient.send(request.build(),
+                        HttpResponse.BodyHandlers.ofInputStream()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Request to " + uri + " is interrupted");
+            }
+        }
+    }
+
+    /**
+     * response with the body decompressed as its Content-Encoding says
+     */
+    private static class JdkClientHttpResponse extends AbstractClientHttpResponse {
+        private final HttpResponse<InputStream> response;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final String encoding;
+        private InputStream body;
+
+        JdkClientHttpResponse(HttpResponse<InputStream> response) {
+            this.response = response;
+            response.headers().map().forEach(headers::addAll);
+            String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            if ("gzip".equalsIgnoreCase(contentEncoding) || "deflate".equalsIgnoreCase(contentEncoding)) {
+                encoding = contentEncoding.toLowerCase(Locale.ROOT);
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            } else {
+                encoding = null;
+            }
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public String getStatusText() {
+            return "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                if ("gzip".equals(encoding)) {
+                    body = new GZIPInputStream(response.body());
+                } else if ("deflate".equals(encoding)) {
+                    body = new InflaterInputStream(response.body());
+                } else {
+                    body = response.body();
+                }
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                (body == null ? response.body() : body).close();
+            } catch (IOException ignored) {
+                // the stream of the exchange is released anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.util.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP/2 over cleartext (h2c) to the server, activated by "h2c" profile (the server's profile too)
+ * the clients share one JDK HttpClient instead of their own HTTP/1.1 connections: its connection to the server
+ * is upgraded by the first request and carries the concurrent requests as streams;
+ * it replaces the pooled HTTP/1.1 client of the virtual-thread mode as well
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.h2c.enabled", havingValue = "true")
+public class H2cConfig {
+
+    /**
+     * HTTP client shared by the clients
+     *
+     * @param connectTimeout time to connect to the server
+     * @return HTTP client
+     */
+    @Bean
+    public HttpClient h2cHttpClient(@Value("${shareit-server.h2c.connect-timeout-ms:5000}") long connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .build();
+    }
+
+    /**
+     * replace the clients' own HTTP clients with the shared one
+     *
+     * @param h2cHttpClient  shared HTTP client
+     * @param requestTimeout time to wait for the server's response
+     * @return RestTemplate customizer
+     */
+    @Bean
+    public RestTemplateCustomizer h2cHttpClientCustomizer(
+            HttpClient h2cHttpClient,
+            @Value("${shareit-server.h2c.request-timeout-ms:30000}") long requestTimeout) {
+        JdkClientHttpRequestFactory requestFactory =
+                new JdkClientHttpRequestFactory(h2cHttpClient, Duration.ofMillis(requestTimeout));
+        log.info("Requests to the server are sent over h2c");
+        return restTemplate -> restTemplate.setRequestFactory(requestFactory);
+    }
+}
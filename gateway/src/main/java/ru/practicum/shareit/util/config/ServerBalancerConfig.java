@@ -0,0 +1,48 @@
+package ru.practicum.shareit.util.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.balancer.ServerBalancerEndpoint;
+import ru.practicum.shareit.util.balancer.ServerBalancerProperties;
+import ru.practicum.shareit.util.balancer.ServerLoadBalancer;
+import ru.practicum.shareit.util.balancer.ServerLoadBalancingInterceptor;
+
+import static ru.practicum.shareit.util.constants.Constants.API_SERVER_URL;
+
+/**
+ * client-side load balancing over the server's instances, activated by "balancer" profile
+ * the clients' requests to shareit-server.url are sent to the instances listed in shareit.balancer.urls;
+ * streamed requests (events, exports) are sent to the instances chosen by ServerStreamRouter
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.balancer.enabled", havingValue = "true")
+public class ServerBalancerConfig {
+
+    @Bean
+    public ServerLoadBalancer serverLoadBalancer(ServerBalancerProperties properties, MeterRegistry meterRegistry) {
+        return new ServerLoadBalancer(properties, meterRegistry);
+    }
+
+    /**
+     * add the balancing to the clients' RestTemplates
+     *
+     * @param serverUrl          URL the clients' requests are sent to
+     * @param serverLoadBalancer balancer
+     * @return RestTemplate customizer
+     */
+    @Bean
+    public RestTemplateCustomizer serverLoadBalancingCustomizer(@Value(API_SERVER_URL) String serverUrl,
+                                                                ServerLoadBalancer serverLoadBalancer) {
+        return restTemplate -> restTemplate.getInterceptors()
+                .add(new ServerLoadBalancingInterceptor(serverUrl, serverLoadBalancer));
+    }
+
+    @Bean
+    public ServerBalancerEndpoint serverBalancerEndpoint(ServerLoadBalancer serverLoadBalancer) {
+        return new ServerBalancerEndpoint(serverLoadBalancer);
+    }
+}
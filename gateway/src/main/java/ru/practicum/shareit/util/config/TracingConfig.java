@@ -0,0 +1,29 @@
+package ru.practicum.shareit.util.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.tracing.RouteTimingInterceptor;
+import ru.practicum.shareit.util.tracing.TraceIdInterceptor;
+
+/**
+ * trace ids and route timers of the clients' requests to the server
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * pass the trace id to the server and time the requests by the gateway's route
+     *
+     * @param meterRegistry registry of the timers
+     * @return RestTemplate customizer
+     */
+    @Bean
+    public RestTemplateCustomizer tracingCustomizer(MeterRegistry meterRegistry) {
+        return restTemplate -> {
+            restTemplate.getInterceptors().add(new RouteTimingInterceptor(meterRegistry));
+            restTemplate.getInterceptors().add(new TraceIdInterceptor());
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.util.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.util.threads.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread mode, activated by "virtual-threads" profile on Java 21
+ * Tomcat handles each request, including its blocking calls to the server, in a new virtual thread
+ * the clients share one pooled HTTP client: its pool waits on locks, not monitors, so waiting threads don't pin
+ * their carriers, and it has enough connections for the virtual threads (unless h2c is used, see H2cConfig)
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /**
+     * Tomcat executor starting a virtual thread for each request
+     *
+     * @return Tomcat customizer
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-");
+        log.info("Requests are handled by virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * HTTP client shared by the clients
+     *
+     * @param maxConnections           number of the connections to the server
+     * @param connectionRequestTimeout time to wait for a free connection
+     * @return HTTP client
+     */
+    @ConditionalOnProperty(name = "shareit-server.h2c.enabled", havingValue = "false", matchIfMissing = true)
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pooledHttpClient(
+            @Value("${shareit.http-client.max-connections:200}") int maxConnections,
+            @Value("${shareit.http-client.connection-request-timeout-ms:5000}") int connectionRequestTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(connectionRequestTimeout)
+                        .build())
+                .build();
+    }
+
+    /**
+     * replace the clients' own HTTP clients with the shared one
+     *
+     * @param pooledHttpClient shared HTTP client
+     * @return RestTemplate customizer
+     */
+    @ConditionalOnProperty(name = "shareit-server.h2c.enabled", havingValue = "false", matchIfMissing = true)
+    @Bean
+    public RestTemplateCustomizer pooledHttpClientCustomizer(CloseableHttpClient pooledHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+        return restTemplate -> restTemplate.setRequestFactory(requestFactory);
+    }
+}
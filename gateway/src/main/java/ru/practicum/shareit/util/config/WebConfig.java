@@ -0,0 +1,64 @@
+package ru.practicum.shareit.util.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring MVC settings
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final long exportTimeout;
+
+    public WebConfig(@Value("${shareit.export.timeout-ms:3600000}") long exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * streamed responses (exports) are relayed until the server's stream ends,
+     * so they get their own timeout instead of the default one of the async requests
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                ((AsyncWebRequest) request).setTimeout(exportTimeout);
+            }
+        });
+    }
+
+    /**
+     * Smile (binary JSON) converter of the clients' RestTemplates, see BaseClient
+     * the mapper is built as the application's JSON one, with the same modules and settings
+     *
+     * @param builder builder of the application's ObjectMapper
+     * @return Smile converter replacing the default one
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Smile is the encoding between the gateway and the server only, the gateway's clients are answered with JSON
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+    }
+}
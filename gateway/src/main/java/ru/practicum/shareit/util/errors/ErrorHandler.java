@@ -1,11 +1,14 @@
 package ru.practicum.shareit.util.errors;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.util.exception.IncorrectTimeException;
+import ru.practicum.shareit.util.exception.ServerResponseException;
 
 import javax.validation.ConstraintViolationException;
 
@@ -41,6 +44,18 @@ public class ErrorHandler {
     }
 
 
+    /**
+     * Pass shareit-server's error response to the client
+     *
+     * @param e Exception
+     * @return server's response
+     */
+    @ExceptionHandler({ServerResponseException.class})
+    public ResponseEntity<Object> handleServerResponse(final ServerResponseException e) {
+        return ResponseEntity.status(e.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(e.getBody());
+    }
 
     /**
      * Handle all unknown errors
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception - shareit-server responded with error, the response is passed to the client as is
+ */
+@Getter
+public class ServerResponseException extends RuntimeException {
+
+    private final int status;
+    private final String body;
+
+    public ServerResponseException(int status, String body) {
+        super("shareit-server responded with status " + status);
+        this.status = status;
+        this.body = body;
+    }
+
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.util.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads of Java 21 reached by reflection, so that the module is still built and run on Java 11
+ * the gateway and the server share no module, so each has this class; the copies are kept identical
+ */
+public class VirtualThreads {
+
+    /**
+     * check if the running JDK has virtual threads
+     *
+     * @return true if virtual threads are available
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * get factory of the named virtual threads
+     * throws IllegalStateException if the running JDK has no virtual threads
+     *
+     * @param prefix thread name prefix, threads are numbered from 0
+     * @return thread factory
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                 | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads require Java 21, running Java "
+                    + Runtime.version().feature(), e);
+        }
+    }
+
+    /**
+     * get executor starting a new virtual thread for each task
+     * throws IllegalStateException if the running JDK has no virtual threads
+     *
+     * @param prefix thread name prefix, threads are numbered from 0
+     * @return executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory threadFactory = threadFactory(prefix);
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads require Java 21, running Java "
+                    + Runtime.version().feature(), e);
+        }
+    }
+}
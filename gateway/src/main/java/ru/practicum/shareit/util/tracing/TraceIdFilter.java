@@ -0,0 +1,53 @@
+package ru.practicum.shareit.util.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_HEADER;
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_MDC_KEY;
+
+/**
+ * trace id of the client's request: client's X-Trace-Id or a new one
+ * it is put to MDC, so that the log lines of the request are tagged with it, passed to the server by the clients
+ * (see TraceIdInterceptor) and returned in the response's X-Trace-Id
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    private static final String TRACE_ID_ATTRIBUTE = TraceIdFilter.class.getName() + ".traceId";
+
+    /**
+     * streamed responses are relayed on the async dispatch, it is tagged too
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String traceId = (String) request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId == null) {
+            traceId = TraceIds.orNew(request.getHeader(TRACE_ID_HEADER));
+            request.setAttribute(TRACE_ID_ATTRIBUTE, traceId);
+            response.setHeader(TRACE_ID_HEADER, traceId);
+        }
+        MDC.put(TRACE_ID_MDC_KEY, traceId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+}
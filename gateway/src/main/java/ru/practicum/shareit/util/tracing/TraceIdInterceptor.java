@@ -0,0 +1,26 @@
+package ru.practicum.shareit.util.tracing;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_HEADER;
+
+/**
+ * passing the trace id of the client's request to the server
+ */
+public class TraceIdInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String traceId = TraceIds.current();
+        if (traceId != null) {
+            request.getHeaders().set(TRACE_ID_HEADER, traceId);
+        }
+        return execution.execute(request, body);
+    }
+}
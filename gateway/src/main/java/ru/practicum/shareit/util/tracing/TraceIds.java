@@ -0,0 +1,39 @@
+package ru.practicum.shareit.util.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_MDC_KEY;
+
+/**
+ * trace ids of the clients' requests, passed to the server in X-Trace-Id
+ */
+public final class TraceIds {
+
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("[A-Za-z0-9-]{8,64}");
+
+    private TraceIds() {
+    }
+
+    /**
+     * @param traceId client's trace id
+     * @return client's trace id if it is valid, otherwise a new one
+     */
+    public static String orNew(@Nullable String traceId) {
+        if (traceId != null && TRACE_ID_PATTERN.matcher(traceId).matches()) {
+            return traceId;
+        }
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @return trace id of the client's request being processed or null if there is no request
+     */
+    @Nullable
+    public static String current() {
+        return MDC.get(TRACE_ID_MDC_KEY);
+    }
+}
@@ -2,13 +2,18 @@ package ru.practicum.shareit.util.validation;
 
 import ru.practicum.shareit.booking.bookingstate.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exportformat.ExportFormat;
+import ru.practicum.shareit.item.itemranking.ItemRanking;
 import ru.practicum.shareit.util.exception.IncorrectTimeException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.regex.Pattern;
 
 public class Validation {
 
+    private static final Pattern FIELDS_PATTERN = Pattern.compile("[A-Za-z]+(,[A-Za-z]+)*");
+
     /**
      * check whether start and end time of Booking are valid
      * throws 400.BAD_REQUEST IncorrectTimeException if aren't
@@ -37,6 +42,44 @@ public class Validation {
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
     }
 
+    /**
+     * check whether string is valid itemRanking
+     * throws 400.BAD_REQUEST IllegalArgumentException if isn't
+     * @param ranking string to check
+     */
+    public static ItemRanking getItemRankingIfValid(String ranking) {
+        return Arrays.stream(ItemRanking.values())
+                .filter(value -> value.name().equalsIgnoreCase(ranking))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ranking: " + ranking));
+    }
+
+    /**
+     * check whether string is valid exportFormat
+     * throws 400.BAD_REQUEST IllegalArgumentException if isn't
+     * @param format string to check
+     */
+    public static ExportFormat getExportFormatIfValid(String format) {
+        return Arrays.stream(ExportFormat.values())
+                .filter(value -> value.name().equalsIgnoreCase(format))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown format: " + format));
+    }
+
+    /**
+     * check whether string is valid list of the response's fields: comma-separated names of the properties
+     * throws 400.BAD_REQUEST IllegalArgumentException if isn't
+     * @param fields string to check
+     * @return list without spaces
+     */
+    public static String getFieldsIfValid(String fields) {
+        String list = fields.replace(" ", "");
+        if (!FIELDS_PATTERN.matcher(list).matches()) {
+            throw new IllegalArgumentException("Invalid fields: " + fields);
+        }
+        return list;
+    }
+
   /*
 
     private BookingState getValidBookingStateOrElseThrow(String state) {
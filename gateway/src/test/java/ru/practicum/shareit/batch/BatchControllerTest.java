@@ -0,0 +1,116 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.util.constants.Constants.HEADER_USER_ID;
+
+/**
+ * BatchController tests
+ * requests of the batch are dispatched by the running gateway's DispatcherServlet, clients are mocked
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.batch.max-size=6")
+public class BatchControllerTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private UserClient userClient;
+    @MockBean
+    private ItemClient itemClient;
+
+    /**
+     * test execute method
+     * POST-request "/batch" with valid and invalid requests
+     * should answer each request as its end-point does, in order of the requests
+     * should pass headers of the batch to its requests
+     */
+    @Test
+    @SneakyThrows
+    public void execute_answerEachRequestInOrder() {
+
+        when(userClient.getUserById(1L)).thenReturn(ResponseEntity.ok(Map.of("id", 1, "name", "Olga")));
+        when(itemClient.getItemsByIds(7L, List.of(2L, 1L)))
+                .thenReturn(ResponseEntity.ok(Map.of("items", List.of(), "missing", List.of(2, 1))));
+
+        List<BatchRequestDto> batch = List.of(
+                BatchRequestDto.builder().method("GET").path("/users/1").build(),
+                BatchRequestDto.builder().method("get").path("/items").params(Map.of("ids", "2,1")).build(),
+                BatchRequestDto.builder().method("GET").path("/items/top").params(Map.of("size", "0")).build(),
+                BatchRequestDto.builder().method("POST").path("/users")
+                        .body(objectMapper.readTree("{\"name\":\"Alex\",\"email\":\"not-an-email\"}")).build(),
+                BatchRequestDto.builder().method("GET").path("/bookings/owner/export").build(),
+                BatchRequestDto.builder().method("GET").path("/nowhere").build());
+
+        JsonNode result = execute(batch);
+
+        assertEquals(6, result.size());
+        assertEquals(200, result.get(0).get("status").asInt());
+        assertEquals("Olga", result.get(0).get("body").get("name").asText());
+        assertEquals(200, result.get(1).get("status").asInt());
+        assertEquals(2, result.get(1).get("body").get("missing").get(0).asInt());
+        assertEquals(400, result.get(2).get("status").asInt());
+        assertEquals(400, result.get(3).get("status").asInt());
+        assertEquals(400, result.get(4).get("status").asInt());
+        assertEquals(404, result.get(5).get("status").asInt());
+
+        verify(userClient).getUserById(1L);
+        verify(itemClient).getItemsByIds(7L, List.of(2L, 1L));
+        verify(itemClient, never()).getTop(any(), any());
+        verify(userClient, never()).addUser(any());
+    }
+
+    /**
+     * test execute method
+     * POST-request "/batch" when the batch is empty or larger than allowed
+     * should return status bad request and should not execute the requests
+     */
+    @Test
+    public void execute_whenBatchIsEmptyOrTooLarge_isStatusBadRequest() {
+
+        BatchRequestDto request = BatchRequestDto.builder().method("GET").path("/users/1").build();
+
+        assertEquals(HttpStatus.BAD_REQUEST, post(Collections.emptyList()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, post(Collections.nCopies(7, request)).getStatusCode());
+
+        verify(userClient, never()).getUserById(any());
+    }
+
+    @SneakyThrows
+    private JsonNode execute(List<BatchRequestDto> batch) {
+        ResponseEntity<String> response = post(batch);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return objectMapper.readTree(response.getBody());
+    }
+
+    private ResponseEntity<String> post(List<BatchRequestDto> batch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HEADER_USER_ID, "7");
+        return rest.postForEntity("/batch", new HttpEntity<>(batch, headers), String.class);
+    }
+}
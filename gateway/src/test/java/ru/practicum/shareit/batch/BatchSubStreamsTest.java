@@ -0,0 +1,95 @@
+package ru.practicum.shareit.batch;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BatchSubRequest and BatchSubResponse tests on non-blocking reading and writing of the body
+ * a sub-request is dispatched to the same handlers as a plain request, so a handler or filter reading or writing
+ * the body by a listener must be notified as by the servlet container, not fail with UnsupportedOperationException
+ */
+public class BatchSubStreamsTest {
+
+    /**
+     * test setReadListener method of the request's input stream
+     * when a listener is set
+     * should notify the listener that the body is available and read
+     */
+    @Test
+    @SneakyThrows
+    public void setReadListener_whenBodyIsSet_thenNotifyListener() {
+        BatchSubRequest request = new BatchSubRequest(new MockHttpServletRequest(), "POST", "/items",
+                Map.of(), Map.of(), "{\"name\":\"bike\"}".getBytes(StandardCharsets.UTF_8));
+        ServletInputStream input = request.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("available");
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("read");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of("available", "read"), calls);
+        assertEquals("{\"name\":\"bike\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * test setWriteListener method of the response's output stream
+     * when a listener is set
+     * should notify the listener that writing is possible and keep the written body
+     */
+    @Test
+    @SneakyThrows
+    public void setWriteListener_whenListenerIsSet_thenNotifyListener() {
+        BatchSubResponse response = new BatchSubResponse(new MockHttpServletResponse());
+        ServletOutputStream output = response.getOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        output.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                calls.add("possible");
+                output.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of("possible"), calls);
+        assertEquals("{\"id\":1}", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.booking.BookingClient;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * BookingClient tests
+ */
+@RestClientTest(value = BookingClient.class, properties = "shareit-server.url=http://localhost:9090")
+public class BookingClientTest {
+
+    @Autowired
+    private BookingClient bookingClient;
+    @Autowired
+    private MockRestServiceServer server;
+
+    @AfterEach
+    void after() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * test getBooking method
+     * when client's request has "view" parameter
+     * should ask shareit-server for the view as the profile of Accept header (of Smile and JSON)
+     */
+    @Test
+    public void getBooking_WhenViewParameterIsPresent_AcceptProfile() {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.setParameter("view", "compact");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andExpect(header(HttpHeaders.ACCEPT,
+                        "application/x-jackson-smile;profile=compact, application/json;profile=compact"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        bookingClient.getBooking(1L, 1L);
+
+        server.verify();
+    }
+
+    /**
+     * test getBooking method
+     * when client's request accepts JSON with a profile
+     * should pass the profile, other media types are not passed
+     */
+    @Test
+    public void getBooking_WhenAcceptHasProfile_PassProfile() {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(HttpHeaders.ACCEPT, "text/html, application/json;profile=\"compact\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andExpect(header(HttpHeaders.ACCEPT,
+                        "application/x-jackson-smile;profile=compact, application/json;profile=compact"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        bookingClient.getBooking(1L, 1L);
+
+        server.verify();
+    }
+
+    /**
+     * test getBooking method
+     * when client's request doesn't choose the view
+     * should accept plain Smile and JSON
+     */
+    @Test
+    public void getBooking_WhenViewIsNotChosen_AcceptJson() {
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        bookingClient.getBooking(1L, 1L);
+
+        server.verify();
+    }
+
+    /**
+     * test getBooking method
+     * when client's request has "fields" parameter
+     * should pass the fieldset to shareit-server without spaces
+     */
+    @Test
+    public void getBooking_WhenFieldsAreChosen_PassFields() {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.setParameter("fields", "id, status");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        server.expect(requestTo("http://localhost:9090/bookings/1?fields=id%2Cstatus"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        bookingClient.getBooking(1L, 1L);
+
+        server.verify();
+    }
+
+    /**
+     * test getBooking method
+     * when "fields" parameter is malformed
+     * should throw IllegalArgumentException without request to shareit-server
+     */
+    @Test
+    public void getBooking_WhenFieldsAreMalformed_ThrowException() {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.setParameter("fields", "id;status");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingClient.getBooking(1L, 1L));
+
+        server.verify();
+    }
+}
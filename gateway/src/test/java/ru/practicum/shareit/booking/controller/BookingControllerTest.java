@@ -10,16 +10,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.BookingEventClient;
+import ru.practicum.shareit.booking.BookingExportClient;
 import ru.practicum.shareit.booking.bookingstate.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exportformat.ExportFormat;
+import ru.practicum.shareit.util.exception.ServerResponseException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.util.constants.Constants.*;
 
@@ -37,6 +48,10 @@ public class BookingControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private BookingClient bookingClient;
+    @MockBean
+    private BookingEventClient bookingEventClient;
+    @MockBean
+    private BookingExportClient bookingExportClient;
     Long userId;
 
     /**
@@ -392,6 +407,64 @@ public class BookingControllerTest {
     }
 
 
+    /**
+     * test getSummaryByOwner method
+     * GET-request "/bookings/owner/summary"
+     * when size is positive should return status ok and invoke client
+     * when size is not positive should return status bad request and not invoke client
+     */
+    @Test
+    @SneakyThrows
+    public void getSummaryByOwner_InvokeClientOnlyWhenSizeIsPositive() {
+
+        mockMvc.perform(get(BOOKINGS_PATH + OWNER_PATH + SUMMARY_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .param(SIZE_PARAMETER_NAME, "5"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(BOOKINGS_PATH + OWNER_PATH + SUMMARY_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .param(SIZE_PARAMETER_NAME, "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient).getSummaryByOwner(userId, 5);
+        verify(bookingClient, never()).getSummaryByOwner(userId, 0);
+    }
+
+    /**
+     * test export method
+     * GET-request "/bookings/owner/export"
+     * when format is valid (case-insensitive) should relay the client's stream
+     * when format is unknown should return status bad request and not invoke client
+     */
+    @Test
+    @SneakyThrows
+    public void export_InvokeClientOnlyWhenFormatIsValid() {
+
+        StreamingResponseBody body = out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+        when(bookingExportClient.export(userId, ExportFormat.CSV)).thenReturn(ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .body(body));
+
+        MvcResult result = mockMvc.perform(get(BOOKINGS_PATH + OWNER_PATH + EXPORT_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .param(FORMAT_PARAMETER_NAME, "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id\n1\n"));
+
+        mockMvc.perform(get(BOOKINGS_PATH + OWNER_PATH + EXPORT_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .param(FORMAT_PARAMETER_NAME, "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingExportClient).export(userId, ExportFormat.CSV);
+        verifyNoMoreInteractions(bookingExportClient);
+    }
+
     /**
      * test getBookingsByOwner method
      * GET-request "/bookings/owner"
@@ -835,5 +908,44 @@ public class BookingControllerTest {
         verify(bookingClient, never()).getBookingsByBooker(anyLong(), any(), anyInt(), anyInt());
     }
 
+    /**
+     * test subscribe method
+     * GET-request "/bookings/events"
+     * should start asynchronous processing
+     * should invoke client subscribe method
+     */
+    @Test
+    @SneakyThrows
+    public void subscribe_AsyncStarted_AndInvokeClient() {
+
+        when(bookingEventClient.subscribe(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(BOOKINGS_PATH + EVENTS_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingEventClient).subscribe(userId);
+    }
+
+    /**
+     * test subscribe method
+     * GET-request "/bookings/events"
+     * when server rejects subscription
+     * should return server's status and error
+     */
+    @Test
+    @SneakyThrows
+    public void subscribe_WhenServerRespondsNotFound_StatusIsNotFound() {
+
+        String error = "{\"error\":\"user is not found\"}";
+        when(bookingEventClient.subscribe(userId)).thenThrow(new ServerResponseException(404, error));
+
+        mockMvc.perform(get(BOOKINGS_PATH + EVENTS_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json(error));
+    }
 
 }
@@ -15,6 +15,11 @@ import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.itemranking.ItemRanking;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -369,6 +374,29 @@ public class ItemControllerTest {
         verify(itemClient).getListByUserId(userId);
     }
 
+    /**
+     * test getTop method
+     * GET-request "/items/top"
+     * when ranking is valid in any case should return status ok and invoke client
+     * when ranking is unknown should return status bad request and not invoke client
+     */
+    @Test
+    @SneakyThrows
+    public void getTop_InvokeClientOnlyWhenRankingIsValid() {
+
+        mockMvc.perform(get(ITEMS_PATH + TOP_PATH)
+                        .param(RANKING_PARAMETER_NAME, "comments")
+                        .param(SIZE_PARAMETER_NAME, "3"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(ITEMS_PATH + TOP_PATH)
+                        .param(RANKING_PARAMETER_NAME, "views"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient).getTop(ItemRanking.COMMENTS, 3);
+        verify(itemClient, times(1)).getTop(any(), any());
+    }
+
     /**
      * test searchItemsBySubstring method
      * GET-request "/items/search"
@@ -525,4 +553,94 @@ public class ItemControllerTest {
         // verify invokes
         verify(itemClient, never()).addComment(any(), anyLong(), anyLong());
     }
+
+    /**
+     * test getComments method
+     * GET-request "/items/{itemId}/comments" with cursor and size
+     * should return status ok
+     * should invoke client getComments method
+     */
+    @Test
+    @SneakyThrows
+    public void getComments_isStatusOk_andInvokeClient() {
+
+        mockMvc.perform(get(ITEMS_PATH + COMMENTS_PATH_VARIABLE, itemId)
+                        .param(CURSOR_PARAMETER_NAME, "9")
+                        .param(SIZE_PARAMETER_NAME, "5"))
+                .andExpect(status().isOk());
+
+        // verify invokes
+        verify(itemClient).getComments(itemId, 9L, 5);
+    }
+
+    /**
+     * test getComments method
+     * GET-request "/items/{itemId}/comments" when size is not positive
+     * should return status bad request and should not invoke client
+     */
+    @Test
+    @SneakyThrows
+    public void getComments_whenSizeIsNotPositive_isStatusBadRequest_andDoesNotInvokeClient() {
+
+        mockMvc.perform(get(ITEMS_PATH + COMMENTS_PATH_VARIABLE, itemId)
+                        .param(SIZE_PARAMETER_NAME, "0"))
+                .andExpect(status().isBadRequest());
+
+        // verify invokes
+        verify(itemClient, never()).getComments(any(), any(), any());
+    }
+
+    /**
+     * test getByIds and lookup methods
+     * GET-request "/items?ids=" and POST-request "/items/lookup" with the list of ids
+     * should return status ok
+     * should invoke client getItemsByIds and lookupItems methods
+     */
+    @Test
+    @SneakyThrows
+    public void getByIds_andLookup_isStatusOk_andInvokeClient() {
+
+        mockMvc.perform(get(ITEMS_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .param(IDS_PARAMETER_NAME, "3,1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post(ITEMS_PATH + LOOKUP_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[3,1]"))
+                .andExpect(status().isOk());
+
+        // verify invokes
+        verify(itemClient).getItemsByIds(userId, List.of(3L, 1L));
+        verify(itemClient).lookupItems(userId, List.of(3L, 1L));
+        verify(itemClient, never()).getListByUserId(anyLong());
+    }
+
+    /**
+     * test lookup method
+     * POST-request "/items/lookup" when the list of ids is empty or too long
+     * should return status bad request and should not invoke client
+     */
+    @Test
+    @SneakyThrows
+    public void lookup_whenIdsAreEmptyOrTooMany_isStatusBadRequest_andDoesNotInvokeClient() {
+
+        String tooMany = LongStream.rangeClosed(1, MAX_LOOKUP_IDS + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post(ITEMS_PATH + LOOKUP_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(ITEMS_PATH + LOOKUP_PATH)
+                        .header(HEADER_USER_ID, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooMany))
+                .andExpect(status().isBadRequest());
+
+        // verify invokes
+        verify(itemClient, never()).lookupItems(any(), any());
+    }
 }
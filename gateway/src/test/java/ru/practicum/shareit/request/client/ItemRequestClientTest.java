@@ -0,0 +1,165 @@
+package ru.practicum.shareit.request.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * ItemRequestClient tests
+ */
+@RestClientTest(value = ItemRequestClient.class, properties = "shareit-server.url=http://localhost:9090")
+public class ItemRequestClientTest {
+
+    @Autowired
+    private ItemRequestClient itemRequestClient;
+    @Autowired
+    private MockRestServiceServer server;
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @AfterEach
+    void after() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * test addRequest method
+     * when client's request has Idempotency-Key header
+     * should pass the key to shareit-server
+     */
+    @Test
+    public void addRequest_WhenIdempotencyKeyIsPresent_ForwardKey() {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader("Idempotency-Key", "key-1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        server.expect(requestTo("http://localhost:9090/requests"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andExpect(header("Idempotency-Key", "key-1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = itemRequestClient.addRequest(1L,
+                ItemRequestDto.builder().description("I would like rent bike").build());
+
+        server.verify();
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+    }
+
+    /**
+     * test addRequest method
+     * when client's request has no Idempotency-Key header
+     * should not send the key
+     */
+    @Test
+    public void addRequest_WhenIdempotencyKeyIsAbsent_DoNotSendKey() {
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        server.expect(requestTo("http://localhost:9090/requests"))
+                .andExpect(headerDoesNotExist("Idempotency-Key"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        itemRequestClient.addRequest(1L, ItemRequestDto.builder().description("I would like rent bike").build());
+
+        server.verify();
+    }
+
+    /**
+     * test getRequestById method
+     * when client's request has If-None-Match header and shareit-server answers 304
+     * should pass the header and return 304 with the entity tag
+     */
+    @Test
+    public void getRequestById_WhenNotModified_ForwardIfNoneMatch_AndReturnETag() {
+
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"request-1-0-0-0-0\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setETag("\"request-1-0-0-0-0\"");
+        server.expect(requestTo("http://localhost:9090/requests/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"request-1-0-0-0-0\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(serverHeaders));
+
+        ResponseEntity<Object> response = itemRequestClient.getRequestById(1L, 1L);
+
+        server.verify();
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"request-1-0-0-0-0\"", response.getHeaders().getETag());
+        assertFalse(response.hasBody());
+    }
+
+    /**
+     * test addRequest method
+     * when shareit-server answers with Smile
+     * should send the body in Smile and read the Smile response
+     */
+    @Test
+    @SneakyThrows
+    public void addRequest_WhenEncodingIsSmile_SendAndReadSmile() {
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        server.expect(requestTo("http://localhost:9090/requests"))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile"))
+                .andExpect(request -> assertEquals("I would like rent bike", smileMapper
+                        .readTree(((MockClientHttpRequest) request).getBodyAsBytes()).get("description").asText()))
+                .andRespond(withSuccess(smileMapper.writeValueAsBytes(Map.of("id", 1)),
+                        MediaType.valueOf("application/x-jackson-smile")));
+
+        ResponseEntity<Object> response = itemRequestClient.addRequest(1L,
+                ItemRequestDto.builder().description("I would like rent bike").build());
+
+        server.verify();
+        assertEquals(Map.of("id", 1), response.getBody());
+    }
+
+    /**
+     * test getRequestById method
+     * when shareit-server answers with an error in Smile
+     * should return the status and the decoded error, to be written to the client as JSON
+     */
+    @Test
+    @SneakyThrows
+    public void getRequestById_WhenErrorIsSmile_ReturnDecodedError() {
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        server.expect(requestTo("http://localhost:9090/requests/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.valueOf("application/x-jackson-smile"))
+                        .body(smileMapper.writeValueAsBytes(Map.of("error", "not found"))));
+
+        ResponseEntity<Object> response = itemRequestClient.getRequestById(1L, 1L);
+
+        server.verify();
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(Map.of("error", "not found"), response.getBody());
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.util.balancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ServerLoadBalancer tests
+ * time is given by a fake clock
+ */
+public class ServerLoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private ServerBalancerProperties properties;
+
+    @BeforeEach
+    void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ServerBalancerProperties();
+        properties.setUrls(List.of("http://a:9090", "http://b:9090", "http://c:9090", "http://d:9090"));
+        properties.setConsecutiveFailures(3);
+        properties.setBaseEjectionMs(1000);
+        properties.setMaxEjectionMs(1500);
+        properties.setMaxEjectionPercent(50);
+    }
+
+    /**
+     * test choose method
+     * one instance has many requests in progress
+     * should never choose it of two: the other one of any pair has fewer requests
+     */
+    @Test
+    public void choose_WhenInstanceIsBusy_ChooseOthers() {
+        ServerLoadBalancer balancer = balancer();
+        ServerEndpoint busy = endpoint(balancer, "http://a:9090");
+        for (int i = 0; i < 10; i++) {
+            busy.started();
+        }
+
+        Map<String, Integer> chosen = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            ServerEndpoint endpoint = balancer.choose();
+            chosen.merge(endpoint.getUrl(), 1, Integer::sum);
+            balancer.succeeded(endpoint, clock.get());
+        }
+
+        assertNull(chosen.get("http://a:9090"));
+        assertEquals(3, chosen.size());
+        assertEquals(10, busy.getOutstanding());
+    }
+
+    /**
+     * test answered method
+     * an instance answers 503 as many times in a row as allowed, then another one answers 404
+     * should eject the first one and count the answer of the second one as a success
+     */
+    @Test
+    public void answered_WhenStatusIsUnavailable_CountFailure() {
+        ServerLoadBalancer balancer = balancer();
+        ServerEndpoint unavailable = endpoint(balancer, "http://a:9090");
+        ServerEndpoint notFound = endpoint(balancer, "http://b:9090");
+
+        for (int i = 0; i < 3; i++) {
+            unavailable.started();
+            balancer.answered(unavailable, balancer.now(), 503);
+        }
+        notFound.started();
+        balancer.answered(notFound, balancer.now(), 404);
+
+        assertTrue(unavailable.isEjected(clock.get()));
+        assertFalse(notFound.isEjected(clock.get()));
+        assertEquals(0, notFound.getOutstanding());
+    }
+
+    /**
+     * test failed method
+     * an instance fails in a row as many times as allowed
+     * should eject it until the ejection time passes and then choose it again
+     */
+    @Test
+    public void failed_WhenFailsInRow_EjectForTime() {
+        ServerLoadBalancer balancer = balancer();
+        ServerEndpoint failing = endpoint(balancer, "http://b:9090");
+
+        fail(balancer, failing, 2);
+        assertFalse(failing.isEjected(clock.get()));
+        fail(balancer, failing, 1);
+
+        assertTrue(failing.isEjected(clock.get()));
+        for (int i = 0; i < 100; i++) {
+            assertNotEquals(failing, balancer.choose());
+        }
+        assertEquals(1, meterRegistry.get("shareit.gateway.server.ejected").tag("endpoint", "http://b:9090")
+                .gauge().value());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertFalse(failing.isEjected(clock.get()));
+        assertEquals(1, failing.getEjections());
+
+        fail(balancer, failing, 3);
+        assertTrue(failing.isEjected(clock.get() + TimeUnit.MILLISECONDS.toNanos(1499)));
+        assertFalse(failing.isEjected(clock.get() + TimeUnit.MILLISECONDS.toNanos(1500)));
+    }
+
+    /**
+     * test failed method
+     * three of four instances fail in a row, no more than half of them may be ejected
+     * should eject two of them only
+     */
+    @Test
+    public void failed_WhenEjectionPercentIsReached_KeepInstances() {
+        ServerLoadBalancer balancer = balancer();
+
+        fail(balancer, endpoint(balancer, "http://a:9090"), 3);
+        fail(balancer, endpoint(balancer, "http://b:9090"), 3);
+        fail(balancer, endpoint(balancer, "http://c:9090"), 3);
+
+        List<ServerEndpointDto> endpoints = balancer.getEndpoints();
+        assertTrue(endpoints.get(0).isEjected());
+        assertTrue(endpoints.get(1).isEjected());
+        assertFalse(endpoints.get(2).isEjected());
+        assertEquals(3, endpoints.get(2).getConsecutiveFailures());
+        assertEquals(9, meterRegistry.get("shareit.gateway.server.requests").tag("outcome", "failure")
+                .timers().stream().mapToLong(timer -> timer.count()).sum());
+    }
+
+    /**
+     * test constructor
+     * no instances are listed
+     * should throw IllegalStateException
+     */
+    @Test
+    public void create_WhenNoUrls_ThrowIllegalStateException() {
+        properties.setUrls(List.of());
+
+        assertThrows(IllegalStateException.class, this::balancer);
+    }
+
+    private ServerLoadBalancer balancer() {
+        return new ServerLoadBalancer(properties, meterRegistry, clock::get);
+    }
+
+    private static ServerEndpoint endpoint(ServerLoadBalancer balancer, String url) {
+        for (int i = 0; i < 1000; i++) {
+            ServerEndpoint endpoint = balancer.choose();
+            balancer.succeeded(endpoint, balancer.now());
+            if (endpoint.getUrl().equals(url)) {
+                return endpoint;
+            }
+        }
+        throw new AssertionError(url + " is never chosen");
+    }
+
+    private static void fail(ServerLoadBalancer balancer, ServerEndpoint endpoint, int times) {
+        for (int i = 0; i < times; i++) {
+            endpoint.started();
+            balancer.failed(endpoint, balancer.now());
+        }
+    }
+}
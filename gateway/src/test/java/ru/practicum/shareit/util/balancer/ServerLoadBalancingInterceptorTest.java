@@ -0,0 +1,149 @@
+package ru.practicum.shareit.util.balancer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.constants.Constants.HEADER_USER_ID;
+import static ru.practicum.shareit.util.constants.Constants.IDEMPOTENCY_KEY_HEADER;
+
+/**
+ * ServerLoadBalancingInterceptor tests
+ * RestTemplate built as the clients' ones sends requests to two local stub instances of the server
+ */
+public class ServerLoadBalancingInterceptorTest {
+
+    private static final String SERVER_URL = "http://shareit-server:9090";
+
+    static {
+        // the stubs' headers and bodies are written separately: no waiting for delayed acknowledgements
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer[] servers = new HttpServer[2];
+    private final AtomicInteger[] hits = {new AtomicInteger(), new AtomicInteger()};
+    private volatile int secondStatus = HttpStatus.OK.value();
+    private ServerLoadBalancer balancer;
+    private RestTemplate rest;
+
+    @BeforeEach
+    @SneakyThrows
+    void before() {
+        for (int i = 0; i < servers.length; i++) {
+            int instance = i;
+            servers[i] = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            servers[i].createContext("/users", exchange -> respond(exchange, instance));
+            servers[i].start();
+        }
+        ServerBalancerProperties properties = new ServerBalancerProperties();
+        properties.setUrls(List.of(url(0), url(1)));
+        balancer = new ServerLoadBalancer(properties, new SimpleMeterRegistry());
+        rest = new RestTemplate(new SimpleClientHttpRequestFactory());
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL + "/users"));
+        rest.getInterceptors().add(new ServerLoadBalancingInterceptor(SERVER_URL, balancer));
+    }
+
+    @AfterEach
+    void after() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * test intercept method
+     * both instances answer
+     * should send the requests with their paths and queries to both of them
+     */
+    @Test
+    public void intercept_WhenInstancesAnswer_SpreadRequests() {
+        for (int i = 0; i < 50; i++) {
+            assertEquals("/users/" + i + "?from=0", rest.getForObject("/" + i + "?from={from}", String.class, 0));
+        }
+
+        assertEquals(50, hits[0].get() + hits[1].get());
+        assertTrue(hits[0].get() > 0);
+        assertTrue(hits[1].get() > 0);
+        assertTrue(balancer.getEndpoints().stream().allMatch(endpoint -> endpoint.getOutstanding() == 0));
+    }
+
+    /**
+     * test intercept method
+     * the second instance answers 503
+     * should eject it after the failures in a row and send the next requests to the first one
+     */
+    @Test
+    public void intercept_WhenInstanceIsUnavailable_EjectIt() {
+        secondStatus = HttpStatus.SERVICE_UNAVAILABLE.value();
+
+        int failures = 0;
+        for (int i = 0; i < 50; i++) {
+            try {
+                rest.getForObject("/1", String.class);
+            } catch (RuntimeException e) {
+                failures++;
+            }
+        }
+        hits[0].set(0);
+        for (int i = 0; i < 20; i++) {
+            rest.getForObject("/1", String.class);
+        }
+
+        assertEquals(5, failures);
+        assertEquals(20, hits[0].get());
+        List<ServerEndpointDto> endpoints = balancer.getEndpoints();
+        assertFalse(endpoints.get(0).isEjected());
+        assertTrue(endpoints.get(1).isEjected());
+        assertEquals(1, endpoints.get(1).getEjections());
+    }
+
+    /**
+     * test intercept method
+     * requests of one user with one idempotency key
+     * should spread them over both instances: the instances share the user's state and the idempotency keys
+     */
+    @Test
+    public void intercept_WhenUserAndKeyAreGiven_SpreadRequests() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_USER_ID, "7");
+        headers.set(IDEMPOTENCY_KEY_HEADER, "7");
+        for (int i = 0; i < 50; i++) {
+            rest.exchange("/1", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        }
+
+        assertTrue(hits[0].get() > 0);
+        assertTrue(hits[1].get() > 0);
+    }
+
+    private String url(int instance) {
+        return "http://127.0.0.1:" + servers[instance].getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, int instance) throws IOException {
+        hits[instance].incrementAndGet();
+        byte[] body = exchange.getRequestURI().toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(instance == 1 ? secondStatus : HttpStatus.OK.value(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
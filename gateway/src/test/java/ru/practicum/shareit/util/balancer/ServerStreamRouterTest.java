@@ -0,0 +1,63 @@
+package ru.practicum.shareit.util.balancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ServerStreamRouter tests
+ */
+public class ServerStreamRouterTest {
+
+    private static final String SERVER_URL = "http://shareit-server:9090/";
+
+    /**
+     * test route method
+     * there is no balancer
+     * should send the streamed request to shareit-server.url
+     */
+    @Test
+    public void route_WhenNoBalancer_RouteToServerUrl() {
+        ServerStreamRouter router = new ServerStreamRouter(SERVER_URL, provider(null));
+
+        ServerStreamRouter.Route route = router.route();
+        route.answered(200);
+
+        assertEquals("http://shareit-server:9090", route.getUrl());
+    }
+
+    /**
+     * test route method
+     * the balancer lists two instances, the streamed requests are answered with their headers
+     * should spread the requests over both instances and count them in progress until they are answered
+     */
+    @Test
+    public void route_WhenBalancerIsGiven_RouteToInstances() {
+        ServerBalancerProperties properties = new ServerBalancerProperties();
+        properties.setUrls(List.of("http://a:9090", "http://b:9090"));
+        ServerLoadBalancer balancer = new ServerLoadBalancer(properties, new SimpleMeterRegistry());
+        ServerStreamRouter router = new ServerStreamRouter(SERVER_URL, provider(balancer));
+
+        ServerStreamRouter.Route first = router.route();
+        ServerStreamRouter.Route second = router.route();
+
+        assertNotEquals(first.getUrl(), second.getUrl());
+        assertTrue(balancer.getEndpoints().stream().allMatch(endpoint -> endpoint.getOutstanding() == 1));
+        first.answered(200);
+        second.failed();
+        assertTrue(balancer.getEndpoints().stream().allMatch(endpoint -> endpoint.getOutstanding() == 0));
+    }
+
+    private static ObjectProvider<ServerLoadBalancer> provider(ServerLoadBalancer balancer) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (balancer != null) {
+            beanFactory.addBean("serverLoadBalancer", balancer);
+        }
+        return beanFactory.getBeanProvider(ServerLoadBalancer.class);
+    }
+}
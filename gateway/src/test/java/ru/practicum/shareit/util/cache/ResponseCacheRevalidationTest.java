@@ -0,0 +1,114 @@
+package ru.practicum.shareit.util.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.constants.Constants.HEADER_USER_ID;
+
+/**
+ * revalidation of the item route, which has no time to live
+ * the stub server answers as shareit-server does: every read of the item has its entity tag,
+ * the tag sent back in If-None-Match is answered with 304.NOT_MODIFIED without body
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit.cache.routes.item.ttl-ms=0",
+        "shareit.cache.routes.item.revalidate=true"})
+public class ResponseCacheRevalidationTest {
+
+    private static final String TAG = "\"item-1-0-0-0\"";
+    private static final List<String> RECEIVED_TAGS = new CopyOnWriteArrayList<>();
+    private static final HttpServer SERVER = start();
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+        registry.add("shareit-server.encoding", () -> "json");
+    }
+
+    @AfterAll
+    static void stop() {
+        SERVER.stop(0);
+    }
+
+    /**
+     * when the item is read three times
+     * then the first read loads the body, the next ones are revalidated with its tag and answered from the cache
+     */
+    @Test
+    @SneakyThrows
+    public void getItem_whenServerAnswersNotModified_thenAnswerFromCache() {
+
+        for (int i = 0; i < 3; i++) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HEADER_USER_ID, "1");
+            ResponseEntity<String> response = rest.exchange("/items/1", HttpMethod.GET,
+                    new HttpEntity<>(headers), String.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(TAG, response.getHeaders().getETag());
+            assertEquals("bike", objectMapper.readTree(response.getBody()).get("name").asText());
+        }
+
+        assertEquals(List.of("", TAG, TAG), RECEIVED_TAGS);
+        assertEquals(2.0, meterRegistry.get("shareit.gateway.cache.requests")
+                .tag("route", "item").tag("result", "revalidated").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.cache.requests")
+                .tag("route", "item").tag("result", "miss").counter().count());
+    }
+
+    @SneakyThrows
+    private static HttpServer start() {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/1", ResponseCacheRevalidationTest::respond);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        RECEIVED_TAGS.add(ifNoneMatch == null ? "" : ifNoneMatch);
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, TAG);
+        if (TAG.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = "{\"id\":1,\"name\":\"bike\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.util.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResponseCache tests
+ */
+public class ResponseCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private ResponseCache responseCache;
+    private List<String> sentTags;
+
+    @BeforeEach
+    void before() {
+        ResponseCacheProperties.Route search = new ResponseCacheProperties.Route();
+        search.setMaxEntries(2);
+        search.setTtlMs(60000);
+        ResponseCacheProperties.Route item = new ResponseCacheProperties.Route();
+        item.setTtlMs(0);
+        item.setRevalidate(true);
+        ResponseCacheProperties.Route disabled = new ResponseCacheProperties.Route();
+        disabled.setEnabled(false);
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRoutes(Map.of("search", search, "item", item, "disabled", disabled));
+
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = new ResponseCache(properties, meterRegistry);
+        sentTags = new ArrayList<>();
+    }
+
+    /**
+     * test get method
+     * repeated request within time to live should be answered from the cache
+     */
+    @Test
+    public void get_WhenFresh_ReturnCachedResponse() {
+        ResponseEntity<Object> first = responseCache.get("search", "bike", null, this::load);
+        ResponseEntity<Object> second = responseCache.get("search", "bike", null, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, sentTags.size());
+        assertEquals(1, requests("search", "hit"));
+        assertEquals(1, requests("search", "miss"));
+        assertEquals(0.5, meterRegistry.get("shareit.gateway.cache.hit.ratio").tag("route", "search").gauge().value());
+    }
+
+    /**
+     * test get method
+     * least recently used response should be evicted when the route is full
+     */
+    @Test
+    public void get_WhenRouteIsFull_EvictLeastRecentlyUsed() {
+        responseCache.get("search", "a", null, this::load);
+        responseCache.get("search", "b", null, this::load);
+        responseCache.get("search", "a", null, this::load);
+        responseCache.get("search", "c", null, this::load);
+        responseCache.get("search", "a", null, this::load);
+        responseCache.get("search", "b", null, this::load);
+
+        assertEquals(4, sentTags.size());
+        assertEquals(2.0, meterRegistry.get("shareit.gateway.cache.size").tag("route", "search").gauge().value());
+    }
+
+    /**
+     * test get method
+     * expired response should be revalidated with its ETag and returned on 304
+     */
+    @Test
+    public void get_WhenExpiredAndNotModified_RevalidateAndReturnCachedResponse() {
+        ResponseEntity<Object> first = responseCache.get("item", "1:1", null, this::load);
+        ResponseEntity<Object> second = responseCache.get("item", "1:1", null,
+                eTag -> {
+                    sentTags.add(eTag);
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                });
+
+        assertSame(first, second);
+        assertEquals("\"v1\"", sentTags.get(1));
+        assertEquals(1, requests("item", "revalidated"));
+    }
+
+    /**
+     * test get method and invalidate method
+     * invalidated and not successful responses should not be cached, disabled route should not be cached
+     */
+    @Test
+    public void get_WhenInvalidatedOrFailedOrDisabled_SendRequest() {
+        responseCache.get("search", "bike", null, this::load);
+        responseCache.invalidate("search", key -> key.equals("bike"));
+        responseCache.get("search", "bike", null, this::load);
+        responseCache.get("search", "pram", null, eTag -> ResponseEntity.status(HttpStatus.BAD_GATEWAY).build());
+        responseCache.get("search", "pram", null, this::load);
+        responseCache.get("disabled", "bike", null, this::load);
+        responseCache.get("disabled", "bike", null, this::load);
+
+        assertEquals(5, sentTags.size());
+        assertNull(sentTags.get(0));
+    }
+
+    /**
+     * test get method
+     * client having the tag of the cached or revalidated response should get 304 without body
+     */
+    @Test
+    public void get_WhenClientHasTag_ReturnNotModified() {
+        responseCache.get("search", "bike", null, this::load);
+        ResponseEntity<Object> fresh = responseCache.get("search", "bike", "\"v0\", W/\"v1\"", this::load);
+        responseCache.get("item", "1:1", null, this::load);
+        ResponseEntity<Object> revalidated = responseCache.get("item", "1:1", "\"v1\"",
+                eTag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+        ResponseEntity<Object> other = responseCache.get("search", "bike", "\"v0\"", this::load);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, fresh.getStatusCode());
+        assertEquals("\"v1\"", fresh.getHeaders().getETag());
+        assertFalse(fresh.hasBody());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertFalse(revalidated.hasBody());
+        assertEquals(HttpStatus.OK, other.getStatusCode());
+        assertTrue(other.hasBody());
+    }
+
+    /**
+     * test get method
+     * server's 304 to the client's tag, not to the gateway's one, should be passed to the client and not cached
+     */
+    @Test
+    public void get_WhenServerMatchesClientTagOnly_PassNotModifiedAndDoNotCache() {
+        ResponseEntity<Object> first = responseCache.get("item", "1:1", "\"v1\"",
+                eTag -> {
+                    sentTags.add(eTag);
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"v1\"").build();
+                });
+        ResponseEntity<Object> second = responseCache.get("item", "1:1", null, this::load);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, first.getStatusCode());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNull(sentTags.get(0));
+        assertNull(sentTags.get(1));
+    }
+
+    private ResponseEntity<Object> load(String eTag) {
+        sentTags.add(eTag);
+        return ResponseEntity.ok().eTag("\"v1\"").body(List.of(Map.of("id", 1)));
+    }
+
+    private double requests(String route, String result) {
+        return meterRegistry.get("shareit.gateway.cache.requests").tag("route", route).tag("result", result)
+                .counter().count();
+    }
+}
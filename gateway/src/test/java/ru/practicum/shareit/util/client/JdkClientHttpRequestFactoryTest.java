@@ -0,0 +1,119 @@
+package ru.practicum.shareit.util.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JdkClientHttpRequestFactory tests
+ * RestTemplate sends requests to a local stub server by the JDK HttpClient
+ */
+public class JdkClientHttpRequestFactoryTest {
+
+    private HttpServer server;
+    private RestTemplate rest;
+
+    @BeforeEach
+    @SneakyThrows
+    void before() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/echo", this::echo);
+        server.createContext("/missing", exchange -> respond(exchange, 404, "{\"error\":\"not found\"}", false));
+        server.start();
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        rest = new RestTemplate(new JdkClientHttpRequestFactory(httpClient, Duration.ofSeconds(5)));
+    }
+
+    @AfterEach
+    void after() {
+        server.stop(0);
+    }
+
+    /**
+     * test createRequest method
+     * POST-request with body and headers, the server answers with gzip-compressed body
+     * should send the body and headers, ask for compression and return decompressed body
+     */
+    @Test
+    public void exchange_WhenResponseIsCompressed_ReturnDecompressedBody() {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "1");
+
+        ResponseEntity<Map> response = rest.exchange("http://localhost:" + port() + "/echo", HttpMethod.POST,
+                new HttpEntity<>("{\"name\":\"bike\"}", headers), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("body", "{\"name\":\"bike\"}", "user", "1", "encoding", "gzip, deflate"),
+                response.getBody());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * test createRequest method
+     * GET-request, the server answers 404 with uncompressed body
+     * should throw HttpClientErrorException with the server's body
+     */
+    @Test
+    public void exchange_WhenServerAnswersError_ThrowWithBody() {
+
+        HttpClientErrorException e = assertThrows(HttpClientErrorException.class,
+                () -> rest.getForEntity("http://localhost:" + port() + "/missing", Map.class));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        assertEquals("{\"error\":\"not found\"}", e.getResponseBodyAsString());
+    }
+
+    private int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String json = "{\"body\":\"" + body.replace("\"", "\\\"") + "\","
+                + "\"user\":\"" + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id") + "\","
+                + "\"encoding\":\"" + exchange.getRequestHeaders().getFirst("Accept-Encoding") + "\"}";
+        respond(exchange, 200, json, true);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json, boolean gzip) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.util.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.constants.Constants.HEADER_USER_ID;
+
+/**
+ * BaseClient tests
+ * requests are sent through the controllers and clients of the running gateway to a local stub server,
+ * which answers with Smile bodies as shareit-server does
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SmileServerResponseTest {
+
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+    private static final HttpServer SERVER = start();
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+        registry.add("shareit-server.encoding", () -> "smile");
+    }
+
+    @AfterAll
+    static void stop() {
+        SERVER.stop(0);
+    }
+
+    /**
+     * test prepareGatewayResponse method
+     * GET-request "/users/{userId}" when the server answers with Smile
+     * should answer the client with JSON without the server's headers
+     */
+    @Test
+    @SneakyThrows
+    public void getUser_whenServerAnswersWithSmile_thenAnswerWithJson() {
+
+        ResponseEntity<String> response = rest.getForEntity("/users/1", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+        assertNull(response.getHeaders().getFirst("X-Server-Only"));
+        assertEquals("Olga", objectMapper.readTree(response.getBody()).get("name").asText());
+    }
+
+    /**
+     * test prepareGatewayResponse method
+     * GET-request "/items/{itemId}" twice when the server answers with Smile and entity tag
+     * should answer the client with JSON and the entity tag, the cached response too
+     */
+    @Test
+    @SneakyThrows
+    public void getItem_whenServerAnswersWithSmileAndTag_thenAnswerWithJsonAndTag() {
+
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<String> response = rest.exchange("/items/1", HttpMethod.GET,
+                    new HttpEntity<>(userHeaders()), String.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+            assertEquals("\"item-1\"", response.getHeaders().getETag());
+            assertEquals("bike", objectMapper.readTree(response.getBody()).get("name").asText());
+        }
+    }
+
+    /**
+     * test prepareGatewayResponse method
+     * POST-request "/batch" with a request answered by the server with Smile
+     * should answer the request of the batch with JSON
+     */
+    @Test
+    @SneakyThrows
+    public void batch_whenServerAnswersWithSmile_thenAnswerWithJson() {
+
+        HttpHeaders headers = userHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = rest.postForEntity("/batch", new HttpEntity<>(
+                List.of(BatchRequestDto.builder().method("GET").path("/users/1").build()), headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode result = objectMapper.readTree(response.getBody());
+        assertEquals(200, result.get(0).get("status").asInt());
+        assertEquals("Olga", result.get(0).get("body").get("name").asText());
+    }
+
+    private HttpHeaders userHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_USER_ID, "1");
+        return headers;
+    }
+
+    @SneakyThrows
+    private static HttpServer start() {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users/1", exchange -> respond(exchange, Map.of("id", 1, "name", "Olga"), null));
+        server.createContext("/items/1", exchange -> respond(exchange, Map.of("id", 1, "name", "bike"), "\"item-1\""));
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, Object body, String eTag) throws IOException {
+        if (eTag != null && eTag.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            exchange.getResponseHeaders().set(HttpHeaders.ETAG, eTag);
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = SMILE_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile");
+        exchange.getResponseHeaders().set("X-Server-Only", "1");
+        if (eTag != null) {
+            exchange.getResponseHeaders().set(HttpHeaders.ETAG, eTag);
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.util.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_HEADER;
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_MDC_KEY;
+
+/**
+ * TraceIdFilter, TraceIdInterceptor and RouteTimingInterceptor tests
+ * RestTemplate has the interceptors as the clients' ones (see TracingConfig)
+ */
+public class TracingTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void before() {
+        rest = new RestTemplate();
+        rest.getInterceptors().add(new RouteTimingInterceptor(meterRegistry));
+        rest.getInterceptors().add(new TraceIdInterceptor());
+        server = MockRestServiceServer.bindTo(rest).build();
+    }
+
+    @AfterEach
+    void after() {
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+    }
+
+    /**
+     * test doFilterInternal method
+     * client's trace id is valid, then invalid
+     * should put the valid one to MDC for the request only, replace the invalid one and return it in the response
+     */
+    @Test
+    @SneakyThrows
+    public void filter_PutTraceIdToMdcAndResponse() {
+        TraceIdFilter filter = new TraceIdFilter();
+        AtomicReference<String> traceId = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(TRACE_ID_HEADER, "client-trace-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                traceId.set(MDC.get(TRACE_ID_MDC_KEY));
+            }
+        });
+
+        assertEquals("client-trace-1", traceId.get());
+        assertEquals("client-trace-1", response.getHeader(TRACE_ID_HEADER));
+        assertNull(MDC.get(TRACE_ID_MDC_KEY));
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/items");
+        invalid.addHeader(TRACE_ID_HEADER, "bad id");
+        MockHttpServletResponse generated = new MockHttpServletResponse();
+        filter.doFilter(invalid, generated, new MockFilterChain());
+
+        assertTrue(generated.getHeader(TRACE_ID_HEADER).matches("[0-9a-f]{16}"));
+    }
+
+    /**
+     * test intercept methods
+     * request to the server is sent for the client's request of "/items/{itemId}" route
+     * should pass the trace id and time the request by the route and status
+     */
+    @Test
+    public void intercept_PassTraceId_AndTimeByRoute() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MDC.put(TRACE_ID_MDC_KEY, "client-trace-1");
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(TRACE_ID_HEADER, "client-trace-1"))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://localhost:9090/items/2"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        rest.getForEntity("http://localhost:9090/items/1", String.class);
+        assertThrows(HttpServerErrorException.class,
+                () -> rest.getForEntity("http://localhost:9090/items/2", String.class));
+
+        server.verify();
+        assertEquals(1, meterRegistry.get("shareit.gateway.client.requests")
+                .tags("route", "/items/{itemId}", "method", "GET", "status", "200").timer().count());
+        assertEquals(1, meterRegistry.get("shareit.gateway.client.requests")
+                .tags("route", "/items/{itemId}", "method", "GET", "status", "503").timer().count());
+    }
+
+    /**
+     * test intercept methods
+     * request to the server is sent outside of a client's request
+     * should send no trace id and time the request with no route
+     */
+    @Test
+    public void intercept_WhenNoClientRequest_NoTraceIdAndNoRoute() {
+        server.expect(requestTo("http://localhost:9090/users"))
+                .andExpect(headerDoesNotExist(TRACE_ID_HEADER))
+                .andRespond(withSuccess());
+
+        rest.getForEntity("http://localhost:9090/users", String.class);
+
+        server.verify();
+        assertEquals(1, meterRegistry.get("shareit.gateway.client.requests").tag("route", "none").timer().count());
+    }
+}
@@ -2,13 +2,23 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.ExportFormat;
+import ru.practicum.shareit.booking.service.BookingEventService;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
+import java.util.Map;
 
 import static ru.practicum.shareit.util.constants.Constants.*;
 
@@ -21,6 +31,8 @@ import static ru.practicum.shareit.util.constants.Constants.*;
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingEventService bookingEventService;
+    private final BookingExportService bookingExportService;
 
     /**
      * processing POST-request to add booking (save and assign identity)
@@ -36,6 +48,19 @@ public class BookingController {
         return bookingService.create(userId, bookingDto);
     }
 
+    /**
+     * processing a GET-request to subscribe to the changes of user's bookings as booker or owner
+     * errors are returned as json before the stream is opened
+     *
+     * @param userId user's id
+     * @return stream of changed bookings
+     */
+    @GetMapping(EVENTS_PATH)
+    public SseEmitter subscribe(@RequestHeader(HEADER_USER_ID) Long userId) {
+        log.info("GET-request: подписка на изменения бронирований пользователя с id {}", userId);
+        return bookingEventService.subscribe(userId);
+    }
+
     /**
      * processing a GET-request to get a booking by id
      *
@@ -93,6 +118,48 @@ public class BookingController {
         return bookingService.getListByOwner(userId, state, from, size);
     }
 
+    /**
+     * processing a GET-request to get the owner's dashboard: number of bookings and the first page of them
+     * for each booking's state
+     *
+     * @param userId owner's id
+     * @param size   size of the first page
+     * @return summary by booking's state
+     */
+    @GetMapping(OWNER_PATH + SUMMARY_PATH)
+    public Map<BookingState, BookingSummaryOutDto> getSummaryByOwner(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                                     @RequestParam(
+                                                                             name = SIZE_PARAMETER_NAME,
+                                                                             defaultValue = TEN_DEFAULT_VALUE)
+                                                                     Integer size) {
+        log.info("GET-запрос: сводка бронирований владельца вещей с id {}, ограничение размера: {}", userId, size);
+        return bookingService.getSummaryByOwner(userId, size);
+    }
+
+    /**
+     * processing a GET-request to export all bookings of the owner's items, hot and archived, as a file
+     * rows are streamed as they are read from the database, errors are returned as json before the stream is opened
+     *
+     * @param userId owner's id
+     * @param format format of the rows (default: csv)
+     * @return streamed rows
+     */
+    @GetMapping(OWNER_PATH + EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                        @RequestParam(
+                                                                name = FORMAT_PARAMETER_NAME,
+                                                                defaultValue = CSV_DEFAULT_VALUE) ExportFormat format) {
+        log.info("GET-запрос: выгрузка бронирований владельца вещей с id {}, формат: {}", userId, format);
+        StreamingResponseBody body = bookingExportService.export(userId, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     /**
      * processing a GET request to get a booking' list for a specific booker by booking's state
      * with paging option: the size and the number of the page is defined by from/size parameters of request
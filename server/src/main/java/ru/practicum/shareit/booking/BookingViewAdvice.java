@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * writing the bookings of "/bookings" responses in the view chosen by the request (see BookingView)
+ * the full view is written as is, the compact one is mapped from it just before serialization
+ * (before FieldSetAdvice wraps the body to filter the fields of the chosen view)
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ControllerAdvice(assignableTypes = BookingController.class)
+public class BookingViewAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (body == null || !(request instanceof ServletServerHttpRequest)
+                || BookingView.of(((ServletServerHttpRequest) request).getServletRequest()) != BookingView.COMPACT) {
+            return body;
+        }
+        return new CompactBody(toCompact(body));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toCompact(Object body) {
+        if (body instanceof BookingOutDto) {
+            return BookingMapper.toBookingCompactOutDto((BookingOutDto) body);
+        }
+        if (body instanceof List) {
+            return ((List<Object>) body).stream()
+                    .map(BookingViewAdvice::toCompact)
+                    .collect(Collectors.toList());
+        }
+        if (body instanceof BookingSummaryOutDto) {
+            return BookingMapper.toBookingCompactSummaryOutDto((BookingSummaryOutDto) body);
+        }
+        if (body instanceof Map) {
+            Map<Object, Object> compact = new LinkedHashMap<>();
+            ((Map<Object, Object>) body).forEach((key, value) -> compact.put(key, toCompact(value)));
+            return compact;
+        }
+        return body;
+    }
+
+    /**
+     * the converter writes the body as the handler's declared type if it can (List of BookingOutDto, for example),
+     * the holder makes it write the compact value by its own type
+     */
+    @RequiredArgsConstructor
+    static class CompactBody {
+        private final Object value;
+
+        @JsonValue
+        public Object getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.fields.FieldSet;
+
+import java.time.LocalDateTime;
+
+/**
+ * BookingCompactResponse DTO model.
+ * compact view of the booking: the item and the booker are referenced by id, the item is named,
+ * paths of the fields are the same as in BookingOutDto
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+@JsonFilter(FieldSet.FILTER)
+public class BookingCompactOutDto {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    Booker booker;
+    Item item;
+
+    @Value
+    public static class Booker {
+        Long id;
+    }
+
+    @Value
+    public static class Item {
+        Long id;
+        String name;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * BookingCompactSummary DTO model.
+ * BookingSummaryOutDto with the compact view of the bookings
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class BookingCompactSummaryOutDto {
+    Long count;
+    List<BookingCompactOutDto> bookings;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * BookingExport DTO model.
+ * row of the owner's bookings' export, read by the query as is, without loading the entities
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class BookingExportDto {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    Long itemId;
+    String itemName;
+    Long bookerId;
+    String bookerName;
+}
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.time.LocalDateTime;
 
@@ -16,6 +18,7 @@ import java.time.LocalDateTime;
 @Value
 @Builder(toBuilder = true)
 @RequiredArgsConstructor
+@JsonFilter(FieldSet.FILTER)
 public class BookingOutDto {
     Long id;
     LocalDateTime start;
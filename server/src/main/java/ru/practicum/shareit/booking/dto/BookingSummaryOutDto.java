@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * BookingSummary DTO model.
+ * number of the owner's bookings in a specific state and the first page of them
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class BookingSummaryOutDto {
+    Long count;
+    List<BookingOutDto> bookings;
+}
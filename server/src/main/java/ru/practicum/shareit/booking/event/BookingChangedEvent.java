@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+
+/**
+ * Event: booking has been created or its status has been changed
+ */
+@Value
+public class BookingChangedEvent {
+    BookingOutDto booking;
+    Long ownerId;
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCompactOutDto;
+import ru.practicum.shareit.booking.dto.BookingCompactSummaryOutDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -108,5 +112,56 @@ public class BookingMapper {
         );
     }
 
-}
 
+    /**
+     * map ArchivedBooking object into Booking object
+     *
+     * @param archivedBooking ArchivedBooking object
+     * @return Booking object
+     */
+    public static Booking toBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .version(archivedBooking.getVersion())
+                .start(archivedBooking.getStart())
+                .end(archivedBooking.getEnd())
+                .booker(archivedBooking.getBooker())
+                .item(archivedBooking.getItem())
+                .status(archivedBooking.getStatus())
+                .build();
+    }
+
+    /**
+     * map BookingOutDto object into BookingCompactOutDto object
+     *
+     * @param bookingOutDto BookingOutDto object
+     * @return BookingCompactOutDto object
+     */
+    public static BookingCompactOutDto toBookingCompactOutDto(BookingOutDto bookingOutDto) {
+        User booker = bookingOutDto.getBooker();
+        Item item = bookingOutDto.getItem();
+        return new BookingCompactOutDto(
+                bookingOutDto.getId(),
+                bookingOutDto.getStart(),
+                bookingOutDto.getEnd(),
+                bookingOutDto.getStatus(),
+                booker == null ? null : new BookingCompactOutDto.Booker(booker.getId()),
+                item == null ? null : new BookingCompactOutDto.Item(item.getId(), item.getName())
+        );
+    }
+
+    /**
+     * map BookingSummaryOutDto object into BookingCompactSummaryOutDto object
+     *
+     * @param summary BookingSummaryOutDto object
+     * @return BookingCompactSummaryOutDto object
+     */
+    public static BookingCompactSummaryOutDto toBookingCompactSummaryOutDto(BookingSummaryOutDto summary) {
+        return new BookingCompactSummaryOutDto(
+                summary.getCount(),
+                summary.getBookings().stream()
+                        .map(BookingMapper::toBookingCompactOutDto)
+                        .collect(Collectors.toList())
+        );
+    }
+}
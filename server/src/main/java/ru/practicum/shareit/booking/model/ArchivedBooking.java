@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * finished booking moved from the bookings table to the archive, keeps the id of the booking
+ */
+@Entity
+@Table(name = "bookings_archive")
+@Builder(toBuilder = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBooking {
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private Long version;
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime start;
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime end;
+    @ManyToOne()
+    @JoinColumn(name = "item", referencedColumnName = "id", nullable = false)
+    private Item item;
+    @ManyToOne()
+    @JoinColumn(name = "booker", referencedColumnName = "id", nullable = false)
+    private User booker;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * BookingEvent model: booking's change kept for a while, so that every instance of the server
+ * pushes it to its own subscribers of the booker and of the item's owner
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "booking_events")
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+    @Column(name = "booker_id", nullable = false)
+    private Long bookerId;
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    @Column(name = "payload", nullable = false)
+    private String payload;
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.model;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Objects;
+
+import static ru.practicum.shareit.util.constants.Constants.APPLICATION_SMILE_VALUE;
+import static ru.practicum.shareit.util.constants.Constants.PROFILE_PARAMETER_NAME;
+import static ru.practicum.shareit.util.constants.Constants.VIEW_PARAMETER_NAME;
+
+/**
+ * Enumeration of views of the bookings in responses.
+ */
+public enum BookingView {
+    /**
+     * FULL - booker and item as they are stored (version 1 of the responses, default)
+     */
+    FULL,
+    /**
+     * COMPACT - booker's id, item's id and name
+     */
+    COMPACT;
+
+    /**
+     * get the view chosen by the request: "view" parameter or the profile of Accept header
+     * (application/json;profile=compact or application/x-jackson-smile;profile=compact),
+     * unknown views are answered with the full one
+     *
+     * @param request request
+     * @return view
+     */
+    public static BookingView of(HttpServletRequest request) {
+        String view = request.getParameter(VIEW_PARAMETER_NAME);
+        if (view == null) {
+            view = profileOf(request.getHeader(HttpHeaders.ACCEPT));
+        }
+        return COMPACT.name().equalsIgnoreCase(view) ? COMPACT : FULL;
+    }
+
+    private static final MediaType SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private static String profileOf(String accept) {
+        if (accept == null || !accept.contains(PROFILE_PARAMETER_NAME)) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .filter(type -> MediaType.APPLICATION_JSON.isCompatibleWith(type)
+                            || SMILE.isCompatibleWith(type))
+                    .map(type -> type.getParameter(PROFILE_PARAMETER_NAME))
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .map(profile -> profile.replace("\"", ""))
+                    .orElse(null);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Enumeration of formats of the bookings' export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    /**
+     * CSV - comma-separated values with a header row
+     */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    /**
+     * NDJSON - one JSON object per line
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+}
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.sharding.ScatterGather;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * Archived booking repository
+ */
+@Repository
+@Sharded
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>,
+        ArchivedBookingRepositoryCustom {
+
+    /**
+     * find the archived booking with the latest start
+     *
+     * @return Optional ArchivedBooking object
+     */
+    @ScatterGather(orderBy = "start", descending = true)
+    Optional<ArchivedBooking> findFirstByOrderByStartDesc();
+
+    /**
+     * @param bookerId booker's id
+     * @param page     page's parameters
+     * @return list of archived bookings of a specific booker, sorting by start in descending order
+     */
+    @ScatterGather(orderBy = "start", descending = true)
+    List<ArchivedBooking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable page);
+
+    /**
+     * @param bookerId booker's id
+     * @param now      time
+     * @param page     page's parameters
+     * @return list of archived bookings of a specific booker ended before the time, sorting by start in descending order
+     */
+    @ScatterGather(orderBy = "start", descending = true)
+    List<ArchivedBooking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId,
+                                                                          LocalDateTime now,
+                                                                          Pageable page);
+
+    /**
+     * @param bookerId booker's id
+     * @param statuses statuses
+     * @param page     page's parameters
+     * @return list of archived bookings of a specific booker in the statuses, sorting by start in descending order
+     */
+    @ScatterGather(orderBy = "start", descending = true)
+    List<ArchivedBooking> findAllByBookerIdAndStatusInOrderByStartDesc(Long bookerId,
+                                                                       List<BookingStatus> statuses,
+                                                                       Pageable page);
+
+    /**
+     * @param bookerId booker's id
+     * @param status   status
+     * @param page     page's parameters
+     * @return list of archived bookings of a specific booker in the status, sorting by start in descending order
+     */
+    @ScatterGather(orderBy = "start", descending = true)
+    List<ArchivedBooking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId,
+                                                                     BookingStatus status,
+                                                                     Pageable page);
+
+    /**
+     * @param ownerId owner's id
+     * @param page    page's parameters
+     * @return list of archived bookings of a specific owner, sorting by start in descending order
+     */
+    @ShardBy
+    List<ArchivedBooking> findAllByItem_Owner_IdOrderByStartDesc(Long ownerId, Pageable page);
+
+    /**
+     * @param ownerId owner's id
+     * @param now     time
+     * @param page    page's parameters
+     * @return list of archived bookings of a specific owner ended before the time, sorting by start in descending order
+     */
+    @ShardBy
+    List<ArchivedBooking> findAllByItem_Owner_IdAndEndIsBeforeOrderByStartDesc(Long ownerId,
+                                                                               LocalDateTime now,
+                                                                               Pageable page);
+
+    /**
+     * @param ownerId  owner's id
+     * @param statuses statuses
+     * @param page     page's parameters
+     * @return list of archived bookings of a specific owner in the statuses, sorting by start in descending order
+     */
+    @ShardBy
+    List<ArchivedBooking> findAllByItem_Owner_IdAndStatusInOrderByStartDesc(Long ownerId,
+                                                                            List<BookingStatus> statuses,
+                                                                            Pageable page);
+
+    /**
+     * @param ownerId owner's id
+     * @param status  status
+     * @param page    page's parameters
+     * @return list of archived bookings of a specific owner in the status, sorting by start in descending order
+     */
+    @ShardBy
+    List<ArchivedBooking> findAllByItem_Owner_IdAndStatusOrderByStartDesc(Long ownerId,
+                                                                          BookingStatus status,
+                                                                          Pageable page);
+
+    /**
+     * get all archived bookings of the owner's items with items and bookers
+     *
+     * @param ownerId owner's id
+     * @return list of archived bookings of a specific owner, sorting by start in descending order
+     */
+    @ShardBy
+    @Query("select b from ArchivedBooking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "order by b.start desc")
+    List<ArchivedBooking> findAllByOwnerIdWithItemAndBooker(Long ownerId);
+
+    /**
+     * @param itemId item's id
+     * @param status status
+     * @return archived booking of the item in the status with the latest end
+     */
+    @ShardBy
+    Optional<ArchivedBooking> findFirstByItemIdAndStatusOrderByEndDesc(Long itemId, BookingStatus status);
+
+    /**
+     * @param itemIds items' ids
+     * @param status  status
+     * @return archived bookings of the items in the status with the latest end of each item
+     */
+    @ShardBy
+    @Query("select b from ArchivedBooking b where b.item.id in ?1 and b.status = ?2 " +
+            "and b.end = (select max(l.end) from ArchivedBooking l where l.item = b.item and l.status = ?2)")
+    List<ArchivedBooking> findLastByItemIdIn(Collection<Long> itemIds, BookingStatus status);
+
+    /**
+     * @param itemId   item's id
+     * @param bookerId booker's id
+     * @param status   status
+     * @return true if the booker has archived bookings of the item in the status
+     */
+    @ShardBy
+    boolean existsByItem_IdAndBooker_IdAndStatus(Long itemId, Long bookerId, BookingStatus status);
+
+    /**
+     * stream all archived bookings of the owner's items, sorting by start value, starting with new
+     * rows are read by a forward-only cursor, 500 rows per fetch, the stream must be read in a transaction and closed
+     *
+     * @param ownerId owner's id
+     * @return stream of the export's rows
+     */
+    @ShardBy
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
+            "from ArchivedBooking b join b.item i join b.booker u where i.owner.id = ?1 order by b.start desc")
+    Stream<BookingExportDto> streamAllByOwnerId(Long ownerId);
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.util.sharding.ShardBy;
+
+import java.util.Collection;
+
+/**
+ * Archived booking repository operations implemented by hand
+ */
+public interface ArchivedBookingRepositoryCustom {
+
+    /**
+     * copy bookings to the archive
+     *
+     * @param bookingIds ids of the bookings
+     * @return number of the copied bookings
+     */
+    @ShardBy
+    int copyFromBookings(Collection<Long> bookingIds);
+}
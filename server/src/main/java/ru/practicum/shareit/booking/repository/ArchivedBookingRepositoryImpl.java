@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+/**
+ * INSERT ... SELECT isn't supported by the query methods: the native query isn't parsed by Spring Data,
+ * the JPQL one can't name the end property
+ */
+public class ArchivedBookingRepositoryImpl implements ArchivedBookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int copyFromBookings(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createNativeQuery("INSERT INTO bookings_archive " +
+                        "(id, start_time, end_time, item, booker, status, version) " +
+                        "SELECT b.id, b.start_time, b.end_time, b.item, b.booker, b.status, b.version " +
+                        "FROM bookings b WHERE b.id IN (:bookingIds)")
+                .setParameter("bookingIds", bookingIds)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.util.sharding.Colocated;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * BookingEvent repository
+ */
+@Repository
+@Colocated
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    /**
+     * find events written since the time
+     *
+     * @param since time of the earliest event
+     * @return list of the events, sorting by id in ascending order
+     */
+    List<BookingEvent> findAllByCreatedGreaterThanEqualOrderByIdAsc(LocalDateTime since);
+
+    /**
+     * delete events written before the time
+     *
+     * @param before time of the latest event kept
+     * @return number of the deleted events
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from BookingEvent e where e.created < ?1")
+    int deleteAllCreatedBefore(LocalDateTime before);
+
+}
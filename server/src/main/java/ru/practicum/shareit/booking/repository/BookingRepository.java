@@ -2,18 +2,31 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.sharding.ScatterGather;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Booking repository
  */
 @Repository
+@Sharded
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     /**
@@ -24,6 +37,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page    page's parameters
      * @return list of ALL bookings of a specific OWNER, sorting by start in descending order
      */
+    @ShardBy
     List<Booking> findAllByItem_Owner_IdOrderByStartDesc(Long ownerId, Pageable page);
 
     /**
@@ -34,6 +48,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page    page's parameters
      * @return list of PAST bookings of a specific BOOKER, sorting by start in descending order or empty list
      */
+    @ShardBy
     List<Booking> findAllByItem_Owner_IdAndEndIsBeforeOrderByStartDesc(Long ownerId,
                                                                        LocalDateTime now,
                                                                        Pageable page);
@@ -47,6 +62,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page    page's parameters
      * @return list of CURRENT bookings of a specific OWNER, sorting by start in descending order or empty list
      */
+    @ShardBy
     List<Booking> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long ownerId,
                                                                                       LocalDateTime now,
                                                                                       LocalDateTime now1,
@@ -60,6 +76,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page    page's parameters
      * @return list of FUTURE bookings of a specific OWNER, sorting by start in descending order or empty list
      */
+    @ShardBy
     List<Booking> findAllByItem_Owner_IdAndStartIsAfterOrderByStartDesc(Long ownerId,
                                                                         LocalDateTime now,
                                                                         Pageable page);
@@ -72,6 +89,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page    page's parameters
      * @return list of REJECTED bookings of a specific OWNER, sorting by start in descending order or empty list
      */
+    @ShardBy
     List<Booking> findAllByItem_Owner_IdAndStatusInOrderByStartDesc(Long ownerId,
                                                                     List<BookingStatus> notApprovedStatus,
                                                                     Pageable page);
@@ -85,6 +103,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @return list of WAITING for approving bookings of a specific OWNER, sorting by start in descending order
      * or empty list
      */
+    @ShardBy
     List<Booking> findAllByItem_Owner_IdAndStatusOrderByStartDesc(Long ownerId,
                                                                   BookingStatus waiting,
                                                                   Pageable page);
@@ -97,6 +116,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page     page's parameters
      * @return list of bookings of a specific booker, sorting by start in descending order or empty list
      */
+    @ScatterGather(orderBy = "start", descending = true)
     List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId,
                                                     Pageable page);
 
@@ -108,6 +128,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page     page's parameters
      * @return list of bookings of a specific booker, sorting by start in descending order or empty list
      */
+    @ScatterGather(orderBy = "start", descending = true)
     List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId,
                                                                                  LocalDateTime now,
                                                                                  LocalDateTime now1,
@@ -121,6 +142,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page     page's parameters
      * @return list of bookings of a specific booker, sorting by start in descending order or empty list
      */
+    @ScatterGather(orderBy = "start", descending = true)
     List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long bookerId,
                                                                    LocalDateTime now,
                                                                    Pageable page);
@@ -133,6 +155,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param page     page's parameters
      * @return list of bookings of a specific booker, sorting by start in descending order or empty list
      */
+    @ScatterGather(orderBy = "start", descending = true)
     List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId,
                                                                   LocalDateTime now,
                                                                   Pageable page);
@@ -146,6 +169,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param notApprovedStatus list of REJECTED and CANCELED status
      * @return list of bookings of a specific booker, sorting by start in descending order or empty list
      */
+    @ScatterGather(orderBy = "start", descending = true)
     List<Booking> findAllByBookerIdAndStatusInOrderByStartDesc(Long bookerId,
                                                                List<BookingStatus> notApprovedStatus,
                                                                Pageable page);
@@ -159,6 +183,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param waiting  WAITING bookingStatus
      * @return list of bookings of a specific booker, sorting by start in descending order or empty list
      */
+    @ScatterGather(orderBy = "start", descending = true)
     List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId,
                                                              BookingStatus waiting,
                                                              Pageable page);
@@ -172,6 +197,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param now    time
      * @return Optional Booking object
      */
+    @ShardBy
     Optional<Booking> findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(Long itemId,
                                                                                             BookingStatus status,
                                                                                             LocalDateTime now1,
@@ -186,11 +212,40 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param now    time
      * @return Optional Booking object
      */
+    @ShardBy
     Optional<Booking> findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(Long itemId,
                                                                                          BookingStatus status,
                                                                                          LocalDateTime now,
                                                                                          LocalDateTime now1);
 
+    /**
+     * Find LAST relative a certain time bookings of the items with a specific status by one query
+     *
+     * @param itemIds items' ids
+     * @param status  BookingStatus status
+     * @param now     time
+     * @return bookings started before the time with the latest end of each item (several if their ends are equal)
+     */
+    @ShardBy
+    @Query("select b from Booking b where b.item.id in ?1 and b.status = ?2 and b.start <= ?3 " +
+            "and b.end = (select max(l.end) from Booking l " +
+            "where l.item = b.item and l.status = ?2 and l.start <= ?3)")
+    List<Booking> findLastByItemIdIn(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    /**
+     * Find NEXT relative a certain time bookings of the items with a specific status by one query
+     *
+     * @param itemIds items' ids
+     * @param status  BookingStatus status
+     * @param now     time
+     * @return bookings with the earliest start after the time of each item (several if their starts are equal)
+     */
+    @ShardBy
+    @Query("select b from Booking b where b.item.id in ?1 and b.status = ?2 and b.start >= ?3 " +
+            "and b.start = (select min(n.start) from Booking n " +
+            "where n.item = b.item and n.status = ?2 and n.start >= ?3)")
+    List<Booking> findNextByItemIdIn(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
     /**
      * Find if exist PAST or CURRENT bookings relative a certain time of a specific item with a specific status
      *
@@ -200,9 +255,72 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param now      time
      * @return list of PAST or CURRENT APPROVED bookings of a specific item for booker or empty list
      */
+    @ShardBy
     List<Booking> findAllByItem_IdAndBooker_IdAndStatusAndStartIsBefore(Long itemId,
                                                                         Long bookerId,
                                                                         BookingStatus approved,
                                                                         LocalDateTime now);
 
+    /**
+     * get versions of the booking and of all entities included in the booking's view,
+     * used to build entity tag of the booking
+     *
+     * @param bookingId booking's id
+     * @return list with one row [bookerId, ownerId, bookingVersion, itemVersion, bookerVersion,
+     * ownerVersion, requestVersion, requesterVersion] or empty list
+     */
+    @ShardBy
+    @Query("select b.booker.id, o.id, b.version, i.version, b.booker.version, o.version, " +
+            "coalesce(r.version, -1), coalesce(rr.version, -1) from Booking b " +
+            "join b.item i join i.owner o left join i.request r left join r.requester rr " +
+            "where b.id = ?1")
+    List<Object[]> findTagSourceById(Long bookingId);
+
+    /**
+     * Find ALL bookings by OWNER's id with their items and bookers, sorting by start value, starting with new
+     *
+     * @param ownerId owner's id
+     * @return list of ALL bookings of a specific OWNER, sorting by start in descending order
+     */
+    @ShardBy
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "order by b.start desc")
+    List<Booking> findAllByOwnerIdWithItemAndBooker(Long ownerId);
+
+    /**
+     * find ids of the bookings ended before the time, used to move them to the archive
+     *
+     * @param end  time
+     * @param page page's parameters (size of the batch)
+     * @return list of bookings' ids
+     */
+    @ScatterGather
+    @Query("select b.id from Booking b where b.end < ?1 order by b.id")
+    List<Long> findIdsByEndIsBefore(LocalDateTime end, Pageable page);
+
+    /**
+     * delete bookings by ids, used after they are copied to the archive
+     *
+     * @param bookingIds ids of the bookings
+     * @return number of the deleted bookings
+     */
+    @ShardBy
+    @Modifying
+    @Query("delete from Booking b where b.id in ?1")
+    int deleteAllByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * stream all bookings of the owner's items, sorting by start value, starting with new
+     * rows are read by a forward-only cursor, 500 rows per fetch, the stream must be read in a transaction and closed
+     *
+     * @param ownerId owner's id
+     * @return stream of the export's rows
+     */
+    @ShardBy
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
+            "from Booking b join b.item i join b.booker u where i.owner.id = ?1 order by b.start desc")
+    Stream<BookingExportDto> streamAllByOwnerId(Long ownerId);
 }
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * interface for moving finished bookings to the archive (cold partition of the bookings)
+ */
+public interface BookingArchiveService {
+
+    /**
+     * move bookings ended before the horizon from the bookings table to the archive
+     */
+    void archive();
+
+    /**
+     * get the latest start of the archived bookings read from bookings_archive at startup and by every run
+     * of the schedule, archive may be filled by other instances since then
+     *
+     * @return start time or null if the archive was empty
+     */
+    LocalDateTime getWatermark();
+
+    /**
+     * check whether bookings started at or before the time may be in the archive,
+     * queries don't read the archive while their page consists of bookings which may not
+     *
+     * @param start booking's start
+     * @return false if bookings started then can't be archived yet
+     */
+    boolean mayBeArchived(LocalDateTime start);
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.jobs.JobLockService;
+import ru.practicum.shareit.util.sharding.ShardContext;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * BookingArchiveService implementation
+ * bookings are moved by batches, each batch is copied to bookings_archive and deleted from bookings
+ * in one transaction of the bookings' shard; the schedule runs on every instance,
+ * but the bookings are moved by one of them at a time
+ */
+@Slf4j
+@Service
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+
+    private static final String ARCHIVE_JOB = "booking-archive";
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLockService jobLockService;
+    private final ShardRouter shardRouter;
+    private final long horizonDays;
+    private final int batchSize;
+    private final long intervalMs;
+    private volatile LocalDateTime watermark;
+
+    public BookingArchiveServiceImpl(BookingRepository bookingRepository,
+                                     ArchivedBookingRepository archivedBookingRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     JobLockService jobLockService,
+                                     ObjectProvider<ShardRouter> shardRouter,
+                                     @Value("${shareit.bookings.archive.horizon-days:365}") long horizonDays,
+                                     @Value("${shareit.bookings.archive.batch-size:500}") int batchSize,
+                                     @Value("${shareit.bookings.archive.interval-ms:3600000}") long intervalMs) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobLockService = jobLockService;
+        this.shardRouter = ShardRouter.orSingle(shardRouter);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * read the watermark of the archive at startup and before every run of the schedule
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshWatermark() {
+        watermark = archivedBookingRepository.findFirstByOrderByStartDesc()
+                .map(ArchivedBooking::getStart)
+                .orElse(null);
+    }
+
+    /**
+     * move bookings ended before the horizon (shareit.bookings.archive.horizon-days, 0 disables the archive)
+     * periodically, by shareit.bookings.archive.interval-ms; the run is skipped while another instance moves them,
+     * the lock of the stopped instance expires after the interval
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.bookings.archive.interval-ms:3600000}",
+            initialDelayString = "${shareit.bookings.archive.interval-ms:3600000}")
+    public void archive() {
+        refreshWatermark();
+        if (horizonDays <= 0 || !jobLockService.tryLock(ARCHIVE_JOB, Duration.ofMillis(intervalMs))) {
+            return;
+        }
+        LocalDateTime horizon = LocalDateTime.now().minusDays(horizonDays);
+        long moved = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+                moved += ShardContext.inScope(shard, () -> moveAll(horizon));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Перенос бронирований в архив прерван: {}", e.getMessage());
+        } finally {
+            jobLockService.unlock(ARCHIVE_JOB);
+        }
+        if (moved > 0) {
+            refreshWatermark();
+            log.info("В архив перенесено {} бронирований, завершившихся до {}", moved, horizon);
+        }
+    }
+
+    @Override
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * bookings ended before the horizon are archived by any instance, so only bookings started after it
+     * are surely in the bookings table, the watermark is used when this instance doesn't archive:
+     * it may be stale, but is refreshed by the schedule on every instance
+     */
+    @Override
+    public boolean mayBeArchived(LocalDateTime start) {
+        if (horizonDays > 0) {
+            return start.isBefore(LocalDateTime.now().minusDays(horizonDays));
+        }
+        LocalDateTime latest = watermark;
+        return latest == null || !start.isAfter(latest);
+    }
+
+    /**
+     * move bookings of the shard of the scope by batches
+     *
+     * @param horizon time the bookings ended before
+     * @return number of the moved bookings
+     */
+    private long moveAll(LocalDateTime horizon) {
+        long moved = 0;
+        Integer batch;
+        do {
+            batch = transactionTemplate.execute(status -> moveBatch(horizon));
+            moved += batch;
+        } while (batch == batchSize);
+        return moved;
+    }
+
+    private int moveBatch(LocalDateTime horizon) {
+        List<Long> ids = bookingRepository.findIdsByEndIsBefore(horizon, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids);
+        bookingRepository.deleteAllByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+
+/**
+ * interface for pushing bookings' changes to the subscribed bookers and owners
+ */
+@Component
+public interface BookingEventService {
+
+    /**
+     * subscribe user to the changes of the bookings where user is booker or item's owner
+     * the stream is completed after shareit.sse.timeout-ms, the client reconnects then;
+     * each subscription buffers up to shareit.sse.buffer-size unsent events, the oldest ones are dropped
+     * if the client doesn't keep up
+     * throws 404.NOT FOUND ObjectNotFoundException if user doesn't exist
+     *
+     * @param userId user's id
+     * @return emitter of the events' stream, "connected" comment is sent first
+     */
+    SseEmitter subscribe(Long userId);
+
+    /**
+     * write booking's change to booking_events with the change, it's pushed once committed by pollEvents
+     * of every instance of the server to its own subscriptions
+     *
+     * @param event changed booking
+     */
+    void onBookingChanged(BookingChangedEvent event);
+
+    /**
+     * push the written bookings' changes to the subscriptions of the booker and of the item's owner,
+     * periodically, by shareit.sse.poll-interval-ms; each change is pushed once by every instance
+     */
+    void pollEvents();
+
+    /**
+     * delete bookings' changes written more than two shareit.sse.poll-window-ms ago,
+     * periodically, by shareit.sse.poll-window-ms
+     */
+    void deleteExpiredEvents();
+
+    /**
+     * send heartbeat comment to the idle subscriptions, so that connections stay open through proxies
+     * and closed ones are detected, periodically, by shareit.sse.heartbeat-ms
+     */
+    void sendHeartbeat();
+
+}
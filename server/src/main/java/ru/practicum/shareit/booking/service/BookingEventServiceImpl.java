@@ -0,0 +1,293 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.util.sharding.ShardContext;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.util.config.AsyncConfig.SSE_EXECUTOR;
+
+/**
+ * BookingEvent Service implementation
+ * idle subscriptions hold neither a thread nor a transaction: emitters are completed asynchronously
+ * and events are written by a small shared executor
+ * bookings' changes are written to booking_events with the change and read back by every instance,
+ * so that subscribers get them whichever instance changed the booking;
+ * with sharding the change is written by the shard of the booking, so the events of each shard are read in turn
+ */
+@Slf4j
+@Service
+public class BookingEventServiceImpl implements BookingEventService {
+
+    public static final String BOOKING_EVENT_NAME = "booking";
+    public static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final UserRepository userRepository;
+    private final BookingEventRepository bookingEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final ShardRouter shardRouter;
+    private final long timeout;
+    private final int bufferSize;
+    private final Duration pollWindow;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    /**
+     * ids of the events read within the poll window, with the time they were written
+     */
+    private final Map<Long, LocalDateTime> delivered = new ConcurrentHashMap<>();
+
+    public BookingEventServiceImpl(UserRepository userRepository,
+                                   BookingEventRepository bookingEventRepository,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier(SSE_EXECUTOR) TaskExecutor executor,
+                                   ObjectProvider<ShardRouter> shardRouter,
+                                   @Value("${shareit.sse.timeout-ms:1800000}") long timeout,
+                                   @Value("${shareit.sse.buffer-size:32}") int bufferSize,
+                                   @Value("${shareit.sse.poll-window-ms:10000}") long pollWindow) {
+        this.userRepository = userRepository;
+        this.bookingEventRepository = bookingEventRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.shardRouter = ShardRouter.orSingle(shardRouter);
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.pollWindow = Duration.ofMillis(pollWindow);
+    }
+
+    /**
+     * subscribe user to the changes of the bookings where user is booker or item's owner
+     * throws 404.NOT FOUND ObjectNotFoundException if user doesn't exist
+     *
+     * @param userId user's id
+     * @return emitter of the events' stream
+     */
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException(String.format("Пользователя с id %d не существует", userId));
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(userId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(userId, subscriber));
+
+        // commits the response headers right away, so that proxies see the stream is alive
+        deliver(subscriber, () -> SseEmitter.event().comment("connected"));
+        log.info("Пользователь с id {} подписан на изменения бронирований", userId);
+        return emitter;
+    }
+
+    /**
+     * write booking's change to booking_events in the same transaction as the change
+     * the change isn't pushed if the booking can't be serialized, the booking itself is saved anyway
+     *
+     * @param event changed booking
+     */
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingOutDto booking = event.getBooking();
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать бронирование с id {}: {}", booking.getId(), e.getMessage());
+            return;
+        }
+        bookingEventRepository.save(BookingEvent.builder()
+                .bookingId(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(event.getOwnerId())
+                .payload(data)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * push events written within the poll window and not pushed yet to the subscribers of the booker
+     * and of the item's owner; the window covers transactions committed later than they wrote the event
+     * and clocks of the instances differing by less than the window
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.sse.poll-interval-ms:500}")
+    public void pollEvents() {
+        LocalDateTime since = LocalDateTime.now().minus(pollWindow);
+        List<BookingEvent> events = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+            events.addAll(ShardContext.inScope(shard,
+                    () -> bookingEventRepository.findAllByCreatedGreaterThanEqualOrderByIdAsc(since)));
+        }
+        for (BookingEvent event : events) {
+            if (delivered.putIfAbsent(event.getId(), event.getCreated()) == null) {
+                Supplier<SseEmitter.SseEventBuilder> message = () -> SseEmitter.event()
+                        .name(BOOKING_EVENT_NAME)
+                        .id(String.valueOf(event.getBookingId()))
+                        .data(event.getPayload(), MediaType.APPLICATION_JSON);
+                send(event.getBookerId(), message);
+                send(event.getOwnerId(), message);
+            }
+        }
+        delivered.values().removeIf(created -> created.isBefore(since));
+    }
+
+    /**
+     * delete events which are out of the poll window of every instance
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.sse.poll-window-ms:10000}")
+    public void deleteExpiredEvents() {
+        LocalDateTime before = LocalDateTime.now().minus(pollWindow.multipliedBy(2));
+        int deleted = 0;
+        for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+            deleted += ShardContext.inScope(shard, () -> bookingEventRepository.deleteAllCreatedBefore(before));
+        }
+        log.debug("Удалено устаревших событий бронирований: {}", deleted);
+    }
+
+    /**
+     * send comment to idle subscribers to keep connections open through proxies and to detect closed ones
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.sse.heartbeat-ms:15000}")
+    public void sendHeartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.isIdle()) {
+                deliver(subscriber, () -> SseEmitter.event().comment(HEARTBEAT_COMMENT));
+            }
+        }));
+    }
+
+    /**
+     * send event to all user's subscriptions
+     *
+     * @param userId  user's id
+     * @param message event's builder supplier, builders are not reusable
+     */
+    private void send(Long userId, Supplier<SseEmitter.SseEventBuilder> message) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> deliver(subscriber, message));
+        }
+    }
+
+    /**
+     * put event into subscriber's buffer and schedule its draining
+     * the oldest events are dropped if subscriber doesn't keep up
+     *
+     * @param subscriber subscriber
+     * @param message    event's builder supplier
+     */
+    private void deliver(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> message) {
+        subscriber.offer(message.get());
+        if (subscriber.startDraining()) {
+            try {
+                executor.execute(subscriber::drain);
+            } catch (TaskRejectedException e) {
+                // events stay buffered until the next event or heartbeat
+                subscriber.stopDraining();
+                log.warn("Отправка событий бронирований отложена: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * remove subscriber when its connection is completed
+     *
+     * @param userId     user's id
+     * @param subscriber subscriber
+     */
+    private void unsubscribe(Long userId, Subscriber subscriber) {
+        subscribers.computeIfPresent(userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * subscription with the bounded buffer of unsent events
+     */
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            while (!buffer.offer(event)) {
+                buffer.poll();
+            }
+        }
+
+        boolean isIdle() {
+            return buffer.isEmpty() && !draining.get();
+        }
+
+        boolean startDraining() {
+            return draining.compareAndSet(false, true);
+        }
+
+        void stopDraining() {
+            draining.set(false);
+        }
+
+        /**
+         * write buffered events, only one thread drains the buffer at a time to keep events' order
+         */
+        void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = buffer.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        buffer.clear();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                stopDraining();
+            } while (!buffer.isEmpty() && startDraining());
+        }
+    }
+
+}
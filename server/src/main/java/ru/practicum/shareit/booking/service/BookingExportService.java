@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.model.ExportFormat;
+
+/**
+ * interface for exporting the owner's full bookings' history
+ */
+public interface BookingExportService {
+
+    /**
+     * export all bookings of the owner's items, hot and archived, sorting by start value, starting with new
+     * throws 404.NOT_FOUND ObjectNotFoundException if user doesn't exist, before the response is started
+     *
+     * @param ownerId owner's id
+     * @param format  format of the rows
+     * @return body writing the rows as they are read
+     */
+    StreamingResponseBody export(Long ownerId, ExportFormat format);
+}
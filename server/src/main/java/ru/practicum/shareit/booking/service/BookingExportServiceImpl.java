@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.model.ExportFormat;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * BookingExportService implementation
+ * rows are read by forward-only cursors in one read-only transaction and written to the response one by one,
+ * so memory use doesn't depend on the size of the history; the hot bookings are written first, then the archived ones
+ * the transaction is repeatable read: both cursors see one snapshot, so bookings archived between them
+ * are neither lost nor written twice
+ */
+@Slf4j
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+
+    static final String CSV_HEADER = "id,start,end,status,item_id,item_name,booker_id,booker_name";
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExportServiceImpl(BookingRepository bookingRepository,
+                                    ArchivedBookingRepository archivedBookingRepository,
+                                    UserRepository userRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * export all bookings of the owner's items
+     * throws 404.NOT_FOUND ObjectNotFoundException if user doesn't exist
+     *
+     * @param ownerId owner's id
+     * @param format  format of the rows
+     * @return body writing the rows as they are read
+     */
+    @Override
+    public StreamingResponseBody export(Long ownerId, ExportFormat format) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new ObjectNotFoundException(String.format("Пользователя с id %d не существует", ownerId));
+        }
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            long rows;
+            try {
+                rows = transactionTemplate.execute(status -> write(ownerId, format, writer));
+                writer.flush();
+            } catch (UncheckedIOException | IOException e) {
+                log.info("Выгрузка бронирований владельца {} прервана: {}", ownerId, e.getMessage());
+                return;
+            }
+            log.info("Выгружено бронирований владельца {}: {}, формат {}", ownerId, rows, format);
+        };
+    }
+
+    private long write(Long ownerId, ExportFormat format, Writer writer) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            long rows;
+            try (Stream<BookingExportDto> hot = bookingRepository.streamAllByOwnerId(ownerId)) {
+                rows = write(hot, format, writer);
+            }
+            try (Stream<BookingExportDto> archived = archivedBookingRepository.streamAllByOwnerId(ownerId)) {
+                rows += write(archived, format, writer);
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long write(Stream<BookingExportDto> rows, ExportFormat format, Writer writer) throws IOException {
+        long count = 0;
+        for (Iterator<BookingExportDto> iterator = rows.iterator(); iterator.hasNext(); count++) {
+            BookingExportDto row = iterator.next();
+            writer.write(format == ExportFormat.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    private static String toCsv(BookingExportDto row) {
+        return row.getId() + ","
+                + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.getStart()) + ","
+                + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.getEnd()) + ","
+                + row.getStatus() + ","
+                + row.getItemId() + ","
+                + csvValue(row.getItemName()) + ","
+                + row.getBookerId() + ","
+                + csvValue(row.getBookerName());
+    }
+
+    /**
+     * quote the value if it contains separators or quotes, quotes are doubled (RFC 4180)
+     */
+    private static String csvValue(String value) {
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -3,9 +3,12 @@ package ru.practicum.shareit.booking.service;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * BookingService interface
@@ -59,4 +62,20 @@ public interface BookingService {
      * @return list of bookings of a specific user according to specified criteria, sorting by start in descending order
      */
     List<BookingOutDto> getListByBooker(Long bookerId, BookingState state, Integer from, Integer size);
+
+    /**
+     * get number of the owner's bookings and the first page of them for each booking's state
+     *
+     * @param ownerId owner's id
+     * @param size    size of the first page
+     * @return summary by booking's state
+     */
+    Map<BookingState, BookingSummaryOutDto> getSummaryByOwner(Long ownerId, Integer size);
+
+    /**
+     * evict the cached summary of the item's owner once the booking's change is committed
+     *
+     * @param event changed booking
+     */
+    void onBookingChanged(BookingChangedEvent event);
 }
@@ -2,27 +2,43 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.exceptions.*;
+import ru.practicum.shareit.util.sharding.ShardScope;
 
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Booking Service implementation
@@ -33,8 +49,23 @@ import java.util.List;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchiveService bookingArchiveService;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, OwnerSummary> summaryCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, OwnerSummary> eldest) {
+            return size() > summaryCacheMaxEntries;
+        }
+    };
+    private final AtomicLong summaryEvictions = new AtomicLong();
+
+    @Value("${shareit.bookings.summary.cache-ttl-ms:0}")
+    private long summaryCacheTtl;
+    @Value("${shareit.bookings.summary.cache-max-entries:1000}")
+    private int summaryCacheMaxEntries;
 
     /**
      * create (save and assign identity) booking, booking is not allowed for item's owner
@@ -50,6 +81,7 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     @Transactional
+    @ShardScope(1)
     public BookingOutDto create(Long userId, BookingDto bookingDto) {
 
         Item item = getItemByIdIfExists(bookingDto.getItemId());
@@ -61,7 +93,9 @@ public class BookingServiceImpl implements BookingService {
                 BookingStatus.WAITING);
         Booking bookingWithId = bookingRepository.save(booking);
         log.info("Произведено бронирование: {}", bookingWithId);
-        return BookingMapper.toBookingOutDto(bookingWithId);
+        BookingOutDto bookingOutDto = BookingMapper.toBookingOutDto(bookingWithId);
+        eventPublisher.publishEvent(new BookingChangedEvent(bookingOutDto, item.getOwner().getId()));
+        return bookingOutDto;
     }
 
     /**
@@ -77,7 +111,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public BookingOutDto getById(Long userId, Long bookingId) {
 
-        Booking booking = getBookingByIdIfExists(bookingId);
+        Booking booking = getBookingOrArchivedByIdIfExists(bookingId);
         checkAccessAllowedOnlyForOwnerOrBooker(booking, userId);
 
         BookingOutDto bookingOutDto = BookingMapper.toBookingOutDto(booking);
@@ -99,6 +133,7 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     @Transactional
+    @ShardScope
     public BookingOutDto updateStatus(Long bookingId, Long userId, Boolean approved) {
 
         checkUserExists(userId);
@@ -110,6 +145,7 @@ public class BookingServiceImpl implements BookingService {
         Booking updated = booking.toBuilder().status(status).build();
         bookingRepository.save(updated);
         BookingOutDto bookingOutDto = BookingMapper.toBookingOutDto(updated);
+        eventPublisher.publishEvent(new BookingChangedEvent(bookingOutDto, userId));
         log.info("Бронирование {} получило статус {}", bookingOutDto, status);
         return bookingOutDto;
     }
@@ -137,7 +173,10 @@ public class BookingServiceImpl implements BookingService {
 
         switch (state) {
             case ALL:
-                listByOwner = bookingRepository.findAllByItem_Owner_IdOrderByStartDesc(ownerId, pageRequest);
+                listByOwner = withArchive(pageRequest,
+                        pageable -> bookingRepository.findAllByItem_Owner_IdOrderByStartDesc(ownerId, pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByItem_Owner_IdOrderByStartDesc(ownerId, pageable));
                 break;
             case CURRENT:
                 listByOwner = bookingRepository
@@ -145,8 +184,11 @@ public class BookingServiceImpl implements BookingService {
                                 pageRequest);
                 break;
             case PAST:
-                listByOwner = bookingRepository.findAllByItem_Owner_IdAndEndIsBeforeOrderByStartDesc(ownerId, now,
-                        pageRequest);
+                listByOwner = withArchive(pageRequest,
+                        pageable -> bookingRepository
+                                .findAllByItem_Owner_IdAndEndIsBeforeOrderByStartDesc(ownerId, now, pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByItem_Owner_IdAndEndIsBeforeOrderByStartDesc(ownerId, now, pageable));
                 break;
             case FUTURE:
                 listByOwner = bookingRepository.findAllByItem_Owner_IdAndStartIsAfterOrderByStartDesc(ownerId, now,
@@ -154,13 +196,22 @@ public class BookingServiceImpl implements BookingService {
                 break;
             case REJECTED:
                 List<BookingStatus> notApprovedStatus = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
-                listByOwner = bookingRepository
-                        .findAllByItem_Owner_IdAndStatusInOrderByStartDesc(ownerId, notApprovedStatus, pageRequest);
+                listByOwner = withArchive(pageRequest,
+                        pageable -> bookingRepository
+                                .findAllByItem_Owner_IdAndStatusInOrderByStartDesc(ownerId, notApprovedStatus,
+                                        pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByItem_Owner_IdAndStatusInOrderByStartDesc(ownerId, notApprovedStatus,
+                                        pageable));
                 break;
             case WAITING:
-                listByOwner = bookingRepository
-                        .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId,
-                                BookingStatus.valueOf("WAITING"), pageRequest);
+                listByOwner = withArchive(pageRequest,
+                        pageable -> bookingRepository
+                                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId,
+                                        BookingStatus.valueOf("WAITING"), pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByItem_Owner_IdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING,
+                                        pageable));
                 break;
             default:
                 throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
@@ -193,7 +244,9 @@ public class BookingServiceImpl implements BookingService {
 
         switch (state) {
             case ALL:
-                listByBooker = bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageRequest);
+                listByBooker = withArchive(pageRequest,
+                        pageable -> bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageable),
+                        pageable -> archivedBookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageable));
                 break;
             case CURRENT:
                 listByBooker = bookingRepository
@@ -201,8 +254,11 @@ public class BookingServiceImpl implements BookingService {
                                 pageRequest);
                 break;
             case PAST:
-                listByBooker = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(bookerId, now,
-                        pageRequest);
+                listByBooker = withArchive(pageRequest,
+                        pageable -> bookingRepository
+                                .findAllByBookerIdAndEndIsBeforeOrderByStartDesc(bookerId, now, pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByBookerIdAndEndIsBeforeOrderByStartDesc(bookerId, now, pageable));
                 break;
             case FUTURE:
                 listByBooker = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(bookerId, now,
@@ -210,13 +266,19 @@ public class BookingServiceImpl implements BookingService {
                 break;
             case REJECTED:
                 List<BookingStatus> notApprovedStatus = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
-                listByBooker = bookingRepository
-                        .findAllByBookerIdAndStatusInOrderByStartDesc(bookerId, notApprovedStatus, pageRequest);
+                listByBooker = withArchive(pageRequest,
+                        pageable -> bookingRepository
+                                .findAllByBookerIdAndStatusInOrderByStartDesc(bookerId, notApprovedStatus, pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByBookerIdAndStatusInOrderByStartDesc(bookerId, notApprovedStatus, pageable));
                 break;
             case WAITING:
-                listByBooker = bookingRepository
-                        .findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.valueOf("WAITING"),
-                                pageRequest);
+                listByBooker = withArchive(pageRequest,
+                        pageable -> bookingRepository
+                                .findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.valueOf("WAITING"),
+                                        pageable),
+                        pageable -> archivedBookingRepository
+                                .findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING, pageable));
                 break;
             default:
                 throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
@@ -226,6 +288,143 @@ public class BookingServiceImpl implements BookingService {
 
     }
 
+    /**
+     * get number of the owner's bookings and the first page of them for each booking's state
+     * all owner's bookings are read once and partitioned by the same criteria as in getListByOwner
+     * result may be cached for the owner for shareit.bookings.summary.cache-ttl-ms (not cached by default),
+     * up to shareit.bookings.summary.cache-max-entries least recently used owners are kept;
+     * result read concurrently with a committed booking's change is not cached, since it may miss the change
+     * throws 404.NOT_FOUND ObjectNotFoundException if user doesn't exist
+     *
+     * @param ownerId owner's id
+     * @param size    size of the first page
+     * @return summary by booking's state
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<BookingState, BookingSummaryOutDto> getSummaryByOwner(Long ownerId, Integer size) {
+
+        long nowMillis = System.currentTimeMillis();
+        long evictions = summaryEvictions.get();
+        synchronized (summaryCache) {
+            OwnerSummary cached = summaryCache.get(ownerId);
+            if (cached != null && cached.expires <= nowMillis) {
+                summaryCache.remove(ownerId);
+            } else if (cached != null && cached.size == size) {
+                return cached.summary;
+            }
+        }
+
+        checkUserExists(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findAllByOwnerIdWithItemAndBooker(ownerId));
+        archivedBookingRepository.findAllByOwnerIdWithItemAndBooker(ownerId).stream()
+                .map(BookingMapper::toBooking)
+                .forEach(bookings::add);
+        bookings.sort(Comparator.comparing(Booking::getStart).reversed());
+
+        Map<BookingState, BookingSummaryOutDto> summary = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            List<Booking> inState = bookings.stream()
+                    .filter(booking -> isInState(booking, state, now))
+                    .collect(Collectors.toList());
+            summary.put(state, BookingSummaryOutDto.builder()
+                    .count((long) inState.size())
+                    .bookings(BookingMapper.toBookingOutDtoList(inState.stream()
+                            .limit(size)
+                            .collect(Collectors.toList())))
+                    .build());
+        }
+        if (summaryCacheTtl > 0) {
+            synchronized (summaryCache) {
+                if (summaryEvictions.get() == evictions) {
+                    summaryCache.put(ownerId, new OwnerSummary(size, nowMillis + summaryCacheTtl, summary));
+                }
+            }
+        }
+        log.info("Сводка бронирований владельца с id {}: {} бронирований", ownerId, bookings.size());
+        return summary;
+    }
+
+    /**
+     * evict the cached summary of the item's owner once the booking's change is committed,
+     * so that a summary read before the commit can't be cached again after the eviction
+     *
+     * @param event changed booking
+     */
+    @Override
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        synchronized (summaryCache) {
+            summaryEvictions.incrementAndGet();
+            summaryCache.remove(event.getOwnerId());
+        }
+    }
+
+    /**
+     * get page of the bookings, reading the archive only when the page may contain archived bookings:
+     * the archive is skipped only if the page is full and its last booking can't be followed by archived ones,
+     * else the first bookings up to the end of the page are read from both tables and merged by start,
+     * the bookings table is read again only if the archive has some of them
+     *
+     * @param pageRequest  page's parameters
+     * @param query        query of the bookings table
+     * @param archiveQuery the same query of the archive
+     * @return list of bookings, sorting by start in descending order
+     */
+    private List<Booking> withArchive(Pageable pageRequest,
+                                      Function<Pageable, List<Booking>> query,
+                                      Function<Pageable, List<ArchivedBooking>> archiveQuery) {
+        List<Booking> bookings = query.apply(pageRequest);
+        if (bookings.size() >= pageRequest.getPageSize()
+                && !bookingArchiveService.mayBeArchived(bookings.get(bookings.size() - 1).getStart())) {
+            return bookings;
+        }
+        Pageable head = PageRequest.of(0, (int) pageRequest.getOffset() + pageRequest.getPageSize());
+        List<ArchivedBooking> archived = archiveQuery.apply(head);
+        if (archived.isEmpty()) {
+            return bookings;
+        }
+        List<Booking> merged = new ArrayList<>(pageRequest.getOffset() == 0 ? bookings : query.apply(head));
+        archived.stream()
+                .map(BookingMapper::toBooking)
+                .forEach(merged::add);
+        log.debug("Бронирования страницы {} дополнены из архива", pageRequest);
+        return merged.stream()
+                .sorted(Comparator.comparing(Booking::getStart).reversed())
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * check whether booking is in a specific state at a certain time
+     * criteria are the same as in the repository's queries used by getListByOwner and getListByBooker
+     *
+     * @param booking booking
+     * @param state   booking's state
+     * @param now     time
+     * @return boolean
+     */
+    private boolean isInState(Booking booking, BookingState state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return true;
+            case CURRENT:
+                return booking.getStart().isBefore(now) && booking.getEnd().isAfter(now);
+            case PAST:
+                return booking.getEnd().isBefore(now);
+            case FUTURE:
+                return booking.getStart().isAfter(now);
+            case REJECTED:
+                return booking.getStatus() == BookingStatus.REJECTED || booking.getStatus() == BookingStatus.CANCELED;
+            case WAITING:
+                return booking.getStatus() == BookingStatus.WAITING;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
     /**
      * resolve BookingStatus according to boolean approved argument value: APPROVED (true), REJECTED (false)
      *
@@ -265,6 +464,20 @@ public class BookingServiceImpl implements BookingService {
                         new ObjectNotFoundException(String.format("Бронирования с id %d не существует", bookingId)));
     }
 
+    /**
+     * get Booking if exists in the bookings table or in the archive
+     * throw 404.NOT FOUND ObjectNotFoundException if isn't
+     *
+     * @param bookingId booking's id
+     * @return Booking object
+     */
+    private Booking getBookingOrArchivedByIdIfExists(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId).map(BookingMapper::toBooking))
+                .orElseThrow(() ->
+                        new ObjectNotFoundException(String.format("Бронирования с id %d не существует", bookingId)));
+    }
+
     /**
      * get User if exists throw 404.NOT FOUND ObjectNotFoundException if isn't
      *
@@ -378,5 +591,19 @@ public class BookingServiceImpl implements BookingService {
     private boolean isBooker(Booking booking, Long userId) {
         return booking.getBooker().getId().equals(userId);
     }
-}
 
+    /**
+     * cached owner's summary
+     */
+    private static class OwnerSummary {
+        private final int size;
+        private final long expires;
+        private final Map<BookingState, BookingSummaryOutDto> summary;
+
+        private OwnerSummary(int size, long expires, Map<BookingState, BookingSummaryOutDto> summary) {
+            this.size = size;
+            this.expires = expires;
+            this.summary = summary;
+        }
+    }
+}
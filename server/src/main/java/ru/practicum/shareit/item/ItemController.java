@@ -5,9 +5,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.CommentPageOutDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupOutDto;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.ItemRanking;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.List;
 
@@ -42,13 +46,48 @@ public class ItemController {
      *
      * @param userId user's id
      * @param itemId item's id
+     * @param fields comma-separated properties to write (all if absent)
      * @return item
      */
     @GetMapping(ITEM_ID_PATH_VARIABLE)
     public ItemOutDto getById(@RequestHeader(HEADER_USER_ID) Long userId,
-                              @PathVariable Long itemId) {
+                              @PathVariable Long itemId,
+                              @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
         log.info("GET-request: получение информации о вещи по id: {}, запрашивает пользователь: {}", itemId, userId);
-        return itemService.getById(userId, itemId);
+        return itemService.getById(userId, itemId, FieldSet.of(fields));
+    }
+
+    /**
+     * processing GET-request to get items by the list of ids
+     *
+     * @param userId  user's id
+     * @param itemIds comma-separated items' ids
+     * @param fields  comma-separated properties to write (all if absent)
+     * @return items in order of the ids and ids of the items which don't exist
+     */
+    @GetMapping(params = IDS_PARAMETER_NAME)
+    public ItemLookupOutDto getByIds(@RequestHeader(HEADER_USER_ID) Long userId,
+                                     @RequestParam(IDS_PARAMETER_NAME) List<Long> itemIds,
+                                     @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
+        log.info("GET-request: получение вещей по списку id: {}, запрашивает пользователь: {}", itemIds, userId);
+        return itemService.getByIds(userId, itemIds, FieldSet.of(fields));
+    }
+
+    /**
+     * processing POST-request to get items by the list of ids too long for the query string
+     *
+     * @param userId  user's id
+     * @param itemIds items' ids
+     * @param fields  comma-separated properties to write (all if absent)
+     * @return items in order of the ids and ids of the items which don't exist
+     */
+    @PostMapping(LOOKUP_PATH)
+    public ItemLookupOutDto lookup(@RequestHeader(HEADER_USER_ID) Long userId,
+                                   @RequestBody List<Long> itemIds,
+                                   @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
+        log.info("POST-request: получение вещей по списку из {} id, запрашивает пользователь: {}",
+                itemIds.size(), userId);
+        return itemService.getByIds(userId, itemIds, FieldSet.of(fields));
     }
 
     /**
@@ -83,25 +122,67 @@ public class ItemController {
      * processing GET-request to get all items of a specific user
      *
      * @param userId user's id
+     * @param fields comma-separated properties to write (all if absent)
      * @return list of items
      */
     @GetMapping()
-    public List<ItemOutDto> getListByUser(@RequestHeader(HEADER_USER_ID) Long userId) {
+    public List<ItemOutDto> getListByUser(@RequestHeader(HEADER_USER_ID) Long userId,
+                                          @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
         log.info("GET-request: получение списка вещей пользователя с id: {}", userId);
-        return itemService.getListByUser(userId);
+        return itemService.getListByUser(userId, FieldSet.of(fields));
     }
 
     /**
      * processing GET-request to search all available items, contained substring in name or description
      *
      * @param substring substring for search
+     * @param fields    comma-separated properties to write (all if absent)
      * @return list of ItemDto objects
      */
     @GetMapping(SEARCH_PATH)
-    public List<ItemOutDto> searchItemsBySubstring(@RequestParam(TEXT_PARAMETER_NAME) String substring) {
+    public List<ItemOutDto> searchItemsBySubstring(@RequestParam(TEXT_PARAMETER_NAME) String substring,
+                                                   @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
         log.info("GET-request: получение списка доступных к бронированию вещей,"
                 + " содержащих в описании или названии подстроку: {}", substring);
-        return itemService.searchItemsBySubstring(substring);
+        return itemService.searchItemsBySubstring(substring, FieldSet.of(fields));
+    }
+
+    /**
+     * processing GET-request to get items with the greatest number of bookings, approved bookings or comments
+     *
+     * @param ranking counter to rank items by (default: bookings)
+     * @param size    number of items
+     * @return list of items with their counters
+     */
+    @GetMapping(TOP_PATH)
+    public List<ItemOutDto> getTop(@RequestParam(
+                                           name = RANKING_PARAMETER_NAME,
+                                           defaultValue = BOOKINGS_DEFAULT_VALUE) ItemRanking ranking,
+                                   @RequestParam(
+                                           name = SIZE_PARAMETER_NAME,
+                                           defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        log.info("GET-request: получение списка вещей с наибольшим значением счётчика {}, ограничение размера: {}",
+                ranking, size);
+        return itemService.getTop(ranking, size);
+    }
+
+    /**
+     * processing GET-request to get page of the item's comments starting with the newest ones
+     *
+     * @param itemId item's id
+     * @param cursor nextCursor of the previous page (absent for the first page)
+     * @param size   size of the page
+     * @return comments and cursor of the next page
+     */
+    @GetMapping(COMMENTS_PATH_VARIABLE)
+    public CommentPageOutDto getComments(@PathVariable Long itemId,
+                                         @RequestParam(name = CURSOR_PARAMETER_NAME, required = false) Long cursor,
+                                         @RequestParam(
+                                                 name = SIZE_PARAMETER_NAME,
+                                                 defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        log.info("GET-request: получение отзывов вещи с id: {} после отзыва {}, ограничение размера: {}",
+                itemId, cursor, size);
+        return itemService.getComments(itemId, cursor, size);
     }
 
     /**
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * CommentPage DTO model.
+ * page of the item's comments starting with the newest ones and the cursor of the next page
+ * (null if there are no more comments)
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class CommentPageOutDto {
+    List<CommentOutDto> comments;
+    Long nextCursor;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * CommentSummary DTO model.
+ * number of the item's comments and the latest comments in order of addition
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class CommentSummaryDto {
+    Long count;
+    List<CommentOutDto> latest;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * ItemCounters DTO model.
+ * numbers of the item's bookings, approved bookings and comments
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class ItemCountersDto {
+    Long bookings;
+    Long approvals;
+    Long comments;
+}
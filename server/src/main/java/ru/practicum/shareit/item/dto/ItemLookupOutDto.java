@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * ItemLookup DTO model.
+ * items found by the list of ids in order of the list and ids of the items which don't exist
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class ItemLookupOutDto {
+    List<ItemOutDto> items;
+    List<Long> missing;
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.List;
 
@@ -13,6 +16,7 @@ import java.util.List;
 @Value
 @Builder(toBuilder = true)
 @RequiredArgsConstructor
+@JsonFilter(FieldSet.FILTER)
 public class ItemOutDto {
     Long id;
     String name;
@@ -21,5 +25,12 @@ public class ItemOutDto {
     BookingItemDto lastBooking;
     BookingItemDto nextBooking;
     Long requestId;
+    /**
+     * the latest comments, all comments are read by pages
+     */
     List<CommentOutDto> comments;
+    @EqualsAndHashCode.Exclude
+    Long commentCount;
+    @EqualsAndHashCode.Exclude
+    ItemCountersDto counters;
 }
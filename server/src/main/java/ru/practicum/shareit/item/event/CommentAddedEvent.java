@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.CommentOutDto;
+
+/**
+ * Event: comment has been added to item
+ */
+@Value
+public class CommentAddedEvent {
+    CommentOutDto comment;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+
+/**
+ * Event: item has been created or updated
+ */
+@Value
+public class ItemSavedEvent {
+    Long itemId;
+    Long ownerId;
+    String name;
+    String description;
+    boolean created;
+}
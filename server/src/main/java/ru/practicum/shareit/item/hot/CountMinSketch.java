@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.hot;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * count-min sketch of item ids: approximate frequencies in fixed memory
+ * estimate is never less than the real count and exceeds it by a small share of all counts with high probability
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL};
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth number of hash rows, at most 8
+     * @param width number of counters in a row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || width < 1) {
+            throw new IllegalArgumentException("Некорректные размеры count-min sketch: " + depth + "x" + width);
+        }
+        int rowWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = rowWidth - 1;
+        this.counters = new AtomicLongArray(depth * rowWidth);
+    }
+
+    /**
+     * add occurrences of the key
+     *
+     * @param key   key
+     * @param count number of occurrences
+     * @return estimated frequency of the key after adding
+     */
+    public long add(long key, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(row, key), count));
+        }
+        return estimate;
+    }
+
+    /**
+     * get estimated frequency of the key
+     *
+     * @param key key
+     * @return estimated frequency
+     */
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * halve all the counters, so that old occurrences weigh less than recent ones
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value;
+            do {
+                value = counters.get(i);
+            } while (!counters.compareAndSet(i, value, value >> 1));
+        }
+    }
+
+    private int index(int row, long key) {
+        long hash = (key + row) * SEEDS[row];
+        hash ^= hash >>> 32;
+        return row * (mask + 1) + (int) (hash & mask);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.hot;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * snapshot of the hot item's estimated number of reads, restored at startup
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "hot_items")
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotItem {
+    @Id
+    @Column(name = "item", nullable = false)
+    private Long itemId;
+    @Column(name = "hits", nullable = false)
+    private Long hits;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.hot;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * HotItem DTO model.
+ * item's id and estimated number of its reads
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class HotItemDto {
+    Long itemId;
+    Long hits;
+}
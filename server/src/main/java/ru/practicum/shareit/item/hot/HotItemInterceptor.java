@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.hot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+import static ru.practicum.shareit.util.constants.Constants.ITEMS_PATH;
+import static ru.practicum.shareit.util.constants.Constants.ITEM_ID_PATH_VARIABLE;
+
+/**
+ * records reads of the single item, including the ones answered 304.NOT_MODIFIED before the handler runs
+ * the read is recorded once the response is complete, on the async dispatch if the view is built by a worker,
+ * so it is registered before the interceptor answering conditional requests
+ */
+@RequiredArgsConstructor
+public class HotItemInterceptor implements HandlerInterceptor {
+
+    private final HotItemTracker hotItemTracker;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int status = response.getStatus();
+        if (ex != null || !HttpMethod.GET.matches(request.getMethod())
+                || (status != HttpStatus.OK.value() && status != HttpStatus.NOT_MODIFIED.value())) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(ITEMS_PATH + ITEM_ID_PATH_VARIABLE).equals(pattern) || variables == null) {
+            return;
+        }
+        try {
+            hotItemTracker.record(Long.valueOf(variables.get("itemId")));
+        } catch (NumberFormatException e) {
+            // invalid id is reported by the handler
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.hot;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.util.sharding.Sharded;
+
+/**
+ * HotItem repository
+ */
+@Repository
+@Sharded
+public interface HotItemRepository extends JpaRepository<HotItem, Long> {
+}
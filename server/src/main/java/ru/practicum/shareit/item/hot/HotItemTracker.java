@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.hot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * streaming detection of the most read items: count-min sketch of all reads plus the heavy hitters kept apart
+ * recording a read touches only the sketch unless the item is among or enters the heavy hitters
+ * counts are halved periodically, so that the hot set follows the current traffic
+ */
+@Component
+public class HotItemTracker {
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<Long, Long> hot = new ConcurrentHashMap<>();
+    private volatile long threshold;
+
+    public HotItemTracker(@Value("${shareit.hot-items.capacity:100}") int capacity,
+                          @Value("${shareit.hot-items.sketch-depth:4}") int depth,
+                          @Value("${shareit.hot-items.sketch-width:8192}") int width) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(depth, width);
+    }
+
+    /**
+     * record reads of the item
+     *
+     * @param itemId item's id
+     * @param count  number of reads
+     */
+    public void record(Long itemId, long count) {
+        long estimate = sketch.add(itemId, count);
+        if (hot.computeIfPresent(itemId, (id, hits) -> Math.max(hits, estimate)) == null
+                && (hot.size() < capacity || estimate > threshold)) {
+            offer(itemId, estimate);
+        }
+    }
+
+    /**
+     * record read of the item
+     *
+     * @param itemId item's id
+     */
+    public void record(Long itemId) {
+        record(itemId, 1);
+    }
+
+    /**
+     * get the most read items
+     *
+     * @return items with estimated numbers of reads starting with the most read
+     */
+    public List<HotItemDto> getHotItems() {
+        return hot.entrySet().stream()
+                .map(entry -> new HotItemDto(entry.getKey(), entry.getValue()))
+                .sorted((first, second) -> Long.compare(second.getHits(), first.getHits()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * halve all the counts
+     */
+    @Scheduled(fixedDelayString = "${shareit.hot-items.decay-interval-ms:600000}",
+            initialDelayString = "${shareit.hot-items.decay-interval-ms:600000}")
+    public synchronized void decay() {
+        sketch.halve();
+        hot.replaceAll((itemId, hits) -> hits >> 1);
+        hot.values().removeIf(hits -> hits == 0);
+        refreshThreshold();
+    }
+
+    /**
+     * add item to the heavy hitters, evict the least read one if there are too many
+     *
+     * @param itemId   item's id
+     * @param estimate estimated number of reads
+     */
+    private synchronized void offer(Long itemId, long estimate) {
+        hot.merge(itemId, estimate, Math::max);
+        if (hot.size() > capacity) {
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(hot.entrySet());
+            Map.Entry<Long, Long> coldest = entries.get(0);
+            for (Map.Entry<Long, Long> entry : entries) {
+                if (entry.getValue() < coldest.getValue()) {
+                    coldest = entry;
+                }
+            }
+            hot.remove(coldest.getKey());
+        }
+        refreshThreshold();
+    }
+
+    private void refreshThreshold() {
+        threshold = hot.size() < capacity ? 0 : hot.values().stream().min(Long::compare).orElse(0L);
+    }
+}
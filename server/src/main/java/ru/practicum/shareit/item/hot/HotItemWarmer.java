@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.hot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.util.fields.FieldSet;
+import ru.practicum.shareit.util.jobs.JobLockService;
+import ru.practicum.shareit.util.sharding.ShardContext;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * keeps the hot set across restarts: periodically saves it to hot_items,
+ * restores it at startup and warms the item cache with the public views of the hot items
+ * if no cache is configured, the views are read once, so that the first readers find the database pages in memory
+ * the snapshot is taken by one instance at a time under the job lock, so instances don't replace the rows
+ * the other one is writing
+ */
+@Slf4j
+@Component
+public class HotItemWarmer {
+
+    private static final String SNAPSHOT_JOB = "hot-items-snapshot";
+
+    private final HotItemTracker hotItemTracker;
+    private final HotItemRepository hotItemRepository;
+    private final ItemRepository itemRepository;
+    private final ItemService itemService;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLockService jobLockService;
+    private final ShardRouter shardRouter;
+    private final String cacheName;
+    private final long snapshotIntervalMs;
+
+    public HotItemWarmer(HotItemTracker hotItemTracker,
+                         HotItemRepository hotItemRepository,
+                         ItemRepository itemRepository,
+                         ItemService itemService,
+                         ObjectProvider<CacheManager> cacheManager,
+                         PlatformTransactionManager transactionManager,
+                         JobLockService jobLockService,
+                         ObjectProvider<ShardRouter> shardRouter,
+                         @Value("${shareit.hot-items.cache-name:items}") String cacheName,
+                         @Value("${shareit.hot-items.snapshot-interval-ms:60000}") long snapshotIntervalMs) {
+        this.hotItemTracker = hotItemTracker;
+        this.hotItemRepository = hotItemRepository;
+        this.itemRepository = itemRepository;
+        this.itemService = itemService;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobLockService = jobLockService;
+        this.shardRouter = ShardRouter.orSingle(shardRouter);
+        this.cacheName = cacheName;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+
+    /**
+     * restore the saved hot set and warm the item cache
+     * the warming reads go past HotItemInterceptor, so only the saved hits are recorded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<HotItem> saved = hotItemRepository.findAll();
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager == null ? null : manager.getCache(cacheName);
+        int warmed = 0;
+        for (HotItem hotItem : saved) {
+            try {
+                Object view = itemService.getById(null, hotItem.getItemId(), FieldSet.ALL);
+                if (cache != null) {
+                    cache.put(hotItem.getItemId(), view);
+                }
+                hotItemTracker.record(hotItem.getItemId(), hotItem.getHits());
+                warmed++;
+            } catch (ObjectNotFoundException e) {
+                log.info("Популярная вещь с id: {} больше не существует", hotItem.getItemId());
+            }
+        }
+        log.info("Восстановлено {} популярных вещей из {}, кэш: {}", warmed, saved.size(),
+                cache == null ? "не настроен" : cacheName);
+    }
+
+    /**
+     * save the current hot set, except the items deleted since they were read, by the transaction of each shard
+     * failed snapshot is retried at the next run, the snapshot is skipped while another instance takes it
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shareit.hot-items.snapshot-interval-ms:60000}",
+            initialDelayString = "${shareit.hot-items.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (!jobLockService.tryLock(SNAPSHOT_JOB, Duration.ofMillis(snapshotIntervalMs))) {
+            return;
+        }
+        List<HotItemDto> hotItems = hotItemTracker.getHotItems();
+        int saved = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+                int index = shard;
+                List<HotItemDto> shardItems = hotItems.stream()
+                        .filter(hotItem -> shardRouter.shardOf(hotItem.getItemId()) == index)
+                        .collect(Collectors.toList());
+                saved += ShardContext.inScope(shard, () -> transactionTemplate.execute(status -> save(shardItems)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить популярные вещи: {}", e.getMessage());
+            return;
+        } finally {
+            jobLockService.unlock(SNAPSHOT_JOB);
+        }
+        log.info("Сохранено {} популярных вещей", saved);
+    }
+
+    /**
+     * replace the saved hot items of the shard of the scope
+     *
+     * @param hotItems hot items of the shard
+     * @return number of the saved items
+     */
+    private int save(List<HotItemDto> hotItems) {
+        Set<Long> existing = itemRepository.findAllById(hotItems.stream()
+                        .map(HotItemDto::getItemId)
+                        .collect(Collectors.toList())).stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        hotItemRepository.deleteAllInBatch();
+        return hotItemRepository.saveAll(hotItems.stream()
+                .filter(hotItem -> existing.contains(hotItem.getItemId()))
+                .map(hotItem -> new HotItem(hotItem.getItemId(), hotItem.getHits()))
+                .collect(Collectors.toList())).size();
+    }
+}
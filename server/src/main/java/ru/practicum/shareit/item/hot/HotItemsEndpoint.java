@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.hot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * actuator endpoint /actuator/hotitems with the most read items
+ */
+@Component
+@Endpoint(id = "hotitems")
+@RequiredArgsConstructor
+public class HotItemsEndpoint {
+
+    private final HotItemTracker hotItemTracker;
+
+    /**
+     * get the most read items
+     *
+     * @return items with estimated numbers of reads starting with the most read
+     */
+    @ReadOperation
+    public List<HotItemDto> hotItems() {
+        return hotItemTracker.getHotItems();
+    }
+}
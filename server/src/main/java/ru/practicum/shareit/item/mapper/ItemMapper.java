@@ -50,7 +50,9 @@ public class ItemMapper {
                 null,
                 null,
                 null,
-                Collections.emptyList()
+                Collections.emptyList(),
+                null,
+                null
         );
     }
 
@@ -74,7 +76,9 @@ public class ItemMapper {
                 lastBooking,
                 nextBooking,
                 item.getRequest() != null ? item.getRequest().getId() : null,
-                comments
+                comments,
+                null,
+                null
         );
     }
 
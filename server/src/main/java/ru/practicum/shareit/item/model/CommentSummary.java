@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * maintained summary of the item's comments: their number and ids of the latest ones
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "comment_summaries")
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentSummary {
+    @Id
+    @Column(name = "item", nullable = false)
+    private Long itemId;
+    @Column(name = "comments", nullable = false)
+    private Long comments;
+    /**
+     * ids of the latest comments separated by commas, the newest first
+     */
+    @Column(name = "latest", nullable = false)
+    private String latest;
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -24,6 +26,11 @@ public class Item {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
     Long id;
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    Long version;
     @Column(name = "name", nullable = false)
     String name;
     @Column(name = "description", nullable = false)
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * precomputed numbers of the item's bookings, approved bookings and comments
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "item_counters")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemCounter {
+    @Id
+    @Column(name = "item", nullable = false)
+    private Long itemId;
+    @Column(name = "bookings", nullable = false)
+    private Long bookings;
+    @Column(name = "approvals", nullable = false)
+    private Long approvals;
+    @Column(name = "comments", nullable = false)
+    private Long comments;
+    /**
+     * time of the last change, the instances read the counters changed since their previous reading
+     */
+    @Column(name = "updated", nullable = false)
+    private LocalDateTime updated;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * counter to rank items by
+ */
+public enum ItemRanking {
+    /**
+     * BOOKINGS - number of the item's bookings
+     */
+    BOOKINGS,
+    /**
+     * APPROVALS - number of the item's approved bookings
+     */
+    APPROVALS,
+    /**
+     * COMMENTS - number of the comments to the item
+     */
+    COMMENTS
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * ItemTerm model: entry of the term index over items' names and descriptions.
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "item_terms")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemTerm {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @Column(name = "term", nullable = false)
+    private String term;
+    @ManyToOne()
+    @JoinColumn(name = "item", referencedColumnName = "id", nullable = false)
+    private Item item;
+
+}
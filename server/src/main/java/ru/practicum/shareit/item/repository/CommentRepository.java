@@ -1,16 +1,22 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Comment repository
  */
 @Repository
+@Sharded
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     /**
      * find if exists all comments by itemId
@@ -18,6 +24,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @param itemId item's id
      * @return list of comments by itemId or empty list
      */
+    @ShardBy
     List<Comment> findAllByItemId(Long itemId);
 
     /**
@@ -26,5 +33,48 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @param items items
      * @return list of comments by itemId or empty list
      */
+    @ShardBy
     List<Comment> findAllByItemIn(List<Item> items);
+
+    /**
+     * count comments of the item
+     *
+     * @param itemId item's id
+     * @return number of comments
+     */
+    @ShardBy
+    long countByItemId(Long itemId);
+
+    /**
+     * find the first page of the item's comments starting with the newest one
+     *
+     * @param itemId item's id
+     * @param page   size of the page
+     * @return list of comments or empty list
+     */
+    @ShardBy
+    @EntityGraph(attributePaths = {"author", "item"})
+    List<Comment> findAllByItemIdOrderByIdDesc(Long itemId, Pageable page);
+
+    /**
+     * find the next page of the item's comments: comments older than the last one of the previous page
+     *
+     * @param itemId item's id
+     * @param cursor id of the last comment of the previous page
+     * @param page   size of the page
+     * @return list of comments or empty list
+     */
+    @ShardBy
+    @EntityGraph(attributePaths = {"author", "item"})
+    List<Comment> findAllByItemIdAndIdLessThanOrderByIdDesc(Long itemId, Long cursor, Pageable page);
+
+    /**
+     * find comments by ids
+     *
+     * @param ids comments' ids
+     * @return list of the existing comments
+     */
+    @ShardBy
+    @EntityGraph(attributePaths = {"author", "item"})
+    List<Comment> findAllByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.CommentSummary;
+import ru.practicum.shareit.util.sharding.ScatterGather;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CommentSummary repository
+ */
+@Repository
+@Sharded
+public interface CommentSummaryRepository extends JpaRepository<CommentSummary, Long>,
+        CommentSummaryRepositoryCustom {
+
+    /**
+     * find summary of the item's comments and lock it to add a comment
+     *
+     * @param itemId item's id
+     * @return summary if exists
+     */
+    @ShardBy
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CommentSummary> findLockedByItemId(Long itemId);
+
+    /**
+     * find summaries of the items' comments
+     *
+     * @param itemIds items' ids
+     * @return list of the existing summaries
+     */
+    @ShardBy
+    List<CommentSummary> findAllByItemIdIn(Collection<Long> itemIds);
+
+    /**
+     * find items created before the summaries were maintained
+     *
+     * @return ids of the items without summary
+     */
+    @ScatterGather
+    @Query("select i.id from Item i where i.id not in (select s.itemId from CommentSummary s)")
+    List<Long> findItemIdsWithoutSummary();
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.CommentSummary;
+import ru.practicum.shareit.util.sharding.ShardBy;
+
+/**
+ * Comment summary repository operations implemented by hand
+ */
+public interface CommentSummaryRepositoryCustom {
+
+    /**
+     * insert summary of the item's comments
+     * unlike save, doesn't overwrite summary created meanwhile by another transaction but fails
+     *
+     * @param summary summary
+     */
+    @ShardBy
+    void insert(CommentSummary summary);
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.CommentSummary;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * save merges the summary with assigned id into the existing row, the native insert isn't parsed by Spring Data
+ */
+public class CommentSummaryRepositoryImpl implements CommentSummaryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insert(CommentSummary summary) {
+        entityManager.createNativeQuery("INSERT INTO comment_summaries (item, comments, latest) " +
+                        "VALUES (:itemId, :comments, :latest)")
+                .setParameter("itemId", summary.getItemId())
+                .setParameter("comments", summary.getComments())
+                .setParameter("latest", summary.getLatest())
+                .executeUpdate();
+    }
+}
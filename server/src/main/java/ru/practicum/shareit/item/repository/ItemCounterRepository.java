@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.ItemCounter;
+import ru.practicum.shareit.util.sharding.ScatterGather;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ItemCounter repository
+ */
+@Repository
+@Sharded
+public interface ItemCounterRepository extends JpaRepository<ItemCounter, Long> {
+
+    /**
+     * find counters of the items and lock them to add increments
+     *
+     * @param itemIds items' ids
+     * @return list of the existing counters
+     */
+    @ShardBy
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemCounter> findAllByItemIdIn(Collection<Long> itemIds);
+
+    /**
+     * find counters changed since the time
+     *
+     * @param updated time of the change
+     * @return list of the counters
+     */
+    @ScatterGather
+    List<ItemCounter> findAllByUpdatedGreaterThanEqual(LocalDateTime updated);
+
+    /**
+     * find counters with the greatest number of bookings
+     *
+     * @param bookings number of bookings the counters must exceed
+     * @param page     page's parameters (number of items)
+     * @return list of the counters, sorting by number of bookings in descending order
+     */
+    @ScatterGather(orderBy = "bookings", descending = true)
+    List<ItemCounter> findAllByBookingsGreaterThanOrderByBookingsDesc(Long bookings, Pageable page);
+
+    /**
+     * find counters with the greatest number of approved bookings
+     *
+     * @param approvals number of approved bookings the counters must exceed
+     * @param page      page's parameters (number of items)
+     * @return list of the counters, sorting by number of approved bookings in descending order
+     */
+    @ScatterGather(orderBy = "approvals", descending = true)
+    List<ItemCounter> findAllByApprovalsGreaterThanOrderByApprovalsDesc(Long approvals, Pageable page);
+
+    /**
+     * find counters with the greatest number of comments
+     *
+     * @param comments number of comments the counters must exceed
+     * @param page     page's parameters (number of items)
+     * @return list of the counters, sorting by number of comments in descending order
+     */
+    @ScatterGather(orderBy = "comments", descending = true)
+    List<ItemCounter> findAllByCommentsGreaterThanOrderByCommentsDesc(Long comments, Pageable page);
+
+    /**
+     * count bookings of the items counted before the counters were maintained
+     *
+     * @param approved status of the approved booking
+     * @return rows of item's id, number of bookings and number of approved bookings
+     */
+    @ScatterGather
+    @Query("select b.item.id, count(b), sum(case when b.status = ?1 then 1 else 0 end) from Booking b " +
+            "where b.item.id not in (select c.itemId from ItemCounter c) group by b.item.id")
+    List<Object[]> countBookingsOfItemsWithoutCounters(BookingStatus approved);
+
+    /**
+     * count archived bookings of the items counted before the counters were maintained
+     *
+     * @param approved status of the approved booking
+     * @return rows of item's id, number of bookings and number of approved bookings
+     */
+    @ScatterGather
+    @Query("select b.item.id, count(b), sum(case when b.status = ?1 then 1 else 0 end) from ArchivedBooking b " +
+            "where b.item.id not in (select c.itemId from ItemCounter c) group by b.item.id")
+    List<Object[]> countArchivedBookingsOfItemsWithoutCounters(BookingStatus approved);
+
+    /**
+     * count comments of the items counted before the counters were maintained
+     *
+     * @return rows of item's id and number of comments
+     */
+    @ScatterGather
+    @Query("select m.item.id, count(m) from Comment m " +
+            "where m.item.id not in (select c.itemId from ItemCounter c) group by m.item.id")
+    List<Object[]> countCommentsOfItemsWithoutCounters();
+}
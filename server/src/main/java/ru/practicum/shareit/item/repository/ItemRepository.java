@@ -1,17 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.sharding.ScatterGather;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
 
+import javax.persistence.LockModeType;
 import java.util.List;
 
 /**
  * Item repository
  */
 @Repository
+@Sharded
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     /**
@@ -20,6 +27,7 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      * @param userId user's id
      * @return list of items of a specific user or empty list
      */
+    @ShardBy
     List<Item> findAllByOwnerIdOrderById(Long userId);
 
     /**
@@ -28,17 +36,33 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      * @param text substring for search
      * @return list of ItemDto objects or empty list
      */
+    @ScatterGather(orderBy = "id")
     @Query("select i from Item i " +
             "where i.available = true and (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%')))")
     List<Item> searchItemsBySubstring(String text);
 
+    /**
+     * lock the page of items having no terms following the specific id, used to build the term index
+     *
+     * @param id   id of the last item of the previous page or 0
+     * @param page page's parameters (size of the page)
+     * @return items ordered by id or empty list
+     */
+    @ScatterGather(orderBy = "id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i " +
+            "where i.id > ?1 and not exists (select t.id from ItemTerm t where t.item = i) " +
+            "order by i.id")
+    List<Item> findNotIndexedAfter(Long id, Pageable page);
+
     /**
      * get list of items by request's id
      *
      * @param requestId request's id
      * @return list of items by request's id
      */
+    @ScatterGather(orderBy = "id")
     List<Item> findAllByRequestId(Long requestId);
 
     /**
@@ -47,5 +71,32 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      * @param itemRequests list of the requests
      * @return list of items by requests' list
      */
+    @ScatterGather(orderBy = "id")
     List<Item> findAllByRequestIn(List<ItemRequest> itemRequests);
+
+    /**
+     * get item's version, owner's id, number of comments and id of the last comment,
+     * used to build entity tag of the item
+     *
+     * @param itemId item's id
+     * @return list with one row [version, ownerId, commentsCount, lastCommentId] or empty list
+     */
+    @ShardBy
+    @Query("select i.version, i.owner.id, count(c.id), coalesce(max(c.id), 0) from Item i " +
+            "left join Comment c on c.item = i " +
+            "where i.id = ?1 " +
+            "group by i.id, i.version, i.owner.id")
+    List<Object[]> findTagSourceById(Long itemId);
+
+    /**
+     * get number of the items answering the request, id of the last of them and sum of their versions,
+     * used to build entity tag of the request; items of all shards are counted, one row for each shard
+     *
+     * @param requestId request's id
+     * @return list of rows [itemsCount, lastItemId, itemsVersionsSum]
+     */
+    @ScatterGather
+    @Query("select count(i.id), coalesce(max(i.id), 0), coalesce(sum(i.version), 0) from Item i " +
+            "where i.request.id = ?1")
+    List<Object[]> findRequestTagSourceByRequestId(Long requestId);
 }
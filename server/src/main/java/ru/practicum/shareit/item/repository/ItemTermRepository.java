@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemTerm;
+import ru.practicum.shareit.util.sharding.ScatterGather;
+import ru.practicum.shareit.util.sharding.ShardBy;
+import ru.practicum.shareit.util.sharding.Sharded;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ItemTerm repository
+ */
+@Repository
+@Sharded
+public interface ItemTermRepository extends JpaRepository<ItemTerm, Long> {
+
+    /**
+     * delete all terms of a specific item
+     *
+     * @param itemId item's id
+     */
+    @ShardBy
+    @Modifying
+    @Query("delete from ItemTerm t where t.item.id = ?1")
+    void deleteAllByItemId(Long itemId);
+
+    /**
+     * find which of the items have terms
+     *
+     * @param itemIds items' ids
+     * @return ids of the indexed items or empty list
+     */
+    @ScatterGather
+    @Query("select distinct t.item.id from ItemTerm t where t.item.id in ?1")
+    List<Long> findIndexedItemIds(Collection<Long> itemIds);
+
+    /**
+     * find owners of the items containing any of the terms, ranked by the number of distinct matched terms
+     * owner with the specified id is excluded
+     *
+     * @param terms       terms to look up
+     * @param requesterId requester id (owner to exclude)
+     * @param page        page's parameters (limit of the owners to return)
+     * @return list of [ownerId, score] pairs, sorting by score in descending order
+     */
+    @ScatterGather(orderBy = "1", descending = true)
+    @Query("select i.owner.id, count(distinct t.term) from ItemTerm t join t.item i " +
+            "where t.term in ?1 and i.owner.id <> ?2 " +
+            "group by i.owner.id " +
+            "order by count(distinct t.term) desc, i.owner.id")
+    List<Object[]> findOwnersByTerms(Collection<String> terms, Long requesterId, Pageable page);
+}
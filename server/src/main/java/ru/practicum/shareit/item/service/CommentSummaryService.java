@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentSummaryDto;
+import ru.practicum.shareit.item.model.Comment;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * CommentSummaryService interface
+ */
+@Component
+public interface CommentSummaryService {
+
+    /**
+     * create empty summary of the new item
+     *
+     * @param itemId item's id
+     */
+    void create(Long itemId);
+
+    /**
+     * count the saved comment and put it first among the latest ones
+     *
+     * @param comment saved comment
+     */
+    void addComment(Comment comment);
+
+    /**
+     * get number of the comments and the latest comments of the items
+     *
+     * @param itemIds items' ids
+     * @return summaries by item's id, empty summary if item has no comments
+     */
+    Map<Long, CommentSummaryDto> getSummaries(Collection<Long> itemIds);
+
+    /**
+     * create summaries of the items created before the summaries were maintained
+     */
+    void backfill();
+}
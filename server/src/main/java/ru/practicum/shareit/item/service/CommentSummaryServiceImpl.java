@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.CommentSummaryDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentSummaryRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * CommentSummaryService implementation
+ * the summary is changed in the transaction adding the comment under the lock of its row,
+ * so views and lists of the items read the number of the comments and a bounded number of the latest ones
+ * instead of all comments of the items
+ */
+@Slf4j
+@Service
+public class CommentSummaryServiceImpl implements CommentSummaryService {
+
+    private final CommentSummaryRepository commentSummaryRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int latestSize;
+
+    public CommentSummaryServiceImpl(CommentSummaryRepository commentSummaryRepository,
+                                     CommentRepository commentRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.comments.latest-size:5}") int latestSize) {
+        this.commentSummaryRepository = commentSummaryRepository;
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.latestSize = latestSize;
+    }
+
+    /**
+     * create empty summary of the new item
+     *
+     * @param itemId item's id
+     */
+    @Override
+    @Transactional
+    public void create(Long itemId) {
+        commentSummaryRepository.save(new CommentSummary(itemId, 0L, ""));
+    }
+
+    /**
+     * count the saved comment and put it first among the latest ones
+     * summary of the item created before the summaries were maintained is built from its committed comments
+     * in a new transaction, so concurrent first comments don't insert it twice, then the comment is counted
+     * under the lock as usual unless it was already committed and built in
+     *
+     * @param comment saved comment
+     */
+    @Override
+    @Transactional
+    public void addComment(Comment comment) {
+        Long itemId = comment.getItem().getId();
+        CommentSummary summary = commentSummaryRepository.findLockedByItemId(itemId)
+                .orElseGet(() -> {
+                    createIfAbsent(itemId);
+                    return commentSummaryRepository.findLockedByItemId(itemId).orElseThrow();
+                });
+        List<Long> latest = idsOf(summary.getLatest());
+        if (latest.contains(comment.getId())) {
+            return;
+        }
+        latest.add(0, comment.getId());
+        summary.setComments(summary.getComments() + 1);
+        summary.setLatest(join(latest));
+        commentSummaryRepository.save(summary);
+    }
+
+    /**
+     * get number of the comments and the latest comments of the items
+     * the latest comments of all items are read by one query
+     *
+     * @param itemIds items' ids
+     * @return summaries by item's id, empty summary if item has no comments
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, CommentSummaryDto> getSummaries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, CommentSummary> summaries = commentSummaryRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(CommentSummary::getItemId, Function.identity()));
+        for (Long itemId : itemIds) {
+            if (!summaries.containsKey(itemId)) {
+                // the item isn't backfilled yet
+                summaries.put(itemId, build(itemId));
+            }
+        }
+
+        List<Long> ids = summaries.values().stream()
+                .flatMap(summary -> idsOf(summary.getLatest()).stream())
+                .collect(Collectors.toList());
+        Map<Long, CommentOutDto> comments = ids.isEmpty()
+                ? Map.of()
+                : commentRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Comment::getId, CommentMapper::toCommentOutDto));
+
+        Map<Long, CommentSummaryDto> result = new HashMap<>();
+        summaries.forEach((itemId, summary) -> result.put(itemId, new CommentSummaryDto(summary.getComments(),
+                idsOf(summary.getLatest()).stream()
+                        .map(comments::get)
+                        .filter(Objects::nonNull)
+                        .sorted(Comparator.comparing(CommentOutDto::getId))
+                        .collect(Collectors.toList()))));
+        return result;
+    }
+
+    /**
+     * create summaries of the items created before the summaries were maintained,
+     * each in its own transaction, summary created meanwhile by a new comment is kept
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> itemIds = commentSummaryRepository.findItemIdsWithoutSummary();
+        int created = 0;
+        for (Long itemId : itemIds) {
+            if (createIfAbsent(itemId)) {
+                created++;
+            }
+        }
+        if (!itemIds.isEmpty()) {
+            log.info("Созданы сводки отзывов {} вещей из {}", created, itemIds.size());
+        }
+    }
+
+    /**
+     * create summary of the item from its comments in a new transaction
+     * summary created meanwhile by another transaction is kept
+     *
+     * @param itemId item's id
+     * @return true if the summary is created
+     */
+    private boolean createIfAbsent(Long itemId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> commentSummaryRepository.insert(build(itemId)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.info("Сводка отзывов вещи с id: {} уже создана", itemId);
+            return false;
+        }
+    }
+
+    /**
+     * build summary of the item from its comments
+     *
+     * @param itemId item's id
+     * @return summary
+     */
+    private CommentSummary build(Long itemId) {
+        List<Long> latest = commentRepository.findAllByItemIdOrderByIdDesc(itemId, PageRequest.of(0, latestSize))
+                .stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+        return new CommentSummary(itemId, commentRepository.countByItemId(itemId), join(latest));
+    }
+
+    private List<Long> idsOf(String latest) {
+        if (latest == null || latest.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(latest.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private String join(List<Long> ids) {
+        return ids.stream()
+                .limit(latestSize)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+}
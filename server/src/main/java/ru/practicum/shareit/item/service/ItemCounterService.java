@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.model.ItemRanking;
+
+import java.util.List;
+
+/**
+ * ItemCounterService interface
+ */
+@Component
+public interface ItemCounterService {
+
+    /**
+     * count created or approved booking of the item
+     *
+     * @param event changed booking
+     */
+    void onBookingChanged(BookingChangedEvent event);
+
+    /**
+     * count comment to the item
+     *
+     * @param event added comment
+     */
+    void onCommentAdded(CommentAddedEvent event);
+
+    /**
+     * get current counters of the item
+     *
+     * @param itemId item's id
+     * @return counters of the item, zero counters if item has no bookings and comments
+     */
+    ItemCountersDto getCounters(Long itemId);
+
+    /**
+     * get ids of the items with the greatest counter
+     *
+     * @param ranking counter to rank items by
+     * @param size    number of items
+     * @return items' ids starting with the greatest counter
+     */
+    List<Long> getTop(ItemRanking ranking, int size);
+
+    /**
+     * write counted increments to the database
+     */
+    void flush();
+
+    /**
+     * read counters saved by all instances
+     */
+    void sync();
+}
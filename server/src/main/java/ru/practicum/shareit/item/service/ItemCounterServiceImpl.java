@@ -0,0 +1,429 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCounter;
+import ru.practicum.shareit.item.model.ItemRanking;
+import ru.practicum.shareit.item.repository.ItemCounterRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.sharding.ShardContext;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ItemCounterService implementation
+ * counters of the recently used items are kept in memory in striped LongAdders, so that concurrent bookings
+ * and comments don't contend, loaded from item_counters on the first use and periodically written back
+ * by increments in one batch of each shard; the least recently used flushed counters are evicted
+ * beyond shareit.counters.max-items; counters of the items booked or commented before the counters
+ * were maintained are built at startup; the counters changed since the previous reading are read again
+ * periodically, so that counts of the other instances are seen
+ */
+@Slf4j
+@Service
+public class ItemCounterServiceImpl implements ItemCounterService {
+
+    private final ItemCounterRepository itemCounterRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final int maxItems;
+    private final Duration syncOverlap;
+    /**
+     * start of the previous reading of the changed counters
+     */
+    private LocalDateTime synced = LocalDateTime.now();
+
+    public ItemCounterServiceImpl(ItemCounterRepository itemCounterRepository,
+                                  ItemRepository itemRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectProvider<ShardRouter> shardRouter,
+                                  @Value("${shareit.counters.max-items:10000}") int maxItems,
+                                  @Value("${shareit.counters.sync-overlap-ms:10000}") long syncOverlap) {
+        this.itemCounterRepository = itemCounterRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = ShardRouter.orSingle(shardRouter);
+        this.maxItems = maxItems;
+        this.syncOverlap = Duration.ofMillis(syncOverlap);
+    }
+
+    /**
+     * build missing counters, the saved ones are loaded on the first use
+     */
+    @PostConstruct
+    public void load() {
+        synced = LocalDateTime.now();
+        backfill();
+    }
+
+    /**
+     * read the counters changed since the previous reading, which include increments written by the other instances,
+     * only counters kept in memory are refreshed, increments of this instance not written yet are kept;
+     * changes committed late or by an instance with the clock behind are read within shareit.counters.sync-overlap-ms;
+     * not run while the increments are written
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.counters.sync-interval-ms:60000}",
+            initialDelayString = "${shareit.counters.sync-interval-ms:60000}")
+    public synchronized void sync() {
+        LocalDateTime started = LocalDateTime.now();
+        for (ItemCounter saved : itemCounterRepository.findAllByUpdatedGreaterThanEqual(synced.minus(syncOverlap))) {
+            Counters itemCounters = counters.get(saved.getItemId());
+            if (itemCounters != null) {
+                itemCounters.sync(saved.getBookings(), saved.getApprovals(), saved.getComments());
+            }
+        }
+        synced = started;
+    }
+
+    /**
+     * create counters of the items without them by grouped counts of their bookings, archived bookings and comments
+     * counters created meanwhile by another instance are kept
+     */
+    private void backfill() {
+        Map<Long, ItemCounter> missing = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookings = new ArrayList<>(
+                itemCounterRepository.countBookingsOfItemsWithoutCounters(BookingStatus.APPROVED));
+        bookings.addAll(itemCounterRepository.countArchivedBookingsOfItemsWithoutCounters(BookingStatus.APPROVED));
+        for (Object[] row : bookings) {
+            ItemCounter counter = missing.computeIfAbsent((Long) row[0],
+                    id -> new ItemCounter(id, 0L, 0L, 0L, now));
+            counter.setBookings(counter.getBookings() + ((Number) row[1]).longValue());
+            counter.setApprovals(counter.getApprovals() + ((Number) row[2]).longValue());
+        }
+        for (Object[] row : itemCounterRepository.countCommentsOfItemsWithoutCounters()) {
+            ItemCounter counter = missing.computeIfAbsent((Long) row[0],
+                    id -> new ItemCounter(id, 0L, 0L, 0L, now));
+            counter.setComments(((Number) row[1]).longValue());
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        byShard(missing).forEach((shard, shardCounters) -> {
+            try {
+                ShardContext.inScope(shard, () -> transactionTemplate.executeWithoutResult(
+                        status -> itemCounterRepository.saveAll(shardCounters.values())));
+                log.info("Созданы счётчики {} вещей по бронированиям и отзывам", shardCounters.size());
+            } catch (DataIntegrityViolationException e) {
+                log.info("Счётчики вещей уже созданы: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * count created or approved booking of the item after the booking is committed
+     * new booking has status WAITING, approved booking has status APPROVED
+     *
+     * @param event changed booking
+     */
+    @Override
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        Long itemId = event.getBooking().getItem().getId();
+        BookingStatus status = event.getBooking().getStatus();
+        if (status == BookingStatus.WAITING) {
+            countersOf(itemId).bookings.increment();
+        } else if (status == BookingStatus.APPROVED) {
+            countersOf(itemId).approvals.increment();
+        }
+    }
+
+    /**
+     * count comment to the item after the comment is committed
+     *
+     * @param event added comment
+     */
+    @Override
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        countersOf(event.getComment().getItemId()).comments.increment();
+    }
+
+    /**
+     * get current counters of the item
+     *
+     * @param itemId item's id
+     * @return counters of the item, zero counters if item has no bookings and comments
+     */
+    @Override
+    public ItemCountersDto getCounters(Long itemId) {
+        Counters itemCounters = countersOf(itemId);
+        return new ItemCountersDto(itemCounters.bookings.sum(), itemCounters.approvals.sum(),
+                itemCounters.comments.sum());
+    }
+
+    /**
+     * get ids of the items with the greatest counter, items with zero counter are skipped
+     * the saved greatest counters are ranked together with the counters in memory, which may be ahead of them
+     *
+     * @param ranking counter to rank items by
+     * @param size    number of items
+     * @return items' ids starting with the greatest counter
+     */
+    @Override
+    public List<Long> getTop(ItemRanking ranking, int size) {
+        Function<Counters, LongAdder> counter = counterOf(ranking);
+        Map<Long, Long> values = new HashMap<>();
+        for (ItemCounter saved : findTop(ranking, size)) {
+            values.put(saved.getItemId(), savedValueOf(ranking, saved));
+        }
+        counters.forEach((itemId, itemCounters) ->
+                values.merge(itemId, counter.apply(itemCounters).sum(), Math::max));
+
+        Comparator<Map.Entry<Long, Long>> order = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Long, Long>> top = new PriorityQueue<>(size + 1, order);
+        values.forEach((itemId, value) -> {
+            if (value > 0 && (top.size() < size || value > top.peek().getValue())) {
+                top.add(Map.entry(itemId, value));
+                if (top.size() > size) {
+                    top.poll();
+                }
+            }
+        });
+
+        List<Map.Entry<Long, Long>> result = new ArrayList<>(top);
+        result.sort(order.reversed());
+        return result.stream()
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * write counted increments to the database in one transaction of each shard, then evict
+     * the least recently used counters beyond the limit
+     * increments of deleted items are dropped, failed batch is retried at the next run
+     */
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shareit.counters.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, long[]> increments = new HashMap<>();
+        counters.forEach((itemId, itemCounters) -> {
+            long[] increment = itemCounters.increment();
+            if (increment[0] != 0 || increment[1] != 0 || increment[2] != 0) {
+                increments.put(itemId, increment);
+            }
+        });
+        if (!increments.isEmpty()) {
+            save(increments);
+        }
+        evict();
+    }
+
+    private void save(Map<Long, long[]> increments) {
+        byShard(increments).forEach((shard, shardIncrements) -> {
+            try {
+                ShardContext.inScope(shard, () -> transactionTemplate.executeWithoutResult(
+                        status -> saveShard(shardIncrements)));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось сохранить счётчики вещей: {}", e.getMessage());
+                return;
+            }
+            shardIncrements.forEach((itemId, increment) -> {
+                Counters itemCounters = counters.get(itemId);
+                if (itemCounters != null) {
+                    itemCounters.markFlushed(increment[0], increment[1], increment[2]);
+                }
+            });
+            log.info("Сохранены счётчики {} вещей", shardIncrements.size());
+        });
+    }
+
+    /**
+     * evict the least recently used counters without unsaved increments until the limit is kept
+     * the counter incremented while it is evicted passes the increment to the counter loaded anew
+     */
+    private void evict() {
+        int excess = counters.size() - maxItems;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<Long, Counters>> idle = counters.entrySet().stream()
+                .filter(entry -> entry.getValue().isFlushed())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().used))
+                .limit(excess)
+                .collect(Collectors.toList());
+        for (Map.Entry<Long, Counters> entry : idle) {
+            if (!counters.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            long[] late = entry.getValue().increment();
+            if (late[0] != 0 || late[1] != 0 || late[2] != 0) {
+                Counters reloaded = countersOf(entry.getKey());
+                reloaded.bookings.add(late[0]);
+                reloaded.approvals.add(late[1]);
+                reloaded.comments.add(late[2]);
+            }
+        }
+        log.debug("Из памяти выгружены счётчики {} вещей", idle.size());
+    }
+
+    /**
+     * split values by the shards of the items
+     *
+     * @param values values by item's id
+     * @param <T>    type of the value
+     * @return values by index of the shard and item's id
+     */
+    private <T> Map<Integer, Map<Long, T>> byShard(Map<Long, T> values) {
+        Map<Integer, Map<Long, T>> result = new TreeMap<>();
+        values.forEach((itemId, value) -> result
+                .computeIfAbsent(shardRouter.shardOf(itemId), shard -> new HashMap<>())
+                .put(itemId, value));
+        return result;
+    }
+
+    /**
+     * add increments to the saved counters, create counters of the items counted for the first time
+     *
+     * @param increments increments of bookings, approvals and comments by item's id
+     */
+    private void saveShard(Map<Long, long[]> increments) {
+        Map<Long, ItemCounter> saved = itemCounterRepository.findAllByItemIdIn(increments.keySet()).stream()
+                .collect(Collectors.toMap(ItemCounter::getItemId, Function.identity()));
+
+        Set<Long> newIds = new HashSet<>(increments.keySet());
+        newIds.removeAll(saved.keySet());
+        Set<Long> existingItems = itemRepository.findAllById(newIds).stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        for (Long itemId : newIds) {
+            if (existingItems.contains(itemId)) {
+                saved.put(itemId, new ItemCounter(itemId, 0L, 0L, 0L, null));
+            } else {
+                counters.remove(itemId);
+                increments.remove(itemId);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        saved.forEach((itemId, counter) -> {
+            long[] increment = increments.get(itemId);
+            counter.setBookings(counter.getBookings() + increment[0]);
+            counter.setApprovals(counter.getApprovals() + increment[1]);
+            counter.setComments(counter.getComments() + increment[2]);
+            counter.setUpdated(now);
+        });
+        itemCounterRepository.saveAll(saved.values());
+    }
+
+    /**
+     * get the counters of the item in memory, load the saved ones on the first use
+     */
+    private Counters countersOf(Long itemId) {
+        Counters itemCounters = counters.get(itemId);
+        if (itemCounters == null) {
+            Counters loaded = new Counters();
+            itemCounterRepository.findById(itemId).ifPresent(saved ->
+                    loaded.sync(saved.getBookings(), saved.getApprovals(), saved.getComments()));
+            itemCounters = counters.putIfAbsent(itemId, loaded);
+            if (itemCounters == null) {
+                itemCounters = loaded;
+            }
+        }
+        itemCounters.used = System.nanoTime();
+        return itemCounters;
+    }
+
+    private List<ItemCounter> findTop(ItemRanking ranking, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        switch (ranking) {
+            case APPROVALS:
+                return itemCounterRepository.findAllByApprovalsGreaterThanOrderByApprovalsDesc(0L, page);
+            case COMMENTS:
+                return itemCounterRepository.findAllByCommentsGreaterThanOrderByCommentsDesc(0L, page);
+            default:
+                return itemCounterRepository.findAllByBookingsGreaterThanOrderByBookingsDesc(0L, page);
+        }
+    }
+
+    private static long savedValueOf(ItemRanking ranking, ItemCounter saved) {
+        switch (ranking) {
+            case APPROVALS:
+                return saved.getApprovals();
+            case COMMENTS:
+                return saved.getComments();
+            default:
+                return saved.getBookings();
+        }
+    }
+
+    private static Function<Counters, LongAdder> counterOf(ItemRanking ranking) {
+        switch (ranking) {
+            case APPROVALS:
+                return itemCounters -> itemCounters.approvals;
+            case COMMENTS:
+                return itemCounters -> itemCounters.comments;
+            default:
+                return itemCounters -> itemCounters.bookings;
+        }
+    }
+
+    /**
+     * in-memory counters of one item
+     * totals only grow, the flushed part is changed only by flush and sync, which never run together
+     */
+    private static class Counters {
+        /**
+         * time of the last use, nanoseconds
+         */
+        private volatile long used;
+        private final LongAdder bookings = new LongAdder();
+        private final LongAdder approvals = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+        private long flushedBookings;
+        private long flushedApprovals;
+        private long flushedComments;
+
+        private synchronized long[] increment() {
+            return new long[]{bookings.sum() - flushedBookings, approvals.sum() - flushedApprovals,
+                    comments.sum() - flushedComments};
+        }
+
+        private synchronized boolean isFlushed() {
+            return bookings.sum() == flushedBookings && approvals.sum() == flushedApprovals
+                    && comments.sum() == flushedComments;
+        }
+
+        private synchronized void markFlushed(long bookings, long approvals, long comments) {
+            flushedBookings += bookings;
+            flushedApprovals += approvals;
+            flushedComments += comments;
+        }
+
+        private synchronized void sync(long savedBookings, long savedApprovals, long savedComments) {
+            bookings.add(savedBookings - flushedBookings);
+            approvals.add(savedApprovals - flushedApprovals);
+            comments.add(savedComments - flushedComments);
+            flushedBookings = savedBookings;
+            flushedApprovals = savedApprovals;
+            flushedComments = savedComments;
+        }
+    }
+}
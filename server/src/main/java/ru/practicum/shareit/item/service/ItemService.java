@@ -2,9 +2,13 @@ package ru.practicum.shareit.item.service;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageOutDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupOutDto;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.ItemRanking;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.List;
 
@@ -27,9 +31,20 @@ public interface ItemService {
      *
      * @param userId owner's id
      * @param itemId item's id
+     * @param fields properties to write, lookups of the others are skipped
      * @return item
      */
-    ItemOutDto getById(Long userId, Long itemId);
+    ItemOutDto getById(Long userId, Long itemId, FieldSet fields);
+
+    /**
+     * get items by the list of ids
+     *
+     * @param userId  user's id
+     * @param itemIds items' ids
+     * @param fields  properties to write, lookups of the others are skipped
+     * @return items in order of the ids and ids of the items which don't exist
+     */
+    ItemLookupOutDto getByIds(Long userId, List<Long> itemIds, FieldSet fields);
 
     /**
      * update item's properties
@@ -52,17 +67,28 @@ public interface ItemService {
      * get all items of a specific user
      *
      * @param userId user's id
+     * @param fields properties to write, lookups of the others are skipped
      * @return list of items
      */
-    List<ItemOutDto> getListByUser(Long userId);
+    List<ItemOutDto> getListByUser(Long userId, FieldSet fields);
 
     /**
      * search all available items, contained substring in name or description
      *
-     * @param text substring for search
+     * @param text   substring for search
+     * @param fields properties to write, lookups of the others are skipped
      * @return list of items or empty list
      */
-    List<ItemOutDto> searchItemsBySubstring(String text);
+    List<ItemOutDto> searchItemsBySubstring(String text, FieldSet fields);
+
+    /**
+     * get items with the greatest number of bookings, approved bookings or comments
+     *
+     * @param ranking counter to rank items by
+     * @param size    number of items
+     * @return list of items with their counters starting with the greatest counter
+     */
+    List<ItemOutDto> getTop(ItemRanking ranking, Integer size);
 
     /**
      * add comment to a specific item
@@ -75,4 +101,13 @@ public interface ItemService {
 
     CommentOutDto addComment(CommentDto commentDto, Long userId, Long itemId);
 
+    /**
+     * get page of the item's comments starting with the newest ones
+     *
+     * @param itemId item's id
+     * @param cursor id of the last comment of the previous page or null for the first page
+     * @param size   size of the page
+     * @return comments and cursor of the next page
+     */
+    CommentPageOutDto getComments(Long itemId, Long cursor, Integer size);
 }
@@ -2,21 +2,32 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageOutDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.CommentSummaryDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupOutDto;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.hot.HotItemTracker;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemRanking;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -27,11 +38,17 @@ import ru.practicum.shareit.util.Validation;
 import ru.practicum.shareit.util.exceptions.AccessIsNotAllowedException;
 import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.util.exceptions.UnavailableItemException;
+import ru.practicum.shareit.util.fields.FieldSet;
+import ru.practicum.shareit.util.sharding.ShardScope;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -42,11 +59,25 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
+    /**
+     * properties of ItemOutDto which need lookups
+     */
+    private static final String LAST_BOOKING_FIELD = "lastBooking";
+    private static final String NEXT_BOOKING_FIELD = "nextBooking";
+    private static final String COMMENTS_FIELD = "comments";
+    private static final String COMMENT_COUNT_FIELD = "commentCount";
+    private static final String COUNTERS_FIELD = "counters";
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemCounterService itemCounterService;
+    private final HotItemTracker hotItemTracker;
+    private final CommentSummaryService commentSummaryService;
 
     /**
      * to add item's data (save and assign identity)
@@ -60,12 +91,15 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
+    @ShardScope
     public ItemDto create(Long userId, ItemDto itemDto) {
         User owner = getUserByIdIfExists(userId);
         ItemRequest itemRequest = getItemRequestIfExists(itemDto);
         Item item = ItemMapper.toItem(itemDto, owner, itemRequest);
         Item itemWithId = itemRepository.save(item);
+        commentSummaryService.create(itemWithId.getId());
         log.info("Зарегистрирована вещь: {}", itemWithId);
+        publishItemSaved(itemWithId, true);
         return ItemMapper.toItemDto(itemWithId);
     }
 
@@ -75,11 +109,12 @@ public class ItemServiceImpl implements ItemService {
      *
      * @param userId user's id
      * @param itemId item's id
+     * @param fields properties to write, lookups of the others are skipped
      * @return item with lastBooking, nextBooking and comments properties
      */
     @Override
     @Transactional(readOnly = true)
-    public ItemOutDto getById(Long userId, Long itemId) {
+    public ItemOutDto getById(Long userId, Long itemId, FieldSet fields) {
 
         Item item = getItemByIdIfExists(itemId);
 
@@ -87,17 +122,68 @@ public class ItemServiceImpl implements ItemService {
         BookingItemDto lastBooking = null;
         BookingItemDto nextBooking = null;
         if (isOwner(item, userId)) {
-            lastBooking = getLastBooking(itemId, now);
-            nextBooking = getNextBooking(itemId, now);
+            lastBooking = fields.includes(LAST_BOOKING_FIELD) ? getLastBooking(itemId, now) : null;
+            nextBooking = fields.includes(NEXT_BOOKING_FIELD) ? getNextBooking(itemId, now) : null;
         }
 
-        List<CommentOutDto> commentsDto = getCommentsByItemId(itemId);
-        ItemOutDto itemOutDto = ItemMapper.toItemOutDto(item, lastBooking, nextBooking, commentsDto);
+        CommentSummaryDto comments = getCommentSummaries(List.of(itemId), fields).get(itemId);
+        ItemOutDto itemOutDto = toItemOutDto(item, lastBooking, nextBooking, comments, fields);
         log.info("Вещь с id: {} найдена по запросу пользователя с id {}, {}", itemId, userId, itemOutDto);
         return itemOutDto;
     }
 
 
+    /**
+     * get items by the list of ids with a fixed number of queries whatever the number of the ids:
+     * items, last and next bookings of the user's items, summaries of the comments are read by the lists of ids
+     * ids which don't exist are returned apart, repeated ids are returned once
+     *
+     * @param userId  user's id
+     * @param itemIds items' ids
+     * @param fields  properties to write, lookups of the others are skipped
+     * @return items in order of the ids and ids of the items which don't exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemLookupOutDto getByIds(Long userId, List<Long> itemIds, FieldSet fields) {
+
+        List<Long> ids = itemIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Item> items = ids.isEmpty()
+                ? Collections.emptyMap()
+                : itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Long> foundIds = ids.stream()
+                .filter(items::containsKey)
+                .collect(Collectors.toList());
+        List<Long> ownIds = foundIds.stream()
+                .filter(itemId -> isOwner(items.get(itemId), userId))
+                .collect(Collectors.toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingItemDto> lastBookings = fields.includes(LAST_BOOKING_FIELD)
+                ? getLastBookings(ownIds, now)
+                : Collections.emptyMap();
+        Map<Long, BookingItemDto> nextBookings = fields.includes(NEXT_BOOKING_FIELD)
+                ? getNextBookings(ownIds, now)
+                : Collections.emptyMap();
+        Map<Long, CommentSummaryDto> comments = getCommentSummaries(foundIds, fields);
+
+        foundIds.forEach(hotItemTracker::record);
+        List<ItemOutDto> itemsResponses = foundIds.stream()
+                .map(itemId -> toItemOutDto(items.get(itemId), lastBookings.get(itemId), nextBookings.get(itemId),
+                        comments.get(itemId), fields))
+                .collect(Collectors.toList());
+        List<Long> missing = ids.stream()
+                .filter(itemId -> !items.containsKey(itemId))
+                .collect(Collectors.toList());
+        log.info("Вещи по списку id {} запрошены пользователем с id {}, не найдены: {}", ids, userId, missing);
+        logResultList(itemsResponses);
+        return new ItemLookupOutDto(itemsResponses, missing);
+    }
+
     /**
      * update item object
      * throws 404.NOT_FOUND ObjectNotFoundException if user doesn't exist
@@ -111,6 +197,7 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     @Transactional
+    @ShardScope(2)
     public ItemDto update(Long userId, ItemDto itemDto, Long itemId) {
 
         checkUserExists(userId);
@@ -120,6 +207,7 @@ public class ItemServiceImpl implements ItemService {
         Item updatedItem = updateValidFields(item, itemDto);
 
         itemRepository.save(updatedItem);
+        publishItemSaved(updatedItem, false);
         return ItemMapper.toItemDto(updatedItem);
     }
 
@@ -130,6 +218,7 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     @Transactional
+    @ShardScope
     public void deleteById(Long itemId) {
         if (itemRepository.existsById(itemId)) {
             log.info("Удалена вещь с id: {}", itemId);
@@ -142,18 +231,17 @@ public class ItemServiceImpl implements ItemService {
      * get all items of a specific user
      *
      * @param userId user's id
+     * @param fields properties to write, lookups of the others are skipped
      * @return list of items or empty list
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ItemOutDto> getListByUser(Long userId) {
+    public List<ItemOutDto> getListByUser(Long userId, FieldSet fields) {
 
         List<Item> items = itemRepository.findAllByOwnerIdOrderById(userId);
-        Map<Item, List<Comment>> mapComments = getCommentsToAllItems(items);
+        Map<Long, CommentSummaryDto> comments = getCommentSummaries(idsOf(items), fields);
         List<ItemOutDto> itemsResponses = items.stream()
-                .map(item -> getItemResponseDto(item,
-                        mapComments.getOrDefault(item, Collections.emptyList()),
-                        LocalDateTime.now()))
+                .map(item -> getItemResponseDto(item, comments.get(item.getId()), LocalDateTime.now(), fields))
                 .collect(Collectors.toList());
         logResultList(itemsResponses);
         return itemsResponses;
@@ -162,28 +250,52 @@ public class ItemServiceImpl implements ItemService {
     /**
      * search all available items, contained substring in name or description
      *
-     * @param text substring for search
+     * @param text   substring for search
+     * @param fields properties to write, lookups of the others are skipped
      * @return list of items or empty list
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ItemOutDto> searchItemsBySubstring(String text) {
+    public List<ItemOutDto> searchItemsBySubstring(String text, FieldSet fields) {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
 
         List<Item> items = itemRepository.searchItemsBySubstring(text);
-        Map<Item, List<Comment>> mapComments = getCommentsToAllItems(items);
+        Map<Long, CommentSummaryDto> comments = getCommentSummaries(idsOf(items), fields);
         List<ItemOutDto> itemsResponses = items.stream()
-                .map(item -> getItemResponseDto(item,
-                        mapComments.getOrDefault(item, Collections.emptyList()),
-                        LocalDateTime.now()))
+                .map(item -> getItemResponseDto(item, comments.get(item.getId()), LocalDateTime.now(), fields))
                 .collect(Collectors.toList());
 
         logResultList(itemsResponses);
         return itemsResponses;
     }
 
+    /**
+     * get items with the greatest number of bookings, approved bookings or comments
+     *
+     * @param ranking counter to rank items by
+     * @param size    number of items
+     * @return list of items with their counters starting with the greatest counter
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemOutDto> getTop(ItemRanking ranking, Integer size) {
+
+        List<Long> topIds = itemCounterService.getTop(ranking, size);
+        Map<Long, Item> items = itemRepository.findAllById(topIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<ItemOutDto> itemsResponses = topIds.stream()
+                .filter(items::containsKey)
+                .map(itemId -> ItemMapper.toItemOutDto(items.get(itemId), null, null, null).toBuilder()
+                        .counters(itemCounterService.getCounters(itemId))
+                        .build())
+                .collect(Collectors.toList());
+        log.info("Список вещей с наибольшим значением счётчика {}", ranking);
+        logResultList(itemsResponses);
+        return itemsResponses;
+    }
+
     /**
      * add comment to a specific item
      * throws 404.NOT_FOUND ObjectNotFoundException if user doesn't exist
@@ -198,6 +310,7 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     @Transactional
+    @ShardScope(2)
     public CommentOutDto addComment(CommentDto commentDto, Long userId, Long itemId) {
 
         Item item = getItemByIdIfExists(itemId);
@@ -207,8 +320,37 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.toComment(commentDto, user, item);
         Comment commentWithId = commentRepository.save(comment);
+        commentSummaryService.addComment(commentWithId);
         log.info("Для вещи c id {} пользователь id {} добавил новый отзыв: {}", itemId, userId, commentWithId);
-        return CommentMapper.toCommentOutDto(commentWithId);
+        CommentOutDto commentOutDto = CommentMapper.toCommentOutDto(commentWithId);
+        eventPublisher.publishEvent(new CommentAddedEvent(commentOutDto));
+        return commentOutDto;
+    }
+
+    /**
+     * get page of the item's comments starting with the newest ones
+     * comments are paged by id (keyset), so a page is read by the index whatever its position
+     * throws 404.NOT_FOUND ObjectNotFoundException if item doesn't exist
+     *
+     * @param itemId item's id
+     * @param cursor id of the last comment of the previous page or null for the first page
+     * @param size   size of the page
+     * @return comments and cursor of the next page (null if the page is the last one)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPageOutDto getComments(Long itemId, Long cursor, Integer size) {
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new ObjectNotFoundException(String.format("Вещи с id %d не существует", itemId));
+        }
+        Pageable page = PageRequest.of(0, size);
+        List<Comment> comments = cursor == null
+                ? commentRepository.findAllByItemIdOrderByIdDesc(itemId, page)
+                : commentRepository.findAllByItemIdAndIdLessThanOrderByIdDesc(itemId, cursor, page);
+        Long nextCursor = comments.size() < size ? null : comments.get(comments.size() - 1).getId();
+        log.info("Отзывы вещи с id {} после отзыва {}: {}", itemId, cursor, comments.size());
+        return new CommentPageOutDto(CommentMapper.toCommentOutDtoList(comments), nextCursor);
     }
 
     /**
@@ -236,6 +378,17 @@ public class ItemServiceImpl implements ItemService {
         return item;
     }
 
+    /**
+     * publish ItemSavedEvent to update the term index
+     *
+     * @param item    saved item
+     * @param created whether item is new
+     */
+    private void publishItemSaved(Item item, boolean created) {
+        eventPublisher.publishEvent(new ItemSavedEvent(item.getId(), item.getOwner().getId(),
+                item.getName(), item.getDescription(), created));
+    }
+
     /**
      * get User if exists
      * throws 404.NOT FOUND ObjectNotFoundException if isn't
@@ -287,7 +440,8 @@ public class ItemServiceImpl implements ItemService {
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings = bookingRepository
                 .findAllByItem_IdAndBooker_IdAndStatusAndStartIsBefore(itemId, userId, BookingStatus.APPROVED, now);
-        if (bookings.isEmpty()) {
+        if (bookings.isEmpty() && !archivedBookingRepository
+                .existsByItem_IdAndBooker_IdAndStatus(itemId, userId, BookingStatus.APPROVED)) {
             throw new UnavailableItemException("Вы не вправе оставлять отзывы, "
                     + "поскольку не пользовались данной вещью");
         }
@@ -338,36 +492,71 @@ public class ItemServiceImpl implements ItemService {
     /**
      * construct and get ItemOutDto by current time
      *
-     * @param item Item
-     * @param now  current time
+     * @param item     Item
+     * @param comments summary of the item's comments or null if they are not written
+     * @param now      current time
+     * @param fields   properties to write, lookups of the others are skipped
      * @return ItemOutDto object
      */
-    private ItemOutDto getItemResponseDto(Item item, List<Comment> comments, LocalDateTime now) {
+    private ItemOutDto getItemResponseDto(Item item, CommentSummaryDto comments, LocalDateTime now,
+                                          FieldSet fields) {
 
         Long itemId = item.getId();
-        BookingItemDto lastBooking = getLastBooking(itemId, now);
-        BookingItemDto nextBooking = getNextBooking(itemId, now);
-        List<CommentOutDto> commentsDto = CommentMapper.toCommentOutDtoList(comments);
+        BookingItemDto lastBooking = fields.includes(LAST_BOOKING_FIELD) ? getLastBooking(itemId, now) : null;
+        BookingItemDto nextBooking = fields.includes(NEXT_BOOKING_FIELD) ? getNextBooking(itemId, now) : null;
 
-        return ItemMapper.toItemOutDto(item, lastBooking, nextBooking, commentsDto);
+        return toItemOutDto(item, lastBooking, nextBooking, comments, fields);
     }
 
     /**
-     * get map ItemId:List of comments - map of comments grouping by items
+     * construct ItemOutDto of the item and its looked up properties
      *
-     * @param items list of items
-     * @return map of comments grouping by items
+     * @param item        Item
+     * @param lastBooking last booking or null
+     * @param nextBooking next booking or null
+     * @param comments    summary of the item's comments or null if they are not written
+     * @param fields      properties to write, counters are read only if they are written
+     * @return ItemOutDto object
      */
-    private Map<Item, List<Comment>> getCommentsToAllItems(List<Item> items) {
+    private ItemOutDto toItemOutDto(Item item, BookingItemDto lastBooking, BookingItemDto nextBooking,
+                                    CommentSummaryDto comments, FieldSet fields) {
+        return ItemMapper.toItemOutDto(item, lastBooking, nextBooking,
+                        comments == null ? null : comments.getLatest()).toBuilder()
+                .commentCount(comments == null ? null : comments.getCount())
+                .counters(fields.includes(COUNTERS_FIELD) ? itemCounterService.getCounters(item.getId()) : null)
+                .build();
+    }
 
-        List<Comment> comments = commentRepository.findAllByItemIn(items);
-        return comments.stream()
-                .collect(Collectors.groupingBy(Comment::getItem));
+    /**
+     * get number of the comments and the latest comments of the items from their summaries
+     *
+     * @param itemIds items' ids
+     * @param fields  properties to write, summaries are not read if comments are not written
+     * @return summaries by item's id or empty map
+     */
+    private Map<Long, CommentSummaryDto> getCommentSummaries(List<Long> itemIds, FieldSet fields) {
+        if (!fields.includes(COMMENTS_FIELD) && !fields.includes(COMMENT_COUNT_FIELD)) {
+            return Collections.emptyMap();
+        }
+        return commentSummaryService.getSummaries(itemIds);
     }
 
+    /**
+     * get ids of the items
+     *
+     * @param items list of items
+     * @return list of ids
+     */
+    private List<Long> idsOf(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
 
     /**
      * get item's lastBooking relating to a specified time
+     * archived bookings ended before any booking left in the bookings table,
+     * so the archive is read only if the item has no such bookings
      *
      * @param itemId item's id
      * @param now    current time
@@ -377,6 +566,8 @@ public class ItemServiceImpl implements ItemService {
         return bookingRepository
                 .findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(itemId,
                         BookingStatus.APPROVED, now, now)
+                .or(() -> archivedBookingRepository.findFirstByItemIdAndStatusOrderByEndDesc(itemId,
+                        BookingStatus.APPROVED).map(BookingMapper::toBooking))
                 .map(BookingMapper::toBookingItemDto)
                 .orElse(null);
     }
@@ -396,6 +587,59 @@ public class ItemServiceImpl implements ItemService {
                 .orElse(null);
     }
 
+    /**
+     * get last bookings of the items relating to a specified time by one query,
+     * the archive is read by one more query for the items without bookings in the bookings table
+     *
+     * @param itemIds items' ids
+     * @param now     current time
+     * @return last bookings by item's id, items without them are absent
+     */
+    private Map<Long, BookingItemDto> getLastBookings(List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, BookingItemDto> lastBookings = toBookingsByItemId(
+                bookingRepository.findLastByItemIdIn(itemIds, BookingStatus.APPROVED, now));
+        List<Long> withoutBookings = itemIds.stream()
+                .filter(itemId -> !lastBookings.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!withoutBookings.isEmpty()) {
+            lastBookings.putAll(toBookingsByItemId(
+                    archivedBookingRepository.findLastByItemIdIn(withoutBookings, BookingStatus.APPROVED).stream()
+                            .map(BookingMapper::toBooking)
+                            .collect(Collectors.toList())));
+        }
+        return lastBookings;
+    }
+
+    /**
+     * get next bookings of the items relating to a specified time by one query
+     *
+     * @param itemIds items' ids
+     * @param now     current time
+     * @return next bookings by item's id, items without them are absent
+     */
+    private Map<Long, BookingItemDto> getNextBookings(List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return toBookingsByItemId(bookingRepository.findNextByItemIdIn(itemIds, BookingStatus.APPROVED, now));
+    }
+
+    /**
+     * map bookings by their items' ids, of the bookings of the same item the one with the least id is kept
+     *
+     * @param bookings list of bookings
+     * @return bookings by item's id
+     */
+    private Map<Long, BookingItemDto> toBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toBookingItemDto,
+                        (first, second) -> first, HashMap::new));
+    }
+
     /**
      * log list of items in pretty format
      *
@@ -409,17 +653,6 @@ public class ItemServiceImpl implements ItemService {
 
     }
 
-    /**
-     * get if exists List of comments by item's id
-     *
-     * @param itemId item's id
-     * @return list of comments or empty list
-     */
-    private List<CommentOutDto> getCommentsByItemId(Long itemId) {
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
-        return CommentMapper.toCommentOutDtoList(comments);
-    }
-
     /**
      * get if exists ItemRequest
      * throws 404.NOT FOUND ObjectNotFoundException if isn't
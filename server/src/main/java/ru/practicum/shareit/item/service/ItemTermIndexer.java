@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemTerm;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemTermRepository;
+import ru.practicum.shareit.util.Tokenizer;
+import ru.practicum.shareit.util.sharding.ShardContext;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * maintaining the term index over items' names and descriptions
+ */
+@Slf4j
+@Component
+public class ItemTermIndexer {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final ItemTermRepository itemTermRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${shareit.matching.min-term-length:3}")
+    private int minTermLength;
+    @Value("${shareit.matching.max-term-length:100}")
+    private int maxTermLength;
+    @Value("${shareit.matching.max-terms:50}")
+    private int maxTerms;
+
+    public ItemTermIndexer(ItemRepository itemRepository,
+                           ItemTermRepository itemTermRepository,
+                           PlatformTransactionManager transactionManager,
+                           ObjectProvider<ShardRouter> shardRouter) {
+        this.itemRepository = itemRepository;
+        this.itemTermRepository = itemTermRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = ShardRouter.orSingle(shardRouter);
+    }
+
+    /**
+     * re-index item in the same transaction as item's creation or update
+     *
+     * @param event saved item
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onItemSaved(ItemSavedEvent event) {
+        if (!event.isCreated()) {
+            itemTermRepository.deleteAllByItemId(event.getItemId());
+        }
+        Item item = itemRepository.getReferenceById(event.getItemId());
+        itemTermRepository.saveAll(toTerms(item, event.getName() + " " + event.getDescription()));
+    }
+
+    /**
+     * build the index for the items registered before the index existed, on each shard
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexExistingItems() {
+        for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+            ShardContext.inScope(shard, this::indexItems);
+        }
+    }
+
+    /**
+     * build the index for the items of the shard of the scope having no terms,
+     * page by page, each page by its own transaction, so an interrupted build is resumed at the next start
+     */
+    private void indexItems() {
+        long after = 0;
+        long indexed = 0;
+        List<Long> page;
+        do {
+            long from = after;
+            page = transactionTemplate.execute(status -> indexPage(from));
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+            indexed += page.size();
+        } while (page.size() == PAGE_SIZE);
+        log.info("Построен индекс терминов для вещей: {}", indexed);
+    }
+
+    /**
+     * index the page of items having no terms following the specific id
+     * the items are locked, so an update of the item indexing it at the same time waits for the page,
+     * the items indexed before the lock is taken are skipped
+     *
+     * @param after id of the last item of the previous page or 0
+     * @return ids of the items of the page in ascending order
+     */
+    private List<Long> indexPage(long after) {
+        List<Item> items = itemRepository.findNotIndexedAfter(after, PageRequest.of(0, PAGE_SIZE));
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = items.stream().map(Item::getId).collect(Collectors.toList());
+        Set<Long> indexed = new HashSet<>(itemTermRepository.findIndexedItemIds(ids));
+        items.stream()
+                .filter(item -> !indexed.contains(item.getId()))
+                .forEach(item -> itemTermRepository.saveAll(toTerms(item,
+                        item.getName() + " " + item.getDescription())));
+        return ids;
+    }
+
+    /**
+     * split item's text into ItemTerm objects
+     *
+     * @param item Item object
+     * @param text item's name and description
+     * @return list of ItemTerm objects
+     */
+    private List<ItemTerm> toTerms(Item item, String text) {
+        Set<String> terms = Tokenizer.tokenize(text, minTermLength, maxTermLength, maxTerms);
+        return terms.stream()
+                .map(term -> ItemTerm.builder().term(term).item(item).build())
+                .collect(Collectors.toList());
+    }
+
+}
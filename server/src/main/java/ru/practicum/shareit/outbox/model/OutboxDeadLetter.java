@@ -0,0 +1,44 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * OutboxDeadLetter model: outbox event the sinks have rejected every attempt, parked for the investigation.
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "outbox_dead_letters")
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDeadLetter {
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    @Column(name = "payload", nullable = false)
+    private String payload;
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    /**
+     * error of the last attempt
+     */
+    @Column(name = "error")
+    private String error;
+    @Column(name = "parked", nullable = false)
+    private LocalDateTime parked;
+
+}
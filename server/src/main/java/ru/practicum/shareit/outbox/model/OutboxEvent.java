@@ -0,0 +1,46 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * OutboxEvent model: domain event waiting for dispatching to the downstream consumers.
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "outbox_events")
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    @Column(name = "payload", nullable = false)
+    private String payload;
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+    /**
+     * failed attempts to dispatch the event alone, the event is moved to outbox_dead_letters after the last one
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    /**
+     * the failed event isn't dispatched again before this time
+     */
+    @Column(name = "retry_at")
+    private LocalDateTime retryAt;
+
+}
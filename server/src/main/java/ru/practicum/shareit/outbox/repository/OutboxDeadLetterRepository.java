@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxDeadLetter;
+import ru.practicum.shareit.util.sharding.Colocated;
+
+/**
+ * OutboxDeadLetter repository
+ */
+@Repository
+@Colocated
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
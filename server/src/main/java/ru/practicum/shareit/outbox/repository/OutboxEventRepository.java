@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.util.sharding.Colocated;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * OutboxEvent repository
+ */
+@Repository
+@Colocated
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * lock the oldest events for dispatching
+     * another instance's dispatcher waits for the lock, so that a batch is never sent twice in parallel
+     *
+     * @param page page's parameters (batch size)
+     * @return list of the events, sorting by id in ascending order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable page);
+
+    /**
+     * find the oldest undispatched event
+     *
+     * @return oldest event if exists
+     */
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.OutboxDeadLetter;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxDeadLetterRepository;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+import ru.practicum.shareit.util.sharding.ShardContext;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * draining the outbox in batches and sending events to all the sinks
+ * a batch is deleted only after every sink has accepted it; events of a failed batch are sent one by one in order,
+ * so that the event the sinks reject doesn't hold back the others: it is retried with growing backoff
+ * and after the last attempt is moved to outbox_dead_letters, the events behind it wait for its retry
+ * with sharding the events are written by the shard of the change, so the outbox of each shard is drained in turn
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoff;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter deadLetters;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxDeadLetterRepository outboxDeadLetterRepository,
+                            List<OutboxSink> sinks,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            ObjectProvider<ShardRouter> shardRouter,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${shareit.outbox.retry-backoff-ms:1000}") long retryBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = ShardRouter.orSingle(shardRouter);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+
+        Gauge.builder("shareit.outbox.backlog", backlog, AtomicLong::get)
+                .description("Number of the events waiting for dispatching")
+                .register(meterRegistry);
+        TimeGauge.builder("shareit.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest event waiting for dispatching")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("shareit.outbox.dispatched")
+                .description("Number of the dispatched events")
+                .register(meterRegistry);
+        this.failures = Counter.builder("shareit.outbox.failures")
+                .description("Number of the failed batches")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("shareit.outbox.dead-letters")
+                .description("Number of the events moved to the dead letters after the last attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * dispatch full batches until the outbox of each shard is drained, then refresh backlog metrics
+     * failed shard doesn't stop draining of the others
+     */
+    @Scheduled(fixedDelayString = "${shareit.outbox.flush-interval-ms:1000}")
+    public void dispatch() {
+        for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+            ShardContext.inScope(shard, this::drain);
+        }
+        refreshMetrics();
+    }
+
+    /**
+     * dispatch full batches until the outbox is drained
+     */
+    private void drain() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> dispatchBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Не удалось отправить события из outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * lock, send and delete one batch of the oldest events, send them one by one if the batch fails
+     *
+     * @return number of the events removed from the outbox
+     */
+    private int dispatchBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        if (events.isEmpty() || isWaiting(events.get(0), now)) {
+            return 0;
+        }
+        try {
+            sinks.forEach(sink -> sink.send(events));
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Не удалось отправить пакет событий из outbox, события отправляются по одному: {}",
+                    e.getMessage());
+            return dispatchEach(events, now);
+        }
+        outboxEventRepository.deleteAllInBatch(events);
+        dispatched.increment(events.size());
+        return events.size();
+    }
+
+    /**
+     * send the events one by one in order until the one which is waiting for its retry or fails
+     * the event failed for the last time is moved to the dead letters and the next events are sent
+     *
+     * @return number of the events removed from the outbox
+     */
+    private int dispatchEach(List<OutboxEvent> events, LocalDateTime now) {
+        int removed = 0;
+        for (OutboxEvent event : events) {
+            if (isWaiting(event, now)) {
+                break;
+            }
+            try {
+                sinks.forEach(sink -> sink.send(List.of(event)));
+            } catch (RuntimeException e) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() < maxAttempts) {
+                    long backoff = retryBackoff << Math.min(event.getAttempts() - 1, 20);
+                    event.setRetryAt(now.plus(Duration.ofMillis(backoff)));
+                    outboxEventRepository.save(event);
+                    log.warn("Событие {} из outbox не отправлено, попытка {} из {}: {}",
+                            event.getId(), event.getAttempts(), maxAttempts, e.getMessage());
+                    break;
+                }
+                park(event, e, now);
+                removed++;
+                continue;
+            }
+            outboxEventRepository.delete(event);
+            dispatched.increment();
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * move the event rejected by the last attempt to the dead letters
+     */
+    private void park(OutboxEvent event, RuntimeException error, LocalDateTime now) {
+        String message = String.valueOf(error.getMessage());
+        outboxDeadLetterRepository.save(OutboxDeadLetter.builder()
+                .id(event.getId())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .eventType(event.getEventType())
+                .payload(event.getPayload())
+                .created(event.getCreated())
+                .attempts(event.getAttempts())
+                .error(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message)
+                .parked(now)
+                .build());
+        outboxEventRepository.delete(event);
+        deadLetters.increment();
+        log.error("Событие {} из outbox не отправлено за {} попыток и перенесено в outbox_dead_letters: {}",
+                event.getId(), event.getAttempts(), message);
+    }
+
+    private static boolean isWaiting(OutboxEvent event, LocalDateTime now) {
+        return event.getRetryAt() != null && event.getRetryAt().isAfter(now);
+    }
+
+    private void refreshMetrics() {
+        long count = 0;
+        long lag = 0;
+        for (int shard = 0; shard < shardRouter.getShards(); shard++) {
+            count += ShardContext.inScope(shard, () -> outboxEventRepository.count());
+            lag = Math.max(lag, ShardContext.inScope(shard, () -> outboxEventRepository.findFirstByOrderByIdAsc()
+                    .map(event -> Duration.between(event.getCreated(), LocalDateTime.now()).toMillis())
+                    .orElse(0L)));
+        }
+        backlog.set(count);
+        lagMillis.set(lag);
+    }
+
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * writing domain events to the outbox in the same transaction as the business change
+ * if the transaction is rolled back, the event is never dispatched
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String ITEM = "ITEM";
+    public static final String COMMENT = "COMMENT";
+    public static final String REQUEST = "REQUEST";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * write booking's creation, approval or rejection
+     *
+     * @param event changed booking
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingOutDto booking = event.getBooking();
+        String eventType = booking.getStatus() == BookingStatus.WAITING
+                ? "BOOKING_CREATED"
+                : "BOOKING_" + booking.getStatus().name();
+        save(BOOKING, booking.getId(), eventType, booking);
+    }
+
+    /**
+     * write item's creation or update
+     *
+     * @param event saved item
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onItemSaved(ItemSavedEvent event) {
+        save(ITEM, event.getItemId(), event.isCreated() ? "ITEM_CREATED" : "ITEM_UPDATED", event);
+    }
+
+    /**
+     * write comment's addition
+     *
+     * @param event added comment
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCommentAdded(CommentAddedEvent event) {
+        CommentOutDto comment = event.getComment();
+        save(COMMENT, comment.getId(), "COMMENT_ADDED", comment);
+    }
+
+    /**
+     * write item's request creation
+     *
+     * @param event created request
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        save(REQUEST, event.getRequestId(), "REQUEST_CREATED", event);
+    }
+
+    /**
+     * save event with json payload
+     * serialization error rolls back the business change, so that no event is lost
+     */
+    private void save(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Событие " + eventType + " не может быть сохранено", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(json)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox.sink;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * OutboxSink writing events to the log, for local runs
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.log-sink.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void send(List<OutboxEvent> events) {
+        events.forEach(event -> log.info("Событие {} для {} с id {}: {}", event.getEventType(),
+                event.getAggregateType(), event.getAggregateId(), event.getPayload()));
+    }
+
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.outbox.sink;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * destination of the dispatched outbox events: message broker, analytics, cache invalidation etc.
+ * events of the batch are dispatched again one by one if sink throws exception, so sinks should tolerate duplicates
+ */
+public interface OutboxSink {
+
+    void send(List<OutboxEvent> events);
+
+}
@@ -5,7 +5,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.dto.RequestMatchOutDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.service.RequestMatchService;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.List;
 
@@ -21,6 +24,7 @@ import static ru.practicum.shareit.util.constants.Constants.*;
 public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
+    private final RequestMatchService requestMatchService;
 
     /**
      * processing POST-request to add item's request (save and assign identity)
@@ -40,13 +44,15 @@ public class ItemRequestController {
      * processing GET-request from a specific user to get list of the items' requests and answers to them
      *
      * @param userId requester id
+     * @param fields comma-separated properties to write (all if absent)
      * @return list of the user's item's requests with answers to them
      */
     @GetMapping
-    public List<ItemRequestOutDto> getOwnRequests(@RequestHeader(HEADER_USER_ID) Long userId) {
+    public List<ItemRequestOutDto> getOwnRequests(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                  @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
         log.info("GET-request: запрос на получение информации о своих запросах и ответах на них "
                 + "от пользователя с id {}", userId);
-        return itemRequestService.getOwnRequests(userId);
+        return itemRequestService.getOwnRequests(userId, FieldSet.of(fields));
     }
 
     /**
@@ -57,6 +63,7 @@ public class ItemRequestController {
      * @param userId requester id
      * @param from   first index of the request at the page
      * @param size   size of the page
+     * @param fields comma-separated properties to write (all if absent)
      * @return list of the other users' item's requests
      */
     @GetMapping(ALL_PATH)
@@ -66,10 +73,37 @@ public class ItemRequestController {
                                                                  defaultValue = ZERO_DEFAULT_VALUE) Integer from,
                                                          @RequestParam(
                                                                  name = SIZE_PARAMETER_NAME,
-                                                                 defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+                                                                 defaultValue = TEN_DEFAULT_VALUE) Integer size,
+                                                         @RequestParam(
+                                                                 name = FIELDS_PARAMETER_NAME,
+                                                                 required = false) String fields) {
         log.info("GET-request: запрос на получение информации о всех запросах на вещи "
                 + "от пользователя с id {}, начиная с позиции {}, ограничение размера: {}", userId, from, size);
-        return itemRequestService.getOtherUsersRequests(userId, from, size);
+        return itemRequestService.getOtherUsersRequests(userId, from, size, FieldSet.of(fields));
+    }
+
+    /**
+     * processing GET-request from a specific owner to get list of the other users' items requests
+     * matching names or descriptions of the owner's items
+     * list should be started with the newest matches
+     * with paging option: the size and the number of the page is defined by from/size parameters of request
+     *
+     * @param userId owner's id
+     * @param from   first index of the match at the page
+     * @param size   size of the page
+     * @return list of the matching requests
+     */
+    @GetMapping(MATCHES_PATH)
+    public List<RequestMatchOutDto> getMatches(@RequestHeader(HEADER_USER_ID) Long userId,
+                                               @RequestParam(
+                                                       name = FROM_PARAMETER_NAME,
+                                                       defaultValue = ZERO_DEFAULT_VALUE) Integer from,
+                                               @RequestParam(
+                                                       name = SIZE_PARAMETER_NAME,
+                                                       defaultValue = TEN_DEFAULT_VALUE) Integer size) {
+        log.info("GET-request: запрос на получение подходящих запросов на вещи "
+                + "от владельца с id {}, начиная с позиции {}, ограничение размера: {}", userId, from, size);
+        return requestMatchService.getMatches(userId, from, size);
     }
 
     /**
@@ -77,12 +111,14 @@ public class ItemRequestController {
      *
      * @param requestId item's request id
      * @param userId    user's id
+     * @param fields    comma-separated properties to write (all if absent)
      * @return item's request
      */
     @GetMapping(REQUEST_ID_PATH_VARIABLE)
     public ItemRequestOutDto getRequestById(@RequestHeader(HEADER_USER_ID) Long userId,
-                                            @PathVariable Long requestId) {
+                                            @PathVariable Long requestId,
+                                            @RequestParam(name = FIELDS_PARAMETER_NAME, required = false) String fields) {
         log.info("GET-request: запрос на получение информации от пользователя {} о запросе с id {}", userId, requestId);
-        return itemRequestService.getRequestById(userId, requestId);
+        return itemRequestService.getRequestById(userId, requestId, FieldSet.of(fields));
     }
 }
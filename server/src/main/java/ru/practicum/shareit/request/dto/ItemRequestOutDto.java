@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Builder;
 import lombok.Value;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,6 +16,7 @@ import java.util.List;
 @Builder(toBuilder = true)
 @Value
 @RequiredArgsConstructor
+@JsonFilter(FieldSet.FILTER)
 public class ItemRequestOutDto {
 
     Long id;
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * RequestMatch DTO model.
+ */
+@Builder(toBuilder = true)
+@Value
+@RequiredArgsConstructor
+public class RequestMatchOutDto {
+
+    Long id;
+    Long requestId;
+    String description;
+    LocalDateTime requestCreated;
+    Integer score;
+    LocalDateTime created;
+}
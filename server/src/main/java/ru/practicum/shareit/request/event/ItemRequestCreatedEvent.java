@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.Value;
+
+/**
+ * Event: item's request has been created
+ */
+@Value
+public class ItemRequestCreatedEvent {
+    Long requestId;
+    Long requesterId;
+    String description;
+}
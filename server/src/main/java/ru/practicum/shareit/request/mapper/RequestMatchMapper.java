@@ -0,0 +1,60 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.dto.RequestMatchOutDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class RequestMatchMapper {
+
+    /**
+     * map RequestMatch object into RequestMatchOutDto object
+     *
+     * @param match RequestMatch object
+     * @return RequestMatchOutDto object
+     */
+    public static RequestMatchOutDto toRequestMatchOutDto(RequestMatch match) {
+        return new RequestMatchOutDto(
+                match.getId(),
+                match.getRequest().getId(),
+                match.getRequest().getDescription(),
+                match.getRequest().getCreated(),
+                match.getScore(),
+                match.getCreated()
+        );
+    }
+
+    /**
+     * create RequestMatch object
+     *
+     * @param request matched item's request
+     * @param owner   owner of the similar items
+     * @param score   number of the request's terms found in owner's items
+     * @return RequestMatch object
+     */
+    public static RequestMatch toRequestMatch(ItemRequest request, User owner, Integer score) {
+        return RequestMatch.builder()
+                .request(request)
+                .owner(owner)
+                .score(score)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * map List of RequestMatch objects into List of RequestMatchOutDto objects
+     *
+     * @param matches list of RequestMatch objects
+     * @return List of RequestMatchOutDto objects
+     */
+    public static List<RequestMatchOutDto> toRequestMatchOutDtoList(List<RequestMatch> matches) {
+        return matches.stream().map(RequestMatchMapper::toRequestMatchOutDto).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * RequestMatch model: notification for the owner of the items similar to the requested one.
+ */
+@Data
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "request_matches")
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @ManyToOne
+    @JoinColumn(name = "request", referencedColumnName = "id", nullable = false)
+    private ItemRequest request;
+    @ManyToOne
+    @JoinColumn(name = "owner", referencedColumnName = "id", nullable = false)
+    private User owner;
+    @Column(name = "score", nullable = false)
+    private Integer score;
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+}
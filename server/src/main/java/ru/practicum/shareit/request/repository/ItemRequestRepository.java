@@ -2,15 +2,19 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.sharding.Replicated;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * ItemRequest repository
  */
 @Repository
+@Replicated("requests")
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     /**
@@ -31,4 +35,14 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
      * @return list of the other users' item's requests
      */
     List<ItemRequest> findAllByRequesterIdIsNotOrderByCreatedDesc(Long userId, Pageable pageRequest);
+
+    /**
+     * get request's version, used with the answering items to build entity tag of the request
+     * (see ItemRepository.findRequestTagSourceByRequestId)
+     *
+     * @param requestId request's id
+     * @return request's version or empty Optional if request doesn't exist
+     */
+    @Query("select r.version from ItemRequest r where r.id = ?1")
+    Optional<Long> findVersionById(Long requestId);
 }
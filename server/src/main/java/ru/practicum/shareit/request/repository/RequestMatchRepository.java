@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.util.List;
+
+/**
+ * RequestMatch repository
+ */
+@Repository
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+
+    /**
+     * to get list of the requests matching items of a specific owner
+     * list should be started with the newest matches, the most relevant first
+     *
+     * @param ownerId     owner's id
+     * @param pageRequest page to get
+     * @return list of the matches for the owner
+     */
+    List<RequestMatch> findAllByOwnerIdOrderByCreatedDescScoreDesc(Long ownerId, Pageable pageRequest);
+}
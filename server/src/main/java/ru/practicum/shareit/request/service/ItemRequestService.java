@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.service;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.List;
 
@@ -26,9 +27,10 @@ public interface ItemRequestService {
      * to get list of the items' requests and answers to them from a specific user
      *
      * @param userId requester id
+     * @param fields properties to write, answers are not read if they are not written
      * @return list of the item's requests with answers to them
      */
-    List<ItemRequestOutDto> getOwnRequests(Long userId);
+    List<ItemRequestOutDto> getOwnRequests(Long userId, FieldSet fields);
 
     /**
      * to get list of the other users' item's requests to answer
@@ -38,16 +40,18 @@ public interface ItemRequestService {
      * @param userId requester id
      * @param from   first index of the request at the page
      * @param size   last index of the request at the page
+     * @param fields properties to write, answers are not read if they are not written
      * @return list of the other users' item's requests
      */
-    List<ItemRequestOutDto> getOtherUsersRequests(Long userId, Integer from, Integer size);
+    List<ItemRequestOutDto> getOtherUsersRequests(Long userId, Integer from, Integer size, FieldSet fields);
 
     /**
      * to get item's request by id
      *
      * @param requestId item's request id
      * @param userId    user's id
+     * @param fields    properties to write, answers are not read if they are not written
      * @return item's request
      */
-    ItemRequestOutDto getRequestById(Long userId, Long requestId);
+    ItemRequestOutDto getRequestById(Long userId, Long requestId, FieldSet fields);
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,12 +13,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.Collections;
 import java.util.List;
@@ -32,12 +35,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    /**
+     * property of ItemRequestOutDto with the answers to the request
+     */
+    private static final String ITEMS_FIELD = "items";
+
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * to add item's request (save and assign identity)
+     * owners of the similar items are notified asynchronously after the request is saved
      * throw 404.NOT FOUND ObjectNotFoundException if user is not found
      *
      * @param userId         owner's id
@@ -52,6 +62,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, requester);
         ItemRequest itemRequestWithId = itemRequestRepository.save(itemRequest);
         log.info("Сохранена информация о запросе: {}", itemRequestWithId);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(itemRequestWithId.getId(), userId,
+                itemRequestWithId.getDescription()));
         return ItemRequestMapper.toItemRequestOutDto(itemRequestWithId, null);
     }
 
@@ -62,15 +74,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      *
      * @param requestId item's request id
      * @param userId    user's id
+     * @param fields    properties to write, answers are not read if they are not written
      * @return item's request
      */
     @Override
     @Transactional(readOnly = true)
-    public ItemRequestOutDto getRequestById(Long userId, Long requestId) {
+    public ItemRequestOutDto getRequestById(Long userId, Long requestId, FieldSet fields) {
         checkUserExists(userId);
         ItemRequest itemRequest = getItemRequestByIdIfExists(requestId);
 
-        List<ItemDto> items = getItemsByRequestId(requestId);
+        List<ItemDto> items = fields.includes(ITEMS_FIELD) ? getItemsByRequestId(requestId) : null;
         ItemRequestOutDto itemRequestOutDto = ItemRequestMapper.toItemRequestOutDto(itemRequest, items);
         log.info("Найден запрос с id {}: {}", requestId, itemRequestOutDto);
         return itemRequestOutDto;
@@ -82,15 +95,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * throw 404.NOT FOUND ObjectNotFoundException if user is not found
      *
      * @param userId requester id
+     * @param fields properties to write, answers are not read if they are not written
      * @return list of item's requests with answers to them
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestOutDto> getOwnRequests(Long userId) {
+    public List<ItemRequestOutDto> getOwnRequests(Long userId, FieldSet fields) {
         checkUserExists(userId);
 
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId);
-        Map<ItemRequest, List<ItemDto>> map = getAllItemsForListRequests(itemRequests);
+        Map<ItemRequest, List<ItemDto>> map = getAllItemsForListRequests(itemRequests, fields);
 
         List<ItemRequestOutDto> requests = itemRequests.stream()
                 .map(item -> ItemRequestMapper
@@ -108,11 +122,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * @param userId requester id
      * @param from   first index of the request at the page
      * @param size   last index of the request at the page
+     * @param fields properties to write, answers are not read if they are not written
      * @return list of the other users' item's requests
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestOutDto> getOtherUsersRequests(Long userId, Integer from, Integer size) {
+    public List<ItemRequestOutDto> getOtherUsersRequests(Long userId, Integer from, Integer size, FieldSet fields) {
         checkUserExists(userId);
         int page = from / size;
         Pageable pageRequest = PageRequest.of(page, size);
@@ -120,7 +135,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequest> itemRequests = itemRequestRepository
                 .findAllByRequesterIdIsNotOrderByCreatedDesc(userId, pageRequest);
 
-        Map<ItemRequest, List<ItemDto>> map = getAllItemsForListRequests(itemRequests);
+        Map<ItemRequest, List<ItemDto>> map = getAllItemsForListRequests(itemRequests, fields);
 
         List<ItemRequestOutDto> requests = itemRequests.stream()
                 .map(item -> ItemRequestMapper
@@ -135,10 +150,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * get map List<ItemDto> objects in response to ItemRequest
      *
      * @param itemRequests items' requests list
+     * @param fields       properties to write, answers are not read if they are not written
      * @return mapping list of ItemDto objects corresponding with ItemRequest
      */
-    private Map<ItemRequest, List<ItemDto>> getAllItemsForListRequests(List<ItemRequest> itemRequests) {
+    private Map<ItemRequest, List<ItemDto>> getAllItemsForListRequests(List<ItemRequest> itemRequests,
+                                                                       FieldSet fields) {
 
+        if (!fields.includes(ITEMS_FIELD)) {
+            return Collections.emptyMap();
+        }
         List<Item> items = itemRepository.findAllByRequestIn(itemRequests);
 
         return items.stream()
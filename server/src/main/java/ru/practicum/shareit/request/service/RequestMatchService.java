@@ -0,0 +1,34 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.dto.RequestMatchOutDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.util.List;
+
+/**
+ * RequestMatchService interface
+ */
+@Component
+public interface RequestMatchService {
+
+    /**
+     * match new item's request with owners of the items with similar names or descriptions
+     * and save notifications for them
+     *
+     * @param event created item's request
+     */
+    void matchRequest(ItemRequestCreatedEvent event);
+
+    /**
+     * to get list of the other users' item's requests matching items of a specific owner
+     * list should be started with the newest matches
+     * with paging option: size of the page is defined by from/to parameters of request
+     *
+     * @param userId owner's id
+     * @param from   first index of the match at the page
+     * @param size   size of the page
+     * @return list of the matches
+     */
+    List<RequestMatchOutDto> getMatches(Long userId, Integer from, Integer size);
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.repository.ItemTermRepository;
+import ru.practicum.shareit.request.dto.RequestMatchOutDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.mapper.RequestMatchMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.Tokenizer;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.config.AsyncConfig.MATCHING_EXECUTOR;
+
+/**
+ * RequestMatch Service implementation
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RequestMatchServiceImpl implements RequestMatchService {
+
+    private final RequestMatchRepository requestMatchRepository;
+    private final ItemTermRepository itemTermRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+
+    @Value("${shareit.matching.min-term-length:3}")
+    private int minTermLength;
+    @Value("${shareit.matching.max-term-length:100}")
+    private int maxTermLength;
+    @Value("${shareit.matching.max-terms:50}")
+    private int maxTerms;
+    @Value("${shareit.matching.max-matches:20}")
+    private int maxMatches;
+
+    /**
+     * match new item's request with owners of the items with similar names or descriptions
+     * runs asynchronously after the request's creation is committed
+     * owners are ranked by the number of the request's terms found in their items
+     *
+     * @param event created item's request
+     */
+    @Override
+    @Async(MATCHING_EXECUTOR)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener
+    public void matchRequest(ItemRequestCreatedEvent event) {
+        Set<String> terms = Tokenizer.tokenize(event.getDescription(), minTermLength, maxTermLength, maxTerms);
+        if (terms.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> owners = itemTermRepository
+                .findOwnersByTerms(terms, event.getRequesterId(), PageRequest.of(0, maxMatches));
+        ItemRequest request = itemRequestRepository.getReferenceById(event.getRequestId());
+        List<RequestMatch> matches = owners.stream()
+                .map(row -> RequestMatchMapper.toRequestMatch(request,
+                        userRepository.getReferenceById((Long) row[0]),
+                        ((Number) row[1]).intValue()))
+                .collect(Collectors.toList());
+        requestMatchRepository.saveAll(matches);
+        log.info("Запрос с id {} передан владельцам похожих вещей: {}", event.getRequestId(), matches.size());
+    }
+
+    /**
+     * to get list of the other users' item's requests matching items of a specific owner
+     * throw 404.NOT FOUND ObjectNotFoundException if user doesn't exist
+     *
+     * @param userId owner's id
+     * @param from   first index of the match at the page
+     * @param size   size of the page
+     * @return list of the matches
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RequestMatchOutDto> getMatches(Long userId, Integer from, Integer size) {
+        checkUserExists(userId);
+        int page = from / size;
+        Pageable pageRequest = PageRequest.of(page, size);
+
+        List<RequestMatch> matches = requestMatchRepository
+                .findAllByOwnerIdOrderByCreatedDescScoreDesc(userId, pageRequest);
+        log.info("Пользователю с id {} найдено подходящих запросов: {}", userId, matches.size());
+        return RequestMatchMapper.toRequestMatchOutDtoList(matches);
+    }
+
+    /**
+     * check whether User exists throw 404.NOT FOUND ObjectNotFoundException if isn't
+     *
+     * @param userId user's id
+     */
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException(String.format("Пользователя с id %d не существует", userId));
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ package ru.practicum.shareit.user.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.sharding.Replicated;
 
 import java.util.Optional;
 
@@ -11,6 +12,7 @@ import java.util.Optional;
  * User repository
  */
 @Repository
+@Replicated("users")
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailAndIdIsNot(String email, Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splitting free text (items' names and descriptions, requests' descriptions) into search terms
+ */
+public class Tokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * get distinct lower-case terms of a text in order of appearance
+     *
+     * @param text      text to split
+     * @param minLength minimal length of the term, shorter words are skipped
+     * @param maxLength maximal length of the term, longer words (slugs, part numbers) are skipped
+     * @param maxTerms  maximal number of the terms to return
+     * @return set of terms or empty set
+     */
+    public static Set<String> tokenize(String text, int minLength, int maxLength, int maxTerms) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (terms.size() >= maxTerms) {
+                break;
+            }
+            if (word.length() >= minLength && word.length() <= maxLength) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.util.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.practicum.shareit.util.tracing.MdcTaskDecorator;
+
+/**
+ * Executors for background processing
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String MATCHING_EXECUTOR = "matchingExecutor";
+    public static final String SSE_EXECUTOR = "sseExecutor";
+
+    /**
+     * executor matching new items' requests with owners of similar items
+     * tasks exceeding the queue capacity are rejected, matching is best-effort
+     *
+     * @param poolSize      number of the threads
+     * @param queueCapacity number of the requests waiting for matching
+     * @return executor
+     */
+    @Bean(MATCHING_EXECUTOR)
+    public ThreadPoolTaskExecutor matchingExecutor(@Value("${shareit.matching.pool-size:2}") int poolSize,
+                                                   @Value("${shareit.matching.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("matching-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * executor writing server-sent events to the subscribers
+     * threads are busy only while events are written, idle subscriptions don't hold them
+     *
+     * @param poolSize      number of the threads
+     * @param queueCapacity number of the subscribers waiting for writing
+     * @return executor
+     */
+    @Bean(SSE_EXECUTOR)
+    public ThreadPoolTaskExecutor sseExecutor(@Value("${shareit.sse.pool-size:4}") int poolSize,
+                                              @Value("${shareit.sse.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sse-");
+        return executor;
+    }
+
+}
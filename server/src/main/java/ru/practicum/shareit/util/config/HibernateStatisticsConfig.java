@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.sql.HibernateQueryMeters;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate's statistics as metrics, activated by "statistics" profile
+ * sessions, entities' loads and fetches, second-level and query caches are bound by Spring Boot
+ * (hibernate.* meters), each query's executions by HibernateQueryMeters
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.hibernate.statistics.enabled", havingValue = "true")
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+    }
+
+    /**
+     * meters of each query
+     *
+     * @param entityManagerFactory factory whose statistics are measured
+     * @param meterRegistry        registry of the meters
+     * @param maxQueries           max number of the queries measured
+     * @return query meters
+     */
+    @Bean
+    public HibernateQueryMeters hibernateQueryMeters(EntityManagerFactory entityManagerFactory,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${shareit.hibernate.statistics.max-queries:200}")
+                                                     int maxQueries) {
+        return new HibernateQueryMeters(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+                meterRegistry, maxQueries);
+    }
+}
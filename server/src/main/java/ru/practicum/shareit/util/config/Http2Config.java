@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP/2 over cleartext (h2c) for the gateway, activated by "h2c" profile (server.http2.enabled)
+ * Spring Boot adds Tomcat's HTTP/2 upgrade protocol to the connector: the gateway's connection is upgraded by its
+ * first request and multiplexes the concurrent requests as streams, HTTP/1.1 clients are served as before;
+ * responses of the streams are compressed as HTTP/1.1 ones (server.compression)
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2Config {
+
+    /**
+     * limits of the streams of one connection: the gateway's requests over the limit wait for their streams
+     *
+     * @param maxConcurrentStreams         streams opened at a time
+     * @param maxConcurrentStreamExecution streams handled by Tomcat's threads at a time
+     * @return Tomcat customizer
+     */
+    @Bean
+    public TomcatConnectorCustomizer http2ConnectorCustomizer(
+            @Value("${shareit.http2.max-concurrent-streams:200}") long maxConcurrentStreams,
+            @Value("${shareit.http2.max-concurrent-stream-execution:200}") int maxConcurrentStreamExecution) {
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol) {
+                    ((Http2Protocol) protocol).setMaxConcurrentStreams(maxConcurrentStreams);
+                    ((Http2Protocol) protocol).setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+                    log.info("Соединения HTTP/1.1 переводятся на h2c, потоков в соединении не более {}",
+                            maxConcurrentStreams);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.util.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.util.datasource.ReplicaLagMonitor;
+import ru.practicum.shareit.util.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica: read-only transactions are executed by the replica while its lag is tolerable
+ * activated by "replica" profile or shareit.datasource.replica.enabled=true
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    /**
+     * primary's pool configured by spring.datasource.*
+     *
+     * @param properties spring.datasource properties
+     * @return data source
+     */
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * replica's pool configured by shareit.datasource.replica.* (jdbc-url, username, password, maximum-pool-size)
+     *
+     * @return data source
+     */
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("shareit.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * check of the replica's lag by shareit.datasource.replica-lag.query, blank query checks only availability
+     *
+     * @param replica  replica's data source
+     * @param lagQuery query returning the lag in milliseconds
+     * @param maxLag   tolerated lag in milliseconds
+     * @return monitor
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                               @Value("${shareit.datasource.replica-lag.query:}") String lagQuery,
+                                               @Value("${shareit.datasource.replica-lag.max-ms:1000}") long maxLag) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag);
+    }
+
+    /**
+     * data source of the application routing read-only transactions to the replica
+     *
+     * @param primary           primary's data source
+     * @param replica           replica's data source
+     * @param replicaLagMonitor check of the replica's lag
+     * @return data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+                                 @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor));
+    }
+}
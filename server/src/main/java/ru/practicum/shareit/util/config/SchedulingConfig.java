@@ -0,0 +1,12 @@
+package ru.practicum.shareit.util.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Periodic background tasks
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.util.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.hot.HotItem;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentSummary;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCounter;
+import ru.practicum.shareit.item.model.ItemTerm;
+import ru.practicum.shareit.util.sharding.ShardReplicator;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+import ru.practicum.shareit.util.sharding.ShardRoutingDataSource;
+import ru.practicum.shareit.util.sharding.ShardingAspect;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding: items with their bookings, comments, terms and counters are stored by the shard of the owner,
+ * users and requests are replicated to every shard
+ * activated by "sharding" profile or shareit.sharding.enabled=true, shards are listed by shareit.sharding.urls,
+ * the first one is the home shard of the not sharded tables
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * tables whose ids are congruent to the index of the shard modulo number of the shards,
+     * so colocated events of different shards have different ids as well
+     */
+    private static final List<String> SHARDED_TABLES = List.of("items", "bookings", "comments", "item_terms",
+            "outbox_events", "booking_events");
+
+    @Value("${shareit.sharding.urls}")
+    private List<String> urls;
+
+    /**
+     * router of the sharded entities and of the new bookings by their keys
+     *
+     * @return router
+     */
+    @Bean
+    public ShardRouter shardRouter() {
+        return new ShardRouter(urls.size())
+                .register(Item.class, item -> item.getId() != null ? item.getId() : item.getOwner().getId())
+                .register(Booking.class, booking -> booking.getId() != null
+                        ? booking.getId()
+                        : booking.getItem().getId())
+                .register(BookingDto.class, BookingDto::getItemId)
+                .register(ArchivedBooking.class, ArchivedBooking::getId)
+                .register(Comment.class, comment -> comment.getId() != null
+                        ? comment.getId()
+                        : comment.getItem().getId())
+                .register(ItemTerm.class, term -> term.getItem().getId())
+                .register(CommentSummary.class, CommentSummary::getItemId)
+                .register(ItemCounter.class, ItemCounter::getItemId)
+                .register(HotItem.class, HotItem::getItemId);
+    }
+
+    /**
+     * pools of the shards created by the schema, identities of the sharded tables are adjusted to the shards
+     *
+     * @param username user of the shards
+     * @param password password of the shards
+     * @param poolSize maximum size of the pool of each shard
+     * @return data source routing connections to the shards
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(@Value("${shareit.sharding.username:}") String username,
+                                                         @Value("${shareit.sharding.password:}") String password,
+                                                         @Value("${shareit.sharding.pool-size:10}") int poolSize) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            shard.setMaximumPoolSize(poolSize);
+            shard.setPoolName("shard-" + i);
+            initialize(shard, i);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * @param shardRoutingDataSource data source of the shards
+     * @return replicator of the users and requests
+     */
+    @Bean
+    public ShardReplicator shardReplicator(ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardReplicator(dataSource(shardRoutingDataSource), shardRoutingDataSource.getShards());
+    }
+
+    /**
+     * @param shardRouter            router of the sharded entities
+     * @param shardRoutingDataSource data source of the shards
+     * @param shardReplicator        replicator of the users and requests
+     * @param transactionManager     transaction manager
+     * @return aspect routing calls of the repositories
+     */
+    @Bean
+    public ShardingAspect shardingAspect(ShardRouter shardRouter,
+                                         ShardRoutingDataSource shardRoutingDataSource,
+                                         ShardReplicator shardReplicator,
+                                         PlatformTransactionManager transactionManager) {
+        return new ShardingAspect(shardRouter, shardRoutingDataSource, shardReplicator, transactionManager);
+    }
+
+    /**
+     * check the routes of the repositories' methods once the repositories are created
+     *
+     * @param shardingAspect aspect routing calls of the repositories
+     * @param repositories   repositories
+     * @return checker run at startup
+     */
+    @Bean
+    public SmartInitializingSingleton shardingRoutesValidator(ShardingAspect shardingAspect,
+                                                             ObjectProvider<Repository<?, ?>> repositories) {
+        return () -> repositories.forEach(shardingAspect::validate);
+    }
+
+    /**
+     * data source of the application: connection is routed when the first statement is executed
+     *
+     * @param shardRoutingDataSource data source of the shards
+     * @return data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    private void initialize(DataSource shard, int index) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(shard);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+        for (String table : SHARDED_TABLES) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long start = max + 1;
+            start += Math.floorMod(index - start, urls.size());
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + urls.size()
+                    + " RESTART WITH " + start);
+        }
+        log.info("Шард {} инициализирован", index);
+    }
+}
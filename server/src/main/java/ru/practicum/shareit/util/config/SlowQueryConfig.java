@@ -0,0 +1,55 @@
+package ru.practicum.shareit.util.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.sql.SlowQueryDataSource;
+import ru.practicum.shareit.util.sql.SlowQueryEndpoint;
+import ru.practicum.shareit.util.sql.SlowQueryLog;
+
+import javax.sql.DataSource;
+
+/**
+ * capturing the statements slower than the threshold, readable at /actuator/slowqueries
+ * the application's data source (primary, routing or sharding one) is wrapped by SlowQueryDataSource
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.slow-queries.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    /**
+     * log of the slow statements
+     *
+     * @param capacity    number of the last slow statements kept
+     * @param thresholdMs time of a statement to be slow, ms
+     * @return log
+     */
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${shareit.slow-queries.capacity:100}") int capacity,
+                                     @Value("${shareit.slow-queries.threshold-ms:200}") long thresholdMs) {
+        return new SlowQueryLog(capacity, thresholdMs);
+    }
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource) {
+                    return new SlowQueryDataSource((DataSource) bean, slowQueryLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.util.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.threads.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread mode, activated by "virtual-threads" profile on Java 21
+ * Tomcat handles each request in a new virtual thread, worker pools run on virtual threads too (see WorkerConfig)
+ * the JDBC driver holds a monitor during socket IO and pins the carrier thread, so the connection pool
+ * (shareit.virtual-threads.db-pool-size) is kept below the number of carriers; waiting for a connection parks
+ * without pinning
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /**
+     * @param dbPoolSize size of the connection pool, warned about if the connections can pin all the carriers
+     */
+    public VirtualThreadsConfig(@Value("${shareit.virtual-threads.db-pool-size:4}") int dbPoolSize) {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        if (dbPoolSize >= carriers) {
+            log.warn("Database pool of {} connections can pin all {} carrier threads, "
+                    + "set shareit.virtual-threads.db-pool-size below the number of carriers", dbPoolSize, carriers);
+        }
+    }
+
+    /**
+     * Tomcat executor starting a virtual thread for each request
+     *
+     * @return Tomcat customizer
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-");
+        log.info("Requests are handled by virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.item.hot.HotItemInterceptor;
+import ru.practicum.shareit.item.hot.HotItemTracker;
+import ru.practicum.shareit.util.etag.EntityTagInterceptor;
+import ru.practicum.shareit.util.etag.EntityTagService;
+
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * Spring MVC settings
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EntityTagService entityTagService;
+    private final HotItemTracker hotItemTracker;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HotItemInterceptor(hotItemTracker))
+                .addPathPatterns(ITEMS_PATH + "/*");
+        registry.addInterceptor(new EntityTagInterceptor(entityTagService))
+                .addPathPatterns(ITEMS_PATH + "/*", BOOKINGS_PATH + "/*", REQUESTS_PATH + "/*");
+    }
+
+    /**
+     * views with the fieldset filter are written whole unless FieldSetAdvice sets the filter
+     *
+     * @return customizer of the application's ObjectMapper
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /**
+     * Smile (binary JSON) responses and requests, negotiated by Accept and Content-Type headers
+     * (application/x-jackson-smile) for the gateway; other clients are answered with JSON as before
+     * the mapper is built as the application's JSON one, with the same modules, settings and filters
+     *
+     * @param builder builder of the application's ObjectMapper
+     * @return Smile converter replacing the default one
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.util.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import ru.practicum.shareit.util.threads.VirtualThreads;
+import ru.practicum.shareit.util.workers.WorkerExecutors;
+import ru.practicum.shareit.util.workers.WorkerHandlerAdapter;
+import ru.practicum.shareit.util.workers.WorkerPool;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Executors for the requests: reads, writes and searches are executed by separate bounded pools
+ * in virtual-thread mode the pools keep their bounds, but their threads are virtual
+ */
+@Configuration
+public class WorkerConfig {
+
+    public static final String READ_EXECUTOR = "readExecutor";
+    public static final String WRITE_EXECUTOR = "writeExecutor";
+    public static final String SEARCH_EXECUTOR = "searchExecutor";
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+
+    @Value("${shareit.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * executor of the reads
+     *
+     * @param poolSize      number of the threads
+     * @param queueCapacity number of the requests waiting for a thread
+     * @return executor
+     */
+    @Bean(READ_EXECUTOR)
+    public ThreadPoolTaskExecutor readExecutor(@Value("${shareit.workers.read.pool-size:16}") int poolSize,
+                                               @Value("${shareit.workers.read.queue-capacity:200}") int queueCapacity) {
+        return workerExecutor("read-", poolSize, queueCapacity);
+    }
+
+    /**
+     * executor of the writes
+     *
+     * @param poolSize      number of the threads
+     * @param queueCapacity number of the requests waiting for a thread
+     * @return executor
+     */
+    @Bean(WRITE_EXECUTOR)
+    public ThreadPoolTaskExecutor writeExecutor(@Value("${shareit.workers.write.pool-size:8}") int poolSize,
+                                                @Value("${shareit.workers.write.queue-capacity:100}") int queueCapacity) {
+        return workerExecutor("write-", poolSize, queueCapacity);
+    }
+
+    /**
+     * executor of the searches
+     *
+     * @param poolSize      number of the threads
+     * @param queueCapacity number of the requests waiting for a thread
+     * @return executor
+     */
+    @Bean(SEARCH_EXECUTOR)
+    public ThreadPoolTaskExecutor searchExecutor(@Value("${shareit.workers.search.pool-size:4}") int poolSize,
+                                                 @Value("${shareit.workers.search.queue-capacity:50}") int queueCapacity) {
+        return workerExecutor("search-", poolSize, queueCapacity);
+    }
+
+    /**
+     * executor writing the streamed responses (exports), a rejected export is answered with 503
+     *
+     * @param poolSize      number of the threads
+     * @param queueCapacity number of the exports waiting for a thread
+     * @return executor
+     */
+    @Bean(EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor(@Value("${shareit.workers.export.pool-size:4}") int poolSize,
+                                                 @Value("${shareit.workers.export.queue-capacity:20}") int queueCapacity) {
+        return workerExecutor("export-", poolSize, queueCapacity);
+    }
+
+    @Bean
+    public WorkerExecutors workerExecutors(@Qualifier(READ_EXECUTOR) ThreadPoolTaskExecutor readExecutor,
+                                           @Qualifier(WRITE_EXECUTOR) ThreadPoolTaskExecutor writeExecutor,
+                                           @Qualifier(SEARCH_EXECUTOR) ThreadPoolTaskExecutor searchExecutor,
+                                           MeterRegistry meterRegistry) {
+        return new WorkerExecutors(Map.of(
+                WorkerPool.READ, readExecutor,
+                WorkerPool.WRITE, writeExecutor,
+                WorkerPool.SEARCH, searchExecutor), meterRegistry);
+    }
+
+    /**
+     * handler adapter executing controllers' methods in the worker pools
+     *
+     * @param workerExecutors worker pools
+     * @return Spring MVC registrations
+     */
+    @Bean
+    public WebMvcRegistrations workerRegistrations(WorkerExecutors workerExecutors) {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new WorkerHandlerAdapter(workerExecutors);
+            }
+        };
+    }
+
+    /**
+     * streamed responses are written by the export pool, their timeout doesn't depend on spring.mvc.async.request-timeout
+     * of the other requests, so that a long history can be written to the end
+     *
+     * @param exportExecutor executor of the streamed responses
+     * @param timeout        timeout of a streamed response, ms
+     * @return Spring MVC settings
+     */
+    @Bean
+    public WebMvcConfigurer exportAsyncSupport(@Qualifier(EXPORT_EXECUTOR) ThreadPoolTaskExecutor exportExecutor,
+                                               @Value("${shareit.workers.export.timeout-ms:3600000}") long timeout) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(exportExecutor);
+                configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        ((AsyncWebRequest) request).setTimeout(timeout);
+                    }
+                });
+            }
+        };
+    }
+
+    private ThreadPoolTaskExecutor workerExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        if (virtualThreads) {
+            executor.setThreadFactory(VirtualThreads.threadFactory(threadNamePrefix));
+        }
+        return executor;
+    }
+}
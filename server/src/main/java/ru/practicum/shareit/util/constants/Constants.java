@@ -7,13 +7,23 @@ public class Constants {
      */
 
     public static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
     public static final String USERS_PATH = "/users";
     public static final String BOOKINGS_PATH = "/bookings";
     public static final String ITEMS_PATH = "/items";
     public static final String REQUESTS_PATH = "/requests";
     public static final String OWNER_PATH = "/owner";
+    public static final String SUMMARY_PATH = "/summary";
     public static final String SEARCH_PATH = "/search";
+    public static final String TOP_PATH = "/top";
     public static final String ALL_PATH = "/all";
+    public static final String MATCHES_PATH = "/matches";
+    public static final String EVENTS_PATH = "/events";
+    public static final String EXPORT_PATH = "/export";
+    public static final String LOOKUP_PATH = "/lookup";
 
     /**
      * Path variables' names' constants
@@ -24,6 +34,7 @@ public class Constants {
     public static final String REQUEST_ID_PATH_VARIABLE = "{requestId}";
     public static final String ITEM_ID_PATH_VARIABLE = "/{itemId}";
     public static final String COMMENT_PATH_VARIABLE = "/{itemId}/comment";
+    public static final String COMMENTS_PATH_VARIABLE = "/{itemId}/comments";
 
     /**
      * Parameters' names and default values constants
@@ -31,11 +42,21 @@ public class Constants {
     public static final String APPROVED_PARAM_NAME = "approved";
     public static final String BOOKING_STATE_PARAMETER_NAME = "state";
     public static final String TEXT_PARAMETER_NAME = "text";
+    public static final String RANKING_PARAMETER_NAME = "by";
     public static final String FROM_PARAMETER_NAME = "from";
     public static final String SIZE_PARAMETER_NAME = "size";
+    public static final String FORMAT_PARAMETER_NAME = "format";
+    public static final String VIEW_PARAMETER_NAME = "view";
+    public static final String PROFILE_PARAMETER_NAME = "profile";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String FIELDS_PARAMETER_NAME = "fields";
+    public static final String CURSOR_PARAMETER_NAME = "cursor";
+    public static final String IDS_PARAMETER_NAME = "ids";
     public static final String ZERO_DEFAULT_VALUE = "0";
     public static final String TEN_DEFAULT_VALUE = "10";
     public static final String ALL_DEFAULT_VALUE = "all";
+    public static final String BOOKINGS_DEFAULT_VALUE = "bookings";
+    public static final String CSV_DEFAULT_VALUE = "CSV";
 
 
 }
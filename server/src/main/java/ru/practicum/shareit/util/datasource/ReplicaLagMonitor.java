@@ -0,0 +1,101 @@
+package ru.practicum.shareit.util.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * periodic check of the replica's lag behind the primary
+ * the replica serves reads only while its lag is within the tolerance and it answers;
+ * until the first successful check, and after a failure, reads go to the primary
+ * metrics are bound by the registry, the data sources are created before it
+ */
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLag;
+    private final AtomicLong lag = new AtomicLong(-1);
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile boolean available;
+
+    /**
+     * @param replica  replica's data source
+     * @param lagQuery query returning the lag in milliseconds, blank if the replica is never behind
+     * @param maxLag   tolerated lag in milliseconds
+     */
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(1);
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("shareit.datasource.replica.lag", lag, AtomicLong::get)
+                .description("Replica's lag behind the primary in milliseconds, -1 if unknown")
+                .register(meterRegistry);
+        Gauge.builder("shareit.datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("1 if read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.datasource.replica.fallbacks", fallbacks, AtomicLong::get)
+                .description("Number of the times the replica was excluded from routing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * check the replica's lag and include it into routing or exclude from it
+     */
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica-lag.check-interval-ms:1000}")
+    public void check() {
+        long current;
+        try {
+            Long measured = lagQuery == null
+                    ? replica.queryForObject("SELECT 0", Long.class)
+                    : replica.queryForObject(lagQuery, Long.class);
+            current = measured == null ? 0 : measured;
+        } catch (RuntimeException e) {
+            lag.set(-1);
+            markUnavailable("реплика не отвечает: " + e.getMessage());
+            return;
+        }
+        lag.set(current);
+        if (current > maxLag) {
+            markUnavailable("отставание " + current + " мс превышает " + maxLag + " мс");
+        } else if (!available) {
+            available = true;
+            log.info("Реплика снова обслуживает чтение, отставание {} мс", current);
+        }
+    }
+
+    /**
+     * check if the replica can serve read-only transactions
+     *
+     * @return true if the replica is in routing
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * exclude the replica from routing until the next successful check
+     *
+     * @param reason reason to log
+     */
+    public void markUnavailable(String reason) {
+        if (available) {
+            available = false;
+            fallbacks.incrementAndGet();
+            log.warn("Чтение переключено на основную базу: {}", reason);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.util.errors;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import ru.practicum.shareit.util.exceptions.*;
 
 import javax.persistence.EntityNotFoundException;
@@ -55,12 +57,25 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка валидации: " + e.getMessage());
     }
 
-    @ExceptionHandler({UnsupportedStatusException.class})
+    @ExceptionHandler({UnsupportedStatusException.class, UnsupportedFieldsException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleUnsupportedBookingStatus(final RuntimeException e) {
         return new ErrorResponse(e.getMessage());
     }
 
+    /**
+     * Handle requests rejected by the full worker or export pool or not executed in time
+     *
+     * @param e Exception
+     * @return ErrorResponse
+     */
+    @ExceptionHandler({ServiceUnavailableException.class, AsyncRequestTimeoutException.class,
+            TaskRejectedException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServiceUnavailable(final RuntimeException e) {
+        return new ErrorResponse("Сервис временно недоступен: " + e.getMessage());
+    }
+
     /**
      * Handle all unknown errors
      *
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.util.etag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.util.fields.FieldSet;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * conditional GET of the single item, booking and item's request
+ * sets ETag of the view and answers 304.NOT_MODIFIED to a matching If-None-Match before the view is built
+ * the tag is checked once, not again when the view built by a worker is written on the async dispatch
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class EntityTagInterceptor implements HandlerInterceptor {
+
+    private final EntityTagService entityTagService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        if (!HttpMethod.GET.matches(request.getMethod()) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Long userId = parseId(request.getHeader(HEADER_USER_ID));
+        if (userId == null) {
+            return true;
+        }
+        String etag = getTag(request, userId);
+        if (etag == null) {
+            return true;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            log.info("Представление {} не изменилось для пользователя с id {}, ETag {}",
+                    request.getRequestURI(), userId, etag);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * get tag of the requested view by the handler's path pattern
+     *
+     * @param request request
+     * @param userId  user's id
+     * @return quoted entity tag or null if the view has no tag
+     */
+    @SuppressWarnings("unchecked")
+    private String getTag(HttpServletRequest request, Long userId) {
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pattern == null || variables == null) {
+            return null;
+        }
+        if (pattern.equals(ITEMS_PATH + ITEM_ID_PATH_VARIABLE)) {
+            Long itemId = parseId(variables.get("itemId"));
+            return itemId == null ? null : variantOf(entityTagService.getItemTag(userId, itemId), null, request);
+        }
+        if (pattern.equals(BOOKINGS_PATH + BOOKING_ID_PATH_VARIABLE)) {
+            Long bookingId = parseId(variables.get("bookingId"));
+            BookingView view = BookingView.of(request);
+            return bookingId == null ? null : variantOf(entityTagService.getBookingTag(userId, bookingId),
+                    view == BookingView.FULL ? null : view.name().toLowerCase(), request);
+        }
+        if (pattern.equals(REQUESTS_PATH + "/" + REQUEST_ID_PATH_VARIABLE)) {
+            Long requestId = parseId(variables.get("requestId"));
+            return requestId == null ? null
+                    : variantOf(entityTagService.getRequestTag(userId, requestId), null, request);
+        }
+        return null;
+    }
+
+    /**
+     * views of the booking and sparse fieldsets are different representations, so they have different tags
+     *
+     * @param tag     quoted entity tag of the full representation or null
+     * @param view    name of the view or null for the full view
+     * @param request request with "fields" parameter
+     * @return quoted entity tag of the requested representation or null
+     */
+    private String variantOf(String tag, String view, HttpServletRequest request) {
+        FieldSet fields = FieldSet.of(request.getParameter(FIELDS_PARAMETER_NAME));
+        if (tag == null || (view == null && fields.isAll())) {
+            return tag;
+        }
+        StringBuilder variant = new StringBuilder(tag.substring(0, tag.length() - 1));
+        if (view != null) {
+            variant.append('-').append(view);
+        }
+        if (!fields.isAll()) {
+            variant.append("-fields-").append(fields);
+        }
+        return variant.append('"').toString();
+    }
+
+    /**
+     * parse id, invalid ids are left for the handler to report
+     *
+     * @param value string value
+     * @return id or null if value is not a number
+     */
+    private Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util.etag;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * EntityTagService interface
+ * computes strong entity tags of the single-entity views without building the views
+ */
+@Component
+public interface EntityTagService {
+
+    /**
+     * get entity tag of the item's view for a specific user
+     *
+     * @param userId user's id
+     * @param itemId item's id
+     * @return quoted entity tag or null if item doesn't exist
+     */
+    String getItemTag(Long userId, Long itemId);
+
+    /**
+     * get entity tag of the booking's view for a specific user
+     *
+     * @param userId    user's id
+     * @param bookingId booking's id
+     * @return quoted entity tag or null if booking doesn't exist or is not available to the user
+     */
+    String getBookingTag(Long userId, Long bookingId);
+
+    /**
+     * get entity tag of the item's request view for a specific user
+     *
+     * @param userId    user's id
+     * @param requestId item's request id
+     * @return quoted entity tag or null if user or request doesn't exist
+     */
+    String getRequestTag(Long userId, Long requestId);
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.util.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCounterService;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * EntityTagService implementation
+ * tag of a view consists of the versions of all entities shown in the view,
+ * so that any update of them changes the tag
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityTagServiceImpl implements EntityTagService {
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final ItemCounterService itemCounterService;
+
+    /**
+     * get entity tag of the item's view for a specific user
+     * tag includes item's version, number of comments, id of the last comment and item's booking counters,
+     * for the owner also ids of the last and the next bookings
+     *
+     * @param userId user's id
+     * @param itemId item's id
+     * @return quoted entity tag or null if item doesn't exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemTag(Long userId, Long itemId) {
+
+        List<Object[]> rows = itemRepository.findTagSourceById(itemId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        ItemCountersDto counters = itemCounterService.getCounters(itemId);
+        String tag = toTag("item", itemId, row[0], row[2], row[3], counters.getBookings(), counters.getApprovals());
+        if (!row[1].equals(userId)) {
+            return tag;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Long lastBookingId = bookingRepository
+                .findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(itemId,
+                        BookingStatus.APPROVED, now, now)
+                .map(Booking::getId)
+                .orElse(0L);
+        Long nextBookingId = bookingRepository
+                .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(itemId,
+                        BookingStatus.APPROVED, now, now)
+                .map(Booking::getId)
+                .orElse(0L);
+        return toTag("item", itemId, row[0], row[2], row[3], counters.getBookings(), counters.getApprovals(),
+                "owner", lastBookingId, nextBookingId);
+    }
+
+    /**
+     * get entity tag of the booking's view for a specific user
+     * tag includes versions of the booking, its item, booker, item's owner and item's request
+     *
+     * @param userId    user's id
+     * @param bookingId booking's id
+     * @return quoted entity tag or null if booking doesn't exist or is not available to the user
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookingTag(Long userId, Long bookingId) {
+
+        List<Object[]> rows = bookingRepository.findTagSourceById(bookingId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        if (!row[0].equals(userId) && !row[1].equals(userId)) {
+            return null;
+        }
+        return toTag("booking", bookingId, row[2], row[3], row[4], row[5], row[6], row[7]);
+    }
+
+    /**
+     * get entity tag of the item's request view for a specific user
+     * tag includes request's version, number of answering items, id of the last of them and sum of their versions,
+     * the items are counted on all shards
+     *
+     * @param userId    user's id
+     * @param requestId item's request id
+     * @return quoted entity tag or null if user or request doesn't exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getRequestTag(Long userId, Long requestId) {
+
+        if (!userRepository.existsById(userId)) {
+            return null;
+        }
+        Optional<Long> version = itemRequestRepository.findVersionById(requestId);
+        if (version.isEmpty()) {
+            return null;
+        }
+        long itemsCount = 0;
+        long lastItemId = 0;
+        long itemsVersionsSum = 0;
+        for (Object[] row : itemRepository.findRequestTagSourceByRequestId(requestId)) {
+            itemsCount += ((Number) row[0]).longValue();
+            lastItemId = Math.max(lastItemId, ((Number) row[1]).longValue());
+            itemsVersionsSum += ((Number) row[2]).longValue();
+        }
+        return toTag("request", requestId, version.get(), itemsCount, lastItemId, itemsVersionsSum);
+    }
+
+    /**
+     * join parts into a quoted strong entity tag
+     *
+     * @param parts parts of the tag
+     * @return quoted entity tag
+     */
+    private String toTag(Object... parts) {
+        return Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.util.exceptions;
+
+/**
+ * Exception - server has no capacity to execute the request now
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
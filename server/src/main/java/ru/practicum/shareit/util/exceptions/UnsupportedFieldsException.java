@@ -0,0 +1,11 @@
+package ru.practicum.shareit.util.exceptions;
+
+/**
+ * Exception - invalid list of the response's fields
+ */
+public class UnsupportedFieldsException extends RuntimeException {
+
+    public UnsupportedFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.util.fields;
+
+import lombok.EqualsAndHashCode;
+import ru.practicum.shareit.util.exceptions.UnsupportedFieldsException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * sparse fieldset: properties of the item, booking and item's request views chosen by "fields" parameter
+ * (fields=id,name,available), only top-level properties are chosen, nested objects are written whole;
+ * services skip the lookups of the properties which are not chosen
+ */
+@EqualsAndHashCode
+public final class FieldSet {
+
+    /**
+     * id of the Jackson filter of the views
+     */
+    public static final String FILTER = "fields";
+    public static final FieldSet ALL = new FieldSet(null);
+    private static final Pattern FIELDS_PATTERN = Pattern.compile("[A-Za-z]+(,[A-Za-z]+)*");
+
+    /**
+     * chosen names in natural order or null for all properties
+     */
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * parse "fields" parameter
+     * throws 400.BAD_REQUEST UnsupportedFieldsException if the list is malformed,
+     * unknown names are allowed and just don't match any property
+     *
+     * @param fields comma-separated names or null
+     * @return fieldset, ALL if parameter is absent or blank
+     */
+    public static FieldSet of(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        String list = fields.replace(" ", "");
+        if (!FIELDS_PATTERN.matcher(list).matches()) {
+            throw new UnsupportedFieldsException("Некорректный список полей: " + fields);
+        }
+        return new FieldSet(Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(list.split(",")))));
+    }
+
+    /**
+     * whether the property is written to the response
+     *
+     * @param name property's name
+     * @return true if the property is chosen or all properties are
+     */
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * @return true if parameter is absent and all properties are written
+     */
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /**
+     * @return chosen names, empty set for all properties
+     */
+    public Set<String> getNames() {
+        return names == null ? Collections.emptySet() : names;
+    }
+
+    /**
+     * @return chosen names in natural order joined by dots, empty string for all properties
+     */
+    @Override
+    public String toString() {
+        return names == null ? "" : String.join(".", names);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.util.fields;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.ItemRequestController;
+
+import static ru.practicum.shareit.util.constants.Constants.FIELDS_PARAMETER_NAME;
+
+/**
+ * writing only the properties chosen by "fields" parameter (see FieldSet)
+ * views annotated with @JsonFilter(FieldSet.FILTER) are filtered, without the parameter they are written whole
+ */
+@ControllerAdvice(assignableTypes = {ItemController.class, BookingController.class, ItemRequestController.class})
+public class FieldSetAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        FieldSet fields = FieldSet.of(((ServletServerHttpRequest) request).getServletRequest()
+                .getParameter(FIELDS_PARAMETER_NAME));
+        if (fields.isAll()) {
+            return body;
+        }
+        MappingJacksonValue value = body instanceof MappingJacksonValue
+                ? (MappingJacksonValue) body
+                : new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldSet.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames())));
+        return value;
+    }
+}
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.util.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+import ru.practicum.shareit.util.errors.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * executing POST-requests with the same Idempotency-Key only once
+ * retries get the stored response of the first execution, concurrent retries wait for it
+ * keys are shared by the instances of the server, so the retry can be sent to any of them
+ * keys are scoped by user and path; server errors are not stored, so that the request can be retried
+ * a key reused for a request with other method, path or body is rejected instead of replaying the stored response
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String STORE_KEY_ATTRIBUTE = IdempotencyFilter.class.getName() + ".storeKey";
+    private static final String TOKEN_ATTRIBUTE = IdempotencyFilter.class.getName() + ".token";
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            BOOKINGS_PATH,
+            ITEMS_PATH,
+            REQUESTS_PATH,
+            ITEMS_PATH + COMMENT_PATH_VARIABLE);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long waitTimeout;
+    private final long pollInterval;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                             @Value("${shareit.idempotency.wait-timeout-ms:10000}") long waitTimeout,
+                             @Value("${shareit.idempotency.poll-interval-ms:50}") long pollInterval) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return IDEMPOTENT_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    /**
+     * the handler executed by a worker writes the response on the async dispatch, it is stored then
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            resumeAsync(request, response, filterChain);
+            return;
+        }
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Заголовок " + IDEMPOTENCY_KEY_HEADER + " должен содержать от 1 до " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+        String storeKey = request.getHeader(HEADER_USER_ID) + " " + request.getRequestURI() + " " + key;
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest);
+
+        long deadline = System.currentTimeMillis() + waitTimeout;
+        String token;
+        while (true) {
+            try {
+                token = store.claim(storeKey, fingerprint);
+            } catch (IdempotencyKeyReusedException e) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Ключ " + key + " уже использован для запроса с другими параметрами");
+                return;
+            }
+            if (token != null) {
+                break;
+            }
+            Optional<StoredResponse> stored = store.getResponse(storeKey);
+            if (stored.isPresent()) {
+                replay(response, stored.get());
+                log.info("Повторный запрос с ключом {} не выполнялся, возвращен сохраненный ответ", key);
+                return;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                writeError(response, HttpStatus.CONFLICT, "Запрос с ключом " + key + " еще выполняется");
+                return;
+            }
+            // the first execution is pending or has failed and released the key, then it is claimed again
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cachedRequest, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.release(storeKey, token);
+            throw e;
+        }
+        if (isAsyncStarted(request)) {
+            request.setAttribute(STORE_KEY_ATTRIBUTE, storeKey);
+            request.setAttribute(TOKEN_ATTRIBUTE, token);
+            return;
+        }
+        store(storeKey, token, wrapper);
+    }
+
+    /**
+     * store the response written on the async dispatch
+     */
+    private void resumeAsync(HttpServletRequest request, HttpServletResponse response,
+                             FilterChain filterChain) throws ServletException, IOException {
+        String storeKey = (String) request.getAttribute(STORE_KEY_ATTRIBUTE);
+        String token = (String) request.getAttribute(TOKEN_ATTRIBUTE);
+        ContentCachingResponseWrapper wrapper =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (storeKey == null || token == null || wrapper == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.release(storeKey, token);
+            throw e;
+        }
+        store(storeKey, token, wrapper);
+    }
+
+    /**
+     * store the executed request's response unless it is a server error, then send it
+     */
+    private void store(String storeKey, String token, ContentCachingResponseWrapper wrapper) throws IOException {
+        int status = wrapper.getStatus();
+        if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            store.release(storeKey, token);
+        } else {
+            store.complete(storeKey, token,
+                    new StoredResponse(status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * hash of the method, path with query and body, the key must be resent with the same request
+     */
+    private String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(request.getBody());
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.util.idempotency;
+
+/**
+ * Exception - idempotency key is already bound to a different request
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
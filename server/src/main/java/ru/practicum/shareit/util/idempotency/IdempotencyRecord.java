@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * idempotency key shared by the instances of the server: pending execution of the request or its stored response
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "store_key", nullable = false)
+    private String storeKey;
+    @Column(name = "fingerprint", nullable = false)
+    private String fingerprint;
+    /**
+     * claim of the execution, the response is stored or the key is released only by the execution holding it
+     */
+    @Column(name = "token", nullable = false)
+    private String token;
+    /**
+     * status of the stored response, null while the execution is pending
+     */
+    @Column(name = "status")
+    private Integer status;
+    @Column(name = "content_type")
+    private String contentType;
+    @Column(name = "body")
+    private byte[] body;
+    /**
+     * the pending key of the instance which stopped expires after the lease, the stored response after its ttl
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
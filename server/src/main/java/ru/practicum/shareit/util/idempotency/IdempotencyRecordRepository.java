@@ -0,0 +1,59 @@
+package ru.practicum.shareit.util.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyRecord repository
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * claim the expired key for the new execution
+     *
+     * @param storeKey    key
+     * @param fingerprint fingerprint of the request
+     * @param token       claim of the execution
+     * @param expiresAt   end of the pending lease
+     * @param now         current time
+     * @return 1 if the key is claimed, 0 if it is live or doesn't exist
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.fingerprint = ?2, r.token = ?3, r.status = null, r.contentType = null, "
+            + "r.body = null, r.expiresAt = ?4 where r.storeKey = ?1 and r.expiresAt <= ?5")
+    int claimExpired(String storeKey, String fingerprint, String token, LocalDateTime expiresAt, LocalDateTime now);
+
+    /**
+     * store the response of the execution holding the claim
+     *
+     * @return 1 if the response is stored
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = ?3, r.contentType = ?4, r.body = ?5, r.expiresAt = ?6 "
+            + "where r.storeKey = ?1 and r.token = ?2")
+    int complete(String storeKey, String token, int status, String contentType, byte[] body, LocalDateTime expiresAt);
+
+    /**
+     * delete the key claimed by the execution
+     *
+     * @return 1 if the key is deleted
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.storeKey = ?1 and r.token = ?2")
+    int release(String storeKey, String token);
+
+    /**
+     * delete the expired keys
+     *
+     * @param now current time
+     * @return number of the deleted keys
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= ?1")
+    int deleteExpired(LocalDateTime now);
+}
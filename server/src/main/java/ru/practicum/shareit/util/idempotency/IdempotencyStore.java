@@ -0,0 +1,44 @@
+package ru.practicum.shareit.util.idempotency;
+
+import java.util.Optional;
+
+/**
+ * store of the idempotency keys' responses shared by the instances of the server
+ * the pending key is never evicted: it is held until the response is stored, the key is released
+ * or the lease of the execution expires, the stored response is kept until its ttl expires
+ */
+public interface IdempotencyStore {
+
+    /**
+     * claim the key for the execution of the request unless the key is live
+     *
+     * @param key         idempotency key
+     * @param fingerprint fingerprint of the request sent with the key
+     * @return token of the claim, null if the key is pending or has the stored response
+     * @throws IdempotencyKeyReusedException if the key is live for a request with other fingerprint
+     */
+    String claim(String key, String fingerprint);
+
+    /**
+     * @param key idempotency key
+     * @return stored response of the key, empty if the key is pending or unknown
+     */
+    Optional<StoredResponse> getResponse(String key);
+
+    /**
+     * store the response of the execution holding the claim
+     *
+     * @param key      idempotency key
+     * @param token    token of the claim
+     * @param response response of the execution
+     */
+    void complete(String key, String token, StoredResponse response);
+
+    /**
+     * forget the key claimed by the execution, so that the request can be executed again
+     *
+     * @param key   idempotency key
+     * @param token token of the claim
+     */
+    void release(String key, String token);
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.util.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * IdempotencyStore implementation
+ * the key is a row of idempotency_keys changed by conditional updates, each in its own transaction,
+ * so the retry sent to another instance of the server finds the key of the first execution
+ */
+@Slf4j
+@Service
+public class IdempotencyStoreImpl implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttl;
+    private final long pendingTtl;
+
+    public IdempotencyStoreImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.idempotency.ttl-ms:3600000}") long ttl,
+                                @Value("${shareit.idempotency.pending-ttl-ms:60000}") long pendingTtl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.pendingTtl = pendingTtl;
+    }
+
+    @Override
+    public String claim(String key, String fingerprint) {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(pendingTtl, ChronoUnit.MILLIS);
+        Integer taken = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.claimExpired(key, fingerprint, token, expiresAt, now));
+        if (taken != null && taken > 0) {
+            return token;
+        }
+        try {
+            Boolean created = transactionTemplate.execute(status -> {
+                if (idempotencyRecordRepository.existsById(key)) {
+                    return false;
+                }
+                idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .storeKey(key)
+                        .fingerprint(fingerprint)
+                        .token(token)
+                        .expiresAt(expiresAt)
+                        .build());
+                return true;
+            });
+            if (Boolean.TRUE.equals(created)) {
+                return token;
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ключ {} создан другим запросом", key);
+        }
+        Optional<IdempotencyRecord> record = find(key);
+        if (record.isPresent() && !record.get().getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("Ключ уже использован для другого запроса");
+        }
+        return null;
+    }
+
+    @Override
+    public Optional<StoredResponse> getResponse(String key) {
+        return find(key)
+                .filter(record -> record.getStatus() != null)
+                .map(record -> new StoredResponse(record.getStatus(), record.getContentType(),
+                        record.getBody() != null ? record.getBody() : new byte[0]));
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl, ChronoUnit.MILLIS);
+        Integer stored = transactionTemplate.execute(status -> idempotencyRecordRepository.complete(key, token,
+                response.getStatus(), response.getContentType(), response.getBody(), expiresAt));
+        if (stored == null || stored == 0) {
+            log.warn("Ответ по ключу {} не сохранен: ключ истек и занят другим запросом", key);
+        }
+    }
+
+    @Override
+    public void release(String key, String token) {
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(key, token));
+    }
+
+    /**
+     * delete the expired keys, the pending ones are kept until their lease expires
+     */
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        log.debug("Удалено истекших ключей идемпотентности: {}", deleted);
+    }
+
+    private Optional<IdempotencyRecord> find(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> idempotencyRecordRepository.findById(key))
+                .filter(record -> record.getExpiresAt().isAfter(now));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.util.idempotency;
+
+import lombok.Value;
+
+/**
+ * response of the first execution of the request with Idempotency-Key, replayed to the retries
+ */
+@Value
+public class StoredResponse {
+    int status;
+    String contentType;
+    byte[] body;
+}
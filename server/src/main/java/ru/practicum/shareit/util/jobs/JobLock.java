@@ -0,0 +1,31 @@
+package ru.practicum.shareit.util.jobs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * lock of the scheduled job: the job runs on one instance of the server at a time
+ */
+@Entity
+@Data
+@Builder(toBuilder = true)
+@Table(name = "job_locks")
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+    /**
+     * the lock of the instance which stopped without releasing it expires then
+     */
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+}
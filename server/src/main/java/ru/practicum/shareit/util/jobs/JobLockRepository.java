@@ -0,0 +1,40 @@
+package ru.practicum.shareit.util.jobs;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * JobLock repository
+ */
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * take the lock if it is released or expired
+     *
+     * @param name        job's name
+     * @param lockedUntil expiration of the lock
+     * @param lockedBy    instance taking the lock
+     * @param now         current time
+     * @return 1 if the lock is taken, 0 if it is held by another instance or doesn't exist
+     */
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = ?2, l.lockedBy = ?3 where l.name = ?1 and l.lockedUntil <= ?4")
+    int acquire(String name, LocalDateTime lockedUntil, String lockedBy, LocalDateTime now);
+
+    /**
+     * release the lock held by the instance
+     *
+     * @param name     job's name
+     * @param lockedBy instance holding the lock
+     * @param now      current time
+     * @return 1 if the lock is released
+     */
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = ?3 where l.name = ?1 and l.lockedBy = ?2")
+    int release(String name, String lockedBy, LocalDateTime now);
+}
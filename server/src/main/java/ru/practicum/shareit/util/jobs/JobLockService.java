@@ -0,0 +1,25 @@
+package ru.practicum.shareit.util.jobs;
+
+import java.time.Duration;
+
+/**
+ * interface for running scheduled jobs on one instance of the server at a time
+ */
+public interface JobLockService {
+
+    /**
+     * take the job's lock unless another instance holds it
+     *
+     * @param name     job's name
+     * @param duration time the lock is held at most, if the instance doesn't release it
+     * @return true if the lock is taken
+     */
+    boolean tryLock(String name, Duration duration);
+
+    /**
+     * release the job's lock taken by this instance
+     *
+     * @param name job's name
+     */
+    void unlock(String name);
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.util.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * JobLockService implementation
+ * the lock is a row of job_locks changed by conditional updates, each in its own transaction,
+ * the row of the job running for the first time is created by the instance which takes the lock
+ */
+@Slf4j
+@Service
+public class JobLockServiceImpl implements JobLockService {
+
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * id of this instance
+     */
+    private final String instance = UUID.randomUUID().toString();
+
+    public JobLockServiceImpl(JobLockRepository jobLockRepository, PlatformTransactionManager transactionManager) {
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean tryLock(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(duration);
+        Integer taken = transactionTemplate.execute(status ->
+                jobLockRepository.acquire(name, lockedUntil, instance, now));
+        if (taken != null && taken > 0) {
+            return true;
+        }
+        try {
+            Boolean created = transactionTemplate.execute(status -> {
+                if (jobLockRepository.existsById(name)) {
+                    return false;
+                }
+                jobLockRepository.saveAndFlush(new JobLock(name, lockedUntil, instance));
+                return true;
+            });
+            if (Boolean.TRUE.equals(created)) {
+                return true;
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Блокировка задачи {} создана другим экземпляром", name);
+        }
+        log.debug("Задача {} выполняется другим экземпляром", name);
+        return false;
+    }
+
+    @Override
+    public void unlock(String name) {
+        transactionTemplate.executeWithoutResult(status -> jobLockRepository.release(name, instance,
+                LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * repository of an entity written by the shard of the current transaction (the scope's shard or the home one
+ * if the transaction isn't bound yet), so it's committed together with the change of the sharded entities
+ * readers of all the rows run in the scope of each shard in turn
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Colocated {
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * repository of an entity written to the home shard and copied to the other shards after commit,
+ * so the sharded entities may reference it on every shard
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Replicated {
+
+    /**
+     * @return table of the entity
+     */
+    String value();
+}
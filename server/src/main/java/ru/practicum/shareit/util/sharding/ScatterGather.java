@@ -0,0 +1,26 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * method of a sharded repository executed by every shard, results are merged:
+ * lists are concatenated (merged by {@link #orderBy()} if specified, then the page is cut),
+ * numbers are summed, the first present optional is returned (the first by {@link #orderBy()} if specified)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ScatterGather {
+
+    /**
+     * @return property of the entity or index of the column in the row ordering the merged list, empty if unordered
+     */
+    String orderBy() default "";
+
+    /**
+     * @return true if the merged list is ordered descending
+     */
+    boolean descending() default false;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * method of a sharded repository executed by the shard of its argument:
+ * owner's id, id of an item (booking, comment) or an entity, collection of them is split between the shards
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardBy {
+
+    /**
+     * @return index of the argument defining the shard
+     */
+    int value() default 0;
+}
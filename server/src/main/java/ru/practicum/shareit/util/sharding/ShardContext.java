@@ -0,0 +1,120 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Supplier;
+
+/**
+ * shard chosen for the repository call executed by the current thread
+ * and the shard of the scope the thread works in (a service method or a job of one shard)
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> SCOPE = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return index of the shard or null if the call isn't routed
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * execute the call by the shard
+     *
+     * @param shard index of the shard
+     * @param call  repository call
+     * @param <T>   type of the result
+     * @return result of the call
+     * @throws Throwable exception of the call
+     */
+    public static <T> T call(int shard, ShardCall<T> call) throws Throwable {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return index of the shard of the scope or null if the thread works outside a scope
+     */
+    public static Integer scope() {
+        return SCOPE.get();
+    }
+
+    /**
+     * execute the task in the scope of the shard: transactions started by the task are bound to the shard,
+     * calls of the home and replicated tables use it and calls of every shard read only it
+     * the scope isn't routed without sharding, so the task is just executed
+     *
+     * @param shard index of the shard
+     * @param task  task
+     * @param <T>   type of the result
+     * @return result of the task
+     */
+    public static <T> T inScope(int shard, Supplier<T> task) {
+        try {
+            return callInScope(shard, task::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * execute the task in the scope of the shard
+     *
+     * @param shard index of the shard
+     * @param task  task
+     */
+    public static void inScope(int shard, Runnable task) {
+        inScope(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * execute the call in the scope of the shard
+     *
+     * @param shard index of the shard
+     * @param call  call
+     * @param <T>   type of the result
+     * @return result of the call
+     * @throws Throwable exception of the call
+     */
+    static <T> T callInScope(int shard, ShardCall<T> call) throws Throwable {
+        Integer previous = SCOPE.get();
+        SCOPE.set(shard);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * repository call
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    public interface ShardCall<T> {
+        T call() throws Throwable;
+    }
+}
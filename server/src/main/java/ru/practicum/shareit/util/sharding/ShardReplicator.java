@@ -0,0 +1,222 @@
+package ru.practicum.shareit.util.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * copying rows of the replicated tables (users, requests) from the home shard to the other shards
+ * changes are recorded as tasks of the replication_tasks table of the home shard by the transaction changing
+ * the rows, tasks are executed after its commit and, if a shard fails, retried by schedule until they succeed
+ * a task makes the row of the shard equal to the row of the home shard locked for the time of the copying,
+ * so tasks are idempotent and can be repeated or executed by several instances in any order
+ * rows are deleted only by deletion of the entities or of all rows (foreign keys cascade on the shards)
+ */
+@Slf4j
+public class ShardReplicator {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate transactional;
+    private final List<JdbcTemplate> shards;
+    private final TransactionTemplate homeTransaction;
+
+    /**
+     * @param dataSource data source of the application, tasks are recorded by the connection of its transaction
+     * @param shards     data sources of the shards
+     */
+    public ShardReplicator(DataSource dataSource, List<DataSource> shards) {
+        this.transactional = new JdbcTemplate(dataSource);
+        this.shards = shards.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+        this.homeTransaction = new TransactionTemplate(new DataSourceTransactionManager(shards.get(ShardRouter.HOME)));
+        this.homeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * copy rows from the home shard to the others
+     * must be called by the transaction of the home shard that has changed the rows
+     *
+     * @param table table
+     * @param ids   ids of the rows
+     */
+    public void copy(String table, Collection<Long> ids) {
+        record(table, ids);
+    }
+
+    /**
+     * delete rows from the shards other than the home one
+     * must be called by the transaction of the home shard that has deleted the rows
+     *
+     * @param table table
+     * @param ids   ids of the rows
+     */
+    public void remove(String table, Collection<Long> ids) {
+        record(table, ids);
+    }
+
+    /**
+     * delete all rows from the shards other than the home one
+     * must be called by the transaction of the home shard that has deleted the rows
+     *
+     * @param table table
+     */
+    public void clear(String table) {
+        record(table, null);
+    }
+
+    /**
+     * execute the pending tasks of the replication, tasks of a failed shard are left for the next run
+     */
+    @Scheduled(fixedDelayString = "${shareit.sharding.replication-retry-interval-ms:10000}")
+    public synchronized void replicate() {
+        Set<Integer> failed = new HashSet<>();
+        long after = 0;
+        List<Task> tasks;
+        do {
+            tasks = shards.get(ShardRouter.HOME).query(
+                    "SELECT id, table_name, row_id, shard FROM replication_tasks WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Task(rs.getLong("id"), rs.getString("table_name"),
+                            rs.getObject("row_id", Long.class), rs.getInt("shard")),
+                    after, BATCH_SIZE);
+            for (Task task : tasks) {
+                after = task.id;
+                if (failed.contains(task.shard)) {
+                    continue;
+                }
+                try {
+                    homeTransaction.executeWithoutResult(status -> execute(task));
+                } catch (DataAccessException | TransactionException e) {
+                    failed.add(task.shard);
+                    log.error("Не удалось реплицировать строки таблицы {} на шард {}, повтор по расписанию: {}",
+                            task.table, task.shard, e.getMessage());
+                }
+            }
+        } while (tasks.size() == BATCH_SIZE);
+    }
+
+    private void record(String table, Collection<Long> ids) {
+        List<Object[]> tasks = new ArrayList<>();
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard == ShardRouter.HOME) {
+                continue;
+            }
+            if (ids == null) {
+                tasks.add(new Object[]{table, null, shard, created});
+            } else {
+                for (Long id : ids) {
+                    tasks.add(new Object[]{table, id, shard, created});
+                }
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        transactional.batchUpdate("INSERT INTO replication_tasks (table_name, row_id, shard, created) "
+                + "VALUES (?, ?, ?, ?)", tasks);
+        replicateAfterCommit();
+    }
+
+    private void execute(Task task) {
+        JdbcTemplate home = shards.get(ShardRouter.HOME);
+        if (home.queryForList("SELECT id FROM replication_tasks WHERE id = ? FOR UPDATE", task.id).isEmpty()) {
+            return;
+        }
+        JdbcTemplate shard = shards.get(task.shard);
+        if (task.rowId != null) {
+            List<Map<String, Object>> rows = home.queryForList("SELECT * FROM " + task.table
+                    + " WHERE id = ? FOR UPDATE", task.rowId);
+            if (rows.isEmpty()) {
+                shard.update("DELETE FROM " + task.table + " WHERE id = ?", task.rowId);
+            } else {
+                upsert(shard, task.table, rows.get(0));
+            }
+        } else {
+            List<Map<String, Object>> rows = home.queryForList("SELECT * FROM " + task.table + " FOR UPDATE");
+            Set<Long> ids = rows.stream()
+                    .map(row -> ((Number) row.get(idColumn(row))).longValue())
+                    .collect(Collectors.toSet());
+            for (Long id : shard.queryForList("SELECT id FROM " + task.table, Long.class)) {
+                if (!ids.contains(id)) {
+                    shard.update("DELETE FROM " + task.table + " WHERE id = ?", id);
+                }
+            }
+            rows.forEach(row -> upsert(shard, task.table, row));
+        }
+        home.update("DELETE FROM replication_tasks WHERE id = ?", task.id);
+        log.debug("Строки {} таблицы {} реплицированы на шард {}",
+                task.rowId != null ? task.rowId : "*", task.table, task.shard);
+    }
+
+    private void upsert(JdbcTemplate shard, String table, Map<String, Object> row) {
+        List<String> columns = new ArrayList<>(row.keySet());
+        String idColumn = idColumn(row);
+        List<String> updated = columns.stream()
+                .filter(column -> !column.equals(idColumn))
+                .collect(Collectors.toList());
+        List<Object> updateArgs = updated.stream().map(row::get).collect(Collectors.toList());
+        updateArgs.add(row.get(idColumn));
+        int count = shard.update("UPDATE " + table + " SET "
+                        + updated.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                        + " WHERE id = ?",
+                updateArgs.toArray());
+        if (count == 0) {
+            shard.update("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                            + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")",
+                    row.values().toArray());
+        }
+    }
+
+    private String idColumn(Map<String, Object> row) {
+        return row.keySet().stream()
+                .filter(column -> column.equalsIgnoreCase("id"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Реплицируемая таблица должна иметь колонку id"));
+    }
+
+    private void replicateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replicate();
+        } else if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicate();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ShardReplicator.this);
+                }
+            });
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Task {
+        private final long id;
+        private final String table;
+        private final Long rowId;
+        private final int shard;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.util.sharding;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * choice of the shard: an item belongs to the shard of its owner (owner's id modulo number of the shards),
+ * ids of the items, bookings and comments generated by a shard are congruent to its index,
+ * so the shard of an entity is known by its id as well
+ */
+public class ShardRouter {
+
+    /**
+     * shard of the tables not split between the shards (users, requests, outbox events, etc.)
+     */
+    public static final int HOME = 0;
+
+    private final int shards;
+    private final Map<Class<?>, Function<Object, Long>> keys = new LinkedHashMap<>();
+
+    public ShardRouter(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Количество шардов должно быть положительным");
+        }
+        this.shards = shards;
+    }
+
+    /**
+     * router for the jobs run by each shard in turn
+     *
+     * @param router router of the shards, not available without sharding
+     * @return the router or the router of the single shard
+     */
+    public static ShardRouter orSingle(ObjectProvider<ShardRouter> router) {
+        return router.getIfAvailable(() -> new ShardRouter(1));
+    }
+
+    /**
+     * register the key of the entity: its id if it was saved or the id defining the shard of the new entity
+     *
+     * @param type entity's class
+     * @param key  key of the entity
+     * @param <T>  entity's type
+     * @return this router
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ShardRouter register(Class<T> type, Function<T, Long> key) {
+        keys.put(type, (Function<Object, Long>) key);
+        return this;
+    }
+
+    /**
+     * @return number of the shards
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * @param key id of the owner, item, booking or comment
+     * @return index of the shard
+     */
+    public int shardOf(long key) {
+        return Math.floorMod(key, shards);
+    }
+
+    /**
+     * @param value id or registered entity, home shard for null or the entity without the key
+     * @return index of the shard
+     */
+    public int shardOf(Object value) {
+        if (value == null) {
+            return HOME;
+        }
+        if (value instanceof Number) {
+            return shardOf(((Number) value).longValue());
+        }
+        for (Map.Entry<Class<?>, Function<Object, Long>> key : keys.entrySet()) {
+            if (key.getKey().isInstance(value)) {
+                Long id = key.getValue().apply(value);
+                return id == null ? HOME : shardOf(id.longValue());
+            }
+        }
+        throw new IllegalArgumentException("Не задан ключ шардирования для " + value.getClass().getName());
+    }
+}
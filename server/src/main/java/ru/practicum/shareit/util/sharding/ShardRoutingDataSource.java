@@ -0,0 +1,91 @@
+package ru.practicum.shareit.util.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * routing connections to the shard of the current repository call or to the home shard
+ * must be wrapped into LazyConnectionDataSourceProxy: the connection is routed when the first statement
+ * is executed, since then the transaction is bound to the shard until its completion
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardRouter.HOME));
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return data sources of the shards by their indexes
+     */
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return shard of the current transaction or null if it hasn't executed any statement yet
+     */
+    public Integer getBoundShard() {
+        return (Integer) TransactionSynchronizationManager.getResource(this);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer bound = getBoundShard();
+        Integer current = ShardContext.current();
+        int shard = current != null ? current : bound != null ? bound : ShardRouter.HOME;
+        if (bound == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            bind(shard);
+        }
+        return shard;
+    }
+
+    @Override
+    public void close() {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) shard).close();
+                } catch (Exception e) {
+                    log.warn("Не удалось закрыть пул соединений шарда: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void bind(int shard) {
+        TransactionSynchronizationManager.bindResource(this, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(ShardRoutingDataSource.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(ShardRoutingDataSource.this, shard);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ShardRoutingDataSource.this);
+            }
+        });
+    }
+}
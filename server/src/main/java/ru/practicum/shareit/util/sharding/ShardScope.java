@@ -0,0 +1,21 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * service method executed in the scope of the shard of its argument (see {@link ShardContext#inScope}),
+ * so its transaction is bound to the shard of the changed item or booking before the first statement
+ * and the events written with the change are committed by the same shard
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardScope {
+
+    /**
+     * @return index of the argument defining the shard: owner's id, id of an item or a booking or a registered object
+     */
+    int value() default 0;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.util.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * repository of an entity split between the shards by the owner of the item
+ * methods declared by the repository must be annotated by {@link ShardBy} or {@link ScatterGather},
+ * inherited CRUD methods are routed by their arguments (entities, ids or collections of them)
+ * repositories without the annotation use the home shard
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sharded {
+}
@@ -0,0 +1,456 @@
+package ru.practicum.shareit.util.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * routing calls of the repositories to the shards
+ * the first statement of a transaction binds it to the shard, changes of a transaction are committed
+ * by its shard only: a read routed to another shard is executed by a new transaction of that shard,
+ * a write routed to another shard fails instead of being committed apart from the transaction;
+ * so the service changing the sharded entities runs in the scope of their shard ({@link ShardScope}),
+ * replicated and colocated tables are used by the shard of the transaction
+ * routes of the repositories' methods are checked at startup, a declared method that can't be routed
+ * or whose results can't be merged fails the startup instead of its first call
+ */
+@Aspect
+public class ShardingAspect {
+
+    private final ShardRouter router;
+    private final ShardRoutingDataSource dataSource;
+    private final ShardReplicator replicator;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate readOnlyRequiresNew;
+    private final Map<Class<?>, Class<?>> repositories = new ConcurrentHashMap<>();
+    private final Map<MethodClassKey, Route> routes = new ConcurrentHashMap<>();
+
+    public ShardingAspect(ShardRouter router,
+                          ShardRoutingDataSource dataSource,
+                          ShardReplicator replicator,
+                          PlatformTransactionManager transactionManager) {
+        this.router = router;
+        this.dataSource = dataSource;
+        this.replicator = replicator;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyRequiresNew = new TransactionTemplate(transactionManager, requiresNew);
+        this.readOnlyRequiresNew.setReadOnly(true);
+    }
+
+    /**
+     * route the call of the repository
+     *
+     * @param joinPoint call of the repository
+     * @return result of the call (merged if executed by several shards)
+     * @throws Throwable exception of the call
+     */
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> repository = repositories.computeIfAbsent(joinPoint.getThis().getClass(), this::repositoryOf);
+        Route route = routes.computeIfAbsent(new MethodClassKey(method, repository),
+                key -> routeOf(method, repository));
+        switch (route.kind) {
+            case ARGUMENT:
+                return byArgument(joinPoint, route);
+            case SCATTER:
+                return scatter(joinPoint, route);
+            case REPLICATED:
+                return replicated(joinPoint, route);
+            case BOUND:
+                return onShard(transactionShard(), route, joinPoint::proceed);
+            default:
+                return onShard(ShardRouter.HOME, route, joinPoint::proceed);
+        }
+    }
+
+    /**
+     * execute the service method in the scope of the shard of its argument
+     *
+     * @param joinPoint call of the service method
+     * @param scope     argument defining the shard
+     * @return result of the call
+     * @throws Throwable exception of the call
+     */
+    @Around("@annotation(scope)")
+    public Object scope(ProceedingJoinPoint joinPoint, ShardScope scope) throws Throwable {
+        return ShardContext.callInScope(router.shardOf(joinPoint.getArgs()[scope.value()]), joinPoint::proceed);
+    }
+
+    /**
+     * check the routes of all methods of the repository
+     * throws IllegalStateException if a method declared by the repository can't be routed
+     *
+     * @param repository repository's bean
+     */
+    public void validate(Object repository) {
+        Class<?> type = repositoryOf(repository.getClass());
+        for (Method method : type.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                routes.computeIfAbsent(new MethodClassKey(method, type), key -> routeOf(method, type));
+            }
+        }
+    }
+
+    private Object byArgument(ProceedingJoinPoint joinPoint, Route route) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        Object key = args[route.argument];
+        if (!(key instanceof Iterable)) {
+            return onShard(router.shardOf(key), route, joinPoint::proceed);
+        }
+        Map<Integer, List<Object>> groups = new TreeMap<>();
+        for (Object element : (Iterable<?>) key) {
+            groups.computeIfAbsent(router.shardOf(element), shard -> new ArrayList<>()).add(element);
+        }
+        if (groups.size() <= 1) {
+            int shard = groups.isEmpty() ? transactionShard() : groups.keySet().iterator().next();
+            return onShard(shard, route, joinPoint::proceed);
+        }
+        List<Object> results = new ArrayList<>();
+        for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+            Object[] groupArgs = Arrays.copyOf(args, args.length);
+            groupArgs[route.argument] = group.getValue();
+            results.add(onShard(group.getKey(), route, () -> joinPoint.proceed(groupArgs)));
+        }
+        return merge(results, route, null);
+    }
+
+    private Object scatter(ProceedingJoinPoint joinPoint, Route route) throws Throwable {
+        Integer scope = ShardContext.scope();
+        if (scope != null) {
+            return onShard(scope, route, joinPoint::proceed);
+        }
+        Object[] args = joinPoint.getArgs();
+        Pageable page = route.pageable >= 0 ? (Pageable) args[route.pageable] : null;
+        Object[] shardArgs = Arrays.copyOf(args, args.length);
+        if (page != null && page.isPaged()) {
+            shardArgs[route.pageable] = PageRequest.of(0, (int) page.getOffset() + page.getPageSize(), page.getSort());
+        }
+        List<Object> results = new ArrayList<>();
+        for (int shard = 0; shard < router.getShards(); shard++) {
+            results.add(onShard(shard, route, () -> joinPoint.proceed(shardArgs)));
+        }
+        return merge(results, route, page);
+    }
+
+    private Object replicated(ProceedingJoinPoint joinPoint, Route route) throws Throwable {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return inTransaction(requiresNew, () -> replicated(joinPoint, route));
+        }
+        return onShard(ShardRouter.HOME, route, () -> {
+            Object result = joinPoint.proceed();
+            String name = joinPoint.getSignature().getName();
+            Object[] args = joinPoint.getArgs();
+            if (name.startsWith("save")) {
+                replicator.copy(route.table, idsOf(result));
+            } else if (args.length == 0) {
+                replicator.clear(route.table);
+            } else {
+                replicator.remove(route.table, idsOf(args[0]));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return shard of the current transaction, of the scope if the transaction isn't bound yet or the home one
+     */
+    private int transactionShard() {
+        Integer bound = dataSource.getBoundShard();
+        if (bound != null) {
+            return bound;
+        }
+        Integer scope = ShardContext.scope();
+        return scope != null ? scope : ShardRouter.HOME;
+    }
+
+    private Object onShard(int shard, Route route, ShardContext.ShardCall<Object> call) throws Throwable {
+        Integer bound = dataSource.getBoundShard();
+        if (bound == null || bound == shard) {
+            return ShardContext.call(shard, call);
+        }
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (route.write && !readOnly) {
+            throw new IllegalStateException("Изменение шарда " + shard + " в транзакции шарда " + bound
+                    + " не было бы атомарным, выполните его в области шарда (@ShardScope)");
+        }
+        return inTransaction(readOnly ? readOnlyRequiresNew : requiresNew, () -> ShardContext.call(shard, call));
+    }
+
+    private Object inTransaction(TransactionTemplate template, ShardContext.ShardCall<Object> call) throws Throwable {
+        try {
+            return template.execute(status -> {
+                try {
+                    return call.call();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+        } catch (UndeclaredThrowableException e) {
+            throw e.getUndeclaredThrowable();
+        }
+    }
+
+    private Object merge(List<Object> results, Route route, Pageable page) {
+        Class<?> type = route.returnType;
+        if (type == void.class) {
+            return null;
+        }
+        if (Optional.class.isAssignableFrom(type)) {
+            Stream<Object> present = results.stream()
+                    .map(result -> (Optional<?>) result)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get);
+            return route.order != null ? present.min(route.order) : present.findFirst();
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        if (type == int.class || type == Integer.class) {
+            return results.stream().mapToInt(result -> (Integer) result).sum();
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (Page.class.isAssignableFrom(type) && page != null) {
+            return mergePages(results, route, page);
+        }
+        if (!type.isAssignableFrom(ArrayList.class)) {
+            throw new UnsupportedOperationException("Результаты типа " + type.getSimpleName()
+                    + " не объединяются между шардами");
+        }
+        List<Object> merged = new ArrayList<>();
+        results.forEach(result -> ((Iterable<?>) result).forEach(merged::add));
+        if (route.order != null) {
+            // lists of the shards are already sorted, so the sort merges them
+            merged.sort(route.order);
+        }
+        if (page == null || page.isUnpaged()) {
+            return merged;
+        }
+        return merged.stream()
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * merge pages of the shards into the requested page, ordered by @ScatterGather or by the sort of the page
+     */
+    private Page<Object> mergePages(List<Object> results, Route route, Pageable page) {
+        List<Object> merged = new ArrayList<>();
+        long total = 0;
+        for (Object result : results) {
+            merged.addAll(((Page<?>) result).getContent());
+            total += ((Page<?>) result).getTotalElements();
+        }
+        Comparator<Object> order = route.order != null ? route.order : orderOf(page.getSort());
+        if (order != null) {
+            merged.sort(order);
+        }
+        if (page.isUnpaged()) {
+            return new PageImpl<>(merged, page, total);
+        }
+        return new PageImpl<>(merged.stream()
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .collect(Collectors.toList()), page, total);
+    }
+
+    private List<Long> idsOf(Object value) {
+        List<Long> ids = new ArrayList<>();
+        Iterable<?> values = value instanceof Iterable ? (Iterable<?>) value : List.of(value);
+        for (Object element : values) {
+            ids.add(element instanceof Number
+                    ? ((Number) element).longValue()
+                    : (Long) PropertyAccessorFactory.forBeanPropertyAccess(element).getPropertyValue("id"));
+        }
+        return ids;
+    }
+
+    private Class<?> repositoryOf(Class<?> proxy) {
+        return Arrays.stream(ClassUtils.getAllInterfacesForClass(proxy))
+                .filter(Repository.class::isAssignableFrom)
+                .filter(type -> !type.getPackageName().startsWith("org.springframework."))
+                .findFirst()
+                .orElse(Repository.class);
+    }
+
+    private Route routeOf(Method method, Class<?> repository) {
+        Route route = new Route(method.getReturnType());
+        Method declared = ClassUtils.getMethodIfAvailable(repository, method.getName(), method.getParameterTypes());
+        if (declared == null) {
+            declared = method;
+        }
+        route.write = isWrite(declared);
+        if (AnnotationUtils.findAnnotation(repository, Sharded.class) == null) {
+            Replicated replicated = AnnotationUtils.findAnnotation(repository, Replicated.class);
+            if (replicated != null && isReplicatedWrite(method)) {
+                if (method.getDeclaringClass() == repository) {
+                    throw new IllegalStateException("Метод " + repository.getSimpleName() + "." + method.getName()
+                            + " реплицируемого репозитория не реплицируется, используйте методы save и delete");
+                }
+                route.kind = Kind.REPLICATED;
+                route.table = replicated.value();
+            } else if (replicated != null || AnnotationUtils.findAnnotation(repository, Colocated.class) != null) {
+                // replicated rows are read by any shard
+                route.kind = Kind.BOUND;
+            }
+            return route;
+        }
+        Class<?>[] parameters = declared.getParameterTypes();
+        for (int i = 0; i < parameters.length; i++) {
+            if (Pageable.class.isAssignableFrom(parameters[i])) {
+                route.pageable = i;
+            }
+        }
+        ShardBy shardBy = declared.getAnnotation(ShardBy.class);
+        ScatterGather scatterGather = declared.getAnnotation(ScatterGather.class);
+        if (shardBy != null) {
+            route.kind = Kind.ARGUMENT;
+            route.argument = shardBy.value();
+        } else if (scatterGather != null) {
+            route.kind = Kind.SCATTER;
+            route.order = orderOf(scatterGather);
+        } else if (declared.getDeclaringClass() == repository) {
+            throw new IllegalStateException("Метод " + repository.getSimpleName() + "." + method.getName()
+                    + " шардированного репозитория должен быть размечен @ShardBy или @ScatterGather");
+        } else if (parameters.length == 0 || Sort.class.isAssignableFrom(parameters[0])
+                || Pageable.class.isAssignableFrom(parameters[0]) || Example.class.isAssignableFrom(parameters[0])) {
+            route.kind = Kind.SCATTER;
+        } else {
+            route.kind = Kind.ARGUMENT;
+        }
+        if (declared.getDeclaringClass() == repository && !isMergeable(route, parameters)) {
+            throw new IllegalStateException("Результаты метода " + repository.getSimpleName() + "."
+                    + method.getName() + " типа " + route.returnType.getSimpleName()
+                    + " не объединяются между шардами");
+        }
+        return route;
+    }
+
+    /**
+     * check that the results of the shards can be merged if the call is executed by several shards
+     * page is merged only by the scatter call with Pageable parameter
+     */
+    private boolean isMergeable(Route route, Class<?>[] parameters) {
+        boolean merged = route.kind == Kind.SCATTER || (route.kind == Kind.ARGUMENT
+                && route.argument < parameters.length && Iterable.class.isAssignableFrom(parameters[route.argument]));
+        if (!merged) {
+            return route.kind != Kind.ARGUMENT || route.argument < parameters.length;
+        }
+        Class<?> type = route.returnType;
+        if (Page.class.isAssignableFrom(type)) {
+            return route.kind == Kind.SCATTER && route.pageable >= 0 && type.isAssignableFrom(PageImpl.class);
+        }
+        return type == void.class || Optional.class.isAssignableFrom(type)
+                || type == long.class || type == Long.class || type == int.class || type == Integer.class
+                || type == boolean.class || type == Boolean.class || type.isAssignableFrom(ArrayList.class);
+    }
+
+    /**
+     * call changing the rows: save and delete methods, insert and copy methods of the custom implementations,
+     * modifying queries and queries locking the rows to change them
+     */
+    private boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete") || name.startsWith("insert")
+                || name.startsWith("copy") || AnnotationUtils.findAnnotation(method, Modifying.class) != null
+                || AnnotationUtils.findAnnotation(method, Lock.class) != null;
+    }
+
+    private boolean isReplicatedWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<Object> orderOf(ScatterGather scatterGather) {
+        String orderBy = scatterGather.orderBy();
+        if (orderBy.isEmpty()) {
+            return null;
+        }
+        if (orderBy.chars().allMatch(Character::isDigit)) {
+            int column = Integer.parseInt(orderBy);
+            return Comparator.comparing(row -> (Comparable<Object>) ((Object[]) row)[column],
+                    Comparator.nullsLast(valuesOrder(scatterGather.descending())));
+        }
+        return byProperty(orderBy, scatterGather.descending());
+    }
+
+    private Comparator<Object> orderOf(Sort sort) {
+        Comparator<Object> order = null;
+        for (Sort.Order property : sort) {
+            Comparator<Object> next = byProperty(property.getProperty(), property.isDescending());
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<Object> byProperty(String property, boolean descending) {
+        return Comparator.comparing(row -> (Comparable<Object>) PropertyAccessorFactory.forBeanPropertyAccess(row)
+                .getPropertyValue(property), Comparator.nullsLast(valuesOrder(descending)));
+    }
+
+    private Comparator<Comparable<Object>> valuesOrder(boolean descending) {
+        return descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+    }
+
+    private enum Kind {
+        HOME,
+        BOUND,
+        ARGUMENT,
+        SCATTER,
+        REPLICATED
+    }
+
+    private static class Route {
+        private final Class<?> returnType;
+        private Kind kind = Kind.HOME;
+        private int argument;
+        private int pageable = -1;
+        private Comparator<Object> order;
+        private String table;
+        private boolean write;
+
+        private Route(Class<?> returnType) {
+            this.returnType = returnType;
+        }
+    }
+}
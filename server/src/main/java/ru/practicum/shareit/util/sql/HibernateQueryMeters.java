@@ -0,0 +1,81 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * meters of Hibernate's statistics of each query (HQL, derived queries of the repositories included):
+ * executions, their total and max time, rows; queries are registered as they appear in the statistics,
+ * no more than the limit of them, so that the number of the meters is bounded
+ */
+@Slf4j
+public class HibernateQueryMeters {
+
+    private final Statistics statistics;
+    private final MeterRegistry meterRegistry;
+    private final int maxQueries;
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+    private boolean full;
+
+    public HibernateQueryMeters(Statistics statistics, MeterRegistry meterRegistry, int maxQueries) {
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+        this.maxQueries = maxQueries;
+    }
+
+    /**
+     * register the meters of the queries executed since the last registration
+     * declared queries are in the statistics since startup, they are skipped until executed
+     */
+    @Scheduled(fixedDelayString = "${shareit.hibernate.statistics.refresh-interval-ms:10000}")
+    public void register() {
+        for (String query : statistics.getQueries()) {
+            if (registered.contains(query)) {
+                continue;
+            }
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            if (queryStatistics.getExecutionCount() == 0) {
+                continue;
+            }
+            if (registered.size() >= maxQueries) {
+                if (!full) {
+                    full = true;
+                    log.warn("Метрики Hibernate ведутся не более чем для {} запросов", maxQueries);
+                }
+                return;
+            }
+            if (registered.add(query)) {
+                register(query, queryStatistics);
+            }
+        }
+    }
+
+    private void register(String query, QueryStatistics queryStatistics) {
+        FunctionTimer.builder("hibernate.query.execution", queryStatistics,
+                        QueryStatistics::getExecutionCount, QueryStatistics::getExecutionTotalTime,
+                        TimeUnit.MILLISECONDS)
+                .tag("query", query)
+                .description("executions of the query and their total time")
+                .register(meterRegistry);
+        TimeGauge.builder("hibernate.query.execution.max", queryStatistics, TimeUnit.MILLISECONDS,
+                        QueryStatistics::getExecutionMaxTime)
+                .tag("query", query)
+                .description("max time of the query's execution")
+                .register(meterRegistry);
+        FunctionCounter.builder("hibernate.query.execution.rows", queryStatistics,
+                        QueryStatistics::getExecutionRowCount)
+                .tag("query", query)
+                .description("rows returned by the query")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.util.sql;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * SlowQuery DTO model.
+ * statement slower than the threshold: its SQL, types of its parameters (not their values) and where it was called
+ */
+@Value
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class SlowQueryDto {
+    LocalDateTime executed;
+    Double durationMs;
+    String sql;
+    String parameters;
+    Integer batchSize;
+    String caller;
+    String traceId;
+}
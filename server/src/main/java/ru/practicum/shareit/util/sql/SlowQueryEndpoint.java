@@ -0,0 +1,27 @@
+package ru.practicum.shareit.util.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * actuator endpoint /actuator/slowqueries with the last slow statements
+ */
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * get the last slow statements
+     *
+     * @return statements with their parameters' types and callers starting with the last one
+     */
+    @ReadOperation
+    public List<SlowQueryDto> slowQueries() {
+        return slowQueryLog.getQueries();
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.MDC;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_MDC_KEY;
+
+/**
+ * last statements slower than the threshold, the oldest ones are overwritten by the new ones
+ * only slow statements are described (caller, parameters), so the fast ones cost a clock reading
+ * the counter is bound by the registry, since the registry's own binders depend on the data source
+ */
+public class SlowQueryLog implements MeterBinder {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String APPLICATION_PACKAGE = "ru.practicum.shareit.";
+    private static final String UTIL_PACKAGE = APPLICATION_PACKAGE + "util.";
+    private static final String SERVICE_PACKAGE = ".service.";
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long thresholdNanos;
+
+    public SlowQueryLog(int capacity, long thresholdMs) {
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("shareit.db.slow-queries", sequence, AtomicLong::get)
+                .description("statements slower than the threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param nanos time of the statement
+     * @return whether the statement is slow
+     */
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * add the slow statement, it is described by the calling thread
+     *
+     * @param sql        statement's SQL
+     * @param parameters types of the parameters
+     * @param batchSize  number of the parameters' sets executed as batch, 0 if not batched
+     * @param nanos      time of the statement
+     */
+    void add(String sql, String parameters, int batchSize, long nanos) {
+        long number = sequence.getAndIncrement();
+        entries.set((int) (number % entries.length()), new Entry(number, SlowQueryDto.builder()
+                .executed(LocalDateTime.now())
+                .durationMs(nanos / 1_000_000.0)
+                .sql(sql)
+                .parameters(parameters)
+                .batchSize(batchSize)
+                .caller(caller())
+                .traceId(MDC.get(TRACE_ID_MDC_KEY))
+                .build()));
+    }
+
+    /**
+     * @return slow statements starting with the last one
+     */
+    public List<SlowQueryDto> getQueries() {
+        List<Entry> found = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            Entry entry = entries.get(i);
+            if (entry != null) {
+                found.add(entry);
+            }
+        }
+        found.sort(Comparator.comparingLong(Entry::getNumber).reversed());
+        List<SlowQueryDto> queries = new ArrayList<>(found.size());
+        found.forEach(entry -> queries.add(entry.getQuery()));
+        return queries;
+    }
+
+    /**
+     * method of the service executing the statement, or of the first application's class if there is no service
+     *
+     * @return class's simple name and method's name
+     */
+    private static String caller() {
+        List<StackWalker.StackFrame> frames = STACK_WALKER.walk(stack -> stack
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(UTIL_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .limit(10)
+                .collect(Collectors.toList()));
+        return frames.stream()
+                .filter(frame -> frame.getClassName().contains(SERVICE_PACKAGE))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse(null);
+    }
+
+    private static class Entry {
+        private final long number;
+        private final SlowQueryDto query;
+
+        Entry(long number, SlowQueryDto query) {
+            this.number = number;
+            this.query = query;
+        }
+
+        long getNumber() {
+            return number;
+        }
+
+        SlowQueryDto getQuery() {
+            return query;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.util.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_HEADER;
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_MDC_KEY;
+
+/**
+ * trace id of the request: the gateway's X-Trace-Id or a new one for the requests sent to the server directly
+ * it is put to MDC, so that the log lines of the request are tagged with it (workers get MDC of the request),
+ * and returned in the response's X-Trace-Id
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("[A-Za-z0-9-]{8,64}");
+    private static final String TRACE_ID_ATTRIBUTE = TraceIdFilter.class.getName() + ".traceId";
+
+    /**
+     * the response of the handler executed by a worker is written on the async dispatch, it is tagged too
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String traceId = (String) request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId == null) {
+            traceId = request.getHeader(TRACE_ID_HEADER);
+            if (traceId == null || !TRACE_ID_PATTERN.matcher(traceId).matches()) {
+                traceId = String.format("%016x", ThreadLocalRandom.current().nextLong());
+            }
+            request.setAttribute(TRACE_ID_ATTRIBUTE, traceId);
+            response.setHeader(TRACE_ID_HEADER, traceId);
+        }
+        MDC.put(TRACE_ID_MDC_KEY, traceId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.util.workers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.practicum.shareit.util.exceptions.ServiceUnavailableException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * bounded executors of the requests by endpoint class, so that slow searches can't take the threads of quick writes
+ * a request exceeding the pool's queue is rejected at once with 503.SERVICE_UNAVAILABLE
+ */
+@Slf4j
+public class WorkerExecutors {
+
+    private final Map<WorkerPool, ThreadPoolTaskExecutor> executors;
+    private final Map<WorkerPool, Counter> rejections = new EnumMap<>(WorkerPool.class);
+
+    public WorkerExecutors(Map<WorkerPool, ThreadPoolTaskExecutor> executors, MeterRegistry meterRegistry) {
+        this.executors = new EnumMap<>(executors);
+        for (Map.Entry<WorkerPool, ThreadPoolTaskExecutor> entry : this.executors.entrySet()) {
+            String pool = entry.getKey().name().toLowerCase();
+            ThreadPoolExecutor executor = entry.getValue().getThreadPoolExecutor();
+            Gauge.builder("shareit.workers.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .description("Number of the threads executing requests")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.workers.queued", executor, threads -> threads.getQueue().size())
+                    .description("Number of the requests waiting for a thread")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.workers.saturation", executor, WorkerExecutors::saturation)
+                    .description("Share of the pool's threads and queue taken by requests")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+            rejections.put(entry.getKey(), Counter.builder("shareit.workers.rejected")
+                    .description("Number of the requests rejected with 503")
+                    .tag("pool", pool)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * execute the request's handler in the pool
+     * throws 503.SERVICE_UNAVAILABLE ServiceUnavailableException if the pool and its queue are full
+     *
+     * @param pool endpoint class
+     * @param task handler
+     */
+    public void execute(WorkerPool pool, Runnable task) {
+        try {
+            executors.get(pool).execute(task);
+        } catch (TaskRejectedException e) {
+            rejections.get(pool).increment();
+            log.info("Запрос отклонен: пул {} заполнен", pool);
+            throw new ServiceUnavailableException("Сервер перегружен, повторите запрос позже");
+        }
+    }
+
+    private static double saturation(ThreadPoolExecutor executor) {
+        int queued = executor.getQueue().size();
+        int capacity = executor.getMaximumPoolSize() + queued + executor.getQueue().remainingCapacity();
+        return (double) (executor.getActiveCount() + queued) / capacity;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.util.workers;
+
+import org.slf4j.MDC;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * executing controllers' methods in the worker pools instead of the request threads
+ * arguments are resolved in the request thread, so that invalid requests are answered without taking a worker;
+ * the result is returned to Spring MVC as DeferredResult and written on the async dispatch
+ * handlers returning async results themselves (server-sent events, streamed responses) are executed as before
+ */
+public class WorkerHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private static final List<String> SEARCH_PATHS = List.of(
+            ITEMS_PATH + SEARCH_PATH,
+            REQUESTS_PATH + MATCHES_PATH);
+
+    /**
+     * POST-requests reading data (lists of ids too long for the query string)
+     */
+    private static final List<String> READ_PATHS = List.of(
+            ITEMS_PATH + LOOKUP_PATH);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final WorkerExecutors workerExecutors;
+
+    public WorkerHandlerAdapter(WorkerExecutors workerExecutors) {
+        this.workerExecutors = workerExecutors;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (isAsync(handlerMethod.getReturnType())) {
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        return new WorkerInvocableHandlerMethod(handlerMethod);
+    }
+
+    /**
+     * choose the pool by the handler's path pattern and request method
+     *
+     * @param request request
+     * @return endpoint class
+     */
+    private WorkerPool getPool(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null && SEARCH_PATHS.stream().anyMatch(path -> pathMatcher.match(path, pattern.toString()))) {
+            return WorkerPool.SEARCH;
+        }
+        if (pattern != null && READ_PATHS.contains(pattern.toString())) {
+            return WorkerPool.READ;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) ? WorkerPool.READ : WorkerPool.WRITE;
+    }
+
+    private static boolean isAsync(MethodParameter returnParameter) {
+        Class<?> returnType = returnParameter.getParameterType();
+        if (ResponseEntity.class.isAssignableFrom(returnType)) {
+            returnType = ResolvableType.forMethodParameter(returnParameter).getGeneric().resolve(Object.class);
+        }
+        return ResponseBodyEmitter.class.isAssignableFrom(returnType)
+                || StreamingResponseBody.class.isAssignableFrom(returnType)
+                || DeferredResult.class.isAssignableFrom(returnType)
+                || Callable.class.isAssignableFrom(returnType)
+                || CompletionStage.class.isAssignableFrom(returnType);
+    }
+
+    private class WorkerInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        WorkerInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer,
+                                       Object... providedArgs) throws Exception {
+            Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            DeferredResult<Object> result = new DeferredResult<>();
+            workerExecutors.execute(getPool(request.getNativeRequest(HttpServletRequest.class)), () -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    result.setResult(doInvoke(args));
+                } catch (Throwable e) {
+                    result.setErrorResult(e);
+                } finally {
+                    MDC.clear();
+                }
+            });
+            return result;
+        }
+    }
+}
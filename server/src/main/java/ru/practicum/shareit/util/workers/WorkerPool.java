@@ -0,0 +1,10 @@
+package ru.practicum.shareit.util.workers;
+
+/**
+ * classes of the endpoints executed by separate bounded pools
+ */
+public enum WorkerPool {
+    READ,
+    WRITE,
+    SEARCH
+}
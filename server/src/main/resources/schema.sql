@@ -56,4 +56,181 @@ CREATE TABLE IF NOT EXISTS comments (
      created TIMESTAMP NOT NULL,
      CONSTRAINT pk_comments PRIMARY KEY (id)
 
-);
\ No newline at end of file
+);
+
+-- creation item_terms table (term index over items' names and descriptions)
+
+CREATE TABLE IF NOT EXISTS item_terms (
+     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     term VARCHAR(100) NOT NULL,
+     item BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+     CONSTRAINT pk_item_terms PRIMARY KEY (id)
+
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_terms_term ON item_terms (term);
+CREATE INDEX IF NOT EXISTS idx_item_terms_item ON item_terms (item);
+
+-- a term is counted once for an item: duplicates saved before the constraint existed are removed
+
+DELETE FROM item_terms t WHERE EXISTS (SELECT 1 FROM item_terms d WHERE d.item = t.item AND d.term = t.term AND d.id < t.id);
+CREATE UNIQUE INDEX IF NOT EXISTS unique_item_term ON item_terms (item, term);
+
+-- creation request_matches table (owners' notifications about matching requests)
+
+CREATE TABLE IF NOT EXISTS request_matches (
+     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     request BIGINT NOT NULL REFERENCES requests (id) ON DELETE CASCADE,
+     owner BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+     score INTEGER NOT NULL,
+     created TIMESTAMP NOT NULL,
+     CONSTRAINT pk_request_matches PRIMARY KEY (id),
+     CONSTRAINT unique_request_match UNIQUE (request, owner)
+
+);
+
+CREATE INDEX IF NOT EXISTS idx_request_matches_owner ON request_matches (owner, created);
+
+-- creation outbox_events table (domain events written with the business change, dispatched in background)
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     aggregate_type VARCHAR(50) NOT NULL,
+     aggregate_id BIGINT NOT NULL,
+     event_type VARCHAR(50) NOT NULL,
+     payload VARCHAR(8000) NOT NULL,
+     created TIMESTAMP NOT NULL,
+     CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+
+);
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS attempts INT DEFAULT 0 NOT NULL;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS retry_at TIMESTAMP;
+
+-- creation of outbox_dead_letters table: outbox events rejected by the sinks at every attempt, parked for investigation
+
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+     id BIGINT NOT NULL,
+     aggregate_type VARCHAR(50) NOT NULL,
+     aggregate_id BIGINT NOT NULL,
+     event_type VARCHAR(50) NOT NULL,
+     payload VARCHAR(8000) NOT NULL,
+     created TIMESTAMP NOT NULL,
+     attempts INT NOT NULL,
+     error VARCHAR(1000),
+     parked TIMESTAMP NOT NULL,
+     CONSTRAINT pk_outbox_dead_letters PRIMARY KEY (id)
+);
+
+-- versions of the entities, incremented on each update (optimistic locking and ETags)
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- creation of item_counters table: precomputed numbers of bookings, approved bookings and comments of items
+
+CREATE TABLE IF NOT EXISTS item_counters (
+    item BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    bookings BIGINT NOT NULL,
+    approvals BIGINT NOT NULL,
+    comments BIGINT NOT NULL,
+    CONSTRAINT pk_item_counters PRIMARY KEY (item)
+);
+
+ALTER TABLE item_counters ADD COLUMN IF NOT EXISTS updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_item_counters_updated ON item_counters (updated);
+CREATE INDEX IF NOT EXISTS idx_item_counters_bookings ON item_counters (bookings);
+CREATE INDEX IF NOT EXISTS idx_item_counters_approvals ON item_counters (approvals);
+CREATE INDEX IF NOT EXISTS idx_item_counters_comments ON item_counters (comments);
+
+-- creation of hot_items table: snapshot of the most read items, restored at startup
+
+CREATE TABLE IF NOT EXISTS hot_items (
+    item BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    hits BIGINT NOT NULL,
+    CONSTRAINT pk_hot_items PRIMARY KEY (item)
+);
+
+-- creation of bookings_archive table: cold partition of the bookings finished before the archive's horizon
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+     id BIGINT NOT NULL,
+     start_time TIMESTAMP NOT NULL,
+     end_time TIMESTAMP NOT NULL,
+     item BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+     booker BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+     status VARCHAR(10) NOT NULL,
+     version BIGINT DEFAULT 0 NOT NULL,
+     CONSTRAINT pk_bookings_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker ON bookings_archive (booker, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item ON bookings_archive (item, end_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_end_time ON bookings (end_time);
+
+-- creation of comment_summaries table: numbers of comments of items and ids of the latest ones, the newest first
+
+CREATE TABLE IF NOT EXISTS comment_summaries (
+    item BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    comments BIGINT NOT NULL,
+    latest VARCHAR(1024) NOT NULL,
+    CONSTRAINT pk_comment_summaries PRIMARY KEY (item)
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item, id);
+
+-- last and next bookings of the lists of items are looked up by item and start
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item, start_time);
+
+-- creation of job_locks table: scheduled jobs running on one instance of the server at a time
+
+CREATE TABLE IF NOT EXISTS job_locks (
+    name VARCHAR(64) NOT NULL,
+    locked_until TIMESTAMP NOT NULL,
+    locked_by VARCHAR(64) NOT NULL,
+    CONSTRAINT pk_job_locks PRIMARY KEY (name)
+);
+
+-- creation of booking_events table: bookings' changes read by every instance of the server for its subscribers
+
+CREATE TABLE IF NOT EXISTS booking_events (
+     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     booking_id BIGINT NOT NULL,
+     booker_id BIGINT NOT NULL,
+     owner_id BIGINT NOT NULL,
+     payload VARCHAR(8000) NOT NULL,
+     created TIMESTAMP NOT NULL,
+     CONSTRAINT pk_booking_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_events_created ON booking_events (created);
+
+-- creation of replication_tasks table: changes of the replicated tables not copied to the shards yet
+
+CREATE TABLE IF NOT EXISTS replication_tasks (
+     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     table_name VARCHAR(64) NOT NULL,
+     row_id BIGINT,
+     shard INT NOT NULL,
+     created TIMESTAMP NOT NULL,
+     CONSTRAINT pk_replication_tasks PRIMARY KEY (id)
+);
+
+-- creation of idempotency_keys table: responses of the requests with Idempotency-Key shared by the instances of the server
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+     store_key VARCHAR(1024) NOT NULL,
+     fingerprint VARCHAR(64) NOT NULL,
+     token VARCHAR(36) NOT NULL,
+     status INT,
+     content_type VARCHAR(255),
+     body BYTEA,
+     expires_at TIMESTAMP NOT NULL,
+     CONSTRAINT pk_idempotency_keys PRIMARY KEY (store_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
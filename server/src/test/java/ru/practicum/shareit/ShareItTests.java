@@ -329,7 +329,7 @@ class ShareItTests {
         BookingOutDto bookingApproved = bookingController.updateStatus(ownerId, bookingId, true);
         BookingItemDto bookingItem = BookingMapper.toBookingItemDto(bookingApproved);
 
-        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(ownerId, itemDto.getId()));
+        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(ownerId, itemDto.getId(), null));
         assertThat(itemOptional).hasValueSatisfying(i -> assertThat(i)
                 .hasFieldOrPropertyWithValue("id", i.getId())
                 .hasFieldOrPropertyWithValue("description", "new")
@@ -350,7 +350,7 @@ class ShareItTests {
         Long userId = user.getId();
 
         assertThrows(ObjectNotFoundException.class,
-                () -> itemController.getById(userId, nonExistingId),
+                () -> itemController.getById(userId, nonExistingId, null),
                 "Не выброшено исключение ObjectNotFoundException.");
     }
 
@@ -415,7 +415,7 @@ class ShareItTests {
         ItemDto updatedDescriptionItem = itemDto.toBuilder().description("rusty and old").build();
         itemController.update(userId, updatedDescriptionItem, itemDto.getId());
 
-        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId()));
+        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId(), null));
         assertThat(itemOptional).hasValueSatisfying(item -> assertThat(item)
                 .hasFieldOrPropertyWithValue("id", item.getId())
                 .hasFieldOrPropertyWithValue("description", "rusty and old")
@@ -434,7 +434,7 @@ class ShareItTests {
         ItemDto itemDto = itemController.create(userId, screwDriver);
         itemController.update(userId, onlyAvailable, itemDto.getId());
 
-        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId()));
+        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId(), null));
         assertThat(itemOptional).hasValueSatisfying(item -> assertThat(item)
                 .hasFieldOrPropertyWithValue("id", item.getId())
                 .hasFieldOrPropertyWithValue("description", "new")
@@ -453,7 +453,7 @@ class ShareItTests {
         ItemDto itemDto = itemController.create(userId, screwDriver);
         itemController.update(userId, onlyDescription, itemDto.getId());
 
-        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId()));
+        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId(), null));
         assertThat(itemOptional).hasValueSatisfying(item -> assertThat(item)
                 .hasFieldOrPropertyWithValue("id", item.getId())
                 .hasFieldOrPropertyWithValue("description", "patched description")
@@ -472,7 +472,7 @@ class ShareItTests {
         ItemDto itemDto = itemController.create(userId, screwDriver);
         itemController.update(userId, onlyName, itemDto.getId());
 
-        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId()));
+        Optional<ItemOutDto> itemOptional = Optional.ofNullable(itemController.getById(userId, itemDto.getId(), null));
         assertThat(itemOptional).hasValueSatisfying(item -> assertThat(item)
                 .hasFieldOrPropertyWithValue("id", item.getId())
                 .hasFieldOrPropertyWithValue("description", "new")
@@ -492,12 +492,12 @@ class ShareItTests {
         ItemOutDto itemOutDto = ItemMapper.toItemOutDto(itemDto);
         final Long userId = userDto.getId();
         final Long itemId = itemDto.getId();
-        List<ItemOutDto> listWithItem = itemController.getListByUser(userId);
+        List<ItemOutDto> listWithItem = itemController.getListByUser(userId, null);
         assertThat(listWithItem).asList().hasSize(1);
         assertThat(listWithItem).asList().contains(itemOutDto);
 
         itemController.delete(itemId);
-        List<ItemOutDto> list = itemController.getListByUser(userId);
+        List<ItemOutDto> list = itemController.getListByUser(userId, null);
         assertThat(list).asList().hasSize(0);
         assertThat(list).asList().isEmpty();
 
@@ -521,8 +521,8 @@ class ShareItTests {
         ItemOutDto item2OutDto = ItemMapper.toItemOutDto(item2Dto);
         ItemOutDto item3OutDto = ItemMapper.toItemOutDto(item3Dto);
 
-        List<ItemOutDto> listItems = itemController.getListByUser(user1Id);
-        List<ItemOutDto> list2Items = itemController.getListByUser(user4Id);
+        List<ItemOutDto> listItems = itemController.getListByUser(user1Id, null);
+        List<ItemOutDto> list2Items = itemController.getListByUser(user4Id, null);
 
         assertThat(listItems).asList().hasSize(2);
 
@@ -564,12 +564,12 @@ class ShareItTests {
         // получаем список доступных вещей, содержащих в названии или описании подстроку er без учета регистра
         // проверяем корректность полученных данных - 1 вещь,
 
-        List<ItemOutDto> listItems = itemController.searchItemsBySubstring("Er");
+        List<ItemOutDto> listItems = itemController.searchItemsBySubstring("Er", null);
 
         assertThat(listItems).asList().hasSize(1);
 
-        assertThat(listItems).asList().startsWith(itemController.getById(user1.getId(), item1Dto.getId()));
-        assertThat(listItems).asList().doesNotContain(itemController.getById(user1.getId(), item2Dto.getId()));
+        assertThat(listItems).asList().startsWith(itemController.getById(user1.getId(), item1Dto.getId(), null));
+        assertThat(listItems).asList().doesNotContain(itemController.getById(user1.getId(), item2Dto.getId(), null));
 
         assertThat(Optional.of(listItems.get(0))).hasValueSatisfying(
                 item -> AssertionsForClassTypes.assertThat(item)
@@ -577,11 +577,11 @@ class ShareItTests {
 
         // получаем список доступных вещей, содержащих в названии или описании подстроку er без учета регистра
         // проверяем корректность полученных данных - 2 вещи,
-        List<ItemOutDto> list2Items = itemController.searchItemsBySubstring("e");
+        List<ItemOutDto> list2Items = itemController.searchItemsBySubstring("e", null);
 
         assertThat(list2Items).asList().hasSize(2);
 
-        assertThat(list2Items).asList().contains(itemController.getById(user4.getId(), item3Dto.getId()));
+        assertThat(list2Items).asList().contains(itemController.getById(user4.getId(), item3Dto.getId(), null));
 
         assertThat(Optional.of(list2Items.get(0)))
                 .hasValueSatisfying(item -> AssertionsForClassTypes.assertThat(item)
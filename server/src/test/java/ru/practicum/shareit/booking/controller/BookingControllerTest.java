@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,22 +12,35 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ExportFormat;
+import ru.practicum.shareit.booking.service.BookingEventService;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.hot.HotItemTracker;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.etag.EntityTagService;
+import ru.practicum.shareit.util.idempotency.IdempotencyStore;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,6 +58,16 @@ public class BookingControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingEventService bookingEventService;
+    @MockBean
+    private BookingExportService bookingExportService;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+    @MockBean
+    private IdempotencyStore idempotencyStore;
 
     String header;
     MediaType jsonType;
@@ -187,6 +212,74 @@ public class BookingControllerTest {
         assertEquals(result, expectedBookingString);
     }
 
+    /**
+     * test getById method with the compact view
+     * GET-request "/bookings/{id}?view=compact"
+     * should return the booker's id and the item's id and name only
+     */
+    @SneakyThrows
+    @Test
+    public void getById_WhenViewIsCompact_ReturnCompactBooking() {
+
+        BookingOutDto bookingOut = BookingOutDto.builder()
+                .id(1L)
+                .status(BookingStatus.WAITING)
+                .booker(User.builder().id(2L).name("Olga").email("olga@yandex.ru").build())
+                .item(Item.builder().id(3L).name("bike").description("new")
+                        .owner(User.builder().id(userId).name("Alex").build()).build())
+                .build();
+
+        //mock service answer
+        when(bookingService.getById(userId, 1L)).thenReturn(bookingOut);
+
+        //perform tested request and check status and content
+        mockMvc.perform(get("/bookings/{id}", 1L)
+                        .header(header, userId)
+                        .param("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.status", is("WAITING")))
+                .andExpect(jsonPath("$.booker.id", is(2)))
+                .andExpect(jsonPath("$.booker.name").doesNotExist())
+                .andExpect(jsonPath("$.item.id", is(3)))
+                .andExpect(jsonPath("$.item.name", is("bike")))
+                .andExpect(jsonPath("$.item.owner").doesNotExist());
+    }
+
+    /**
+     * test getById method with the compact view and sparse fieldset
+     * GET-request "/bookings/{id}?view=compact&fields=id,item"
+     * should return the chosen properties of the compact view
+     */
+    @SneakyThrows
+    @Test
+    public void getById_WhenViewIsCompactAndFieldsAreChosen_ReturnChosenFields() {
+
+        BookingOutDto bookingOut = BookingOutDto.builder()
+                .id(1L)
+                .status(BookingStatus.WAITING)
+                .booker(User.builder().id(2L).name("Olga").email("olga@yandex.ru").build())
+                .item(Item.builder().id(3L).name("bike").description("new")
+                        .owner(User.builder().id(userId).name("Alex").build()).build())
+                .build();
+
+        //mock service answer
+        when(bookingService.getById(userId, 1L)).thenReturn(bookingOut);
+
+        //perform tested request and check status and content
+        mockMvc.perform(get("/bookings/{id}", 1L)
+                        .header(header, userId)
+                        .param("view", "compact")
+                        .param("fields", "id,item"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.item.name", is("bike")))
+                .andExpect(jsonPath("$.item.owner").doesNotExist())
+                .andExpect(jsonPath("$.status").doesNotExist())
+                .andExpect(jsonPath("$.booker").doesNotExist());
+    }
+
     /**
      * test update method
      * PATCH-request "/bookings/{bookingId}"
@@ -429,6 +522,179 @@ public class BookingControllerTest {
         assertEquals(result, expectedBookingsListString);
     }
 
+    /**
+     * test getSummaryByOwner method
+     * GET-request "/bookings/owner/summary"
+     * should return status ok
+     * should invoke service getSummaryByOwner method and return summary by state
+     */
+    @Test
+    @SneakyThrows
+    public void getSummaryByOwner_IsStatusOk_AndInvokeService() {
+
+        BookingOutDto booking = BookingOutDto.builder()
+                .id(1L)
+                .status(BookingStatus.WAITING)
+                .build();
+        Map<BookingState, BookingSummaryOutDto> summary = Map.of(
+                BookingState.ALL, BookingSummaryOutDto.builder().count(3L).bookings(List.of(booking)).build(),
+                BookingState.WAITING, BookingSummaryOutDto.builder().count(1L).bookings(List.of(booking)).build());
+
+        // mock service answer
+        when(bookingService.getSummaryByOwner(userId, 1)).thenReturn(summary);
+
+        //perform tested request and check status and content
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header(header, userId)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL.count", is(3)))
+                .andExpect(jsonPath("$.ALL.bookings", hasSize(1)))
+                .andExpect(jsonPath("$.WAITING.count", is(1)))
+                .andExpect(jsonPath("$.WAITING.bookings.[0].id", is(1)));
+
+        // verify invokes
+        verify(bookingService).getSummaryByOwner(userId, 1);
+    }
+
+    /**
+     * test export method
+     * GET-request "/bookings/owner/export"
+     * should return status ok, content type of the format and the file name
+     * should invoke service export method and stream its rows
+     */
+    @Test
+    @SneakyThrows
+    public void export_IsStatusOk_AndStreamsServiceRows() {
+
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+
+        // mock service answer
+        when(bookingExportService.export(userId, ExportFormat.NDJSON)).thenReturn(body);
+
+        //perform tested request and check status and content
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(header, userId)
+                        .param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookings.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        // verify invokes
+        verify(bookingExportService).export(userId, ExportFormat.NDJSON);
+    }
+
+    /**
+     * test getListByBooker and getSummaryByOwner methods with the compact view chosen by Accept header
+     * GET-requests "/bookings" and "/bookings/owner/summary" with Accept: application/json;profile=compact
+     * should return compact bookings with the profile in the content type
+     */
+    @Test
+    @SneakyThrows
+    public void getLists_WhenAcceptProfileIsCompact_ReturnCompactBookings() {
+
+        BookingOutDto booking = BookingOutDto.builder()
+                .id(1L)
+                .status(BookingStatus.APPROVED)
+                .booker(User.builder().id(2L).name("Olga").build())
+                .item(Item.builder().id(3L).name("bike").owner(User.builder().id(userId).build()).build())
+                .build();
+        MediaType compact = MediaType.parseMediaType("application/json;profile=compact");
+
+        // mock service answer
+        when(bookingService.getListByBooker(2L, BookingState.ALL, 0, 10)).thenReturn(List.of(booking));
+        when(bookingService.getSummaryByOwner(userId, 10)).thenReturn(Map.of(BookingState.ALL,
+                BookingSummaryOutDto.builder().count(1L).bookings(List.of(booking)).build()));
+
+        //perform tested request and check status and content
+        mockMvc.perform(get("/bookings")
+                        .header(header, 2L)
+                        .param("state", "ALL")
+                        .accept(compact))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(compact))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].booker.id", is(2)))
+                .andExpect(jsonPath("$[0].booker.name").doesNotExist())
+                .andExpect(jsonPath("$[0].item.name", is("bike")))
+                .andExpect(jsonPath("$[0].item.owner").doesNotExist());
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header(header, userId)
+                        .accept(compact))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL.count", is(1)))
+                .andExpect(jsonPath("$.ALL.bookings[0].item.name", is("bike")))
+                .andExpect(jsonPath("$.ALL.bookings[0].item.owner").doesNotExist());
+    }
+
+    /**
+     * test create and getListByBooker methods with Smile (gateway's encoding)
+     * POST-request "/bookings" with Smile body, GET-request "/bookings" with
+     * Accept: application/x-jackson-smile;profile=compact and "fields" parameter
+     * should read Smile body and return the chosen properties of compact bookings in Smile
+     */
+    @Test
+    @SneakyThrows
+    public void createAndGetList_WhenEncodingIsSmile_ReadAndWriteSmile() {
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        MediaType compactSmile = MediaType.parseMediaType("application/x-jackson-smile;profile=compact");
+        BookingDto bookingIn = BookingDto.builder()
+                .itemId(3L)
+                .start(LocalDateTime.of(2024, 1, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2024, 2, 1, 1, 1, 1))
+                .build();
+        BookingOutDto booking = BookingOutDto.builder()
+                .id(1L)
+                .start(bookingIn.getStart())
+                .end(bookingIn.getEnd())
+                .status(BookingStatus.WAITING)
+                .booker(User.builder().id(2L).name("Olga").build())
+                .item(Item.builder().id(3L).name("bike").owner(User.builder().id(userId).build()).build())
+                .build();
+
+        // mock service answer
+        when(bookingService.create(2L, bookingIn)).thenReturn(booking);
+        when(bookingService.getListByBooker(2L, BookingState.ALL, 0, 10)).thenReturn(List.of(booking));
+
+        //perform tested requests and check status and content
+        MvcResult created = mockMvc.perform(post("/bookings")
+                        .header(header, 2L)
+                        .contentType(smile)
+                        .accept(smile, jsonType)
+                        .content(smileMapper.writeValueAsBytes(objectMapper.readTree(
+                                objectMapper.writeValueAsString(bookingIn)))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn();
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(booking)),
+                smileMapper.readTree(created.getResponse().getContentAsByteArray()));
+
+        MvcResult list = mockMvc.perform(get("/bookings")
+                        .header(header, 2L)
+                        .param("state", "ALL")
+                        .param("fields", "id,item")
+                        .accept(compactSmile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(compactSmile))
+                .andReturn();
+        JsonNode bookings = smileMapper.readTree(list.getResponse().getContentAsByteArray());
+        assertEquals(1, bookings.size());
+        assertEquals(1, bookings.get(0).get("id").asInt());
+        assertEquals("bike", bookings.get(0).get("item").get("name").asText());
+        assertNull(bookings.get(0).get("item").get("owner"));
+        assertNull(bookings.get(0).get("status"));
+
+        // verify invokes
+        verify(bookingService).create(2L, bookingIn);
+    }
+
     /**
      * test getListByBooker method
      * GET-request "/bookings"
@@ -507,5 +773,24 @@ public class BookingControllerTest {
         assertEquals(result, expectedBookingsListString);
     }
 
+    /**
+     * test subscribe method
+     * GET-request "/bookings/events" accepting event stream
+     * should start asynchronous processing
+     * should invoke service subscribe method
+     */
+    @Test
+    @SneakyThrows
+    public void subscribe_AsyncStarted_AndInvokeService() {
+
+        when(bookingEventService.subscribe(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/bookings/events")
+                        .header(header, userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingEventService).subscribe(userId);
+    }
 
 }
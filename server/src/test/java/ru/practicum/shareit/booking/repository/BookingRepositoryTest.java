@@ -113,6 +113,22 @@ public class BookingRepositoryTest {
                 .endsWith(past);
     }
 
+    /**
+     * should find ALL bookings by OWNER's id without paging, sorting by start value, starting with new
+     */
+    @Test
+    public void findAllByOwnerIdWithItemAndBooker() {
+
+        List<Booking> result = bookingRepository.findAllByOwnerIdWithItemAndBooker(ownerId);
+
+        AssertionsForClassTypes.assertThat(result).asList()
+                .hasSize(5)
+                .startsWith(approved)
+                .endsWith(past);
+        AssertionsForClassTypes.assertThat(bookingRepository.findAllByOwnerIdWithItemAndBooker(bookerId)).asList()
+                .isEmpty();
+    }
+
     /**
      * should find PAST bookings by OWNER's id, sorting by start value, starting with new
      */
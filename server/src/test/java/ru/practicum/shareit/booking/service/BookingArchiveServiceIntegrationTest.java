@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.fields.FieldSet;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * BookingArchiveService Integration tests
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-archive",
+        "shareit.bookings.archive.horizon-days=30"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingArchiveServiceIntegrationTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingArchiveService bookingArchiveService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * test archive method
+     * when bookings ended before the horizon
+     * then they are moved to the archive and are still listed, found and used as last booking
+     */
+    @Test
+    public void shouldMoveFinishedBookingsToArchive_andReadThemWhenPageReachesArchive() {
+
+        UserDto owner = userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("new").available(true).build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingOutDto old = create(booker, item, now.minusYears(2));
+        BookingOutDto older = create(booker, item, now.minusYears(3));
+        BookingOutDto recent = create(booker, item, now.minusDays(2));
+        BookingOutDto future = create(booker, item, now.plusDays(2));
+        bookingService.updateStatus(old.getId(), owner.getId(), true);
+
+        assertNull(bookingArchiveService.getWatermark());
+        bookingArchiveService.archive();
+
+        assertEquals(2, bookingRepository.count());
+        assertEquals(2, archivedBookingRepository.count());
+        assertEquals(old.getStart(), bookingArchiveService.getWatermark());
+
+        assertEquals(List.of(future.getId(), recent.getId()),
+                ids(bookingService.getListByBooker(booker.getId(), BookingState.ALL, 0, 2)));
+        assertEquals(List.of(old.getId(), older.getId()),
+                ids(bookingService.getListByBooker(booker.getId(), BookingState.ALL, 2, 2)));
+        assertEquals(List.of(recent.getId(), old.getId(), older.getId()),
+                ids(bookingService.getListByOwner(owner.getId(), BookingState.PAST, 0, 10)));
+        assertEquals(List.of(older.getId()),
+                ids(bookingService.getListByOwner(owner.getId(), BookingState.WAITING, 2, 2)));
+        assertEquals(old.getId(), bookingService.getById(booker.getId(), old.getId()).getId());
+        assertEquals(4L, bookingService.getSummaryByOwner(owner.getId(), 1).get(BookingState.ALL).getCount());
+
+        ItemOutDto itemOutDto = itemService.getById(owner.getId(), item.getId(), FieldSet.ALL);
+        assertEquals(old.getId(), itemOutDto.getLastBooking().getId());
+        assertEquals("good", itemService.addComment(CommentDto.builder().text("good").build(),
+                booker.getId(), item.getId()).getText());
+    }
+
+    /**
+     * test reading of the archive
+     * when bookings are archived by another instance and this one's watermark is stale
+     * then they are still listed, found and summarized
+     */
+    @Test
+    public void shouldReadBookingsArchivedByAnotherInstance() {
+
+        UserDto owner = userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("new").available(true).build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingOutDto old = create(booker, item, now.minusYears(2));
+        BookingOutDto recent = create(booker, item, now.minusDays(2));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Long> ids = bookingRepository.findIdsByEndIsBefore(now.minusDays(30), PageRequest.of(0, 10));
+            archivedBookingRepository.copyFromBookings(ids);
+            bookingRepository.deleteAllByIdIn(ids);
+        });
+
+        assertNull(bookingArchiveService.getWatermark());
+        assertEquals(List.of(recent.getId(), old.getId()),
+                ids(bookingService.getListByBooker(booker.getId(), BookingState.ALL, 0, 10)));
+        assertEquals(List.of(old.getId()),
+                ids(bookingService.getListByOwner(owner.getId(), BookingState.ALL, 1, 1)));
+        assertEquals(old.getId(), bookingService.getById(booker.getId(), old.getId()).getId());
+        assertEquals(2L, bookingService.getSummaryByOwner(owner.getId(), 1).get(BookingState.ALL).getCount());
+
+        bookingArchiveService.archive();
+        assertEquals(old.getStart(), bookingArchiveService.getWatermark());
+    }
+
+    private BookingOutDto create(UserDto booker, ItemDto item, LocalDateTime start) {
+        return bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
+    private List<Long> ids(List<BookingOutDto> bookings) {
+        return bookings.stream().map(BookingOutDto::getId).collect(Collectors.toList());
+    }
+}
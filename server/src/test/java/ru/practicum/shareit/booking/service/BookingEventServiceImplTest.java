@@ -0,0 +1,234 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.item.hot.HotItemTracker;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.etag.EntityTagService;
+import ru.practicum.shareit.util.idempotency.IdempotencyStore;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.config.AsyncConfig.SSE_EXECUTOR;
+
+/**
+ * BookingEventServiceImpl tests: events are written to the streams opened via BookingController
+ */
+@WebMvcTest(controllers = BookingController.class)
+@Import({BookingEventServiceImpl.class, BookingEventServiceImplTest.SyncExecutorConfig.class})
+public class BookingEventServiceImplTest {
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingEventService bookingEventService;
+    @MockBean
+    private BookingService bookingService;
+    @MockBean
+    private BookingExportService bookingExportService;
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private BookingEventRepository bookingEventRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ObjectProvider<ShardRouter> shardRouter;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    User owner;
+    User booker;
+    BookingOutDto booking;
+    List<BookingEvent> written;
+
+    @TestConfiguration
+    static class SyncExecutorConfig {
+        @Bean(SSE_EXECUTOR)
+        TaskExecutor sseExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    /**
+     * create data for tests
+     */
+    @BeforeEach
+    void before() {
+        owner = User.builder().id(1L).name("Olga").email("Olga@yandex.ru").build();
+        booker = User.builder().id(2L).name("Alex").email("Alex@yandex.ru").build();
+        Item item = Item.builder().id(1L).name("bike").description("new").available(true).owner(owner).build();
+        booking = BookingOutDto.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        // booking_events shared by the instances, ids are unique within the context shared by the tests
+        written = new ArrayList<>();
+        when(bookingEventRepository.save(any())).thenAnswer(invocation -> {
+            BookingEvent event = invocation.getArgument(0, BookingEvent.class).toBuilder()
+                    .id(IDS.incrementAndGet())
+                    .build();
+            written.add(event);
+            return event;
+        });
+        when(bookingEventRepository.findAllByCreatedGreaterThanEqualOrderByIdAsc(any()))
+                .thenAnswer(invocation -> written.stream()
+                        .filter(event -> !event.getCreated().isBefore(invocation.getArgument(0)))
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * subscribe, onBookingChanged and pollEvents methods test
+     * when booker is subscribed
+     * then changed booking is pushed to booker's stream once
+     */
+    @SneakyThrows
+    @Test
+    void onBookingChanged_whenBookerSubscribed_thenBookingIsPushedOnce() {
+
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
+        MvcResult result = subscribe(booker.getId());
+
+        bookingEventService.onBookingChanged(new BookingChangedEvent(booking, owner.getId()));
+        bookingEventService.pollEvents();
+        bookingEventService.pollEvents();
+
+        String stream = result.getResponse().getContentAsString();
+        assertThat(stream, containsString(":connected"));
+        assertThat(stream, containsString("event:booking"));
+        assertThat(stream, containsString("\"status\":\"APPROVED\""));
+        assertEquals(1, stream.split("event:booking", -1).length - 1);
+    }
+
+    /**
+     * onBookingChanged and pollEvents methods test
+     * when owner is subscribed to this instance and booking is changed by another instance
+     * then changed booking is pushed to owner's stream
+     */
+    @SneakyThrows
+    @Test
+    void pollEvents_whenBookingChangedByOtherInstance_thenBookingIsPushed() {
+
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        MvcResult result = subscribe(owner.getId());
+        BookingEventService otherInstance = new BookingEventServiceImpl(userRepository, bookingEventRepository,
+                objectMapper, new SyncTaskExecutor(), shardRouter, 60000, 32, 10000);
+
+        otherInstance.onBookingChanged(new BookingChangedEvent(booking, owner.getId()));
+        bookingEventService.pollEvents();
+
+        assertThat(result.getResponse().getContentAsString(), containsString("event:booking"));
+        assertEquals(owner.getId(), written.get(0).getOwnerId());
+        assertEquals(booker.getId(), written.get(0).getBookerId());
+    }
+
+    /**
+     * onBookingChanged and pollEvents methods test
+     * when subscribed user is neither booker nor owner
+     * then booking is not pushed to user's stream
+     */
+    @SneakyThrows
+    @Test
+    void onBookingChanged_whenOtherUserSubscribed_thenBookingIsNotPushed() {
+
+        Long otherUserId = 3L;
+        when(userRepository.existsById(otherUserId)).thenReturn(true);
+        MvcResult result = subscribe(otherUserId);
+
+        bookingEventService.onBookingChanged(new BookingChangedEvent(booking, owner.getId()));
+        bookingEventService.pollEvents();
+
+        assertThat(result.getResponse().getContentAsString(), not(containsString("event:booking")));
+    }
+
+    /**
+     * sendHeartbeat method test
+     * when owner is subscribed
+     * then heartbeat comment is written to owner's stream
+     */
+    @SneakyThrows
+    @Test
+    void sendHeartbeat_whenOwnerSubscribed_thenHeartbeatIsWritten() {
+
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        MvcResult result = subscribe(owner.getId());
+
+        bookingEventService.sendHeartbeat();
+
+        assertThat(result.getResponse().getContentAsString(), containsString(":heartbeat"));
+    }
+
+    /**
+     * subscribe method test
+     * when user doesn't exist
+     * then status is not found
+     */
+    @SneakyThrows
+    @Test
+    void subscribe_whenUserNotFound_thenStatusIsNotFound() {
+
+        when(userRepository.existsById(owner.getId())).thenReturn(false);
+
+        mockMvc.perform(get("/bookings/events")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    private MvcResult subscribe(Long userId) {
+        return mockMvc.perform(get("/bookings/events")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BookingEventService Integration tests
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-booking-events")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingEventServiceIntegrationTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingEventService bookingEventService;
+    @Autowired
+    BookingEventRepository bookingEventRepository;
+
+    /**
+     * test onBookingChanged and deleteExpiredEvents methods
+     * when booking is created and approved
+     * then both changes are written for the booker and the owner, and are kept within the poll window
+     */
+    @Test
+    public void shouldWriteBookingChanges_andKeepThemWithinPollWindow() {
+
+        UserDto owner = userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("new").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingOutDto booking = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+        bookingService.updateStatus(booking.getId(), owner.getId(), true);
+
+        bookingEventService.deleteExpiredEvents();
+
+        List<BookingEvent> events = bookingEventRepository.findAllByCreatedGreaterThanEqualOrderByIdAsc(
+                LocalDateTime.now().minusMinutes(1));
+        assertEquals(2, events.size());
+        for (BookingEvent event : events) {
+            assertEquals(booking.getId(), event.getBookingId());
+            assertEquals(booker.getId(), event.getBookerId());
+            assertEquals(owner.getId(), event.getOwnerId());
+        }
+    }
+}
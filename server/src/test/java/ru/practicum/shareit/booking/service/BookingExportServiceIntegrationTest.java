@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.ExportFormat;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * BookingExportService Integration tests
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-export",
+        "shareit.bookings.archive.horizon-days=30"})
+@DirtiesContext
+public class BookingExportServiceIntegrationTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingArchiveService bookingArchiveService;
+    @Autowired
+    BookingExportService bookingExportService;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    /**
+     * test export method
+     * when the owner has hot and archived bookings
+     * then all of them are written, hot bookings first, in csv and in ndjson
+     */
+    @Test
+    @SneakyThrows
+    public void shouldExportHotAndArchivedBookings() {
+
+        UserDto owner = userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike, \"red\"").description("new").available(true).build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingOutDto old = create(booker, item, now.minusYears(2));
+        BookingOutDto recent = create(booker, item, now.minusDays(2));
+        bookingService.updateStatus(old.getId(), owner.getId(), true);
+        bookingArchiveService.archive();
+
+        String csv = export(owner.getId(), ExportFormat.CSV);
+        assertEquals(List.of(
+                "id,start,end,status,item_id,item_name,booker_id,booker_name",
+                recent.getId() + "," + format(recent.getStart()) + "," + format(recent.getEnd()) + ",WAITING,"
+                        + item.getId() + ",\"bike, \"\"red\"\"\"," + booker.getId() + ",Olga",
+                old.getId() + "," + format(old.getStart()) + "," + format(old.getEnd()) + ",APPROVED,"
+                        + item.getId() + ",\"bike, \"\"red\"\"\"," + booker.getId() + ",Olga"),
+                csv.lines().collect(Collectors.toList()));
+
+        List<String> ndjson = export(owner.getId(), ExportFormat.NDJSON).lines()
+                .collect(Collectors.toList());
+        assertEquals(2, ndjson.size());
+        JsonNode row = objectMapper.readTree(ndjson.get(1));
+        assertEquals(old.getId(), row.get("id").asLong());
+        assertEquals("APPROVED", row.get("status").asText());
+        assertEquals("bike, \"red\"", row.get("itemName").asText());
+        assertEquals(booker.getId(), row.get("bookerId").asLong());
+    }
+
+    /**
+     * test export method
+     * when user doesn't exist
+     * then ObjectNotFoundException is thrown before the response is started
+     */
+    @Test
+    public void shouldFailExportOfUnknownOwner() {
+        assertThrows(ObjectNotFoundException.class, () -> bookingExportService.export(999L, ExportFormat.CSV));
+    }
+
+    private BookingOutDto create(UserDto booker, ItemDto item, LocalDateTime start) {
+        return bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
+    private String format(LocalDateTime time) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time);
+    }
+
+    @SneakyThrows
+    private String export(Long ownerId, ExportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExportService.export(ownerId, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -7,14 +7,18 @@ import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -24,6 +28,7 @@ import ru.practicum.shareit.util.exceptions.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -46,6 +51,12 @@ public class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingArchiveService bookingArchiveService;
 
 
     /**
@@ -120,6 +131,7 @@ public class BookingServiceImplTest {
         inOrder.verify(itemRepository).findById(itemId);
         inOrder.verify(userRepository).findById(bookerId);
         inOrder.verify(bookingRepository).save(booking);
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(expectedBooking, ownerId));
 
         //test result
         assertEquals(result, expectedBooking);
@@ -623,6 +635,7 @@ public class BookingServiceImplTest {
         inOrder.verify(userRepository).existsById(ownerId);
         inOrder.verify(bookingRepository).findById(bookingId);
         inOrder.verify(bookingRepository).save(approvedBooking);
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(expectedBooking, ownerId));
 
         //test result
         assertEquals(result, expectedBooking);
@@ -1824,4 +1837,68 @@ public class BookingServiceImplTest {
         verifyNoInteractions(bookingRepository);
     }
 
+    /**
+     * test getSummaryByOwner
+     * when user exists
+     * invoke findAllByOwnerIdWithItemAndBooker repository method once
+     * return counts and first pages of bookings partitioned by state
+     */
+    @Test
+    public void getSummaryByOwner_whenUserExists_readBookingsOnce_andPartitionByState() {
+
+        //create ownerId
+        Long ownerId = 1L;
+
+        // create list of bookings sorted by start in descending order
+        LocalDateTime now = LocalDateTime.now();
+        Booking future = Booking.builder().id(1L).status(BookingStatus.WAITING)
+                .start(now.plusDays(2)).end(now.plusDays(3)).build();
+        Booking current = Booking.builder().id(2L).status(BookingStatus.APPROVED)
+                .start(now.minusDays(1)).end(now.plusDays(1)).build();
+        Booking past = Booking.builder().id(3L).status(BookingStatus.REJECTED)
+                .start(now.minusDays(3)).end(now.minusDays(2)).build();
+        Booking canceled = Booking.builder().id(4L).status(BookingStatus.CANCELED)
+                .start(now.minusDays(5)).end(now.minusDays(4)).build();
+
+        //mock repository answer
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdWithItemAndBooker(ownerId))
+                .thenReturn(List.of(future, current, past, canceled));
+
+        //invoke tested method
+        Map<BookingState, BookingSummaryOutDto> result = bookingService.getSummaryByOwner(ownerId, 1);
+
+        //verify repositories' invokes
+        verify(bookingRepository, times(1)).findAllByOwnerIdWithItemAndBooker(ownerId);
+        verifyNoMoreInteractions(bookingRepository);
+
+        //check result
+        assertEquals(BookingState.values().length, result.size());
+        assertEquals(4L, result.get(BookingState.ALL).getCount());
+        assertEquals(List.of(BookingMapper.toBookingOutDto(future)), result.get(BookingState.ALL).getBookings());
+        assertEquals(1L, result.get(BookingState.CURRENT).getCount());
+        assertEquals(List.of(BookingMapper.toBookingOutDto(current)),
+                result.get(BookingState.CURRENT).getBookings());
+        assertEquals(2L, result.get(BookingState.PAST).getCount());
+        assertEquals(List.of(BookingMapper.toBookingOutDto(past)), result.get(BookingState.PAST).getBookings());
+        assertEquals(1L, result.get(BookingState.FUTURE).getCount());
+        assertEquals(1L, result.get(BookingState.WAITING).getCount());
+        assertEquals(2L, result.get(BookingState.REJECTED).getCount());
+    }
+
+    /**
+     * test getSummaryByOwner
+     * when user doesn't exist
+     * throw ObjectNotFoundException
+     */
+    @Test
+    public void getSummaryByOwner_whenUserNotExists_throwObjectNotFoundException() {
+
+        Long ownerId = 1L;
+        when(userRepository.existsById(ownerId)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> bookingService.getSummaryByOwner(ownerId, 10));
+        verifyNoInteractions(bookingRepository);
+    }
+
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BookingService Integration tests on the cached owner's summary
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-summary",
+        "shareit.bookings.summary.cache-ttl-ms=600000"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingSummaryCacheIntegrationTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * test getSummaryByOwner method
+     * when summary is read concurrently with creating the booking, before the booking is committed
+     * then summary read after the commit contains the booking
+     */
+    @Test
+    public void shouldNotServeSummaryReadBeforeCommit_afterBookingIsCreated() {
+
+        UserDto owner = userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("new").available(true).build());
+        assertEquals(0L, count(owner));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            create(booker, item);
+            assertEquals(0L, CompletableFuture.supplyAsync(() -> count(owner)).orTimeout(10, TimeUnit.SECONDS).join());
+        });
+
+        assertEquals(1L, count(owner));
+    }
+
+    /**
+     * test getSummaryByOwner method
+     * when summary is cached and the owner approves the booking
+     * then summary read after the approval contains the approved booking
+     */
+    @Test
+    public void shouldEvictCachedSummary_afterBookingIsApproved() {
+
+        UserDto owner = userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("new").available(true).build());
+        Long bookingId = create(booker, item);
+        assertEquals(1L, bookingService.getSummaryByOwner(owner.getId(), 10)
+                .get(BookingState.WAITING).getCount());
+
+        bookingService.updateStatus(bookingId, owner.getId(), true);
+
+        assertEquals(0L, bookingService.getSummaryByOwner(owner.getId(), 10)
+                .get(BookingState.WAITING).getCount());
+    }
+
+    private Long create(UserDto booker, ItemDto item) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build()).getId();
+    }
+
+    private Long count(UserDto owner) {
+        return bookingService.getSummaryByOwner(owner.getId(), 10).get(BookingState.ALL).getCount();
+    }
+}
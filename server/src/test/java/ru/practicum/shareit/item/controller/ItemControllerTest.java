@@ -8,16 +8,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.CommentPageOutDto;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupOutDto;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.hot.HotItemTracker;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemRanking;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.etag.EntityTagService;
+import ru.practicum.shareit.util.fields.FieldSet;
+import ru.practicum.shareit.util.idempotency.IdempotencyStore;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -42,6 +51,12 @@ public class ItemControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+    @MockBean
+    private IdempotencyStore idempotencyStore;
 
     Long itemId;
     Long userId;
@@ -115,6 +130,7 @@ public class ItemControllerTest {
      * GET-request "/items/{itemId}"
      * should return status ok
      * should invoke service getById method and return result
+     * should return the item's tag for the next conditional request
      */
     @SneakyThrows
     @Test
@@ -133,25 +149,114 @@ public class ItemControllerTest {
         // map item into String
         String expectedItemString = objectMapper.writeValueAsString(item);
 
-        //mock service answer
-        when(itemService.getById(userId, itemId)).thenReturn(item);
+        //mock services answers
+        when(itemService.getById(userId, itemId, FieldSet.ALL)).thenReturn(item);
+        when(entityTagService.getItemTag(userId, itemId)).thenReturn("\"item-1-0-0-0\"");
 
-        //perform request and check status and content
+        //perform request and check status, header and content
         String result = mockMvc.perform(get("/items/{itemId}", itemId)
                         .header(header, userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-1-0-0-0\""))
                 .andExpect(content().json(expectedItemString))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         // verify invokes
-        verify(itemService).getById(userId, itemId);
+        verify(itemService).getById(userId, itemId, FieldSet.ALL);
 
         //check result
         assertEquals(result, expectedItemString);
     }
 
+    /**
+     * test getById method with current item's tag
+     * GET-request "/items/{itemId}" with If-None-Match header
+     * should return status not modified
+     * should not invoke service getById method and should record the read of the item
+     */
+    @SneakyThrows
+    @Test
+    public void getById_WhenTagMatches_statusIsNotModified_andNotInvokeService() {
+
+        //mock tag service answer
+        when(entityTagService.getItemTag(userId, itemId)).thenReturn("\"item-1-0-0-0\"");
+
+        //perform request and check status, header and content
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(header, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-1-0-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-1-0-0-0\""))
+                .andExpect(content().string(""));
+
+        // verify invokes
+        verify(itemService, never()).getById(anyLong(), anyLong(), any());
+        verify(hotItemTracker).record(itemId);
+    }
+
+    /**
+     * test getById method with outdated item's tag
+     * GET-request "/items/{itemId}" with If-None-Match header
+     * should return status ok with the current tag
+     * should invoke service getById method and should record the read of the item
+     */
+    @SneakyThrows
+    @Test
+    public void getById_WhenTagIsOutdated_statusIsOk_andInvokeService() {
+
+        ItemOutDto item = ItemOutDto.builder().id(itemId).name("Item").description("description")
+                .available(true).build();
+
+        //mock services answers
+        when(entityTagService.getItemTag(userId, itemId)).thenReturn("\"item-1-1-0-0\"");
+        when(itemService.getById(userId, itemId, FieldSet.ALL)).thenReturn(item);
+
+        //perform request and check status, header and content
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(header, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-1-0-0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-1-1-0-0\""))
+                .andExpect(jsonPath("$.id", is(itemId), Long.class));
+
+        // verify invokes
+        verify(itemService).getById(userId, itemId, FieldSet.ALL);
+        verify(hotItemTracker).record(itemId);
+    }
+
+    /**
+     * test getTop method
+     * GET-request "/items/top"
+     * should return status ok
+     * should invoke service getTop method with the ranking and size
+     */
+    @SneakyThrows
+    @Test
+    public void getTop_statusIsOk_andInvokeService() {
+
+        ItemOutDto item = ItemOutDto.builder().id(itemId).name("Item").description("description")
+                .available(true).counters(new ItemCountersDto(3L, 2L, 1L)).build();
+
+        //mock service answer
+        when(itemService.getTop(ItemRanking.APPROVALS, 5)).thenReturn(List.of(item));
+
+        //perform request and check status and content
+        mockMvc.perform(get("/items/top")
+                        .param("by", "APPROVALS")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].id", is(itemId), Long.class))
+                .andExpect(jsonPath("$.[0].counters.bookings", is(3)))
+                .andExpect(jsonPath("$.[0].counters.approvals", is(2)))
+                .andExpect(jsonPath("$.[0].counters.comments", is(1)));
+
+        // verify invokes
+        verify(itemService).getTop(ItemRanking.APPROVALS, 5);
+    }
+
     /**
      * test update method
      * PATCH-request "/items/{itemId}"
@@ -212,6 +317,56 @@ public class ItemControllerTest {
 
     }
 
+    /**
+     * test getListByUser method with sparse fieldset
+     * GET-request "/items?fields=id,name"
+     * should pass the fieldset to the service
+     * should write only chosen properties of the items
+     */
+    @SneakyThrows
+    @Test
+    public void getListByUser_WhenFieldsAreChosen_WriteChosenFields() {
+
+        ItemOutDto item = ItemOutDto.builder()
+                .id(itemId)
+                .name("bike")
+                .description("description")
+                .available(true)
+                .comments(List.of())
+                .build();
+        FieldSet fields = FieldSet.of("id,name");
+        when(itemService.getListByUser(userId, fields)).thenReturn(List.of(item));
+
+        mockMvc.perform(get("/items")
+                        .header(header, userId)
+                        .param("fields", "id, name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemId), Long.class))
+                .andExpect(jsonPath("$[0].name", is("bike")))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].comments").doesNotExist());
+
+        verify(itemService).getListByUser(userId, fields);
+    }
+
+    /**
+     * test getListByUser method with malformed fieldset
+     * GET-request "/items?fields=id,,name"
+     * should return status bad request
+     * should not invoke service
+     */
+    @SneakyThrows
+    @Test
+    public void getListByUser_WhenFieldsAreMalformed_StatusIsBadRequest() {
+
+        mockMvc.perform(get("/items")
+                        .header(header, userId)
+                        .param("fields", "id,,name"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getListByUser(anyLong(), any());
+    }
+
     /**
      * test getListByUser method
      * GET-request "/items"
@@ -246,7 +401,7 @@ public class ItemControllerTest {
         String expectedItemsListString = objectMapper.writeValueAsString(items);
 
         //mock service answer
-        when(itemService.getListByUser(userId)).thenReturn(items);
+        when(itemService.getListByUser(userId, FieldSet.ALL)).thenReturn(items);
 
         //perform request and check status and content
         String result = mockMvc.perform(get("/items")
@@ -261,7 +416,7 @@ public class ItemControllerTest {
                 .getContentAsString();
 
         // verify invokes
-        verify(itemService).getListByUser(userId);
+        verify(itemService).getListByUser(userId, FieldSet.ALL);
 
         //check result
         assertEquals(result, expectedItemsListString);
@@ -305,7 +460,7 @@ public class ItemControllerTest {
         String itemsString = objectMapper.writeValueAsString(items);
 
         //mock service answer
-        when(itemService.searchItemsBySubstring(parameterValue)).thenReturn(items);
+        when(itemService.searchItemsBySubstring(parameterValue, FieldSet.ALL)).thenReturn(items);
 
         //perform request and check status and content
         String result = mockMvc.perform(get("/items/search")
@@ -318,7 +473,7 @@ public class ItemControllerTest {
                 .getContentAsString();
 
         // verify invokes
-        verify(itemService).searchItemsBySubstring(parameterValue);
+        verify(itemService).searchItemsBySubstring(parameterValue, FieldSet.ALL);
 
         //check result
         assertEquals(result, itemsString);
@@ -371,4 +526,78 @@ public class ItemControllerTest {
         assertEquals(result, expectedCommentString);
     }
 
+    /**
+     * test getComments method
+     * GET-request "/items/{itemId}/comments" with cursor and size
+     * should return status ok
+     * should invoke service getComments method and return page with the next cursor
+     */
+    @Test
+    @SneakyThrows
+    public void getComments_isStatusOk_andInvokeService() {
+
+        CommentOutDto comment = CommentOutDto.builder()
+                .id(5L)
+                .text("commentText")
+                .authorName("Olga")
+                .itemId(itemId)
+                .build();
+        CommentPageOutDto page = new CommentPageOutDto(List.of(comment), 5L);
+
+        //mock service answer
+        when(itemService.getComments(itemId, 9L, 1)).thenReturn(page);
+
+        //perform request and check status and content
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .param("cursor", "9")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(1)))
+                .andExpect(jsonPath("$.comments[0].id", is(5)))
+                .andExpect(jsonPath("$.nextCursor", is(5)));
+
+        // verify invokes
+        verify(itemService).getComments(itemId, 9L, 1);
+    }
+
+    /**
+     * test getByIds and lookup methods
+     * GET-request "/items?ids=" and POST-request "/items/lookup" with the list of ids
+     * should return status ok
+     * should invoke service getByIds method and return items with missing ids
+     */
+    @Test
+    @SneakyThrows
+    public void getByIds_andLookup_isStatusOk_andInvokeService() {
+
+        ItemOutDto item = ItemOutDto.builder()
+                .id(itemId)
+                .name("bike")
+                .build();
+        ItemLookupOutDto lookup = new ItemLookupOutDto(List.of(item), List.of(7L));
+
+        //mock service answer
+        when(itemService.getByIds(userId, List.of(itemId, 7L), FieldSet.ALL)).thenReturn(lookup);
+
+        //perform requests and check status and content
+        mockMvc.perform(get("/items")
+                        .header(header, userId)
+                        .param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("bike")))
+                .andExpect(jsonPath("$.missing[0]", is(7)));
+        mockMvc.perform(post("/items/lookup")
+                        .header(header, userId)
+                        .content("[1,7]")
+                        .contentType(jsonType))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.missing[0]", is(7)));
+
+        // verify invokes
+        verify(itemService, times(2)).getByIds(userId, List.of(itemId, 7L), FieldSet.ALL);
+        verify(itemService, never()).getListByUser(any(), any());
+    }
+
 }
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.hot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HotItemTracker and CountMinSketch tests
+ */
+public class HotItemTrackerTest {
+
+    @Test
+    public void estimate_isNeverLessThanRealCount() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (long key = 1; key <= 1000; key++) {
+            sketch.add(key, key % 10);
+        }
+
+        for (long key = 1; key <= 1000; key++) {
+            assertTrue(sketch.estimate(key) >= key % 10);
+        }
+    }
+
+    @Test
+    public void halve_halvesCounts() {
+        CountMinSketch sketch = new CountMinSketch(2, 1024);
+        sketch.add(7L, 10);
+
+        sketch.halve();
+
+        assertEquals(5L, sketch.estimate(7L));
+    }
+
+    @Test
+    public void getHotItems_returnsMostReadItemsStartingWithMostRead() {
+        HotItemTracker tracker = new HotItemTracker(3, 4, 1024);
+        for (long itemId = 1; itemId <= 50; itemId++) {
+            tracker.record(itemId);
+        }
+        for (int i = 0; i < 100; i++) {
+            tracker.record(10L);
+        }
+        for (int i = 0; i < 50; i++) {
+            tracker.record(20L);
+        }
+        for (int i = 0; i < 25; i++) {
+            tracker.record(30L);
+        }
+
+        List<HotItemDto> hotItems = tracker.getHotItems();
+
+        assertEquals(List.of(10L, 20L, 30L), hotItems.stream()
+                .map(HotItemDto::getItemId)
+                .collect(Collectors.toList()));
+        assertEquals(101L, hotItems.get(0).getHits());
+    }
+
+    @Test
+    public void decay_halvesHitsAndDropsColdItems() {
+        HotItemTracker tracker = new HotItemTracker(3, 4, 1024);
+        tracker.record(1L, 10);
+        tracker.record(2L, 1);
+
+        tracker.decay();
+
+        assertEquals(List.of(new HotItemDto(1L, 5L)), tracker.getHotItems());
+    }
+}
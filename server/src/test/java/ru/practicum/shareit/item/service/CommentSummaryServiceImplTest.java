@@ -0,0 +1,183 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.CommentSummaryDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentSummary;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.CommentSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CommentSummaryServiceImpl tests
+ * summary keeps two latest comments
+ */
+@DataJpaTest(properties = "shareit.comments.latest-size=2")
+@Import(CommentSummaryServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CommentSummaryServiceImplTest {
+    @Autowired
+    CommentSummaryServiceImpl commentSummaryService;
+    @Autowired
+    CommentSummaryRepository commentSummaryRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    User author;
+    Item bike;
+    Item pram;
+
+    /**
+     * create records in database to test
+     */
+    @BeforeEach
+    public void beforeEach() {
+        User owner = userRepository.save(User.builder().name("Olga").email("Olga@yandex.ru").build());
+        author = userRepository.save(User.builder().name("Alex").email("Alex@yandex.ru").build());
+        bike = itemRepository.save(Item.builder().name("bike").description("old").available(true)
+                .owner(owner).build());
+        pram = itemRepository.save(Item.builder().name("pram").description("new").available(true)
+                .owner(owner).build());
+    }
+
+    /**
+     * test create, addComment and getSummaries methods
+     * should count all comments and keep only the latest ones, returned in order of creation
+     */
+    @Test
+    public void getSummaries_returnCountAndLatestComments() {
+        commentSummaryService.create(bike.getId());
+        commentSummaryService.create(pram.getId());
+        comment(bike, "first");
+        Comment second = comment(bike, "second");
+        Comment third = comment(bike, "third");
+
+        Map<Long, CommentSummaryDto> summaries = commentSummaryService.getSummaries(
+                List.of(bike.getId(), pram.getId()));
+
+        assertEquals(3L, summaries.get(bike.getId()).getCount());
+        assertEquals(List.of(second.getId(), third.getId()), idsOf(summaries.get(bike.getId())));
+        assertEquals(new CommentSummaryDto(0L, List.of()), summaries.get(pram.getId()));
+        assertEquals(third.getId() + "," + second.getId(), commentSummaryRepository.findById(bike.getId())
+                .map(CommentSummary::getLatest)
+                .orElseThrow());
+    }
+
+    /**
+     * test getSummaries, addComment and backfill methods
+     * summary of the item created before the summaries were maintained is built from its comments
+     */
+    @Test
+    public void backfill_buildSummariesOfItemsWithoutThem() {
+        Comment first = saveComment(bike, "first");
+        Comment second = saveComment(bike, "second");
+
+        CommentSummaryDto summary = commentSummaryService.getSummaries(List.of(bike.getId())).get(bike.getId());
+        assertEquals(2L, summary.getCount());
+        assertEquals(List.of(first.getId(), second.getId()), idsOf(summary));
+
+        Comment third = comment(pram, "third");
+        assertEquals(1L, commentSummaryRepository.findById(pram.getId()).orElseThrow().getComments());
+
+        commentSummaryService.backfill();
+
+        assertTrue(commentSummaryRepository.existsById(bike.getId()));
+        assertEquals(List.of(third.getId()),
+                idsOf(commentSummaryService.getSummaries(List.of(pram.getId())).get(pram.getId())));
+        assertEquals(2L, commentSummaryRepository.findById(bike.getId()).orElseThrow().getComments());
+    }
+
+    /**
+     * test addComment method
+     * when first comments of the item without summary are added concurrently
+     * should create the summary once and count both comments
+     */
+    @Test
+    public void addComment_whenFirstCommentsAreConcurrent_thenCountBoth() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Comment>> comments = new ArrayList<>();
+            for (String text : List.of("first", "second")) {
+                comments.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    Comment comment = saveComment(bike, text);
+                    await(barrier);
+                    commentSummaryService.addComment(comment);
+                    return comment;
+                })));
+            }
+            for (Future<Comment> comment : comments) {
+                comment.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CommentSummary summary = commentSummaryRepository.findById(bike.getId()).orElseThrow();
+        assertEquals(2L, summary.getComments());
+        assertEquals(2, summary.getLatest().split(",").length);
+    }
+
+    private void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Comment comment(Item item, String text) {
+        Comment comment = saveComment(item, text);
+        commentSummaryService.addComment(comment);
+        return comment;
+    }
+
+    private Comment saveComment(Item item, String text) {
+        return commentRepository.save(Comment.builder()
+                .text(text)
+                .item(item)
+                .author(author)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private List<Long> idsOf(CommentSummaryDto summary) {
+        return summary.getLatest().stream()
+                .map(CommentOutDto::getId)
+                .collect(Collectors.toList());
+    }
+}
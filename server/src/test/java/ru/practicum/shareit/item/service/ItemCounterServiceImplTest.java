@@ -0,0 +1,265 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCounter;
+import ru.practicum.shareit.item.model.ItemRanking;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemCounterRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * ItemCounterServiceImpl tests
+ * events are passed to the listener directly, flush runs in its own transaction
+ */
+@DataJpaTest
+@Import(ItemCounterServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ItemCounterServiceImplTest {
+    @Autowired
+    ItemCounterServiceImpl itemCounterService;
+    @Autowired
+    ItemCounterRepository itemCounterRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ObjectProvider<ShardRouter> shardRouter;
+    Item bike;
+    Item pram;
+
+    /**
+     * create records in database to test
+     */
+    @BeforeEach
+    public void beforeEach() {
+        User owner = userRepository.save(User.builder().name("Olga").email("Olga@yandex.ru").build());
+        bike = itemRepository.save(Item.builder().name("bike").description("old").available(true)
+                .owner(owner).build());
+        pram = itemRepository.save(Item.builder().name("pram").description("new").available(true)
+                .owner(owner).build());
+    }
+
+    /**
+     * test onBookingChanged, onCommentAdded and getCounters methods
+     * should count new bookings, approved bookings and comments of each item
+     */
+    @Test
+    public void getCounters_countBookingsApprovalsAndComments() {
+        book(bike, BookingStatus.WAITING);
+        book(bike, BookingStatus.WAITING);
+        book(bike, BookingStatus.APPROVED);
+        book(bike, BookingStatus.REJECTED);
+        comment(bike);
+
+        assertEquals(new ItemCountersDto(2L, 1L, 1L), itemCounterService.getCounters(bike.getId()));
+        assertEquals(new ItemCountersDto(0L, 0L, 0L), itemCounterService.getCounters(pram.getId()));
+    }
+
+    /**
+     * test getTop method
+     * should return ids of the items with the greatest counter, skipping zero counters
+     */
+    @Test
+    public void getTop_returnItemsWithGreatestCounter() {
+        book(bike, BookingStatus.WAITING);
+        book(pram, BookingStatus.WAITING);
+        book(pram, BookingStatus.WAITING);
+        comment(bike);
+
+        assertEquals(List.of(pram.getId(), bike.getId()), itemCounterService.getTop(ItemRanking.BOOKINGS, 10));
+        assertEquals(List.of(pram.getId()), itemCounterService.getTop(ItemRanking.BOOKINGS, 1));
+        assertEquals(List.of(bike.getId()), itemCounterService.getTop(ItemRanking.COMMENTS, 10));
+        assertEquals(List.of(), itemCounterService.getTop(ItemRanking.APPROVALS, 10));
+    }
+
+    /**
+     * test flush and load methods
+     * should save only increments since the last flush and restore counters from the database
+     */
+    @Test
+    public void flush_saveIncrements_andLoadRestoresCounters() {
+        book(bike, BookingStatus.WAITING);
+        itemCounterService.flush();
+        book(bike, BookingStatus.WAITING);
+        book(bike, BookingStatus.APPROVED);
+        itemCounterService.flush();
+        itemCounterService.flush();
+
+        ItemCounter saved = itemCounterRepository.findById(bike.getId()).orElseThrow();
+        assertEquals(2L, saved.getBookings());
+        assertEquals(1L, saved.getApprovals());
+        assertFalse(itemCounterRepository.existsById(pram.getId()));
+
+        ItemCounterServiceImpl restarted = instance(10000, 10000);
+        restarted.load();
+        assertEquals(new ItemCountersDto(2L, 1L, 0L), restarted.getCounters(bike.getId()));
+    }
+
+    /**
+     * test load method
+     * should build missing counters from bookings, archived bookings and comments and keep saved counters
+     */
+    @Test
+    public void load_whenCountersAreMissing_buildThemFromBookingsAndComments() {
+        User booker = userRepository.save(User.builder().name("Ivan").email("Ivan@yandex.ru").build());
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        bookingRepository.save(Booking.builder().item(bike).booker(booker).status(BookingStatus.WAITING)
+                .start(start).end(start.plusDays(1)).build());
+        bookingRepository.save(Booking.builder().item(bike).booker(booker).status(BookingStatus.APPROVED)
+                .start(start).end(start.plusDays(1)).build());
+        archivedBookingRepository.save(ArchivedBooking.builder().id(1000L).version(0L).item(bike).booker(booker)
+                .status(BookingStatus.APPROVED).start(start).end(start.plusDays(1)).build());
+        commentRepository.save(Comment.builder().item(bike).author(booker).text("good").created(start).build());
+        bookingRepository.save(Booking.builder().item(pram).booker(booker).status(BookingStatus.WAITING)
+                .start(start).end(start.plusDays(1)).build());
+        itemCounterRepository.save(new ItemCounter(pram.getId(), 5L, 0L, 0L, LocalDateTime.now()));
+
+        ItemCounterServiceImpl restarted = instance(10000, 10000);
+        restarted.load();
+
+        assertEquals(new ItemCountersDto(3L, 2L, 1L), restarted.getCounters(bike.getId()));
+        assertEquals(new ItemCountersDto(5L, 0L, 0L), restarted.getCounters(pram.getId()));
+        assertEquals(3L, itemCounterRepository.findById(bike.getId()).orElseThrow().getBookings());
+    }
+
+    /**
+     * test sync method
+     * another instance counts and flushes bookings of the same item
+     * should read its counts and keep the increments not flushed yet
+     */
+    @Test
+    public void sync_readCountsOfOtherInstances_andKeepOwnIncrements() {
+        ItemCounterServiceImpl other = instance(10000, 10000);
+        other.load();
+        book(bike, BookingStatus.WAITING);
+        itemCounterService.flush();
+        other.onBookingChanged(new BookingChangedEvent(BookingOutDto.builder()
+                .item(bike)
+                .status(BookingStatus.APPROVED)
+                .build(), bike.getOwner().getId()));
+        other.flush();
+        book(bike, BookingStatus.WAITING);
+
+        itemCounterService.sync();
+        other.sync();
+
+        assertEquals(new ItemCountersDto(2L, 1L, 0L), itemCounterService.getCounters(bike.getId()));
+        assertEquals(new ItemCountersDto(1L, 1L, 0L), other.getCounters(bike.getId()));
+        itemCounterService.flush();
+        other.sync();
+        assertEquals(new ItemCountersDto(2L, 1L, 0L), other.getCounters(bike.getId()));
+        assertEquals(2L, itemCounterRepository.findById(bike.getId()).orElseThrow().getBookings());
+    }
+
+    /**
+     * test flush method
+     * increments of the deleted item should be dropped
+     */
+    @Test
+    public void flush_whenItemDeleted_dropIncrements() {
+        book(bike, BookingStatus.WAITING);
+        itemRepository.deleteById(bike.getId());
+
+        itemCounterService.flush();
+
+        assertEquals(0, itemCounterRepository.count());
+        assertEquals(new ItemCountersDto(0L, 0L, 0L), itemCounterService.getCounters(bike.getId()));
+    }
+
+    /**
+     * test flush method
+     * should evict the least recently used counter beyond the limit and load it again on the next use
+     */
+    @Test
+    public void flush_whenLimitExceeded_evictLeastRecentlyUsed() {
+        ItemCounterServiceImpl limited = instance(1, 10000);
+        limited.onCommentAdded(new CommentAddedEvent(CommentOutDto.builder().itemId(bike.getId()).build()));
+        limited.flush();
+        limited.onCommentAdded(new CommentAddedEvent(CommentOutDto.builder().itemId(pram.getId()).build()));
+        limited.flush();
+
+        itemCounterRepository.save(new ItemCounter(bike.getId(), 0L, 0L, 7L, LocalDateTime.now().minusDays(1)));
+        limited.sync();
+
+        assertEquals(new ItemCountersDto(0L, 0L, 7L), limited.getCounters(bike.getId()));
+        assertEquals(List.of(bike.getId(), pram.getId()), limited.getTop(ItemRanking.COMMENTS, 10));
+    }
+
+    /**
+     * test sync method
+     * should read only the counters changed since the previous reading
+     */
+    @Test
+    public void sync_readOnlyChangedCounters() {
+        ItemCounterServiceImpl instance = instance(10000, 0);
+        instance.load();
+        assertEquals(new ItemCountersDto(0L, 0L, 0L), instance.getCounters(bike.getId()));
+
+        itemCounterRepository.save(new ItemCounter(bike.getId(), 5L, 0L, 0L, LocalDateTime.now().minusDays(1)));
+        instance.sync();
+        assertEquals(new ItemCountersDto(0L, 0L, 0L), instance.getCounters(bike.getId()));
+
+        itemCounterRepository.save(new ItemCounter(bike.getId(), 6L, 0L, 0L, LocalDateTime.now()));
+        instance.sync();
+        assertEquals(new ItemCountersDto(6L, 0L, 0L), instance.getCounters(bike.getId()));
+    }
+
+    private ItemCounterServiceImpl instance(int maxItems, long syncOverlap) {
+        return new ItemCounterServiceImpl(itemCounterRepository, itemRepository, transactionManager, shardRouter,
+                maxItems, syncOverlap);
+    }
+
+    private void book(Item item, BookingStatus status) {
+        itemCounterService.onBookingChanged(new BookingChangedEvent(BookingOutDto.builder()
+                .item(item)
+                .status(status)
+                .build(), item.getOwner().getId()));
+    }
+
+    private void comment(Item item) {
+        itemCounterService.onCommentAdded(new CommentAddedEvent(CommentOutDto.builder()
+                .itemId(item.getId())
+                .text("good")
+                .build()));
+    }
+}
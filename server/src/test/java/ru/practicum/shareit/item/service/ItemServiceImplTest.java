@@ -6,19 +6,29 @@ import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.CommentPageOutDto;
+import ru.practicum.shareit.item.dto.CommentSummaryDto;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupOutDto;
 import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.hot.HotItemTracker;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemRanking;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -28,10 +38,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.exceptions.AccessIsNotAllowedException;
 import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.util.exceptions.UnavailableItemException;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -55,6 +67,16 @@ public class ItemServiceImplTest {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private CommentSummaryService commentSummaryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ItemCounterService itemCounterService;
+    @Mock
+    private HotItemTracker hotItemTracker;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
 
 
     /**
@@ -321,13 +343,14 @@ public class ItemServiceImplTest {
 
         //mock repository answer
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(savedItem));
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(comments);
+        when(commentSummaryService.getSummaries(List.of(itemId)))
+                .thenReturn(Map.of(itemId, new CommentSummaryDto((long) comments.size(), commentsOut)));
 
         //invoke tested method check throws
-        ItemOutDto result = itemService.getById(notOwnerId, itemId);
+        ItemOutDto result = itemService.getById(notOwnerId, itemId, FieldSet.ALL);
 
         // verify invokes
-        InOrder inOrder = inOrder(itemRepository, commentRepository);
+        InOrder inOrder = inOrder(itemRepository, commentSummaryService);
         inOrder.verify(itemRepository).findById(itemId);
         verify(bookingRepository, never())
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(eq(itemId),
@@ -335,7 +358,7 @@ public class ItemServiceImplTest {
         verify(bookingRepository, never())
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(eq(itemId),
                         eq(BookingStatus.APPROVED), any(), any());
-        inOrder.verify(commentRepository).findAllByItemId(itemId);
+        inOrder.verify(commentSummaryService).getSummaries(List.of(itemId));
         //check result
 
         assertEquals(result, expectedItemForNotOwner);
@@ -434,13 +457,14 @@ public class ItemServiceImplTest {
                 eq(BookingStatus.APPROVED), any(), any())).thenReturn(Optional.of(nextBooking));
         when(bookingRepository.findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(eq(itemId),
                 eq(BookingStatus.APPROVED), any(), any())).thenReturn(Optional.of(lastBooking));
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(comments);
+        when(commentSummaryService.getSummaries(List.of(itemId)))
+                .thenReturn(Map.of(itemId, new CommentSummaryDto((long) comments.size(), commentsOut)));
 
         //invoke tested method check throws
-        ItemOutDto result = itemService.getById(ownerId, itemId);
+        ItemOutDto result = itemService.getById(ownerId, itemId, FieldSet.ALL);
 
         // verify invokes
-        InOrder inOrder = inOrder(itemRepository, commentRepository);
+        InOrder inOrder = inOrder(itemRepository, commentSummaryService);
         inOrder.verify(itemRepository).findById(itemId);
         verify(bookingRepository)
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(),
@@ -448,7 +472,7 @@ public class ItemServiceImplTest {
         verify(bookingRepository)
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(),
                         any(), any(), any());
-        inOrder.verify(commentRepository).findAllByItemId(itemId);
+        inOrder.verify(commentSummaryService).getSummaries(List.of(itemId));
 
         //check result
         assertEquals(result, expectedItemForOwner);
@@ -535,13 +559,14 @@ public class ItemServiceImplTest {
                 any(), any(), any())).thenReturn(Optional.empty());
         when(bookingRepository.findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(anyLong(),
                 any(), any(), any())).thenReturn(Optional.empty());
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(comments);
+        when(commentSummaryService.getSummaries(List.of(itemId)))
+                .thenReturn(Map.of(itemId, new CommentSummaryDto((long) comments.size(), commentsOut)));
 
         //invoke tested method check throws
-        ItemOutDto result = itemService.getById(ownerId, itemId);
+        ItemOutDto result = itemService.getById(ownerId, itemId, FieldSet.ALL);
 
         // verify invokes
-        InOrder inOrder = inOrder(itemRepository, commentRepository);
+        InOrder inOrder = inOrder(itemRepository, commentSummaryService);
         inOrder.verify(itemRepository).findById(itemId);
         verify(bookingRepository)
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(),
@@ -549,7 +574,7 @@ public class ItemServiceImplTest {
         verify(bookingRepository)
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(),
                         any(), any(), any());
-        inOrder.verify(commentRepository).findAllByItemId(itemId);
+        inOrder.verify(commentSummaryService).getSummaries(List.of(itemId));
         //check result
 
         assertEquals(result, expectedItemForOwner);
@@ -584,7 +609,7 @@ public class ItemServiceImplTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemService.getById(ownerId, itemId),
+                () -> itemService.getById(ownerId, itemId, FieldSet.ALL),
                 String.format("Запроса с id %d не существует", itemId));
 
         //verify invokes
@@ -1216,7 +1241,7 @@ public class ItemServiceImplTest {
      * should get list of items for owner invoking findAllByOwnerId in item's repository by userId
      * should get last booking info for every item in list by invoking booking's repository
      * should get next booking info for every item in list by invoking booking's repository
-     * should get lists of comments invoke findAllByItemIn in comment's repository by item's list for every item
+     * should get summaries of comments of all items from comment summary service
      * should return list of items to user with all necessary information
      */
 
@@ -1316,7 +1341,9 @@ public class ItemServiceImplTest {
 
         //mock repository answers
         when(itemRepository.findAllByOwnerIdOrderById(ownerId)).thenReturn(items);
-        when(commentRepository.findAllByItemIn(items)).thenReturn(comments);
+        when(commentSummaryService.getSummaries(List.of(item1Id, item2Id))).thenReturn(Map.of(
+                item1Id, new CommentSummaryDto((long) comments.size(), commentsOut),
+                item2Id, new CommentSummaryDto(0L, Collections.emptyList())));
         when(bookingRepository
                 .findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(any(), any(), any(), any()))
                 .thenReturn(Optional.of(lastBooking));
@@ -1325,11 +1352,11 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.of(nextBooking));
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.getListByUser(ownerId);
+        List<ItemOutDto> result = itemService.getListByUser(ownerId, FieldSet.ALL);
 
         // verify invokes
         verify(itemRepository).findAllByOwnerIdOrderById(ownerId);
-        verify(commentRepository).findAllByItemIn(items);
+        verify(commentSummaryService).getSummaries(List.of(item1Id, item2Id));
         verify(bookingRepository, atLeast(1))
                 .findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(any(), any(), any(), any());
         verify(bookingRepository, atLeast(1))
@@ -1361,10 +1388,47 @@ public class ItemServiceImplTest {
 
     }
 
+    /**
+     * test getListByUser with sparse fieldset
+     * should not read bookings, comments and counters of the items if they are not chosen
+     * should return items with chosen properties
+     */
+    @Test
+    public void getListByUser_WhenFieldsAreChosen_SkipLookups() {
+
+        User owner = User.builder()
+                .id(1L)
+                .name("Olga")
+                .email("Olga@yandex.ru")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("bike")
+                .description("new")
+                .available(true)
+                .owner(owner)
+                .build();
+        when(itemRepository.findAllByOwnerIdOrderById(1L)).thenReturn(List.of(item));
+
+        //invoke tested method
+        List<ItemOutDto> result = itemService.getListByUser(1L, FieldSet.of("id,name,available"));
+
+        // verify invokes
+        verifyNoInteractions(commentRepository, commentSummaryService, bookingRepository, archivedBookingRepository,
+                itemCounterService);
+
+        //check result
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getName(), "bike");
+        assertEquals(result.get(0).getAvailable(), true);
+        assertNull(result.get(0).getComments());
+        assertNull(result.get(0).getLastBooking());
+    }
+
     /**
      * test getListByUser without items
      * should get list of items for owner invoking findAllByOwnerId in item's repository by userId
-     * should get lists of comments invoke findAllByItemIn in comment's repository by item's list for every item
+     * should get summaries of comments of all items from comment summary service
      * should not invoke bookingRepository for last and next bookings
      * should return empty list of items
      */
@@ -1380,14 +1444,14 @@ public class ItemServiceImplTest {
 
         //mock repository answers
         when(itemRepository.findAllByOwnerIdOrderById(notOwnerId)).thenReturn(Collections.emptyList());
-        when(commentRepository.findAllByItemIn(Collections.emptyList())).thenReturn(Collections.emptyList());
+        when(commentSummaryService.getSummaries(Collections.emptyList())).thenReturn(Collections.emptyMap());
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.getListByUser(notOwnerId);
+        List<ItemOutDto> result = itemService.getListByUser(notOwnerId, FieldSet.ALL);
 
         // verify invokes
         verify(itemRepository).findAllByOwnerIdOrderById(notOwnerId);
-        verify(commentRepository).findAllByItemIn(Collections.emptyList());
+        verify(commentSummaryService).getSummaries(Collections.emptyList());
         verify(bookingRepository, never())
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(), any(), any(), any());
         verify(bookingRepository, never())
@@ -1403,7 +1467,7 @@ public class ItemServiceImplTest {
      * should get list of items invoking searchItemsBySubstring in item's repository by substring
      * should get last booking info for every item in list by invoking booking's repository
      * should get next booking info for every item in list by invoking booking's repository
-     * should get lists of comments invoke findAllByItemIn in comment's repository by item's list for every item
+     * should get summaries of comments of all items from comment summary service
      * should return list of items with all necessary information
      */
 
@@ -1500,7 +1564,9 @@ public class ItemServiceImplTest {
 
         //mock repository answers
         when(itemRepository.searchItemsBySubstring("text")).thenReturn(items);
-        when(commentRepository.findAllByItemIn(items)).thenReturn(comments);
+        when(commentSummaryService.getSummaries(List.of(item1Id, item2Id))).thenReturn(Map.of(
+                item1Id, new CommentSummaryDto((long) comments.size(), commentsOut),
+                item2Id, new CommentSummaryDto(0L, Collections.emptyList())));
         when(bookingRepository
                 .findFirstByItemIdAndStatusAndStartIsBeforeOrStartEqualsOrderByEndDesc(any(), any(), any(), any()))
                 .thenReturn(Optional.of(lastBooking));
@@ -1509,11 +1575,11 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.of(nextBooking));
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.searchItemsBySubstring("text");
+        List<ItemOutDto> result = itemService.searchItemsBySubstring("text", FieldSet.ALL);
 
         // verify invokes
         verify(itemRepository).searchItemsBySubstring("text");
-        verify(commentRepository).findAllByItemIn(items);
+        verify(commentSummaryService).getSummaries(List.of(item1Id, item2Id));
         verify(bookingRepository, atLeast(1))
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(), any(), any(), any());
         verify(bookingRepository, atLeast(1))
@@ -1549,7 +1615,7 @@ public class ItemServiceImplTest {
     /**
      * test searchItemsBySubstring
      * should get list of items invoking searchItemsBySubstring in item's repository by substring
-     * should get lists of comments invoke findAllByItemIn in comment's repository by item's list for every item
+     * should get summaries of comments of all items from comment summary service
      * should not invoke bookingRepository for last and next bookings
      * should return empty list of items
      */
@@ -1563,14 +1629,14 @@ public class ItemServiceImplTest {
 
         //mock repository answers
         when(itemRepository.searchItemsBySubstring("text")).thenReturn(Collections.emptyList());
-        when(commentRepository.findAllByItemIn(Collections.emptyList())).thenReturn(Collections.emptyList());
+        when(commentSummaryService.getSummaries(Collections.emptyList())).thenReturn(Collections.emptyMap());
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.searchItemsBySubstring("text");
+        List<ItemOutDto> result = itemService.searchItemsBySubstring("text", FieldSet.ALL);
 
         // verify invokes
         verify(itemRepository).searchItemsBySubstring("text");
-        verify(commentRepository).findAllByItemIn(Collections.emptyList());
+        verify(commentSummaryService).getSummaries(Collections.emptyList());
         verify(bookingRepository, never())
                 .findFirstByItemIdAndStatusAndStartIsAfterOrStartEqualsOrderByStart(any(), any(), any(), any());
         verify(bookingRepository, never())
@@ -1675,6 +1741,8 @@ public class ItemServiceImplTest {
         inOrder.verify(bookingRepository).findAllByItem_IdAndBooker_IdAndStatusAndStartIsBefore(anyLong(),
                 any(), any(), any());
         inOrder.verify(commentRepository).save(any(Comment.class));
+        verify(commentSummaryService).addComment(savedComment);
+        verify(eventPublisher).publishEvent(new CommentAddedEvent(savedCommentDto));
 
         //check result
         assertEquals(result, savedCommentDto);
@@ -1885,4 +1953,132 @@ public class ItemServiceImplTest {
 
     }
 
+    /**
+     * test getTop
+     * should return items in the order of the counter with their counters
+     * should skip ids of the deleted items
+     */
+    @Test
+    public void getTop_returnItemsInCounterOrder_withCounters() {
+
+        User owner = User.builder().id(1L).name("Olga").email("Olga@yandex.ru").build();
+        Item bike = Item.builder().id(1L).name("bike").description("old").available(true).owner(owner).build();
+        Item pram = Item.builder().id(2L).name("pram").description("new").available(true).owner(owner).build();
+        ItemCountersDto bikeCounters = new ItemCountersDto(1L, 0L, 0L);
+        ItemCountersDto pramCounters = new ItemCountersDto(5L, 2L, 1L);
+
+        //mock answers
+        when(itemCounterService.getTop(ItemRanking.BOOKINGS, 3)).thenReturn(List.of(2L, 3L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(bike, pram));
+        when(itemCounterService.getCounters(1L)).thenReturn(bikeCounters);
+        when(itemCounterService.getCounters(2L)).thenReturn(pramCounters);
+
+        //invoke tested method
+        List<ItemOutDto> result = itemService.getTop(ItemRanking.BOOKINGS, 3);
+
+        //check result
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(pramCounters, result.get(0).getCounters());
+        assertEquals(1L, result.get(1).getId());
+        assertEquals(bikeCounters, result.get(1).getCounters());
+    }
+
+    /**
+     * test getComments
+     * should read the page after the cursor, the newest comments first
+     * when the page is full should return id of its last comment as the next cursor
+     * when the page isn't full should return null cursor
+     */
+    @Test
+    public void getComments_returnPageAndNextCursor() {
+
+        Long itemId = 1L;
+        User author = User.builder()
+                .id(2L)
+                .name("Alex")
+                .email("Alex@yandex.ru")
+                .build();
+        Item item = Item.builder()
+                .id(itemId)
+                .build();
+        Comment comment8 = Comment.builder().id(8L).item(item).author(author).text("good").build();
+        Comment comment6 = Comment.builder().id(6L).item(item).author(author).text("bad").build();
+
+        //mock repository answers
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(commentRepository.findAllByItemIdOrderByIdDesc(itemId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment8, comment6));
+        when(commentRepository.findAllByItemIdAndIdLessThanOrderByIdDesc(itemId, 6L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.emptyList());
+
+        //invoke tested method
+        CommentPageOutDto first = itemService.getComments(itemId, null, 2);
+        CommentPageOutDto last = itemService.getComments(itemId, first.getNextCursor(), 2);
+
+        //check result
+        assertEquals(CommentMapper.toCommentOutDtoList(List.of(comment8, comment6)), first.getComments());
+        assertEquals(6L, first.getNextCursor());
+        assertEquals(Collections.emptyList(), last.getComments());
+        assertNull(last.getNextCursor());
+    }
+
+    /**
+     * test getComments
+     * when item does not exist throw ObjectNotFoundException
+     */
+    @Test
+    public void getComments_whenItemDoesNotExist_thenThrowsObjectNotFound() {
+
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> itemService.getComments(1L, null, 10));
+        verifyNoInteractions(commentRepository);
+    }
+
+    /**
+     * test getByIds
+     * should read items, last and next bookings and summaries of comments once for all ids
+     * should look up bookings only of the user's items
+     * should return items in order of the ids and missing ids apart
+     */
+    @Test
+    public void getByIds_readEachPropertyOnce_andReturnItemsInOrder() {
+
+        User owner = User.builder().id(1L).name("Olga").email("Olga@yandex.ru").build();
+        User other = User.builder().id(2L).name("Alex").email("Alex@yandex.ru").build();
+        Item bike = Item.builder().id(1L).name("bike").description("new").available(true).owner(owner).build();
+        Item pram = Item.builder().id(2L).name("pram").description("old").available(true).owner(other).build();
+        Booking lastBooking = Booking.builder().id(3L).item(bike).booker(other).build();
+        Booking nextBooking = Booking.builder().id(4L).item(bike).booker(other).build();
+        Booking laterBooking = Booking.builder().id(5L).item(bike).booker(other).build();
+
+        //mock repository answers
+        when(itemRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(bike, pram));
+        when(bookingRepository.findLastByItemIdIn(eq(List.of(1L)), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextByItemIdIn(eq(List.of(1L)), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(laterBooking, nextBooking));
+        when(commentSummaryService.getSummaries(List.of(2L, 1L))).thenReturn(Map.of(
+                1L, new CommentSummaryDto(0L, Collections.emptyList()),
+                2L, new CommentSummaryDto(0L, Collections.emptyList())));
+
+        //invoke tested method
+        ItemLookupOutDto result = itemService.getByIds(owner.getId(), List.of(2L, 3L, 1L, 2L), FieldSet.ALL);
+
+        // verify invokes
+        verify(itemRepository).findAllById(List.of(2L, 3L, 1L));
+        verify(bookingRepository).findLastByItemIdIn(eq(List.of(1L)), eq(BookingStatus.APPROVED), any());
+        verify(bookingRepository).findNextByItemIdIn(eq(List.of(1L)), eq(BookingStatus.APPROVED), any());
+        verify(commentSummaryService).getSummaries(List.of(2L, 1L));
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(archivedBookingRepository);
+
+        //check result
+        assertEquals(List.of(
+                ItemMapper.toItemOutDto(pram, null, null, Collections.emptyList()),
+                ItemMapper.toItemOutDto(bike, BookingMapper.toBookingItemDto(lastBooking),
+                        BookingMapper.toBookingItemDto(nextBooking), Collections.emptyList())), result.getItems());
+        assertEquals(List.of(3L), result.getMissing());
+    }
 }
@@ -12,9 +12,12 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupOutDto;
 import ru.practicum.shareit.item.dto.ItemOutDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemTerm;
+import ru.practicum.shareit.item.repository.ItemTermRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -27,10 +30,13 @@ import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.util.exceptions.AccessIsNotAllowedException;
 import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
 import ru.practicum.shareit.util.exceptions.UnavailableItemException;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,6 +55,10 @@ public class ItemServiceIntegrationTest {
     BookingService bookingService;
     @Autowired
     ItemRequestService itemRequestService;
+    @Autowired
+    ItemTermRepository itemTermRepository;
+    @Autowired
+    ItemTermIndexer itemTermIndexer;
 
     /**
      * test create method
@@ -145,6 +155,53 @@ public class ItemServiceIntegrationTest {
         assertNull(result.getRequestId());
     }
 
+    /**
+     * test create method
+     * when the description has a word longer than a term may be
+     * should create item and index its other words only
+     */
+    @Test
+    public void shouldCreateItemWithTooLongWord() {
+        UserDto owner = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        String longWord = "a".repeat(101);
+
+        ItemDto result = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike")
+                .description("part " + longWord)
+                .available(true)
+                .build());
+
+        assertNotNull(result.getId());
+        assertEquals(Set.of("bike", "part"), itemTermRepository.findAll().stream()
+                .map(ItemTerm::getTerm)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * test indexExistingItems method
+     * when items older than an indexed one have no terms (the build was interrupted)
+     * should index them and not index any item twice
+     */
+    @Test
+    public void shouldIndexExistingItemsOnce() {
+        UserDto owner = userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        ItemDto bike = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("red").available(true).build());
+        itemService.create(owner.getId(), ItemDto.builder().name("ski").description("blue").available(true).build());
+        itemService.create(owner.getId(), ItemDto.builder().name("tent").description("green").available(true).build());
+        itemTermRepository.deleteAll(itemTermRepository.findAll().stream()
+                .filter(term -> term.getItem().getId().equals(bike.getId()))
+                .collect(Collectors.toList()));
+
+        itemTermIndexer.indexExistingItems();
+        itemTermIndexer.indexExistingItems();
+
+        assertEquals(List.of("bike", "blue", "green", "red", "ski", "tent"), itemTermRepository.findAll().stream()
+                .map(ItemTerm::getTerm)
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
     /**
      * test create method
      * when user does not exist throw ObjectNotFoundException
@@ -249,7 +306,7 @@ public class ItemServiceIntegrationTest {
         itemService.create(ownerId, itemDto);
 
         //invoke tested method
-        ItemOutDto result = itemService.getById(ownerId, itemId);
+        ItemOutDto result = itemService.getById(ownerId, itemId, FieldSet.ALL);
 
         //check result
         assertEquals(result.getAvailable(), true);
@@ -318,7 +375,7 @@ public class ItemServiceIntegrationTest {
         BookingItemDto nextBookingItemDto = BookingMapper.toBookingItemDto(nextBooking);
 
         //invoke tested method check throws
-        ItemOutDto result = itemService.getById(ownerId, itemId);
+        ItemOutDto result = itemService.getById(ownerId, itemId, FieldSet.ALL);
 
         //check result
         assertThat(result).hasFieldOrPropertyWithValue("id", 1L)
@@ -330,6 +387,55 @@ public class ItemServiceIntegrationTest {
                 .hasFieldOrPropertyWithValue("comments", Collections.emptyList());
     }
 
+    /**
+     * test getByIds method
+     * should return items in order of the ids, each once, as getById returns them
+     * should return ids of the items which don't exist apart
+     */
+    @Test
+    public void shouldGetItemsByIdsInOrderAndReportMissing() {
+
+        //create owner and booker
+        Long ownerId = 1L;
+        userService.create(UserDto.builder().name("Olga").email("Olga@yandex.ru").build());
+        Long bookerId = 2L;
+        userService.create(UserDto.builder().name("Alex").email("Alex@yandex.ru").build());
+
+        //create items
+        Long bikeId = 1L;
+        itemService.create(ownerId, ItemDto.builder().name("bike").description("new").available(true).build());
+        Long pramId = 2L;
+        itemService.create(ownerId, ItemDto.builder().name("pram").description("old").available(true).build());
+
+        //create two approved future bookings of the bike, the earliest is the next one
+        bookingService.create(bookerId, BookingDto.builder()
+                .itemId(bikeId)
+                .start(LocalDateTime.of(2031, 1, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2031, 2, 1, 1, 1, 1))
+                .build());
+        bookingService.updateStatus(1L, ownerId, true);
+        bookingService.create(bookerId, BookingDto.builder()
+                .itemId(bikeId)
+                .start(LocalDateTime.of(2030, 1, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2030, 2, 1, 1, 1, 1))
+                .build());
+        bookingService.updateStatus(2L, ownerId, true);
+
+        //invoke tested method
+        Long missingId = 99L;
+        ItemLookupOutDto forOwner = itemService.getByIds(ownerId, List.of(pramId, missingId, bikeId, pramId),
+                FieldSet.ALL);
+        ItemLookupOutDto forBooker = itemService.getByIds(bookerId, List.of(bikeId), FieldSet.ALL);
+
+        //check result
+        assertEquals(List.of(itemService.getById(ownerId, pramId, FieldSet.ALL),
+                itemService.getById(ownerId, bikeId, FieldSet.ALL)), forOwner.getItems());
+        assertEquals(List.of(missingId), forOwner.getMissing());
+        assertEquals(2L, forOwner.getItems().get(1).getNextBooking().getId());
+        assertEquals(List.of(itemService.getById(bookerId, bikeId, FieldSet.ALL)), forBooker.getItems());
+        assertNull(forBooker.getItems().get(0).getNextBooking());
+    }
+
     /**
      * test getById method
      * when item exists
@@ -375,7 +481,7 @@ public class ItemServiceIntegrationTest {
         itemService.create(ownerId, itemDto);
 
         //invoke tested method check throws
-        ItemOutDto result = itemService.getById(ownerId, itemId);
+        ItemOutDto result = itemService.getById(ownerId, itemId, FieldSet.ALL);
 
         //check result
         assertThat(result).hasFieldOrPropertyWithValue("id", 1L)
@@ -405,7 +511,7 @@ public class ItemServiceIntegrationTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemService.getById(ownerId, itemId),
+                () -> itemService.getById(ownerId, itemId, FieldSet.ALL),
                 String.format("Запроса с id %d не существует", itemId));
     }
 
@@ -870,7 +976,7 @@ public class ItemServiceIntegrationTest {
 
         //invoke getById method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemService.getById(ownerId, itemId),
+                () -> itemService.getById(ownerId, itemId, FieldSet.ALL),
                 String.format("Вещи id %d не существует", itemId));
 
     }
@@ -957,7 +1063,7 @@ public class ItemServiceIntegrationTest {
 
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.getListByUser(ownerId);
+        List<ItemOutDto> result = itemService.getListByUser(ownerId, FieldSet.ALL);
 
         //check result
         assertEquals(result.size(), 2);
@@ -998,7 +1104,7 @@ public class ItemServiceIntegrationTest {
         userService.create(ownerDto);
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.getListByUser(ownerId);
+        List<ItemOutDto> result = itemService.getListByUser(ownerId, FieldSet.ALL);
 
         //check result
         assertEquals(result, Collections.emptyList());
@@ -1080,7 +1186,7 @@ public class ItemServiceIntegrationTest {
         List<ItemOutDto> expectedItemsListBySearch = List.of(itemOutDto1);
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.searchItemsBySubstring("IkE");
+        List<ItemOutDto> result = itemService.searchItemsBySubstring("IkE", FieldSet.ALL);
 
         //check result
         assertEquals(result, expectedItemsListBySearch);
@@ -1149,7 +1255,7 @@ public class ItemServiceIntegrationTest {
         itemService.create(ownerId, itemDto2);
 
         //invoke tested method
-        List<ItemOutDto> result = itemService.searchItemsBySubstring("text");
+        List<ItemOutDto> result = itemService.searchItemsBySubstring("text", FieldSet.ALL);
 
         //check result
         assertEquals(result.size(), 0);
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OutboxEventRepository tests
+ */
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class OutboxEventRepositoryTest {
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+    OutboxEvent first;
+    OutboxEvent second;
+    OutboxEvent third;
+
+    /**
+     * create records in database to test
+     */
+    @BeforeEach
+    public void beforeEach() {
+        first = outboxEventRepository.save(event(1L, LocalDateTime.now().minusMinutes(2)));
+        second = outboxEventRepository.save(event(2L, LocalDateTime.now().minusMinutes(1)));
+        third = outboxEventRepository.save(event(3L, LocalDateTime.now()));
+    }
+
+    /**
+     * test findAllByOrderByIdAsc method
+     * should lock and return the oldest events limited by batch size
+     */
+    @Test
+    public void findAllByOrderByIdAsc_returnOldestEventsLimitedByBatchSize() {
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2));
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                batch.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+    }
+
+    /**
+     * test findFirstByOrderByIdAsc method
+     * should return the oldest event
+     */
+    @Test
+    public void findFirstByOrderByIdAsc_returnOldestEvent() {
+        Optional<OutboxEvent> oldest = outboxEventRepository.findFirstByOrderByIdAsc();
+
+        assertTrue(oldest.isPresent());
+        assertEquals(first.getId(), oldest.get().getId());
+    }
+
+    private OutboxEvent event(Long bookingId, LocalDateTime created) {
+        return OutboxEvent.builder()
+                .aggregateType("BOOKING")
+                .aggregateId(bookingId)
+                .eventType("BOOKING_CREATED")
+                .payload("{\"id\":" + bookingId + "}")
+                .created(created)
+                .build();
+    }
+
+}
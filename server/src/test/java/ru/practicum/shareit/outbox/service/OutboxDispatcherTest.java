@@ -0,0 +1,158 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.outbox.model.OutboxDeadLetter;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxDeadLetterRepository;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+import ru.practicum.shareit.util.sharding.ShardRouter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * OutboxDispatcher tests
+ */
+@ExtendWith(MockitoExtension.class)
+public class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+    @Mock
+    private OutboxSink sink;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private OutboxDispatcher outboxDispatcher;
+    private OutboxEvent first;
+    private OutboxEvent second;
+
+    @BeforeEach
+    void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxDispatcher = new OutboxDispatcher(outboxEventRepository, outboxDeadLetterRepository, List.of(sink),
+                transactionManager, meterRegistry, new StaticListableBeanFactory().getBeanProvider(ShardRouter.class),
+                2, 2, 0);
+        first = OutboxEvent.builder().id(1L).aggregateType("BOOKING").aggregateId(1L)
+                .eventType("BOOKING_CREATED").payload("{}").created(LocalDateTime.now().minusSeconds(5)).build();
+        second = first.toBuilder().id(2L).eventType("BOOKING_APPROVED").build();
+    }
+
+    /**
+     * dispatch method test
+     * when the outbox has full batch and then the rest
+     * then send batches to sink and delete sent events until the outbox is drained
+     */
+    @Test
+    void dispatch_whenEventsExist_thenSendAndDeleteBatches() {
+
+        OutboxEvent third = first.toBuilder().id(3L).build();
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        outboxDispatcher.dispatch();
+
+        verify(sink).send(List.of(first, second));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(first, second));
+        verify(sink).send(List.of(third));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(third));
+        assertEquals(3.0, meterRegistry.get("shareit.outbox.dispatched").counter().count());
+    }
+
+    /**
+     * dispatch method test
+     * when sink fails
+     * then events are not deleted, the attempt of the first one is counted, backlog and lag are reported
+     */
+    @Test
+    void dispatch_whenSinkFails_thenKeepEventsAndReportBacklog() {
+
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        doThrow(new IllegalStateException("broker is unavailable")).when(sink).send(any());
+        when(outboxEventRepository.count()).thenReturn(2L);
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(first));
+
+        outboxDispatcher.dispatch();
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verify(outboxEventRepository, never()).delete(any());
+        verify(sink, never()).send(List.of(second));
+        verify(outboxEventRepository).save(first);
+        assertEquals(1, first.getAttempts());
+        assertEquals(1.0, meterRegistry.get("shareit.outbox.failures").counter().count());
+        assertEquals(2.0, meterRegistry.get("shareit.outbox.backlog").gauge().value());
+        assertTrue(meterRegistry.get("shareit.outbox.lag").timeGauge().value() >= 5.0);
+    }
+
+    /**
+     * dispatch method test
+     * when sink always rejects the first event of the batch
+     * then the other event is sent alone, the first one is moved to the dead letters after the last attempt
+     */
+    @Test
+    void dispatch_whenSinkRejectsEvent_thenSendOthers_AndParkItAfterLastAttempt() {
+
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of());
+        doThrow(new IllegalArgumentException("payload is malformed")).when(sink).send(List.of(first, second));
+        doThrow(new IllegalArgumentException("payload is malformed")).when(sink).send(List.of(first));
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        outboxDispatcher.dispatch();
+
+        verify(outboxEventRepository).save(first);
+        verify(outboxEventRepository, never()).delete(second);
+        verify(sink, never()).send(List.of(second));
+
+        outboxDispatcher.dispatch();
+
+        verify(sink).send(List.of(second));
+        verify(outboxEventRepository).delete(second);
+        verify(outboxEventRepository).delete(first);
+        verify(outboxDeadLetterRepository).save(argThat((OutboxDeadLetter letter) -> letter.getId().equals(1L)
+                && letter.getAttempts() == 2 && letter.getError().equals("payload is malformed")));
+        assertEquals(1.0, meterRegistry.get("shareit.outbox.dead-letters").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.outbox.dispatched").counter().count());
+    }
+
+    /**
+     * dispatch method test
+     * when the first event waits for its retry
+     * then the batch is not sent
+     */
+    @Test
+    void dispatch_whenFirstEventWaitsForRetry_thenSendNothing() {
+
+        first.setRetryAt(LocalDateTime.now().plusMinutes(1));
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(first));
+
+        outboxDispatcher.dispatch();
+
+        verify(sink, never()).send(any());
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+    }
+}
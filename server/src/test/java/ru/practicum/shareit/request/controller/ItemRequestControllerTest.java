@@ -11,13 +11,20 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.hot.HotItemTracker;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.dto.RequestMatchOutDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.service.RequestMatchService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.etag.EntityTagService;
+import ru.practicum.shareit.util.fields.FieldSet;
+import ru.practicum.shareit.util.idempotency.IdempotencyStore;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -43,6 +50,14 @@ public class ItemRequestControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ItemRequestService itemRequestService;
+    @MockBean
+    private RequestMatchService requestMatchService;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+    @MockBean
+    private IdempotencyStore idempotencyStore;
     Long itemRequestId;
     Long itemId;
     Long userId;
@@ -126,7 +141,7 @@ public class ItemRequestControllerTest {
         List<ItemRequestOutDto> requests = List.of(itemRequest);
         String requestsListString = objectMapper.writeValueAsString(requests);
 
-        when(itemRequestService.getOwnRequests(userId)).thenReturn(requests);
+        when(itemRequestService.getOwnRequests(userId, FieldSet.ALL)).thenReturn(requests);
 
         String result = mockMvc.perform(get("/requests")
                         .header(header, userId))
@@ -139,7 +154,7 @@ public class ItemRequestControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        verify(itemRequestService).getOwnRequests(userId);
+        verify(itemRequestService).getOwnRequests(userId, FieldSet.ALL);
         assertEquals(result, requestsListString);
     }
 
@@ -175,7 +190,8 @@ public class ItemRequestControllerTest {
         String paramSizeName = "size";
         Integer paramSizeValue = 10;
 
-        when(itemRequestService.getOtherUsersRequests(userId, paramFromValue, paramSizeValue)).thenReturn(requests);
+        when(itemRequestService.getOtherUsersRequests(userId, paramFromValue, paramSizeValue, FieldSet.ALL))
+                .thenReturn(requests);
 
         String result = mockMvc.perform(get("/requests/all")
                         .header(header, userId)
@@ -190,7 +206,7 @@ public class ItemRequestControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        verify(itemRequestService).getOtherUsersRequests(userId, paramFromValue, paramSizeValue);
+        verify(itemRequestService).getOtherUsersRequests(userId, paramFromValue, paramSizeValue, FieldSet.ALL);
         assertEquals(result, requestsListString);
     }
 
@@ -214,7 +230,7 @@ public class ItemRequestControllerTest {
                 ItemRequestMapper.toItemRequest(validItemRequest, user), items).toBuilder().id(itemRequestId).build();
         String itemRequestString = objectMapper.writeValueAsString(itemRequest);
 
-        when(itemRequestService.getRequestById(userId, requestId)).thenReturn(itemRequest);
+        when(itemRequestService.getRequestById(userId, requestId, FieldSet.ALL)).thenReturn(itemRequest);
 
         String result = mockMvc.perform(get("/requests/{requestId}", itemRequestId)
                         .header(header, userId))
@@ -225,10 +241,44 @@ public class ItemRequestControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        verify(itemRequestService).getRequestById(userId, requestId);
+        verify(itemRequestService).getRequestById(userId, requestId, FieldSet.ALL);
         assertEquals(result, itemRequestString);
 
     }
 
+    /**
+     * test getMatches method
+     * GET-request "/requests/matches"
+     * should return status ok
+     * should invoke service getMatches method and return result
+     */
+    @SneakyThrows
+    @Test
+    void getMatches_StatusIsOk_InvokeService() {
+
+        RequestMatchOutDto match = RequestMatchOutDto.builder()
+                .id(1L)
+                .requestId(requestId)
+                .description("I would like rent bike")
+                .requestCreated(LocalDateTime.now())
+                .score(1)
+                .created(LocalDateTime.now())
+                .build();
+        String matchesString = objectMapper.writeValueAsString(List.of(match));
+
+        when(requestMatchService.getMatches(userId, 0, 10)).thenReturn(List.of(match));
+
+        String result = mockMvc.perform(get("/requests/matches")
+                        .header(header, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].requestId", is(requestId), Long.class))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        verify(requestMatchService).getMatches(userId, 0, 10);
+        assertEquals(result, matchesString);
+    }
 
 }
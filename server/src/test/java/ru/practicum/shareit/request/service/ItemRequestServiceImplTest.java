@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -17,6 +18,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -42,6 +44,8 @@ public class ItemRequestServiceImplTest {
     ItemRepository itemRepository;
     @Mock
     ItemRequestRepository itemRequestRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
     @Captor
     ArgumentCaptor<ItemRequest> requestCaptor;
 
@@ -223,7 +227,7 @@ public class ItemRequestServiceImplTest {
         when(itemRepository.findAllByRequestId(requestId)).thenReturn(items);
 
         //invoke tested method
-        ItemRequestOutDto result = itemRequestService.getRequestById(userId, requestId);
+        ItemRequestOutDto result = itemRequestService.getRequestById(userId, requestId, FieldSet.ALL);
 
         //verify invoke
         InOrder inOrder = inOrder(userRepository, itemRequestRepository, itemRepository);
@@ -266,7 +270,7 @@ public class ItemRequestServiceImplTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getRequestById(userId, requestId),
+                () -> itemRequestService.getRequestById(userId, requestId, FieldSet.ALL),
                 String.format("Пользователя с id %d не существует", userId));
 
         //verify invoke
@@ -296,7 +300,7 @@ public class ItemRequestServiceImplTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getRequestById(userId, requestId),
+                () -> itemRequestService.getRequestById(userId, requestId, FieldSet.ALL),
                 String.format("Запроса с id %d не существует", requestId));
 
         //verify invokes and their order
@@ -428,7 +432,7 @@ public class ItemRequestServiceImplTest {
         when(itemRepository.findAllByRequestIn(itemRequests)).thenReturn(allItems);
 
         //invoke tested method
-        List<ItemRequestOutDto> result = itemRequestService.getOwnRequests(requesterId);
+        List<ItemRequestOutDto> result = itemRequestService.getOwnRequests(requesterId, FieldSet.ALL);
 
         //verify invoke
         InOrder inOrder = inOrder(userRepository, itemRequestRepository, itemRepository);
@@ -476,7 +480,7 @@ public class ItemRequestServiceImplTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getOwnRequests(userId),
+                () -> itemRequestService.getOwnRequests(userId, FieldSet.ALL),
                 String.format("Пользователя с id %d не существует", userId));
 
         //verify invoke
@@ -593,7 +597,7 @@ public class ItemRequestServiceImplTest {
         when(itemRepository.findAllByRequestIn(itemRequests)).thenReturn(allItems);
 
         //invoke tested method
-        List<ItemRequestOutDto> result = itemRequestService.getOtherUsersRequests(ownerId, from, size);
+        List<ItemRequestOutDto> result = itemRequestService.getOtherUsersRequests(ownerId, from, size, FieldSet.ALL);
 
         //verify invoke
         InOrder inOrder = inOrder(userRepository, itemRequestRepository, itemRepository);
@@ -639,7 +643,7 @@ public class ItemRequestServiceImplTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getOtherUsersRequests(userId, from, size),
+                () -> itemRequestService.getOtherUsersRequests(userId, from, size, FieldSet.ALL),
                 String.format("Пользователя с id %d не существует", userId));
 
         //verify invoke
@@ -17,6 +17,7 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.util.fields.FieldSet;
 
 import java.util.Collections;
 import java.util.List;
@@ -74,7 +75,7 @@ public class ItemRequestServiceIntegrationTest {
                 .hasFieldOrPropertyWithValue("items", Collections.emptyList());
 
         //invoke tested method getByRequestId
-        ItemRequestOutDto resultByGet = itemRequestService.getRequestById(requesterId, requestId);
+        ItemRequestOutDto resultByGet = itemRequestService.getRequestById(requesterId, requestId, FieldSet.ALL);
 
         //check resultByGet
         assertThat(resultByGet)
@@ -132,7 +133,7 @@ public class ItemRequestServiceIntegrationTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getRequestById(requesterId, requestId),
+                () -> itemRequestService.getRequestById(requesterId, requestId, FieldSet.ALL),
                 String.format("Запроса с id %d не существует", requestId));
 
     }
@@ -231,7 +232,7 @@ public class ItemRequestServiceIntegrationTest {
         itemService.create(ownerId, itemDto3);
 
         //invoke tested method
-        List<ItemRequestOutDto> result = itemRequestService.getOwnRequests(requesterId);
+        List<ItemRequestOutDto> result = itemRequestService.getOwnRequests(requesterId, FieldSet.ALL);
 
         //check result
         assertThat(result).asList().hasSize(3);
@@ -271,7 +272,7 @@ public class ItemRequestServiceIntegrationTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getOtherUsersRequests(requesterId, from, size),
+                () -> itemRequestService.getOtherUsersRequests(requesterId, from, size, FieldSet.ALL),
                 String.format("Пользователя с id %d не существует", requesterId));
 
     }
@@ -370,7 +371,7 @@ public class ItemRequestServiceIntegrationTest {
         itemService.create(ownerId, itemDto3);
 
         //invoke tested method
-        List<ItemRequestOutDto> result = itemRequestService.getOtherUsersRequests(ownerId, from, size);
+        List<ItemRequestOutDto> result = itemRequestService.getOtherUsersRequests(ownerId, from, size, FieldSet.ALL);
 
         assertThat(result).asList().hasSize(3);
 
@@ -408,7 +409,7 @@ public class ItemRequestServiceIntegrationTest {
 
         //invoke tested method to check throws
         assertThrows(ObjectNotFoundException.class,
-                () -> itemRequestService.getOtherUsersRequests(requesterId, from, size),
+                () -> itemRequestService.getOtherUsersRequests(requesterId, from, size, FieldSet.ALL),
                 String.format("Пользователя с id %d не существует", requesterId));
 
     }
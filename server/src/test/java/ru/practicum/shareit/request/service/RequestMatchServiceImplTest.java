@@ -0,0 +1,158 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.repository.ItemTermRepository;
+import ru.practicum.shareit.request.dto.RequestMatchOutDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * RequestMatchServiceImpl tests
+ */
+@ExtendWith(MockitoExtension.class)
+public class RequestMatchServiceImplTest {
+
+    @InjectMocks
+    RequestMatchServiceImpl requestMatchService;
+    @Mock
+    RequestMatchRepository requestMatchRepository;
+    @Mock
+    ItemTermRepository itemTermRepository;
+    @Mock
+    ItemRequestRepository itemRequestRepository;
+    @Mock
+    UserRepository userRepository;
+    @Captor
+    ArgumentCaptor<Collection<String>> termsCaptor;
+    @Captor
+    ArgumentCaptor<List<RequestMatch>> matchesCaptor;
+
+    Long requesterId;
+    Long requestId;
+    Long ownerId;
+
+    @BeforeEach
+    void before() {
+        ReflectionTestUtils.setField(requestMatchService, "minTermLength", 3);
+        ReflectionTestUtils.setField(requestMatchService, "maxTermLength", 100);
+        ReflectionTestUtils.setField(requestMatchService, "maxTerms", 50);
+        ReflectionTestUtils.setField(requestMatchService, "maxMatches", 20);
+        requesterId = 1L;
+        requestId = 1L;
+        ownerId = 2L;
+    }
+
+    /**
+     * matchRequest method test
+     * when owners with similar items are found
+     * should look up request's terms and save notification for each owner
+     */
+    @Test
+    void matchRequest_whenOwnersFound_thenSaveMatchesWithScores() {
+
+        ItemRequest request = ItemRequest.builder().id(requestId).description("Need a Bike, or a scooter").build();
+        User owner = User.builder().id(ownerId).name("Olga").email("Olga@yandex.ru").build();
+
+        when(itemTermRepository.findOwnersByTerms(any(), eq(requesterId), eq(PageRequest.of(0, 20))))
+                .thenReturn(List.<Object[]>of(new Object[]{ownerId, 2L}));
+        when(itemRequestRepository.getReferenceById(requestId)).thenReturn(request);
+        when(userRepository.getReferenceById(ownerId)).thenReturn(owner);
+
+        requestMatchService.matchRequest(new ItemRequestCreatedEvent(requestId, requesterId,
+                "Need a Bike, or a scooter"));
+
+        verify(itemTermRepository).findOwnersByTerms(termsCaptor.capture(), eq(requesterId), any());
+        assertEquals(Set.of("need", "bike", "scooter"), Set.copyOf(termsCaptor.getValue()));
+
+        verify(requestMatchRepository).saveAll(matchesCaptor.capture());
+        List<RequestMatch> matches = matchesCaptor.getValue();
+        assertEquals(1, matches.size());
+        assertEquals(owner, matches.get(0).getOwner());
+        assertEquals(request, matches.get(0).getRequest());
+        assertEquals(2, matches.get(0).getScore());
+    }
+
+    /**
+     * matchRequest method test
+     * when description has no terms
+     * should not look up the index
+     */
+    @Test
+    void matchRequest_whenNoTerms_thenDoesNotLookUpIndex() {
+
+        requestMatchService.matchRequest(new ItemRequestCreatedEvent(requestId, requesterId, "a, b"));
+
+        verify(itemTermRepository, never()).findOwnersByTerms(any(), any(), any());
+        verify(requestMatchRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * getMatches method test
+     * when user exists
+     * should return owner's matches
+     */
+    @Test
+    void getMatches_whenUserExists_thenReturnMatches() {
+
+        ItemRequest request = ItemRequest.builder()
+                .id(requestId)
+                .description("Need a bike")
+                .created(LocalDateTime.now())
+                .build();
+        RequestMatch match = RequestMatch.builder()
+                .id(1L)
+                .request(request)
+                .owner(User.builder().id(ownerId).build())
+                .score(1)
+                .created(LocalDateTime.now())
+                .build();
+
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(requestMatchRepository.findAllByOwnerIdOrderByCreatedDescScoreDesc(ownerId, PageRequest.of(0, 10)))
+                .thenReturn(List.of(match));
+
+        List<RequestMatchOutDto> result = requestMatchService.getMatches(ownerId, 0, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(requestId, result.get(0).getRequestId());
+        assertEquals("Need a bike", result.get(0).getDescription());
+    }
+
+    /**
+     * getMatches method test
+     * when user doesn't exist
+     * then throws ObjectNotFoundException
+     */
+    @Test
+    void getMatches_whenUserNotFound_thenThrowsObjectNotFoundException() {
+
+        when(userRepository.existsById(ownerId)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> requestMatchService.getMatches(ownerId, 0, 10));
+        verify(requestMatchRepository, never()).findAllByOwnerIdOrderByCreatedDescScoreDesc(any(), any());
+    }
+
+}
@@ -10,9 +10,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.hot.HotItemTracker;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.etag.EntityTagService;
+import ru.practicum.shareit.util.idempotency.IdempotencyStore;
 
 import java.util.List;
 
@@ -37,6 +40,12 @@ public class UserControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private UserService userService;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+    @MockBean
+    private IdempotencyStore idempotencyStore;
 
     Long userId;
     MediaType jsonType;
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.util.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * h2c and compression tests
+ * the server runs with "h2c" profile's settings, requests are sent as the gateway sends them (JDK HttpClient)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-http2",
+        "server.http2.enabled=true"})
+@DirtiesContext
+public class Http2IntegrationTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * test h2c upgrade and compression
+     * should upgrade the connection by the first request, multiplex concurrent requests over HTTP/2
+     * and compress large responses for the client accepting gzip only
+     */
+    @Test
+    @SneakyThrows
+    public void requests_AreMultiplexedOverH2c_AndLargeResponsesAreCompressed() {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        HttpResponse<String> first = client.send(request("/users").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(HttpClient.Version.HTTP_2, first.version());
+
+        List<CompletableFuture<HttpResponse<String>>> created = IntStream.range(0, 40)
+                .mapToObj(i -> client.sendAsync(request("/users")
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"name\":\"user" + i + "\",\"email\":\"user" + i + "@yandex.ru\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        for (CompletableFuture<HttpResponse<String>> response : created) {
+            assertEquals(200, response.join().statusCode());
+            assertEquals(HttpClient.Version.HTTP_2, response.join().version());
+        }
+
+        HttpResponse<byte[]> compressed = client.send(request("/users")
+                        .header("Accept-Encoding", "gzip")
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElse(null));
+        byte[] users = new GZIPInputStream(new ByteArrayInputStream(compressed.body())).readAllBytes();
+        assertEquals(40, objectMapper.readTree(users).size());
+        assertTrue(compressed.body().length < users.length);
+
+        HttpResponse<String> plain = client.send(request("/users").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(40, objectMapper.readTree(plain.body()).size());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.util.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static ru.practicum.shareit.util.config.SmileEncodingTest.JSON_MAPPER;
+import static ru.practicum.shareit.util.config.SmileEncodingTest.SMILE_MAPPER;
+
+/**
+ * Smile and JSON encodings of the responses read by the gateway: encoding and decoding time
+ * payloads and mappers are the ones of SmileEncodingTest; times are logged, not checked:
+ * run by "benchmark" profile (mvn test -Pbenchmark -pl server) alone for stable numbers
+ */
+@Slf4j
+@Tag("benchmark")
+public class SmileEncodingBenchmarkTest {
+
+    private static final int WARMUP = 1_000;
+    private static final int ITERATIONS = 2_000;
+
+    /**
+     * page of the bookings with their items and bookers ("/bookings?size=50")
+     */
+    @Test
+    public void bookingsPage_LogTimes() {
+        measure("bookings page", SmileEncodingTest.bookingsPage());
+    }
+
+    /**
+     * list of the items with their bookings, latest comments and counters ("/items?size=50")
+     */
+    @Test
+    public void itemsList_LogTimes() {
+        measure("items list", SmileEncodingTest.itemsList());
+    }
+
+    @SneakyThrows
+    private void measure(String payload, Object value) {
+        byte[] json = JSON_MAPPER.writeValueAsBytes(value);
+        byte[] smile = SMILE_MAPPER.writeValueAsBytes(value);
+
+        log.info("{}: JSON {} bytes, encode {} us, decode {} us; Smile {} bytes, encode {} us, decode {} us",
+                payload,
+                json.length, encodeMicros(JSON_MAPPER, value), decodeMicros(JSON_MAPPER, json),
+                smile.length, encodeMicros(SMILE_MAPPER, value), decodeMicros(SMILE_MAPPER, smile));
+    }
+
+    @SneakyThrows
+    private static double encodeMicros(ObjectMapper mapper, Object value) {
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+    }
+
+    @SneakyThrows
+    private static double decodeMicros(ObjectMapper mapper, byte[] body) {
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readValue(body, Object.class);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(body, Object.class);
+        }
+        return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.util.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.ItemCountersDto;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Smile and JSON encodings of the responses read by the gateway: payload size and decoded value
+ * mappers are built as the application's ones (see WebConfig), decoding is into maps and lists as the gateway does;
+ * encoding and decoding time is measured by SmileEncodingBenchmarkTest
+ */
+public class SmileEncodingTest {
+
+    static final ObjectMapper JSON_MAPPER = builder().build();
+    static final ObjectMapper SMILE_MAPPER = builder().factory(new SmileFactory()).build();
+
+    /**
+     * page of the bookings with their items and bookers ("/bookings?size=50")
+     * Smile should be smaller and decode to the same value
+     */
+    @Test
+    public void bookingsPage_SmileIsSmaller() {
+        compare(bookingsPage());
+    }
+
+    /**
+     * list of the items with their bookings, latest comments and counters ("/items?size=50")
+     * Smile should be smaller and decode to the same value
+     */
+    @Test
+    public void itemsList_SmileIsSmaller() {
+        compare(itemsList());
+    }
+
+    static List<BookingOutDto> bookingsPage() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return LongStream.rangeClosed(1, 50)
+                .mapToObj(id -> BookingOutDto.builder()
+                        .id(id)
+                        .start(start.plusDays(id))
+                        .end(start.plusDays(id + 1))
+                        .status(BookingStatus.APPROVED)
+                        .booker(User.builder().id(id % 7).name("Olga").email("olga@yandex.ru").build())
+                        .item(Item.builder().id(id % 11).name("bike").description("old mountain bike")
+                                .available(true).owner(User.builder().id(1L).name("Alex").email("alex@ya.ru").build())
+                                .build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    static List<ItemOutDto> itemsList() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return LongStream.rangeClosed(1, 50)
+                .mapToObj(id -> ItemOutDto.builder()
+                        .id(id)
+                        .name("bike " + id)
+                        .description("old mountain bike, good brakes")
+                        .available(true)
+                        .lastBooking(BookingItemDto.builder().id(id * 2).bookerId(3L).build())
+                        .nextBooking(BookingItemDto.builder().id(id * 2 + 1).bookerId(4L).build())
+                        .comments(LongStream.rangeClosed(1, 5)
+                                .mapToObj(comment -> CommentOutDto.builder()
+                                        .id(id * 10 + comment)
+                                        .text("nice bike, thanks")
+                                        .authorName("Olga")
+                                        .itemId(id)
+                                        .created(created.plusHours(comment))
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .commentCount(5L)
+                        .counters(ItemCountersDto.builder().bookings(12L).approvals(10L).comments(5L).build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @SneakyThrows
+    private static void compare(Object value) {
+        byte[] json = JSON_MAPPER.writeValueAsBytes(value);
+        byte[] smile = SMILE_MAPPER.writeValueAsBytes(value);
+
+        assertEquals(JSON_MAPPER.readValue(json, Object.class), SMILE_MAPPER.readValue(smile, Object.class));
+        assertTrue(smile.length < json.length);
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Read replica integration tests
+ * the replica is a second in-memory H2 database with the same schema, nothing is replicated to it,
+ * so reads from the replica don't see the writes
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.enabled=true",
+        "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:shareit-replica;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test",
+        "shareit.datasource.replica-lag.check-interval-ms=600000",
+        "spring.jpa.open-in-view=false",
+        "spring.jpa.properties.hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION"})
+@DirtiesContext
+public class ReplicaDataSourceIntegrationTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    @Test
+    void readOnlyService_readsReplica_whileReplicaIsAvailable_elsePrimary() {
+
+        UserDto created = userService.create(UserDto.builder().name("Olga").email("replica@yandex.ru").build());
+
+        replicaLagMonitor.check();
+        assertTrue(userService.findAll().stream().noneMatch(user -> user.getId().equals(created.getId())));
+
+        replicaLagMonitor.markUnavailable("test");
+        assertEquals(1, userService.findAll().stream().filter(user -> user.getId().equals(created.getId())).count());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.util.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReplicaRoutingDataSource tests
+ * two in-memory H2 databases stand in for the primary and the replica, each knows its own name
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    DriverManagerDataSource primary;
+    DriverManagerDataSource replica;
+    JdbcTemplate primaryJdbc;
+    JdbcTemplate replicaJdbc;
+    ReplicaLagMonitor monitor;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readWrite;
+    TransactionTemplate readOnly;
+
+    @BeforeEach
+    void before() {
+        primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        for (JdbcTemplate jdbc : new JdbcTemplate[]{primaryJdbc, replicaJdbc}) {
+            jdbc.execute("CREATE TABLE source (name VARCHAR(16))");
+            jdbc.execute("CREATE TABLE replica_lag (lag BIGINT)");
+        }
+        primaryJdbc.update("INSERT INTO source VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO source VALUES ('replica')");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+        monitor = new ReplicaLagMonitor(replica, "SELECT lag FROM replica_lag", 1000);
+        monitor.check();
+        route(replica);
+    }
+
+    @AfterEach
+    void after() {
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransaction_isRoutedToReplica_otherTransactionToPrimary() {
+        assertEquals("replica", readOnly.execute(status -> readSource()));
+        assertEquals("primary", readWrite.execute(status -> readSource()));
+        assertEquals("primary", readSource());
+    }
+
+    @Test
+    void whenLagExceedsTolerance_readOnlyTransactionIsRoutedToPrimary_untilReplicaCatchesUp() {
+        replicaJdbc.update("UPDATE replica_lag SET lag = 5000");
+        monitor.check();
+
+        assertFalse(monitor.isAvailable());
+        assertEquals("primary", readOnly.execute(status -> readSource()));
+
+        replicaJdbc.update("UPDATE replica_lag SET lag = 10");
+        monitor.check();
+
+        assertTrue(monitor.isAvailable());
+        assertEquals("replica", readOnly.execute(status -> readSource()));
+    }
+
+    @Test
+    void whenReplicaRefusesConnection_readOnlyTransactionFallsBackToPrimary() {
+        route(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/missing"));
+
+        assertEquals("primary", readOnly.execute(status -> readSource()));
+        assertFalse(monitor.isAvailable());
+    }
+
+    @Test
+    void untilFirstCheck_readOnlyTransactionIsRoutedToPrimary() {
+        monitor = new ReplicaLagMonitor(replica, "SELECT lag FROM replica_lag", 1000);
+        route(replica);
+
+        assertEquals("primary", readOnly.execute(status -> readSource()));
+    }
+
+    private void route(DataSource replicaDataSource) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replicaDataSource, monitor));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String readSource() {
+        return jdbcTemplate.queryForObject("SELECT name FROM source", String.class);
+    }
+}
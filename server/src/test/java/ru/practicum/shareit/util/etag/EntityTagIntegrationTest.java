@@ -0,0 +1,84 @@
+package ru.practicum.shareit.util.etag;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.util.constants.Constants.HEADER_USER_ID;
+
+/**
+ * conditional GET of the item with the tag returned by the plain GET
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-etag")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class EntityTagIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    /**
+     * when the item is read without If-None-Match
+     * then the response has its tag, and the tag sent back answers 304.NOT_MODIFIED until the item changes
+     */
+    @SneakyThrows
+    @Test
+    void getById_TagOfPlainGet_AnswersNotModified() {
+        UserDto owner = userService.create(UserDto.builder().name("Olga").email("olga@yandex.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("bike").description("new").available(true).build());
+
+        String etag = read(mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andReturn())
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HEADER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        itemService.update(owner.getId(), ItemDto.builder().description("old").build(), item.getId());
+
+        String changed = read(mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HEADER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn())
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(changed);
+        assertNotEquals(etag, changed);
+    }
+
+    @SneakyThrows
+    private MvcResult read(MvcResult result) {
+        MvcResult done = result.getRequest().isAsyncStarted()
+                ? mockMvc.perform(asyncDispatch(result)).andReturn()
+                : result;
+        status().isOk().match(done);
+        return done;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.util.etag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCounterServiceImpl;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EntityTagServiceImpl tests
+ */
+@DataJpaTest
+@Import({EntityTagServiceImpl.class, ItemCounterServiceImpl.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class EntityTagServiceImplTest {
+    @Autowired
+    EntityTagService entityTagService;
+    @Autowired
+    TestEntityManager em;
+    User owner;
+    User booker;
+    ItemRequest request;
+    Item item;
+    Booking booking;
+
+    /**
+     * create records in database to test
+     */
+    @BeforeEach
+    public void beforeEach() {
+        owner = em.persist(User.builder().name("Olga").email("Olga@yandex.ru").build());
+        booker = em.persist(User.builder().name("Alex").email("Alex@yandex.ru").build());
+        request = em.persist(ItemRequest.builder().description("need bike").requester(booker)
+                .created(LocalDateTime.now()).build());
+        item = em.persist(Item.builder().name("bike").description("old").available(true)
+                .owner(owner).request(request).build());
+        booking = em.persist(Booking.builder().start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2)).item(item).booker(booker)
+                .status(BookingStatus.WAITING).build());
+        em.flush();
+    }
+
+    /**
+     * test getItemTag method
+     * tag should be stable while nothing changes
+     * tag should change when item is updated or comment is added
+     */
+    @Test
+    public void getItemTag_changesOnItemUpdateAndNewComment() {
+        String tag = entityTagService.getItemTag(booker.getId(), item.getId());
+        assertNotNull(tag);
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+        assertEquals(tag, entityTagService.getItemTag(booker.getId(), item.getId()));
+
+        item.setDescription("very old");
+        em.flush();
+        String updatedTag = entityTagService.getItemTag(booker.getId(), item.getId());
+        assertNotEquals(tag, updatedTag);
+
+        em.persist(Comment.builder().text("good").author(booker).item(item).created(LocalDateTime.now()).build());
+        em.flush();
+        assertNotEquals(updatedTag, entityTagService.getItemTag(booker.getId(), item.getId()));
+    }
+
+    /**
+     * test getItemTag method
+     * owner's tag should change when the next booking is approved
+     * tag of the other users should not
+     */
+    @Test
+    public void getItemTag_ownerTagChangesOnApprovedBooking() {
+        String ownerTag = entityTagService.getItemTag(owner.getId(), item.getId());
+        String bookerTag = entityTagService.getItemTag(booker.getId(), item.getId());
+
+        booking.setStatus(BookingStatus.APPROVED);
+        em.flush();
+
+        assertNotEquals(ownerTag, entityTagService.getItemTag(owner.getId(), item.getId()));
+        assertEquals(bookerTag, entityTagService.getItemTag(booker.getId(), item.getId()));
+    }
+
+    /**
+     * test getItemTag method
+     * when item doesn't exist should return null
+     */
+    @Test
+    public void getItemTag_WhenItemNotFound_returnNull() {
+        assertNull(entityTagService.getItemTag(owner.getId(), 100L));
+    }
+
+    /**
+     * test getBookingTag method
+     * tag should change when booking's status or booker are updated
+     * when user is neither booker nor owner should return null
+     */
+    @Test
+    public void getBookingTag_changesOnUpdates_andNullForOtherUsers() {
+        String tag = entityTagService.getBookingTag(booker.getId(), booking.getId());
+        assertNotNull(tag);
+        assertEquals(tag, entityTagService.getBookingTag(owner.getId(), booking.getId()));
+
+        booking.setStatus(BookingStatus.APPROVED);
+        em.flush();
+        String approvedTag = entityTagService.getBookingTag(booker.getId(), booking.getId());
+        assertNotEquals(tag, approvedTag);
+
+        booker.setName("Alexey");
+        em.flush();
+        assertNotEquals(approvedTag, entityTagService.getBookingTag(booker.getId(), booking.getId()));
+
+        User other = em.persist(User.builder().name("Ivan").email("Ivan@yandex.ru").build());
+        assertNull(entityTagService.getBookingTag(other.getId(), booking.getId()));
+    }
+
+    /**
+     * test getRequestTag method
+     * tag should change when answering item is updated or added
+     * when user doesn't exist should return null
+     */
+    @Test
+    public void getRequestTag_changesOnItemsUpdates_andNullForUnknownUser() {
+        String tag = entityTagService.getRequestTag(owner.getId(), request.getId());
+        assertNotNull(tag);
+
+        item.setAvailable(false);
+        em.flush();
+        String updatedTag = entityTagService.getRequestTag(owner.getId(), request.getId());
+        assertNotEquals(tag, updatedTag);
+
+        em.persist(Item.builder().name("new bike").description("new").available(true)
+                .owner(owner).request(request).build());
+        em.flush();
+        assertNotEquals(updatedTag, entityTagService.getRequestTag(owner.getId(), request.getId()));
+
+        assertNull(entityTagService.getRequestTag(100L, request.getId()));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.util.idempotency;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CachedBodyRequest tests
+ */
+public class CachedBodyRequestTest {
+
+    /**
+     * test setReadListener method
+     * when a listener is set on the input stream of the request
+     * should notify the listener that the body is available and read
+     */
+    @Test
+    @SneakyThrows
+    void setReadListener_whenBodyIsCached_thenNotifyListener() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"description\":\"bike\"}".getBytes(StandardCharsets.UTF_8));
+        ServletInputStream input = new CachedBodyRequest(request).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("available");
+                byte[] buffer = new byte[8];
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(buffer, 0, input.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("read");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of("available", "read"), calls);
+        assertEquals("{\"description\":\"bike\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * test setReadListener method
+     * when the listener fails to read the body
+     * should pass the failure to the listener
+     */
+    @Test
+    @SneakyThrows
+    void setReadListener_whenListenerFails_thenNotifyListenerOfError() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(new byte[]{1});
+        List<String> calls = new ArrayList<>();
+
+        new CachedBodyRequest(request).getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                throw new IOException("read failed");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("read");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add(t.getMessage());
+            }
+        });
+
+        assertEquals(List.of("read failed"), calls);
+    }
+
+}
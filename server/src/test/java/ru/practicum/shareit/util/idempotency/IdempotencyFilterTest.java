@@ -0,0 +1,211 @@
+package ru.practicum.shareit.util.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.item.hot.HotItemTracker;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.service.RequestMatchService;
+import ru.practicum.shareit.util.etag.EntityTagService;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * IdempotencyFilter tests on POST "/requests" end-point
+ * keys are stored in the database by IdempotencyStoreImpl
+ */
+@WebMvcTest(controllers = ItemRequestController.class)
+@AutoConfigureDataJpa
+@AutoConfigureTestDatabase
+@Import(IdempotencyStoreImpl.class)
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private ItemRequestService itemRequestService;
+    @MockBean
+    private RequestMatchService requestMatchService;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+
+    String body;
+    ItemRequestOutDto itemRequest;
+
+    @BeforeEach
+    @SneakyThrows
+    void before() {
+        body = objectMapper.writeValueAsString(ItemRequestDto.builder().description("I would like rent bike").build());
+        itemRequest = ItemRequestOutDto.builder()
+                .id(1L)
+                .description("I would like rent bike")
+                .created(LocalDateTime.now())
+                .items(Collections.emptyList())
+                .build();
+    }
+
+    /**
+     * when request is repeated with the same key
+     * then service is invoked once and the stored response is replayed
+     */
+    @SneakyThrows
+    @Test
+    void post_whenKeyIsRepeated_thenInvokeServiceOnce_AndReplayResponse() {
+
+        when(itemRequestService.create(anyLong(), any())).thenReturn(itemRequest);
+
+        String first = create(1L, "key-1")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = create(1L, "key-1")
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        verify(itemRequestService, times(1)).create(anyLong(), any());
+        assertEquals(first, second);
+    }
+
+    /**
+     * when the same key is used by different users or without key
+     * then every request is executed
+     */
+    @SneakyThrows
+    @Test
+    void post_whenKeyIsUsedByOtherUser_orKeyIsAbsent_thenInvokeServiceEveryTime() {
+
+        when(itemRequestService.create(anyLong(), any())).thenReturn(itemRequest);
+
+        create(1L, "key-4").andExpect(status().isOk());
+        create(2L, "key-4").andExpect(status().isOk());
+        create(1L, null).andExpect(status().isOk());
+        create(1L, null).andExpect(status().isOk());
+
+        verify(itemRequestService, times(4)).create(anyLong(), any());
+    }
+
+    /**
+     * when the duplicate arrives while the first request is in progress
+     * then the duplicate waits for the first execution and gets its response
+     */
+    @SneakyThrows
+    @Test
+    void post_whenDuplicateIsConcurrent_thenWaitForFirstExecution() {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemRequestService.create(anyLong(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return itemRequest;
+        });
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> statusOf(1L, "key-2"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> duplicate = CompletableFuture.supplyAsync(() -> statusOf(1L, "key-2"));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertEquals(200, first.get(5, TimeUnit.SECONDS));
+        assertEquals(200, duplicate.get(5, TimeUnit.SECONDS));
+        verify(itemRequestService, times(1)).create(anyLong(), any());
+    }
+
+    /**
+     * when the first execution fails with server error
+     * then the key is released and the retry is executed
+     */
+    @SneakyThrows
+    @Test
+    void post_whenFirstExecutionFails_thenRetryIsExecuted() {
+
+        when(itemRequestService.create(anyLong(), any()))
+                .thenThrow(new RuntimeException("database is unavailable"))
+                .thenReturn(itemRequest);
+
+        create(1L, "key-3").andExpect(status().isInternalServerError());
+        create(1L, "key-3").andExpect(status().isOk());
+
+        verify(itemRequestService, times(2)).create(anyLong(), any());
+    }
+
+    /**
+     * when the key is repeated with other body
+     * then status is unprocessable entity and the stored response is not replayed
+     */
+    @SneakyThrows
+    @Test
+    void post_whenKeyIsRepeatedWithOtherBody_thenStatusIsUnprocessableEntity() {
+
+        when(itemRequestService.create(anyLong(), any())).thenReturn(itemRequest);
+
+        create(1L, "key-5").andExpect(status().isOk());
+        body = objectMapper.writeValueAsString(ItemRequestDto.builder().description("I would like rent car").build());
+        create(1L, "key-5")
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(itemRequestService, times(1)).create(anyLong(), any());
+    }
+
+    /**
+     * when key is too long
+     * then status is bad request and service is not invoked
+     */
+    @SneakyThrows
+    @Test
+    void post_whenKeyIsTooLong_thenStatusIsBadRequest() {
+
+        create(1L, "k".repeat(256)).andExpect(status().isBadRequest());
+
+        verify(itemRequestService, never()).create(anyLong(), any());
+    }
+
+    @SneakyThrows
+    private ResultActions create(Long userId, String key) {
+        var request = post("/requests")
+                .header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        if (key != null) {
+            request.header("Idempotency-Key", key);
+        }
+        return mockMvc.perform(request);
+    }
+
+    @SneakyThrows
+    private int statusOf(Long userId, String key) {
+        return create(userId, key).andReturn().getResponse().getStatus();
+    }
+
+}
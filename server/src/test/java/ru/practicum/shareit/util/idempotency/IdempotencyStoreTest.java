@@ -0,0 +1,114 @@
+package ru.practicum.shareit.util.idempotency;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IdempotencyStoreImpl tests
+ * another instance of the server is another instance of the store over the same database
+ */
+@DataJpaTest
+@Import(IdempotencyStoreImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class IdempotencyStoreTest {
+    @Autowired
+    IdempotencyStoreImpl store;
+    @Autowired
+    IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * test claim, complete and getResponse methods
+     * when the key is claimed by one instance
+     * then the other one waits for its response and gets it after the completion
+     */
+    @Test
+    void claim_whenKeyIsClaimedByOtherInstance_thenGetItsResponse() {
+        IdempotencyStoreImpl other = new IdempotencyStoreImpl(idempotencyRecordRepository, transactionManager,
+                60_000, 60_000);
+
+        String token = store.claim("key", "fingerprint");
+        assertNotNull(token);
+        assertNull(other.claim("key", "fingerprint"));
+        assertEquals(Optional.empty(), other.getResponse("key"));
+
+        store.complete("key", token, new StoredResponse(201, "application/json",
+                "{}".getBytes(StandardCharsets.UTF_8)));
+
+        assertNull(other.claim("key", "fingerprint"));
+        StoredResponse response = other.getResponse("key").orElseThrow();
+        assertEquals(201, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), response.getBody());
+    }
+
+    /**
+     * test claim method
+     * when the key is live for another request
+     * then throw IdempotencyKeyReusedException
+     */
+    @Test
+    void claim_whenFingerprintDiffers_thenThrowIdempotencyKeyReusedException() {
+        store.claim("key", "fingerprint");
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> store.claim("key", "other"));
+    }
+
+    /**
+     * test release method
+     * when the execution releases the key
+     * then the key is claimed again, while the release by an expired claim is ignored
+     */
+    @Test
+    void release_whenKeyIsReleased_thenClaimAgain() {
+        String token = store.claim("key", "fingerprint");
+        store.release("key", "other token");
+        assertNull(store.claim("key", "fingerprint"));
+
+        store.release("key", token);
+
+        assertNotNull(store.claim("key", "fingerprint"));
+    }
+
+    /**
+     * test claim and deleteExpired methods
+     * when the lease of the pending key expires
+     * then the key is claimed by the retry, the late response of the first execution isn't stored,
+     * and the pending key isn't deleted before its lease expires
+     */
+    @SneakyThrows
+    @Test
+    void claim_whenPendingKeyIsExpired_thenClaimAgain() {
+        IdempotencyStoreImpl stopped = new IdempotencyStoreImpl(idempotencyRecordRepository, transactionManager,
+                60_000, 20);
+        String token = stopped.claim("expired", "fingerprint");
+        store.claim("pending", "fingerprint");
+
+        Thread.sleep(50);
+        store.deleteExpired();
+
+        assertFalse(idempotencyRecordRepository.existsById("expired"));
+        assertTrue(idempotencyRecordRepository.existsById("pending"));
+
+        stopped.claim("expired", "fingerprint");
+        Thread.sleep(50);
+        String retry = store.claim("expired", "other");
+        assertNotNull(retry);
+        stopped.complete("expired", token, new StoredResponse(200, null, new byte[0]));
+        assertEquals(Optional.empty(), store.getResponse("expired"));
+    }
+}
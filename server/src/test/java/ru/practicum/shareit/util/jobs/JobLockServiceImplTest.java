@@ -0,0 +1,65 @@
+package ru.practicum.shareit.util.jobs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JobLockServiceImpl tests
+ * another instance of the server is another instance of the service over the same database
+ */
+@DataJpaTest
+@Import(JobLockServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class JobLockServiceImplTest {
+    @Autowired
+    JobLockServiceImpl jobLockService;
+    @Autowired
+    JobLockRepository jobLockRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * test tryLock and unlock methods
+     * two instances take the lock of the job
+     * should let only one of them hold it until it's released
+     */
+    @Test
+    public void tryLock_whenLockIsHeld_thenOtherInstanceWaitsForUnlock() {
+        JobLockServiceImpl other = new JobLockServiceImpl(jobLockRepository, transactionManager);
+
+        assertTrue(jobLockService.tryLock("job", Duration.ofMinutes(1)));
+        assertFalse(other.tryLock("job", Duration.ofMinutes(1)));
+        assertFalse(jobLockService.tryLock("job", Duration.ofMinutes(1)));
+        assertTrue(other.tryLock("another-job", Duration.ofMinutes(1)));
+
+        other.unlock("job");
+        assertFalse(other.tryLock("job", Duration.ofMinutes(1)));
+        jobLockService.unlock("job");
+        assertTrue(other.tryLock("job", Duration.ofMinutes(1)));
+    }
+
+    /**
+     * test tryLock method
+     * the instance holding the lock stopped without releasing it
+     * should let another instance take the lock after it expires
+     */
+    @Test
+    public void tryLock_whenLockIsExpired_thenTakeIt() {
+        JobLockServiceImpl other = new JobLockServiceImpl(jobLockRepository, transactionManager);
+
+        assertTrue(jobLockService.tryLock("job", Duration.ZERO));
+        assertTrue(other.tryLock("job", Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.util.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ShardingAspect tests
+ * routes of the repositories are checked without shards
+ */
+public class ShardingAspectTest {
+
+    private final ShardingAspect aspect = new ShardingAspect(new ShardRouter(3), null, null, null);
+
+    /**
+     * test validate method
+     * when results of the shards can be merged
+     * should accept the repository
+     */
+    @Test
+    void validate_whenResultsAreMergeable_acceptRepository() {
+        assertDoesNotThrow(() -> aspect.validate(repository(MergeableRepository.class)));
+    }
+
+    /**
+     * test validate method
+     * when page is merged by several keys, entity is scattered, method isn't routed or replicated write is declared
+     * should throw exception at startup
+     */
+    @Test
+    void validate_whenMethodCannotBeRouted_throwException() {
+        assertThrows(IllegalStateException.class, () -> aspect.validate(repository(PageByKeysRepository.class)));
+        assertThrows(IllegalStateException.class, () -> aspect.validate(repository(ScatteredEntityRepository.class)));
+        assertThrows(IllegalStateException.class, () -> aspect.validate(repository(NotRoutedRepository.class)));
+        assertThrows(IllegalStateException.class, () -> aspect.validate(repository(DeclaredDeleteRepository.class)));
+    }
+
+    private Object repository(Class<?> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> null);
+    }
+
+    @Sharded
+    interface MergeableRepository extends Repository<Item, Long> {
+        @ShardBy
+        List<Item> findAllByIdIn(Collection<Long> ids);
+
+        @ScatterGather(orderBy = "id")
+        Page<Item> findAllByAvailableTrue(Pageable page);
+
+        @ScatterGather
+        long countByAvailableTrue();
+    }
+
+    @Sharded
+    interface PageByKeysRepository extends Repository<Item, Long> {
+        @ShardBy
+        Page<Item> findAllByIdIn(Collection<Long> ids, Pageable page);
+    }
+
+    @Sharded
+    interface ScatteredEntityRepository extends Repository<Item, Long> {
+        @ScatterGather
+        Item findFirstByName(String name);
+    }
+
+    @Sharded
+    interface NotRoutedRepository extends Repository<Item, Long> {
+        List<Item> findAllByName(String name);
+    }
+
+    @Replicated("users")
+    interface DeclaredDeleteRepository extends Repository<User, Long> {
+        void deleteByEmail(String email);
+    }
+}
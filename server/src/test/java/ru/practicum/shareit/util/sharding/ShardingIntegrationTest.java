@@ -0,0 +1,274 @@
+package ru.practicum.shareit.util.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.service.OutboxDispatcher;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.etag.EntityTagService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sharding integration tests
+ * shards are three in-memory H2 databases, recreated for each test
+ */
+@SpringBootTest(properties = {
+        "shareit.sharding.enabled=true",
+        "shareit.sharding.urls=jdbc:h2:mem:shareit-shard0,jdbc:h2:mem:shareit-shard1,jdbc:h2:mem:shareit-shard2",
+        "shareit.sharding.username=test",
+        "shareit.sharding.password=test",
+        "spring.jpa.open-in-view=false",
+        "shareit.outbox.flush-interval-ms=3600000",
+        "shareit.sharding.replication-retry-interval-ms=3600000",
+        "spring.jpa.properties.hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ShardingIntegrationTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemRequestService itemRequestService;
+    @Autowired
+    EntityTagService entityTagService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ShardRouter shardRouter;
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+    @Autowired
+    OutboxDispatcher outboxDispatcher;
+    @Autowired
+    ShardReplicator shardReplicator;
+
+    @Test
+    void itemsAndBookings_storedByOwnersShard_bookersListMergedFromAllShards() {
+
+        UserDto booker = userService.create(UserDto.builder().name("Booker").email("booker@shard.ru").build());
+        List<ItemDto> items = new ArrayList<>();
+        List<UserDto> owners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserDto owner = userService.create(UserDto.builder().name("Owner" + i).email(i + "@shard.ru").build());
+            owners.add(owner);
+            items.add(itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Item" + i).description("Description" + i).available(true).build()));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            int shard = shardRouter.shardOf(owners.get(i).getId());
+            assertEquals(shard, shardRouter.shardOf(items.get(i).getId()));
+            for (int j = 0; j < 3; j++) {
+                assertEquals(j == shard ? 1 : 0, shard(j).queryForObject(
+                        "SELECT COUNT(*) FROM items WHERE id = ?", Integer.class, items.get(i).getId()));
+            }
+        }
+        for (int j = 0; j < 3; j++) {
+            assertEquals(4, shard(j).queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingOutDto> bookings = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            bookings.add(bookingService.create(booker.getId(), BookingDto.builder()
+                    .itemId(items.get(i % 3).getId())
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i).plusMinutes(30))
+                    .build()));
+        }
+        List<Long> expected = bookings.stream()
+                .sorted(Comparator.comparing(BookingOutDto::getStart).reversed())
+                .map(BookingOutDto::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, ids(bookingService.getListByBooker(booker.getId(), BookingState.ALL, 0, 10)));
+        assertEquals(expected.subList(2, 4),
+                ids(bookingService.getListByBooker(booker.getId(), BookingState.FUTURE, 2, 2)));
+        assertEquals(List.of(bookings.get(4).getId(), bookings.get(1).getId()),
+                ids(bookingService.getListByOwner(owners.get(1).getId(), BookingState.ALL, 0, 10)));
+        assertEquals(items.get(2).getId(),
+                bookingService.getById(owners.get(2).getId(), bookings.get(5).getId()).getItem().getId());
+    }
+
+    @Test
+    void usersAndRequests_replicatedToAllShards_andDeletedFromAllShards() {
+
+        UserDto requester = userService.create(UserDto.builder().name("Requester").email("requester@shard.ru")
+                .build());
+        userService.update(UserDto.builder().name("Renamed").build(), requester.getId());
+        ItemRequestOutDto request = itemRequestService.create(requester.getId(),
+                ItemRequestDto.builder().description("I would like rent bike").build());
+
+        for (int j = 0; j < 3; j++) {
+            assertEquals("Renamed", shard(j).queryForObject(
+                    "SELECT name FROM users WHERE id = ?", String.class, requester.getId()));
+            assertEquals(1, shard(j).queryForObject(
+                    "SELECT COUNT(*) FROM requests WHERE id = ?", Integer.class, request.getId()));
+        }
+
+        userService.deleteById(requester.getId());
+
+        for (int j = 0; j < 3; j++) {
+            assertEquals(0, shard(j).queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, requester.getId()));
+        }
+    }
+
+    @Test
+    void replicationToFailedShard_keptAndRetried() {
+
+        shard(2).execute("ALTER TABLE users ADD CONSTRAINT ck_users_test CHECK (name <> 'Broken')");
+
+        UserDto user = userService.create(UserDto.builder().name("Broken").email("broken@shard.ru").build());
+
+        assertEquals(1, shard(1).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, user.getId()));
+        assertEquals(0, shard(2).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, user.getId()));
+        assertEquals(1, shard(0).queryForObject(
+                "SELECT COUNT(*) FROM replication_tasks WHERE shard = 2", Integer.class));
+
+        shard(2).execute("ALTER TABLE users DROP CONSTRAINT ck_users_test");
+        shardReplicator.replicate();
+
+        assertEquals("Broken", shard(2).queryForObject(
+                "SELECT name FROM users WHERE id = ?", String.class, user.getId()));
+        assertEquals(0, shard(0).queryForObject("SELECT COUNT(*) FROM replication_tasks", Integer.class));
+    }
+
+    @Test
+    void requestTag_countsAnsweringItemsOfAllShards() {
+
+        UserDto requester = userService.create(UserDto.builder().name("Requester").email("tag@shard.ru").build());
+        ItemRequestOutDto request = itemRequestService.create(requester.getId(),
+                ItemRequestDto.builder().description("I would like rent pram").build());
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserDto owner = userService.create(UserDto.builder().name("Owner" + i).email(i + "@tag.ru").build());
+            items.add(itemService.create(owner.getId(), ItemDto.builder().name("Pram" + i)
+                    .description("Description" + i).available(true).requestId(request.getId()).build()));
+        }
+        long lastItemId = items.stream().mapToLong(ItemDto::getId).max().orElseThrow();
+
+        String tag = entityTagService.getRequestTag(requester.getId(), request.getId());
+        assertEquals("\"request-" + request.getId() + "-0-3-" + lastItemId + "-0\"", tag);
+
+        ItemDto remote = items.stream()
+                .filter(item -> shardRouter.shardOf(item.getId()) != ShardRouter.HOME)
+                .findFirst()
+                .orElseThrow();
+        itemService.update(ownerOf(remote), ItemDto.builder().name("Renamed").build(), remote.getId());
+
+        assertNotEquals(tag, entityTagService.getRequestTag(requester.getId(), request.getId()));
+    }
+
+    @Test
+    void writeOfOtherShard_inBoundTransaction_failsWithoutCommit() {
+
+        UserDto owner = remoteOwner();
+        Long ownerId = owner.getId();
+        ItemDto item = itemService.create(ownerId, ItemDto.builder()
+                .name("Bike").description("Description").available(true).build());
+        int itemShard = shardRouter.shardOf(item.getId());
+
+        assertThrows(IllegalStateException.class, () -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    User user = userRepository.findById(ownerId).orElseThrow();
+                    assertEquals(ShardRouter.HOME, shardRoutingDataSource.getBoundShard());
+                    Item remote = itemRepository.findById(item.getId()).orElseThrow();
+                    remote.setName("Renamed");
+                    itemRepository.save(remote);
+                    user.setName("Renamed");
+                    userRepository.save(user);
+                }));
+
+        assertEquals("Bike", shard(itemShard).queryForObject(
+                "SELECT name FROM items WHERE id = ?", String.class, item.getId()));
+        assertEquals(owner.getName(), shard(ShardRouter.HOME).queryForObject(
+                "SELECT name FROM users WHERE id = ?", String.class, ownerId));
+    }
+
+    @Test
+    void bookingOfRemoteItem_andItsEvents_committedByItemsShard() {
+
+        UserDto owner = remoteOwner();
+        UserDto booker = userService.create(UserDto.builder().name("Booker").email("booker@remote.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Bike").description("Description").available(true).build());
+        int itemShard = shardRouter.shardOf(item.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BookingOutDto booking = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId()).start(start).end(start.plusHours(1)).build());
+        bookingService.updateStatus(booking.getId(), owner.getId(), true);
+
+        for (int j = 0; j < 3; j++) {
+            assertEquals(j == itemShard ? 2 : 0, shard(j).queryForObject(
+                    "SELECT COUNT(*) FROM outbox_events WHERE aggregate_type = 'BOOKING' AND aggregate_id = ?",
+                    Integer.class, booking.getId()));
+            assertEquals(j == itemShard ? 2 : 0, shard(j).queryForObject(
+                    "SELECT COUNT(*) FROM booking_events WHERE booking_id = ?", Integer.class, booking.getId()));
+        }
+
+        outboxDispatcher.dispatch();
+
+        for (int j = 0; j < 3; j++) {
+            assertEquals(0, shard(j).queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+        }
+    }
+
+    private UserDto remoteOwner() {
+        UserDto owner = null;
+        for (int i = 0; owner == null || shardRouter.shardOf(owner.getId()) == ShardRouter.HOME; i++) {
+            owner = userService.create(UserDto.builder().name("Remote" + i).email(i + "@remote.ru").build());
+        }
+        return owner;
+    }
+
+    private Long ownerOf(ItemDto item) {
+        return shard(shardRouter.shardOf(item.getId())).queryForObject(
+                "SELECT owner FROM items WHERE id = ?", Long.class, item.getId());
+    }
+
+    private JdbcTemplate shard(int index) {
+        return new JdbcTemplate(shardRoutingDataSource.getShards().get(index));
+    }
+
+    private List<Long> ids(List<BookingOutDto> bookings) {
+        return bookings.stream().map(BookingOutDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.config.HibernateStatisticsConfig;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HibernateQueryMeters tests
+ * statistics are enabled, no more than two queries are measured
+ */
+@DataJpaTest(properties = {
+        "shareit.hibernate.statistics.enabled=true",
+        "shareit.hibernate.statistics.max-queries=2"})
+@Import({HibernateStatisticsConfig.class, SimpleMeterRegistry.class})
+public class HibernateQueryMetersTest {
+
+    @Autowired
+    private HibernateQueryMeters hibernateQueryMeters;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    /**
+     * test register method
+     * when a repository's query is executed, then two more queries
+     * should register the meters of the query tagged by its text and stop at two queries
+     */
+    @Test
+    void register_whenQueriesAreExecuted_thenMeasureThemUpToLimit() {
+        userRepository.findByEmailAndIdIsNot("olga@yandex.ru", 1L);
+        hibernateQueryMeters.register();
+
+        Collection<FunctionTimer> timers = meterRegistry.get("hibernate.query.execution").functionTimers();
+        assertEquals(1, timers.size());
+        FunctionTimer timer = timers.iterator().next();
+        assertTrue(timer.getId().getTag("query").contains("User"));
+        assertEquals(1, timer.count());
+        assertEquals(1, meterRegistry.get("hibernate.query.execution.max")
+                .tag("query", timer.getId().getTag("query")).timeGauges().size());
+
+        itemRepository.findAllByOwnerIdOrderById(1L);
+        itemRepository.findAllByRequestId(1L);
+        hibernateQueryMeters.register();
+        hibernateQueryMeters.register();
+
+        assertEquals(2, meterRegistry.get("hibernate.query.execution").functionTimers().size());
+        assertEquals(2, meterRegistry.get("hibernate.query.execution.rows").functionCounters().size());
+    }
+}
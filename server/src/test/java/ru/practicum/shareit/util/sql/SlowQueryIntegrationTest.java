@@ -0,0 +1,64 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * slow statements and Hibernate's statistics
+ * every statement is slow (threshold is 0 ms), statistics are enabled
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-slow-queries",
+        "shareit.slow-queries.threshold-ms=0",
+        "shareit.slow-queries.capacity=10",
+        "shareit.hibernate.statistics.enabled=true"})
+@DirtiesContext
+public class SlowQueryIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SlowQueryEndpoint slowQueryEndpoint;
+    @Autowired
+    private HibernateQueryMeters hibernateQueryMeters;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * when a user is created and the users are read
+     * then the statements are logged with their parameters' types and the service's methods calling them,
+     * entities and queries are measured
+     */
+    @Test
+    void createAndFindAll_StatementsAreLoggedAndMeasured() {
+        UserDto created = userService.create(UserDto.builder().name("Olga").email("olga@yandex.ru").build());
+        userService.findAll();
+        hibernateQueryMeters.register();
+
+        List<SlowQueryDto> queries = slowQueryEndpoint.slowQueries();
+        SlowQueryDto insert = queries.stream()
+                .filter(query -> query.getSql().contains("insert into users"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("[String, String, Long]", insert.getParameters());
+        assertEquals("UserServiceImpl.create", insert.getCaller());
+        assertTrue(queries.stream().anyMatch(query -> query.getSql().contains("from users")
+                && "UserServiceImpl.findAll".equals(query.getCaller())));
+        assertTrue(queries.indexOf(insert) > 0);
+
+        assertNotNull(created.getId());
+        assertTrue(meterRegistry.get("hibernate.entities.inserts").functionCounter().count() >= 1);
+        assertTrue(meterRegistry.get("hibernate.query.execution").functionTimers().stream()
+                .anyMatch(timer -> timer.getId().getTag("query").contains("User") && timer.count() >= 1));
+        assertTrue(meterRegistry.get("shareit.db.slow-queries").functionCounter().count() >= 2);
+    }
+}
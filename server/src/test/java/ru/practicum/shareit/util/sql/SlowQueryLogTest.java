@@ -0,0 +1,56 @@
+package ru.practicum.shareit.util.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SlowQueryLog tests
+ */
+public class SlowQueryLogTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * test add method
+     * more slow statements than the capacity are added
+     * should keep the last ones starting with the last one and count all of them,
+     * no caller is found outside of the application's classes
+     */
+    @Test
+    public void add_WhenCapacityIsExceeded_KeepLastStatements() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(3, 100);
+        slowQueryLog.bindTo(meterRegistry);
+
+        for (int i = 1; i <= 5; i++) {
+            slowQueryLog.add("select " + i, "[Long]", 0, TimeUnit.MILLISECONDS.toNanos(100 + i));
+        }
+
+        List<SlowQueryDto> queries = slowQueryLog.getQueries();
+        assertEquals(List.of("select 5", "select 4", "select 3"),
+                queries.stream().map(SlowQueryDto::getSql).collect(Collectors.toList()));
+        assertEquals(105.0, queries.get(0).getDurationMs());
+        assertEquals("[Long]", queries.get(0).getParameters());
+        assertNull(queries.get(0).getCaller());
+        assertEquals(5, meterRegistry.get("shareit.db.slow-queries").functionCounter().count());
+    }
+
+    /**
+     * test isSlow method
+     * should compare the statement's time with the threshold
+     */
+    @Test
+    public void isSlow_CompareWithThreshold() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(3, 100);
+
+        assertFalse(slowQueryLog.isSlow(TimeUnit.MILLISECONDS.toNanos(99)));
+        assertTrue(slowQueryLog.isSlow(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertTrue(slowQueryLog.getQueries().isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.util.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VirtualThreads tests
+ * on Java before 21 virtual-thread mode must fail at startup instead of silently using platform threads
+ */
+public class VirtualThreadsTest {
+
+    @Test
+    public void threadFactory_whenSupported_createsNamedVirtualThreads_elseThrows() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            assertThrows(IllegalStateException.class, () -> VirtualThreads.threadFactory("test-"));
+            return;
+        }
+        ThreadFactory threadFactory = VirtualThreads.threadFactory("test-");
+        Thread thread = threadFactory.newThread(() -> { });
+
+        assertEquals("test-0", thread.getName());
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+    }
+
+    @Test
+    public void newThreadPerTaskExecutor_whenSupported_executesTasks_elseThrows() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            assertThrows(IllegalStateException.class, () -> VirtualThreads.newThreadPerTaskExecutor("test-"));
+            return;
+        }
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+        Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+
+        assertEquals("test-0", name.get());
+        executor.shutdown();
+    }
+}
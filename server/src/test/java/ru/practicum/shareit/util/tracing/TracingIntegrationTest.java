@@ -0,0 +1,106 @@
+package ru.practicum.shareit.util.tracing;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_HEADER;
+import static ru.practicum.shareit.util.constants.Constants.TRACE_ID_MDC_KEY;
+
+/**
+ * trace ids and metrics exported to Prometheus
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-tracing")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DirtiesContext
+public class TracingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @SpyBean
+    private UserService userService;
+
+    /**
+     * when the gateway's request has a trace id
+     * then the worker executing the handler logs with it and the response returns it
+     */
+    @SneakyThrows
+    @Test
+    void create_WhenTraceIdIsPassed_WorkerHasItInMdc() {
+        AtomicReference<String> workerTraceId = new AtomicReference<>();
+        doAnswer(invocation -> {
+            workerTraceId.set(MDC.get(TRACE_ID_MDC_KEY));
+            return invocation.callRealMethod();
+        }).when(userService).create(any());
+
+        MvcResult result = mockMvc.perform(post("/users")
+                        .header(TRACE_ID_HEADER, "gateway-trace-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Olga\",\"email\":\"olga@yandex.ru\"}"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(TRACE_ID_HEADER, "gateway-trace-1"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        assertEquals("gateway-trace-1", workerTraceId.get());
+    }
+
+    /**
+     * when the request has no valid trace id
+     * then a new one is returned
+     */
+    @SneakyThrows
+    @Test
+    void getList_WhenTraceIdIsInvalid_NewOneIsReturned() {
+        mockMvc.perform(get("/users").header(TRACE_ID_HEADER, "bad id"))
+                .andExpect(header().string(TRACE_ID_HEADER, matchesPattern("[0-9a-f]{16}")));
+    }
+
+    /**
+     * when requests are served
+     * then latency histograms of the endpoints and timers of the repositories' methods are scraped
+     */
+    @SneakyThrows
+    @Test
+    void prometheus_HasEndpointHistogramsAndRepositoryTimers() {
+        MvcResult result = mockMvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        MvcResult scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(scrape))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{"
+                        + "application=\"shareit-server\",exception=\"None\",method=\"GET\",outcome=\"SUCCESS\","
+                        + "status=\"200\",uri=\"/users\",le=")))
+                .andExpect(content().string(matchesPattern("(?s).*spring_data_repository_invocations_seconds_count"
+                        + "\\{[^}]*method=\"findAll\",repository=\"UserRepository\"[^}]*} [1-9].*")))
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_bucket{")));
+    }
+}
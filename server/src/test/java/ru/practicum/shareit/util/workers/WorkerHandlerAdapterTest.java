@@ -0,0 +1,195 @@
+package ru.practicum.shareit.util.workers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOutDto;
+import ru.practicum.shareit.item.hot.HotItemTracker;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.config.WorkerConfig;
+import ru.practicum.shareit.util.etag.EntityTagService;
+import ru.practicum.shareit.util.exceptions.ObjectNotFoundException;
+import ru.practicum.shareit.util.fields.FieldSet;
+import ru.practicum.shareit.util.idempotency.IdempotencyStoreImpl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.util.constants.Constants.*;
+
+/**
+ * WorkerHandlerAdapter tests on "/items" end-points
+ * search pool has one thread and no queue, idempotency keys are stored in the test database
+ */
+@WebMvcTest(controllers = ItemController.class,
+        properties = {"shareit.workers.search.pool-size=1", "shareit.workers.search.queue-capacity=0"})
+@AutoConfigureDataJpa
+@AutoConfigureTestDatabase
+@Import({WorkerConfig.class, IdempotencyStoreImpl.class, WorkerHandlerAdapterTest.MetricsConfig.class})
+public class WorkerHandlerAdapterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private WorkerExecutors workerExecutors;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockBean
+    private ItemService itemService;
+    @MockBean
+    private EntityTagService entityTagService;
+    @MockBean
+    private HotItemTracker hotItemTracker;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    /**
+     * when item is read
+     * then the handler is executed by the read pool and the result is written on the async dispatch
+     */
+    @SneakyThrows
+    @Test
+    void getById_isExecutedByReadPool() {
+
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(itemService.getById(1L, 1L, FieldSet.ALL)).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return ItemOutDto.builder().id(1L).name("bike").build();
+        });
+
+        MvcResult result = mockMvc.perform(get("/items/1").header(HEADER_USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.name", is("bike")));
+
+        assertTrue(thread.get().startsWith("read-"));
+    }
+
+    /**
+     * when the handler executed by a worker throws
+     * then the error is handled as before
+     */
+    @SneakyThrows
+    @Test
+    void getById_whenItemIsNotFound_isStatusNotFound() {
+
+        when(itemService.getById(1L, 1L, FieldSet.ALL))
+                .thenThrow(new ObjectNotFoundException("Вещь с id: 1 не найдена"));
+
+        MvcResult result = mockMvc.perform(get("/items/1").header(HEADER_USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * when the search pool is full
+     * then search is rejected at once with 503 and quick reads are still executed
+     */
+    @SneakyThrows
+    @Test
+    void search_whenSearchPoolIsFull_isStatusServiceUnavailable() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        workerExecutors.execute(WorkerPool.SEARCH, () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        when(itemService.getById(1L, 1L, FieldSet.ALL)).thenReturn(ItemOutDto.builder().id(1L).build());
+
+        try {
+            mockMvc.perform(get("/items/search").param("text", "bike").header(HEADER_USER_ID, 1L))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isServiceUnavailable());
+            MvcResult read = mockMvc.perform(get("/items/1").header(HEADER_USER_ID, 1L))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(read))
+                    .andExpect(status().isOk());
+        } finally {
+            release.countDown();
+        }
+
+        verify(itemService, never()).searchItemsBySubstring(any(), any());
+        verify(hotItemTracker, times(1)).record(1L);
+        assertEquals(1.0, meterRegistry.get("shareit.workers.rejected").tag("pool", "search").counter().count());
+    }
+
+    /**
+     * when item is created by a worker and the request is repeated with the same Idempotency-Key
+     * then the response written on the async dispatch is stored and replayed
+     */
+    @SneakyThrows
+    @Test
+    void create_whenKeyIsRepeated_thenReplayResponseWrittenByWorker() {
+
+        ItemDto item = ItemDto.builder().name("bike").description("old").available(true).build();
+        when(itemService.create(any(), any())).thenReturn(item.toBuilder().id(1L).build());
+        String body = objectMapper.writeValueAsString(item);
+
+        MvcResult first = mockMvc.perform(post("/items")
+                        .header(HEADER_USER_ID, 1L)
+                        .header(IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String written = mockMvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String replayed = mockMvc.perform(post("/items")
+                        .header(HEADER_USER_ID, 1L)
+                        .header(IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string(IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(written, replayed);
+        verify(itemService, times(1)).create(any(), any());
+    }
+}